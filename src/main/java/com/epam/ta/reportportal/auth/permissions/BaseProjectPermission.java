@@ -24,7 +24,7 @@ package com.epam.ta.reportportal.auth.permissions;
 import com.epam.ta.reportportal.commons.Preconditions;
 import com.epam.ta.reportportal.commons.Predicates;
 import com.epam.ta.reportportal.commons.validation.BusinessRule;
-import com.epam.ta.reportportal.database.dao.ProjectRepository;
+import com.epam.ta.reportportal.core.project.ProjectCache;
 import com.epam.ta.reportportal.database.entity.Project;
 import com.epam.ta.reportportal.ws.model.ErrorType;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -47,7 +47,7 @@ abstract class BaseProjectPermission implements Permission {
 	 * lazily
 	 */
 	@Autowired
-	private Provider<ProjectRepository> projectRepository;
+	private Provider<ProjectCache> projectCache;
 
 	/**
 	 * Validates project exists and user assigned to project. After that
@@ -60,7 +60,7 @@ abstract class BaseProjectPermission implements Permission {
 		}
 
 		String project = (String) projectName;
-		Project p = projectRepository.get().findOne(project);
+		Project p = projectCache.get().get(project);
 		BusinessRule.expect(p, Predicates.notNull()).verify(ErrorType.PROJECT_NOT_FOUND, project);
 
 		BusinessRule.expect(p.getUsers(), Preconditions.containsKey(authentication.getName())).verify(ErrorType.ACCESS_DENIED);
@@ -21,18 +21,29 @@
 
 package com.epam.ta.reportportal.core.configs;
 
+import com.epam.ta.reportportal.database.dao.LogRepository;
+import com.epam.ta.reportportal.job.AttachmentPipeline;
+import com.epam.ta.reportportal.job.CreateThumbnailJob;
 import com.epam.ta.reportportal.job.SaveBinaryDataJob;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Scope;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
+import javax.inject.Provider;
+import java.nio.file.Paths;
+
 /**
  * Configs for beans related to job execution
  * 
@@ -41,6 +52,7 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
  */
 @Configuration
 @ComponentScan("com.epam.ta.reportportal.job")
+@EnableConfigurationProperties(JobsConfiguration.AttachmentPipelineConfig.class)
 public class JobsConfiguration {
 
 	@Bean
@@ -52,24 +64,66 @@ public class JobsConfiguration {
 		return scheduler;
 	}
 
-	@Bean(name = "saveLogsTaskExecutor")
-	public TaskExecutor saveLogsTaskExecutor() {
+	@Bean(name = "attachmentStorageTaskExecutor")
+	public TaskExecutor attachmentStorageTaskExecutor(AttachmentPipelineConfig config) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(config.storageThreads);
+		executor.setMaxPoolSize(config.storageThreads);
+		/* Queue is limited by amount of queued bytes in attachment pipeline */
+		executor.setQueueCapacity(Integer.MAX_VALUE);
+		executor.setAllowCoreThreadTimeOut(true);
+		executor.setThreadNamePrefix("attachment-storage-exec");
+		executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.AbortPolicy());
+		return executor;
+	}
+
+	@Bean(name = "attachmentSpoolTaskExecutor")
+	public TaskExecutor attachmentSpoolTaskExecutor(AttachmentPipelineConfig config) {
 		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-		executor.setCorePoolSize(20);
-		executor.setMaxPoolSize(200);
-		executor.setQueueCapacity(400);
+		executor.setCorePoolSize(config.spoolThreads);
+		executor.setMaxPoolSize(config.spoolThreads);
+		/* Queue is limited by amount of spooled bytes in attachment pipeline */
+		executor.setQueueCapacity(Integer.MAX_VALUE);
 		executor.setAllowCoreThreadTimeOut(true);
-		executor.setThreadNamePrefix("logs-task-exec");
-		executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
+		executor.setThreadNamePrefix("attachment-spool-exec");
+		executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.AbortPolicy());
 		return executor;
 	}
 
+	@Bean(name = "thumbnailTaskExecutor")
+	public TaskExecutor thumbnailTaskExecutor(AttachmentPipelineConfig config) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(config.thumbnailThreads);
+		executor.setMaxPoolSize(config.thumbnailThreads);
+		executor.setQueueCapacity(config.thumbnailQueueCapacity);
+		executor.setAllowCoreThreadTimeOut(true);
+		executor.setThreadNamePrefix("thumbnail-exec");
+		executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.AbortPolicy());
+		return executor;
+	}
+
+	@Bean
+	public AttachmentPipeline attachmentPipeline(AttachmentPipelineConfig config,
+			@Qualifier("attachmentStorageTaskExecutor") TaskExecutor storageExecutor,
+			@Qualifier("attachmentSpoolTaskExecutor") TaskExecutor spoolExecutor,
+			@Qualifier("thumbnailTaskExecutor") TaskExecutor thumbnailExecutor, Provider<SaveBinaryDataJob> saveBinaryDataJob,
+			Provider<CreateThumbnailJob> createThumbnailJob, LogRepository logRepository) {
+		return new AttachmentPipeline(storageExecutor, spoolExecutor, thumbnailExecutor, saveBinaryDataJob, createThumbnailJob, logRepository,
+				config.overflowPolicy, config.maxQueuedSize, config.maxSpooledSize, config.maxThumbnailSourceSize, Paths.get(config.spoolDirectory));
+	}
+
 	@Bean(name = "saveBinaryDataJob")
 	@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
 	public SaveBinaryDataJob saveBinaryDataJob() {
 		return new SaveBinaryDataJob();
 	}
 
+	@Bean(name = "createThumbnailJob")
+	@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
+	public CreateThumbnailJob createThumbnailJob() {
+		return new CreateThumbnailJob();
+	}
+
 	@EnableScheduling
 	public static class SchedulingConfiguration {
 	}
@@ -85,4 +139,147 @@ public class JobsConfiguration {
 		return threadPoolTaskExecutor;
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Executes post-finish processing of launches. Rejected launches stay in
+	 * the queue and are picked up later by recovery job
+	 */
+	@Bean(name = "launchFinishTaskExecutor")
+	public TaskExecutor launchFinishTaskExecutor() {
+		final ThreadPoolTaskExecutor threadPoolTaskExecutor = new ThreadPoolTaskExecutor();
+		threadPoolTaskExecutor.setCorePoolSize(5);
+		threadPoolTaskExecutor.setMaxPoolSize(10);
+		threadPoolTaskExecutor.setQueueCapacity(500);
+		threadPoolTaskExecutor.setAllowCoreThreadTimeOut(true);
+		threadPoolTaskExecutor.setThreadNamePrefix("launch-finish-exec");
+		threadPoolTaskExecutor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.AbortPolicy());
+		return threadPoolTaskExecutor;
+	}
+
+	/**
+	 * Executes chunks of single auto-analysis. Separated from
+	 * {@link #autoAnalyzeTaskExecutor()} since analysis task waits for its chunks.
+	 * Caller runs chunk itself once queue is full
+	 */
+	@Bean(name = "autoAnalyzeChunkExecutor")
+	public TaskExecutor autoAnalyzeChunkExecutor(@Value("${rp.issue.analyzer.threads:0}") int threads) {
+		int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+		final ThreadPoolTaskExecutor threadPoolTaskExecutor = new ThreadPoolTaskExecutor();
+		threadPoolTaskExecutor.setCorePoolSize(poolSize);
+		threadPoolTaskExecutor.setMaxPoolSize(poolSize);
+		threadPoolTaskExecutor.setQueueCapacity(1000);
+		threadPoolTaskExecutor.setAllowCoreThreadTimeOut(true);
+		threadPoolTaskExecutor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
+		threadPoolTaskExecutor.setThreadNamePrefix("auto-analyze-chunk");
+		return threadPoolTaskExecutor;
+	}
+
+	/**
+	 * Loads widgets of dashboard concurrently. Widgets rejected once queue is
+	 * full are reported as not loaded in time
+	 */
+	@Bean(name = "widgetContentTaskExecutor")
+	public AsyncTaskExecutor widgetContentTaskExecutor(@Value("${rp.widget.threads:10}") int threads) {
+		final ThreadPoolTaskExecutor threadPoolTaskExecutor = new ThreadPoolTaskExecutor();
+		threadPoolTaskExecutor.setCorePoolSize(threads);
+		threadPoolTaskExecutor.setMaxPoolSize(threads);
+		threadPoolTaskExecutor.setQueueCapacity(200);
+		threadPoolTaskExecutor.setAllowCoreThreadTimeOut(true);
+		threadPoolTaskExecutor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.AbortPolicy());
+		threadPoolTaskExecutor.setThreadNamePrefix("widget-content-exec");
+		return threadPoolTaskExecutor;
+	}
+
+	/**
+	 * Cleans logs of projects in parallel. Caller cleans project itself once
+	 * queue is full
+	 */
+	@Bean(name = "cleanLogsTaskExecutor")
+	public TaskExecutor cleanLogsTaskExecutor(@Value("${com.ta.reportportal.job.clean.logs.threads:4}") int threads) {
+		final ThreadPoolTaskExecutor threadPoolTaskExecutor = new ThreadPoolTaskExecutor();
+		threadPoolTaskExecutor.setCorePoolSize(threads);
+		threadPoolTaskExecutor.setMaxPoolSize(threads);
+		threadPoolTaskExecutor.setQueueCapacity(1000);
+		threadPoolTaskExecutor.setAllowCoreThreadTimeOut(true);
+		threadPoolTaskExecutor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
+		threadPoolTaskExecutor.setThreadNamePrefix("clean-logs-exec");
+		return threadPoolTaskExecutor;
+	}
+
+	/**
+	 * Recomputes content of hot shared widgets in background. Rejected
+	 * recomputations are loaded by request
+	 */
+	@Bean(name = "widgetPrecomputeTaskExecutor")
+	public TaskExecutor widgetPrecomputeTaskExecutor(@Value("${rp.widget.precompute.threads:2}") int threads) {
+		final ThreadPoolTaskExecutor threadPoolTaskExecutor = new ThreadPoolTaskExecutor();
+		threadPoolTaskExecutor.setCorePoolSize(threads);
+		threadPoolTaskExecutor.setMaxPoolSize(threads);
+		threadPoolTaskExecutor.setQueueCapacity(500);
+		threadPoolTaskExecutor.setAllowCoreThreadTimeOut(true);
+		threadPoolTaskExecutor.setThreadNamePrefix("widget-precompute-exec");
+		return threadPoolTaskExecutor;
+	}
+
+	/**
+	 * Backfills launch trend buckets after startup
+	 */
+	@Bean(name = "launchTrendBackfillTaskExecutor")
+	public TaskExecutor launchTrendBackfillTaskExecutor() {
+		final ThreadPoolTaskExecutor threadPoolTaskExecutor = new ThreadPoolTaskExecutor();
+		threadPoolTaskExecutor.setCorePoolSize(1);
+		threadPoolTaskExecutor.setMaxPoolSize(1);
+		threadPoolTaskExecutor.setQueueCapacity(1);
+		threadPoolTaskExecutor.setAllowCoreThreadTimeOut(true);
+		threadPoolTaskExecutor.setThreadNamePrefix("launch-trend-backfill-exec");
+		return threadPoolTaskExecutor;
+	}
+
+	@ConfigurationProperties("rp.upload.pipeline")
+	public static class AttachmentPipelineConfig {
+		int storageThreads = 20;
+		int spoolThreads = 4;
+		int thumbnailThreads = 4;
+		int thumbnailQueueCapacity = 1000;
+		long maxQueuedSize = 256 * 1024 * 1024;
+		long maxSpooledSize = 2048L * 1024 * 1024;
+		long maxThumbnailSourceSize = 64 * 1024 * 1024;
+		AttachmentPipeline.OverflowPolicy overflowPolicy = AttachmentPipeline.OverflowPolicy.SPOOL;
+		String spoolDirectory = System.getProperty("java.io.tmpdir") + "/rp-attachments";
+
+		public void setStorageThreads(int storageThreads) {
+			this.storageThreads = storageThreads;
+		}
+
+		public void setSpoolThreads(int spoolThreads) {
+			this.spoolThreads = spoolThreads;
+		}
+
+		public void setThumbnailThreads(int thumbnailThreads) {
+			this.thumbnailThreads = thumbnailThreads;
+		}
+
+		public void setThumbnailQueueCapacity(int thumbnailQueueCapacity) {
+			this.thumbnailQueueCapacity = thumbnailQueueCapacity;
+		}
+
+		public void setMaxQueuedSize(String maxQueuedSize) {
+			this.maxQueuedSize = MvcConfig.MultipartConfig.parseSize(maxQueuedSize);
+		}
+
+		public void setMaxSpooledSize(String maxSpooledSize) {
+			this.maxSpooledSize = MvcConfig.MultipartConfig.parseSize(maxSpooledSize);
+		}
+
+		public void setMaxThumbnailSourceSize(String maxThumbnailSourceSize) {
+			this.maxThumbnailSourceSize = MvcConfig.MultipartConfig.parseSize(maxThumbnailSourceSize);
+		}
+
+		public void setOverflowPolicy(AttachmentPipeline.OverflowPolicy overflowPolicy) {
+			this.overflowPolicy = overflowPolicy;
+		}
+
+		public void setSpoolDirectory(String spoolDirectory) {
+			this.spoolDirectory = spoolDirectory;
+		}
+	}
+}
@@ -26,6 +26,7 @@ import com.epam.ta.reportportal.database.dao.TestItemRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoOperations;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -35,11 +36,14 @@ public class MergeStrategyConfig {
     @Autowired
     private TestItemRepository testItemRepository;
 
+    @Autowired
+    private MongoOperations mongoOperations;
+
     @Bean
     public Map<MergeStrategyType, MergeStrategy> mapping() {
         Map<MergeStrategyType, MergeStrategy> mapping = new HashMap<>();
-        mapping.put(MergeStrategyType.TEST, new TestMergeStrategy(testItemRepository));
-        mapping.put(MergeStrategyType.SUITE, new SuiteMergeStrategy(testItemRepository));
+        mapping.put(MergeStrategyType.TEST, new TestMergeStrategy(testItemRepository, mongoOperations));
+        mapping.put(MergeStrategyType.SUITE, new SuiteMergeStrategy(testItemRepository, mongoOperations));
         return mapping;
     }
 
@@ -196,7 +196,7 @@ public class MvcConfig extends WebMvcConfigurerAdapter {
 			this.maxFileSize = parseSize(maxFileSize);
 		}
 
-		private long parseSize(String size) {
+		static long parseSize(String size) {
 			Preconditions.checkArgument(!isNullOrEmpty(size), "Size must not be empty");
 			size = size.toUpperCase();
 			if (size.endsWith("KB")) {
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.ta.reportportal.core.dashboard;
+
+import com.epam.ta.reportportal.ws.model.widget.WidgetResource;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Widgets of dashboard with their content. Widgets which are failed or not
+ * loaded in time are present in errors only
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class DashboardWidgetsResource {
+
+	/**
+	 * Widget ID -> widget
+	 */
+	@JsonProperty(value = "widgets")
+	private Map<String, WidgetResource> widgets = new LinkedHashMap<>();
+
+	/**
+	 * Widget ID -> error message
+	 */
+	@JsonProperty(value = "errors")
+	private Map<String, String> errors = new LinkedHashMap<>();
+
+	public Map<String, WidgetResource> getWidgets() {
+		return widgets;
+	}
+
+	public void setWidgets(Map<String, WidgetResource> widgets) {
+		this.widgets = widgets;
+	}
+
+	public Map<String, String> getErrors() {
+		return errors;
+	}
+
+	public void setErrors(Map<String, String> errors) {
+		this.errors = errors;
+	}
+}
@@ -46,6 +46,19 @@ public interface IGetDashboardHandler {
 	 */
 	DashboardResource getDashboard(String id, String userName, String projectName);
 
+	/**
+	 * Get widgets of dashboard with their content. Widgets are loaded
+	 * concurrently, widgets which are failed or not loaded in time are
+	 * returned as errors
+	 *
+	 * @param id
+	 * @param userName
+	 * @param projectName
+	 * @return {@link DashboardWidgetsResource}
+	 * @throws ReportPortalException
+	 */
+	DashboardWidgetsResource getDashboardWidgets(String id, String userName, String projectName);
+
 	/**
 	 * Get all dashboards.
 	 * 
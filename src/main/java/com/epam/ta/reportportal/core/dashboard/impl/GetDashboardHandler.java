@@ -24,7 +24,9 @@ package com.epam.ta.reportportal.core.dashboard.impl;
 import com.epam.ta.reportportal.commons.Predicates;
 import com.epam.ta.reportportal.commons.validation.BusinessRule;
 import com.epam.ta.reportportal.core.acl.AclUtils;
+import com.epam.ta.reportportal.core.dashboard.DashboardWidgetsResource;
 import com.epam.ta.reportportal.core.dashboard.IGetDashboardHandler;
+import com.epam.ta.reportportal.core.widget.IGetWidgetHandler;
 import com.epam.ta.reportportal.database.dao.DashboardRepository;
 import com.epam.ta.reportportal.database.entity.Dashboard;
 import com.epam.ta.reportportal.database.entity.sharing.Shareable;
@@ -33,15 +35,27 @@ import com.epam.ta.reportportal.ws.converter.DashboardResourceAssembler;
 import com.epam.ta.reportportal.ws.model.ErrorType;
 import com.epam.ta.reportportal.ws.model.SharedEntity;
 import com.epam.ta.reportportal.ws.model.dashboard.DashboardResource;
+import com.epam.ta.reportportal.ws.model.widget.WidgetResource;
 import com.google.common.collect.Lists;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.domain.Sort.Order;
 import org.springframework.stereotype.Service;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 /**
  * Default implementation of {@link IGetDashboardHandler}
@@ -52,26 +66,72 @@ import java.util.Map;
 @Service
 public class GetDashboardHandler implements IGetDashboardHandler {
 
+	private static final String NOT_LOADED_IN_TIME = "Widget content is not loaded in time";
+
 	private final DashboardRepository dashboardRepository;
 
 	private final DashboardResourceAssembler resourceAssembler;
 
+	private final IGetWidgetHandler getWidgetHandler;
+
+	private final AsyncTaskExecutor widgetTaskExecutor;
+
+	private final long widgetTimeout;
+
 	private final Sort creationDateSort;
 
 	@Autowired
-	public GetDashboardHandler(DashboardRepository dashboardRepository, DashboardResourceAssembler resourceAssembler) {
+	public GetDashboardHandler(DashboardRepository dashboardRepository, DashboardResourceAssembler resourceAssembler,
+			IGetWidgetHandler getWidgetHandler, @Qualifier("widgetContentTaskExecutor") AsyncTaskExecutor widgetTaskExecutor,
+			@Value("${rp.widget.timeout:30000}") long widgetTimeout) {
 		creationDateSort = new Sort(new Order(Direction.ASC, Dashboard.CREATION_DATE));
 		this.dashboardRepository = dashboardRepository;
 		this.resourceAssembler = resourceAssembler;
+		this.getWidgetHandler = getWidgetHandler;
+		this.widgetTaskExecutor = widgetTaskExecutor;
+		this.widgetTimeout = widgetTimeout;
 	}
 
 	@Override
 	public DashboardResource getDashboard(String dashboardId, String userName, String projectName) {
-		Dashboard dashboard = dashboardRepository.findOne(dashboardId);
-		BusinessRule.expect(dashboard, Predicates.notNull()).verify(ErrorType.DASHBOARD_NOT_FOUND, dashboardId);
-		AclUtils.isPossibleToRead(dashboard.getAcl(), userName, projectName);
-		BusinessRule.expect(dashboard.getProjectName(), Predicates.equalTo(projectName)).verify(ErrorType.ACCESS_DENIED);
-		return resourceAssembler.toResource(dashboard);
+		return resourceAssembler.toResource(findDashboard(dashboardId, userName, projectName));
+	}
+
+	@Override
+	public DashboardWidgetsResource getDashboardWidgets(String dashboardId, String userName, String projectName) {
+		Dashboard dashboard = findDashboard(dashboardId, userName, projectName);
+		List<String> widgetIds = null == dashboard.getWidgets() ?
+				Collections.emptyList() :
+				dashboard.getWidgets().stream().map(Dashboard.WidgetObject::getWidgetId).distinct().collect(Collectors.toList());
+
+		/* All widgets are loaded at once, so each of them has the same deadline */
+		long deadline = System.currentTimeMillis() + widgetTimeout;
+		DashboardWidgetsResource result = new DashboardWidgetsResource();
+		Map<String, Future<WidgetResource>> loading = new LinkedHashMap<>();
+		widgetIds.forEach(widgetId -> {
+			try {
+				loading.put(widgetId, widgetTaskExecutor.submit(() -> getWidgetHandler.getWidget(widgetId, userName, projectName)));
+			} catch (TaskRejectedException e) {
+				/* Loader threads are busy with other dashboards */
+				result.getErrors().put(widgetId, NOT_LOADED_IN_TIME);
+			}
+		});
+
+		loading.forEach((widgetId, widget) -> {
+			try {
+				result.getWidgets().put(widgetId, widget.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS));
+			} catch (TimeoutException e) {
+				/* Interrupts loading, so loader thread is released */
+				widget.cancel(true);
+				result.getErrors().put(widgetId, NOT_LOADED_IN_TIME);
+			} catch (ExecutionException e) {
+				result.getErrors().put(widgetId, e.getCause().getMessage());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				result.getErrors().put(widgetId, "Widget content loading is interrupted");
+			}
+		});
+		return result;
 	}
 
 	@Override
@@ -88,6 +148,14 @@ public class GetDashboardHandler implements IGetDashboardHandler {
 		return toMap(dashboards);
 	}
 
+	private Dashboard findDashboard(String dashboardId, String userName, String projectName) {
+		Dashboard dashboard = dashboardRepository.findOne(dashboardId);
+		BusinessRule.expect(dashboard, Predicates.notNull()).verify(ErrorType.DASHBOARD_NOT_FOUND, dashboardId);
+		AclUtils.isPossibleToRead(dashboard.getAcl(), userName, projectName);
+		BusinessRule.expect(dashboard.getProjectName(), Predicates.equalTo(projectName)).verify(ErrorType.ACCESS_DENIED);
+		return dashboard;
+	}
+
 	/**
 	 * Transform {@link List} of {@link Dashboard}s to {@link java.util.Map} where:<br>
 	 * <li>key - dashboard id,
@@ -22,6 +22,8 @@ package com.epam.ta.reportportal.core.item;
 
 import com.epam.ta.reportportal.commons.Preconditions;
 import com.epam.ta.reportportal.commons.validation.BusinessRuleViolationException;
+import com.epam.ta.reportportal.core.project.ProjectCache;
+import com.epam.ta.reportportal.core.statistics.DeferredStatisticsUpdater;
 import com.epam.ta.reportportal.core.statistics.StatisticsFacade;
 import com.epam.ta.reportportal.core.statistics.StatisticsFacadeFactory;
 import com.epam.ta.reportportal.database.dao.*;
@@ -66,17 +68,18 @@ import static com.epam.ta.reportportal.ws.model.ErrorType.*;
 @Service
 class FinishTestItemHandlerImpl implements FinishTestItemHandler {
 
-	private ProjectRepository projectRepository;
+	private ProjectCache projectCache;
 	private LaunchRepository launchRepository;
 	private TestItemRepository testItemRepository;
 	private StatisticsFacadeFactory statisticsFacadeFactory;
 	private FailReferenceResourceRepository issuesRepository;
 	private Provider<FailReferenceResourceBuilder> failReferenceResourceBuilder;
 	private ExternalSystemRepository externalSystemRepository;
+	private DeferredStatisticsUpdater deferredStatisticsUpdater;
 
 	@Autowired
-	public void setProjectRepository(ProjectRepository projectRepository) {
-		this.projectRepository = projectRepository;
+	public void setProjectCache(ProjectCache projectCache) {
+		this.projectCache = projectCache;
 	}
 
 	@Autowired
@@ -109,16 +112,26 @@ class FinishTestItemHandlerImpl implements FinishTestItemHandler {
 		this.externalSystemRepository = externalSystemRepository;
 	}
 
+	@Autowired
+	public void setDeferredStatisticsUpdater(DeferredStatisticsUpdater deferredStatisticsUpdater) {
+		this.deferredStatisticsUpdater = deferredStatisticsUpdater;
+	}
+
 	@Override
 	public OperationCompletionRS finishTestItem(String testItemId, FinishTestItemRQ finishExecutionRQ, String username) {
 		TestItem testItem = verifyTestItem(testItemId, finishExecutionRQ, fromValue(finishExecutionRQ.getStatus()));
+		if (deferredStatisticsUpdater.isEnabled() && testItem.hasChilds()) {
+			/* Status of item with descendants may be resolved from statistics, so it should be up to date */
+			deferredStatisticsUpdater.flush(testItem.getLaunchRef());
+			testItem = testItemRepository.findOne(testItemId);
+		}
 		testItem.setEndTime(finishExecutionRQ.getEndTime());
 
 		Launch launch = launchRepository.findOne(testItem.getLaunchRef());
 		expect(launch, notNull()).verify(LAUNCH_NOT_FOUND, testItem.getLaunchRef());
 		if (!launch.getUserRef().equalsIgnoreCase(username))
 			fail().withError(FINISH_ITEM_NOT_ALLOWED, "You are not launch owner.");
-		final Project project = projectRepository.findOne(launch.getProjectRef());
+		final Project project = projectCache.get(launch.getProjectRef());
 
 		Optional<Status> actualStatus = fromValue(finishExecutionRQ.getStatus());
 		Issue providedIssue = finishExecutionRQ.getIssue();
@@ -143,9 +156,13 @@ class FinishTestItemHandlerImpl implements FinishTestItemHandler {
 
 		try {
 			testItemRepository.save(testItem);
-			testItem = statisticsFacade.updateExecutionStatistics(testItem);
-			if (null != testItem.getIssue()) {
-				statisticsFacade.updateIssueStatistics(testItem);
+			if (deferredStatisticsUpdater.isEnabled()) {
+				deferredStatisticsUpdater.record(testItem, statisticsFacade, project.getConfiguration());
+			} else {
+				testItem = statisticsFacade.updateExecutionStatistics(testItem);
+				if (null != testItem.getIssue()) {
+					statisticsFacade.updateIssueStatistics(testItem);
+				}
 			}
 		} catch (Exception e) {
 			throw new ReportPortalException("Error during updating TestItem " + e.getMessage(), e);
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.epam.ta.reportportal.core.item;
+
+import com.epam.ta.reportportal.database.entity.item.TestItem;
+
+import java.util.*;
+
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * Test items tree utilities. Items are linked by {@link TestItem#getParent()}
+ * or, if parent is not defined, by the last element of {@link TestItem#getPath()}
+ */
+public final class TestItemTree {
+
+	private TestItemTree() {
+		//statics only
+	}
+
+	/**
+	 * Orders items depth-first: every item is followed by its subtree. Siblings
+	 * keep the order of provided collection, so items sorted by start time give
+	 * the same order the launch was reported in. Items which parent is absent in
+	 * collection are considered as roots.<br>
+	 * Linear in amount of items and does not use recursion, so deep trees are safe.
+	 *
+	 * @param items Items of launch or of some subtree
+	 * @return Depth-first ordered items
+	 */
+	public static List<TestItem> depthFirst(Collection<TestItem> items) {
+		Set<String> ids = items.stream().map(TestItem::getId).collect(toSet());
+		Map<String, List<TestItem>> children = new HashMap<>();
+		List<TestItem> roots = new ArrayList<>();
+		for (TestItem item : items) {
+			String parent = parentOf(item);
+			if (null != parent && ids.contains(parent)) {
+				children.computeIfAbsent(parent, id -> new ArrayList<>()).add(item);
+			} else {
+				roots.add(item);
+			}
+		}
+
+		List<TestItem> result = new ArrayList<>(items.size());
+		Deque<Iterator<TestItem>> branch = new ArrayDeque<>();
+		branch.push(roots.iterator());
+		while (!branch.isEmpty()) {
+			Iterator<TestItem> level = branch.peek();
+			if (!level.hasNext()) {
+				branch.pop();
+				continue;
+			}
+			TestItem item = level.next();
+			result.add(item);
+			List<TestItem> itemChildren = children.get(item.getId());
+			if (null != itemChildren) {
+				branch.push(itemChildren.iterator());
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @param item Test item
+	 * @return ID of parent item or <b>null</b> for root item
+	 */
+	public static String parentOf(TestItem item) {
+		if (null != item.getParent()) {
+			return item.getParent();
+		}
+		List<String> path = item.getPath();
+		return null == path || path.isEmpty() ? null : path.get(path.size() - 1);
+	}
+}
@@ -24,6 +24,7 @@ package com.epam.ta.reportportal.core.item;
 import com.epam.ta.reportportal.commons.EntityUtils;
 import com.epam.ta.reportportal.commons.validation.BusinessRuleViolationException;
 import com.epam.ta.reportportal.commons.validation.Suppliers;
+import com.epam.ta.reportportal.core.project.ProjectCache;
 import com.epam.ta.reportportal.core.statistics.StatisticsFacadeFactory;
 import com.epam.ta.reportportal.database.dao.*;
 import com.epam.ta.reportportal.database.entity.ExternalSystem;
@@ -77,21 +78,21 @@ public class UpdateTestItemHandlerImpl implements UpdateTestItemHandler {
 	private final TestItemRepository testItemRepository;
 	private final StatisticsFacadeFactory statisticsFacadeFactory;
 	private final UserRepository userRepository;
-	private final ProjectRepository projectRepository;
+	private final ProjectCache projectCache;
 	private final LaunchRepository launchRepository;
 	private final ExternalSystemRepository externalSystemRepository;
 
 	@Autowired
 	public UpdateTestItemHandlerImpl(IIssuesAnalyzer analyzerService,
 			TestItemRepository testItemRepository, StatisticsFacadeFactory statisticsFacadeFactory, UserRepository userRepository,
-			ProjectRepository projectRepository, LaunchRepository launchRepository, ExternalSystemRepository externalSystemRepository,
+			ProjectCache projectCache, LaunchRepository launchRepository, ExternalSystemRepository externalSystemRepository,
 			ApplicationEventPublisher eventPublisher) {
 		this.analyzerService = analyzerService;
 		this.eventPublisher = eventPublisher;
 		this.testItemRepository = testItemRepository;
 		this.statisticsFacadeFactory = statisticsFacadeFactory;
 		this.userRepository = userRepository;
-		this.projectRepository = projectRepository;
+		this.projectCache = projectCache;
 		this.launchRepository = launchRepository;
 		this.externalSystemRepository = externalSystemRepository;
 	}
@@ -117,7 +118,7 @@ public class UpdateTestItemHandlerImpl implements UpdateTestItemHandler {
 						.formattedSupplier("Cannot update specified '{}' Test Item cause target Launch '{}' is processing by Auto-Analyze",
 								testItem.getId(), launch.getId()));
 
-				final Project project = projectRepository.findOne(launch.getProjectRef());
+				final Project project = projectCache.get(launch.getProjectRef());
 
 				Issue issue = issueDefinition.getIssue();
 				String issueType = verifyTestItemDefinedIssueType(issue.getIssueType(), project.getConfiguration());
@@ -234,7 +235,7 @@ public class UpdateTestItemHandlerImpl implements UpdateTestItemHandler {
 		expect(testItem, notNull()).verify(TEST_ITEM_NOT_FOUND, id);
 
 		Launch launch = launchRepository.findOne(testItem.getLaunchRef());
-		Project project = projectRepository.findOne(launch.getProjectRef());
+		Project project = projectCache.get(launch.getProjectRef());
 		String launchOwner = launch.getUserRef();
 		if (userRepository.findOne(userName).getRole() != UserRole.ADMINISTRATOR) {
 			expect(projectName, equalTo(project.getName())).verify(ACCESS_DENIED);
@@ -21,20 +21,32 @@
 
 package com.epam.ta.reportportal.core.item.merge.strategy;
 
+import com.epam.ta.reportportal.core.item.TestItemTree;
 import com.epam.ta.reportportal.database.dao.TestItemRepository;
 import com.epam.ta.reportportal.database.entity.item.TestItem;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static java.util.stream.Collectors.toList;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
 
 public abstract class AbstractSuiteMergeStrategy implements MergeStrategy {
     protected TestItemRepository testItemRepository;
+    protected MongoOperations mongoOperations;
 
-    public AbstractSuiteMergeStrategy(TestItemRepository testItemRepository) {
+    public AbstractSuiteMergeStrategy(TestItemRepository testItemRepository, MongoOperations mongoOperations) {
         this.testItemRepository = testItemRepository;
+        this.mongoOperations = mongoOperations;
     }
 
     @Override
@@ -42,17 +54,33 @@ public abstract class AbstractSuiteMergeStrategy implements MergeStrategy {
 
     public abstract boolean isTestItemAcceptableToMerge(TestItem item);
 
+    /**
+     * Moves whole subtree of source item under target item. Subtree is loaded
+     * once and processed depth-first, so every item gets path of already
+     * updated parent. Moved items are updated with single bulk operation.
+     */
     private TestItem moveAllChildTestItems(TestItem itemTarget, TestItem itemSource) {
-        for (TestItem childItem : testItemRepository.findAllDescendants(itemSource.getId())) {
-            childItem.setParent(itemTarget.getId());
-            childItem.setLaunchRef(itemTarget.getLaunchRef());
-
-            List<String> path = new ArrayList<>(itemTarget.getPath());
-            path.add(itemTarget.getId());
+        Query subtreeQuery = query(where("path").is(itemSource.getId())).with(new Sort(Sort.Direction.ASC, "startTime"));
+        subtreeQuery.fields().include("parent").include("path");
+        List<TestItem> subtree = TestItemTree.depthFirst(mongoOperations.find(subtreeQuery, TestItem.class));
+
+        /* New paths of children by ID of their parent */
+        Map<String, List<String>> childrenPaths = new HashMap<>();
+        childrenPaths.put(itemSource.getId(), childrenPath(itemTarget));
+        BulkOperations bulk = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, TestItem.class);
+        for (TestItem childItem : subtree) {
+            String parent = TestItemTree.parentOf(childItem);
+            List<String> path = childrenPaths.get(parent);
+            Update update = new Update().set("path", path).set("launchRef", itemTarget.getLaunchRef());
+            if (itemSource.getId().equals(parent)) {
+                update.set("parent", itemTarget.getId());
+            }
+            bulk.updateOne(query(where("_id").is(childItem.getId())), update);
             childItem.setPath(path);
-
-            setLaunchRefForChilds(childItem, itemTarget.getLaunchRef());
-            testItemRepository.save(childItem);
+            childrenPaths.put(childItem.getId(), childrenPath(childItem));
+        }
+        if (!subtree.isEmpty()) {
+            bulk.execute();
         }
         testItemRepository.delete(itemSource);
         return itemTarget;
@@ -64,19 +92,10 @@ public abstract class AbstractSuiteMergeStrategy implements MergeStrategy {
         return result;
     }
 
-    private void setLaunchRefForChilds(TestItem testItemParent, String launchRef) {
-        List<TestItem> childItems = testItemRepository.findAllDescendants(testItemParent.getId());
-
-        for (TestItem child : childItems) {
-            child.setLaunchRef(launchRef);
-            List<String> path = new ArrayList<>(testItemParent.getPath());
-            path.add(testItemParent.getId());
-            child.setPath(path);
-            testItemRepository.save(child);
-            if (child.hasChilds()) {
-                setLaunchRefForChilds(child, launchRef);
-            }
-        }
+    private static List<String> childrenPath(TestItem parent) {
+        List<String> path = new ArrayList<>(parent.getPath());
+        path.add(parent.getId());
+        return path;
     }
 
     private void mergeAllChildItems(TestItem testItemParent) {
@@ -25,6 +25,7 @@ import com.epam.ta.reportportal.database.dao.TestItemRepository;
 import com.epam.ta.reportportal.database.entity.item.TestItem;
 import com.epam.ta.reportportal.database.entity.item.TestItemType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoOperations;
 
 import java.util.List;
 import java.util.Set;
@@ -38,8 +39,8 @@ import static java.util.stream.Collectors.toSet;
 public class SuiteMergeStrategy extends AbstractSuiteMergeStrategy {
 
     @Autowired
-    public SuiteMergeStrategy(TestItemRepository testItemRepository) {
-        super(testItemRepository);
+    public SuiteMergeStrategy(TestItemRepository testItemRepository, MongoOperations mongoOperations) {
+        super(testItemRepository, mongoOperations);
     }
 
     @Override
@@ -25,14 +25,15 @@ import com.epam.ta.reportportal.database.dao.TestItemRepository;
 import com.epam.ta.reportportal.database.entity.item.TestItem;
 import com.epam.ta.reportportal.database.entity.item.TestItemType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoOperations;
 
 import java.util.List;
 
 public class TestMergeStrategy extends AbstractSuiteMergeStrategy {
 
     @Autowired
-    public TestMergeStrategy(TestItemRepository testItemRepository) {
-        super(testItemRepository);
+    public TestMergeStrategy(TestItemRepository testItemRepository, MongoOperations mongoOperations) {
+        super(testItemRepository, mongoOperations);
     }
 
     @Override
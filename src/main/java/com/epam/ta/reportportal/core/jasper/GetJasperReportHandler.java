@@ -49,14 +49,19 @@ import com.epam.ta.reportportal.database.entity.user.User;
 import com.epam.ta.reportportal.ws.model.ErrorType;
 import net.sf.jasperreports.engine.JREmptyDataSource;
 import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRParameter;
 import net.sf.jasperreports.engine.JasperExportManager;
 import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.data.JRBeanCollectionDataSource;
 import net.sf.jasperreports.engine.export.HtmlExporter;
 import net.sf.jasperreports.engine.export.JRXlsExporter;
+import net.sf.jasperreports.engine.fill.JRSwapFileVirtualizer;
+import net.sf.jasperreports.engine.util.JRSwapFile;
 import net.sf.jasperreports.export.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
@@ -103,17 +108,27 @@ public class GetJasperReportHandler implements IGetJasperReportHandler {
 	private final JasperReportRender reportRender;
 	private final JasperDataProvider dataProvider;
 
+	/* Launches with more test items are streamed from database and swapped to disk while rendered */
+	private final int streamingThreshold;
+	private final int virtualizerMaxPages;
+	private final String swapDirectory;
+
 	@Autowired
 	public GetJasperReportHandler(JasperReportRender reportRender, UserRepository userRepository, JasperDataProvider dataProvider,
-			LaunchRepository launchRepository) {
+			LaunchRepository launchRepository, @Value("${rp.jasper.streaming.threshold:5000}") int streamingThreshold,
+			@Value("${rp.jasper.virtualizer.maxPages:50}") int virtualizerMaxPages,
+			@Value("${rp.jasper.virtualizer.directory:${java.io.tmpdir}}") String swapDirectory) {
 		this.reportRender = com.google.common.base.Preconditions.checkNotNull(reportRender);
 		this.userRepository = com.google.common.base.Preconditions.checkNotNull(userRepository);
 		this.dataProvider = com.google.common.base.Preconditions.checkNotNull(dataProvider);
 		this.launchRepository = com.google.common.base.Preconditions.checkNotNull(launchRepository);
+		this.streamingThreshold = streamingThreshold;
+		this.virtualizerMaxPages = virtualizerMaxPages;
+		this.swapDirectory = swapDirectory;
 	}
 
 	@Override
-	public JasperPrint getLaunchDetails(String launchId, String username) {
+	public LaunchReport getLaunchDetails(String launchId, String username) {
 		Launch launch = launchRepository.findOne(launchId);
 		BusinessRule.expect(launch, Predicates.notNull()).verify(ErrorType.LAUNCH_NOT_FOUND, launchId);
 		BusinessRule.expect(launch, Predicates.not(Preconditions.IN_PROGRESS)).verify(ErrorType.FORBIDDEN_OPERATION,
@@ -127,8 +142,38 @@ public class GetJasperReportHandler implements IGetJasperReportHandler {
 			params.put(OWNER, owner.getFullName());
 		else
 			params.put(OWNER, user.getFullName());
-		params.put(TEST_ITEMS, dataProvider.getReportSource(launch));
-		return reportRender.generateReportPrint(params, new JREmptyDataSource());
+		if (countItems(launch) <= streamingThreshold) {
+			params.put(TEST_ITEMS, new JRBeanCollectionDataSource(dataProvider.getReportSource(launch), false));
+			return new LaunchReport(reportRender.generateReportPrint(params, new JREmptyDataSource()), null);
+		}
+
+		JRSwapFileVirtualizer virtualizer = new JRSwapFileVirtualizer(virtualizerMaxPages, new JRSwapFile(swapDirectory, 4096, 256), true);
+		params.put(JRParameter.REPORT_VIRTUALIZER, virtualizer);
+		try (TestItemTreeDataSource items = dataProvider.streamReportSource(launch)) {
+			params.put(TEST_ITEMS, items);
+			JasperPrint print = reportRender.generateReportPrint(params, new JREmptyDataSource());
+			/* Pages are not changed anymore, so there is no need to serialize them again on export */
+			virtualizer.setReadOnly(true);
+			return new LaunchReport(print, virtualizer);
+		} catch (RuntimeException e) {
+			virtualizer.cleanup();
+			throw e;
+		}
+	}
+
+	/**
+	 * Approximate amount of launch test items. Statistics contains leaf items only,
+	 * but it is enough to choose rendering mode
+	 *
+	 * @param launch Launch
+	 * @return Amount of items
+	 */
+	private static int countItems(Launch launch) {
+		if (null == launch.getStatistics() || null == launch.getStatistics().getExecutionCounter()) {
+			return 0;
+		}
+		Integer total = launch.getStatistics().getExecutionCounter().getTotal();
+		return null == total ? 0 : total;
 	}
 
 	@SuppressWarnings("OptionalGetWithoutIsPresent")
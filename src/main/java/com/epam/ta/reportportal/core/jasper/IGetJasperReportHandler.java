@@ -49,13 +49,14 @@ import java.io.OutputStream;
 public interface IGetJasperReportHandler {
 
 	/**
-	 * Generate rendered report representation.
+	 * Generate rendered report representation. Report should be closed
+	 * once it is written.
 	 *
 	 * @param launchId
 	 * @param username
-	 * @return JasperPrint
+	 * @return LaunchReport
 	 */
-	JasperPrint getLaunchDetails(String launchId, String username);
+	LaunchReport getLaunchDetails(String launchId, String username);
 
 	/**
 	 * Finds report format and checks whether it's valid
@@ -36,18 +36,16 @@
  */
 package com.epam.ta.reportportal.core.jasper;
 
+import com.epam.ta.reportportal.core.item.TestItemTree;
 import com.epam.ta.reportportal.database.dao.TestItemRepository;
 import com.epam.ta.reportportal.database.entity.Launch;
 import com.epam.ta.reportportal.database.entity.item.TestItem;
-import com.google.common.collect.Lists;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoOperations;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -56,91 +54,42 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * Initial {@see JRDataSource} provider class for RP Jasper Reports
  *
  * @author Andrei_Ramanchuk
- *
- * TODO Refactor recursive function
  */
 @Service("jasperDataProvider")
 public class JasperDataProvider {
 	private static final String PREFIX = "    ";
 
 	private TestItemRepository testItemRepository;
+	private MongoOperations mongoOperations;
 
 	@Autowired
-	public JasperDataProvider(TestItemRepository testItemRepository) {
+	public JasperDataProvider(TestItemRepository testItemRepository, MongoOperations mongoOperations) {
 		this.testItemRepository = checkNotNull(testItemRepository);
-	}
-
-	public List<TestItemPojo> getReportSource(Launch launch) {
-		List<TestItemPojo> result = Collections.emptyList();
-
-		/* Get launch referred test items with SORT! */
-		List<TestItem> ownedItems = testItemRepository.findByLaunch(launch);
-		if (ownedItems.size() > 0) {
-
-			/* Grouping test items by path field */
-			Map<List<String>, List<TestItem>> grouped = ownedItems
-					.stream()
-					.map(JasperDataProvider::adjustName)
-					.collect(Collectors.groupingBy(TestItem::getPath));
-
-			/* List of grouped test items by parent nodes */
-			List<TestItem> prepared = this.processLaunchTree(grouped, Lists.newArrayList());
-
-			result = prepared.stream().map(TestItemPojo::new).collect(Collectors.toList());
-		}
-		return result;
+		this.mongoOperations = checkNotNull(mongoOperations);
 	}
 
 	/**
-	 * Recursive method for Map processing and building user friendly beans tree for report.
+	 * Lazy alternative of {@link #getReportSource(Launch)} for large launches.
+	 * Items are read from database while report is filled, so data source
+	 * should be closed after filling.
 	 *
-	 * @param input
-	 * @param processing
-	 * @return List<TestItem> - processed list of test items ordered by levels and start time
+	 * @param launch Launch to be exported
+	 * @return Test items data source in the same order as {@link #getReportSource(Launch)}
 	 */
-	private List<TestItem> processLaunchTree(Map<List<String>, List<TestItem>> input, List<TestItem> processing) {
-		Map<List<String>, List<TestItem>> c = new LinkedHashMap<>(input);
-		List<String> currentKey = Lists.newArrayList();
-
-		/* Finally empty map */
-		if (c.get(Lists.newArrayList()).size() == 0) {
-			return processing;
-		}
-
-		/* First level ID */
-		TestItem zero = c.get(Lists.newArrayList()).get(0);
-		currentKey.add(zero.getId());
-		if (!processing.contains(zero)) {
-			processing.add(zero);
-		}
-
-		while ((null != c.get(currentKey)) && (c.get(currentKey).size() > 0)) {
-			List<TestItem> value = c.get(currentKey);
-
-			TestItem first = value.get(0);
-			if (!first.hasChilds()) {
-				value.stream().forEach(v -> {
-					if (!processing.contains(v))
-						processing.add(v);
-				});
-				c.remove(currentKey);
-			} else {
-				if (!processing.contains(first))
-					processing.add(first);
-				currentKey.add(first.getId());
-			}
-		}
-
-		/* Remove processed block reference */
-		c.remove(currentKey);
+	TestItemTreeDataSource streamReportSource(Launch launch) {
+		return new TestItemTreeDataSource(mongoOperations, launch.getId());
+	}
 
-		/* Last processed element is empty after children removing */
-		String last = currentKey.get(currentKey.size() - 1);
-		currentKey.remove(last);
+	public List<TestItemPojo> getReportSource(Launch launch) {
+		/* Get launch referred test items with SORT! */
+		List<TestItem> ownedItems = testItemRepository.findByLaunch(launch);
 
-		/* Remove reference from UP map block to last element */
-		c.put(currentKey, c.get(currentKey).stream().filter(f -> !f.getId().equals(last)).collect(Collectors.toList()));
-		return processLaunchTree(c, processing);
+		/* Launch tree ordered by levels and start time */
+		return TestItemTree.depthFirst(ownedItems)
+				.stream()
+				.map(JasperDataProvider::adjustName)
+				.map(TestItemPojo::new)
+				.collect(Collectors.toList());
 	}
 
 	/**
@@ -150,7 +99,7 @@ public class JasperDataProvider {
 	 *            - target {@see TestItem}
 	 * @return TestItem - updated test item with shifted name
 	 */
-	private static TestItem adjustName(TestItem input) {
+	static TestItem adjustName(TestItem input) {
 		/* Sync buffer instead builder! */
 		StringBuilder sb = new StringBuilder(StringUtils.repeat(PREFIX, input.getPath().size()));
 		input.setName(sb.append(input.getName()).toString());
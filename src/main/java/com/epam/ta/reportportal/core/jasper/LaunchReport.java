@@ -0,0 +1,52 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.epam.ta.reportportal.core.jasper;
+
+import net.sf.jasperreports.engine.JRVirtualizer;
+import net.sf.jasperreports.engine.JasperPrint;
+
+/**
+ * Rendered launch report. Pages of large reports are swapped to disk by
+ * virtualizer, so report should be closed once it is written to release
+ * swap storage.
+ */
+public class LaunchReport implements AutoCloseable {
+
+	private final JasperPrint print;
+	private final JRVirtualizer virtualizer;
+
+	LaunchReport(JasperPrint print, JRVirtualizer virtualizer) {
+		this.print = print;
+		this.virtualizer = virtualizer;
+	}
+
+	public JasperPrint getPrint() {
+		return print;
+	}
+
+	@Override
+	public void close() {
+		if (null != virtualizer) {
+			virtualizer.cleanup();
+		}
+	}
+}
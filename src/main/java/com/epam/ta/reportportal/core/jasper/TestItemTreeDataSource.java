@@ -0,0 +1,109 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.epam.ta.reportportal.core.jasper;
+
+import com.epam.ta.reportportal.database.entity.item.TestItem;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRField;
+import net.sf.jasperreports.engine.data.JRAbstractBeanDataSource;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Lazy {@link net.sf.jasperreports.engine.JRDataSource} of launch test items.
+ * Walks items tree depth-first reading children of each node from the
+ * database cursor, so only cursors of the current branch are kept open and
+ * the launch is never loaded in memory at once.
+ */
+class TestItemTreeDataSource extends JRAbstractBeanDataSource implements AutoCloseable {
+
+	private final MongoOperations mongoOperations;
+	private final String launchId;
+
+	/* Cursors of the currently processed branch, top is the deepest level */
+	private final Deque<CloseableIterator<TestItem>> branch = new ArrayDeque<>();
+
+	private TestItemPojo current;
+
+	TestItemTreeDataSource(MongoOperations mongoOperations, String launchId) {
+		super(false);
+		this.mongoOperations = mongoOperations;
+		this.launchId = launchId;
+		this.branch.push(children(null));
+	}
+
+	@Override
+	public boolean next() {
+		while (!branch.isEmpty()) {
+			CloseableIterator<TestItem> level = branch.peek();
+			if (level.hasNext()) {
+				TestItem item = level.next();
+				current = new TestItemPojo(JasperDataProvider.adjustName(item));
+				if (item.hasChilds()) {
+					branch.push(children(item.getId()));
+				}
+				return true;
+			}
+			branch.pop().close();
+		}
+		current = null;
+		return false;
+	}
+
+	@Override
+	public Object getFieldValue(JRField field) throws JRException {
+		return getFieldValue(current, field);
+	}
+
+	@Override
+	public void moveFirst() throws JRException {
+		throw new JRException("Test items data source could be iterated only once");
+	}
+
+	@Override
+	public void close() {
+		while (!branch.isEmpty()) {
+			branch.pop().close();
+		}
+	}
+
+	/**
+	 * Opens cursor over direct children of provided item ordered by start time
+	 *
+	 * @param parentId ID of parent item or <b>null</b> for launch root items
+	 * @return Children cursor
+	 */
+	private CloseableIterator<TestItem> children(String parentId) {
+		/* Parent cursors stay idle while deep branch is processed */
+		Query query = Query.query(where("launchRef").is(launchId).and("parent").is(parentId))
+				.with(new Sort(Sort.Direction.ASC, "startTime"))
+				.noCursorTimeout();
+		return mongoOperations.stream(query, TestItem.class);
+	}
+}
@@ -22,8 +22,9 @@
 package com.epam.ta.reportportal.core.launch.impl;
 
 import com.epam.ta.reportportal.core.launch.IDeleteLaunchHandler;
+import com.epam.ta.reportportal.core.project.ProjectCache;
+import com.epam.ta.reportportal.core.statistics.DeferredStatisticsUpdater;
 import com.epam.ta.reportportal.database.dao.LaunchRepository;
-import com.epam.ta.reportportal.database.dao.ProjectRepository;
 import com.epam.ta.reportportal.database.dao.UserRepository;
 import com.epam.ta.reportportal.database.entity.Launch;
 import com.epam.ta.reportportal.database.entity.Project;
@@ -60,17 +61,19 @@ import static java.util.Collections.singletonList;
 public class DeleteLaunchHandler implements IDeleteLaunchHandler {
 
 	private final LaunchRepository launchRepository;
-	private final ProjectRepository projectRepository;
+	private final ProjectCache projectCache;
 	private final UserRepository userRepository;
 	private final ApplicationEventPublisher eventPublisher;
+	private final DeferredStatisticsUpdater deferredStatisticsUpdater;
 
 	@Autowired
 	public DeleteLaunchHandler(ApplicationEventPublisher eventPublisher, LaunchRepository launchRepository,
-			ProjectRepository projectRepository, UserRepository userRepository) {
+			ProjectCache projectCache, UserRepository userRepository, DeferredStatisticsUpdater deferredStatisticsUpdater) {
 		this.eventPublisher = eventPublisher;
 		this.launchRepository = launchRepository;
-		this.projectRepository = projectRepository;
+		this.projectCache = projectCache;
 		this.userRepository = userRepository;
+		this.deferredStatisticsUpdater = deferredStatisticsUpdater;
 	}
 
 	@Override
@@ -78,7 +81,7 @@ public class DeleteLaunchHandler implements IDeleteLaunchHandler {
 		Launch launch = launchRepository.findOne(launchId);
 		expect(launch, notNull()).verify(LAUNCH_NOT_FOUND, launchId);
 
-		Project project = projectRepository.findOne(projectName);
+		Project project = projectCache.get(projectName);
 		expect(project, notNull()).verify(PROJECT_NOT_FOUND, projectName);
 
 		User user = userRepository.findOne(principal);
@@ -88,6 +91,7 @@ public class DeleteLaunchHandler implements IDeleteLaunchHandler {
 		} catch (Exception exp) {
 			throw new ReportPortalException("Error while Launch deleting.", exp);
 		}
+		deferredStatisticsUpdater.discard(launchId);
 		eventPublisher.publishEvent(new LaunchDeletedEvent(launch, principal));
 		return new OperationCompletionRS("Launch with ID = '" + launchId + "' successfully deleted.");
 	}
@@ -97,9 +101,10 @@ public class DeleteLaunchHandler implements IDeleteLaunchHandler {
 		final List<String> toDelete = asList(ids);
 		final List<Launch> launches = launchRepository.find(toDelete);
 		final User user = userRepository.findOne(userName);
-		final Project project = projectRepository.findOne(projectName);
+		final Project project = projectCache.get(projectName);
 		launches.forEach(launch -> validate(launch, user, project));
 		launchRepository.delete(toDelete);
+		toDelete.forEach(deferredStatisticsUpdater::discard);
 		launches.forEach(launch -> eventPublisher.publishEvent(new LaunchDeletedEvent(launch, userName)));
 		return new OperationCompletionRS("All selected launches have been successfully deleted");
 	}
@@ -24,6 +24,7 @@ package com.epam.ta.reportportal.core.launch.impl;
 import com.epam.ta.reportportal.commons.DbUtils;
 import com.epam.ta.reportportal.commons.Preconditions;
 import com.epam.ta.reportportal.core.launch.IFinishLaunchHandler;
+import com.epam.ta.reportportal.core.statistics.DeferredStatisticsUpdater;
 import com.epam.ta.reportportal.core.statistics.StatisticsFacadeFactory;
 import com.epam.ta.reportportal.core.statistics.StatisticsHelper;
 import com.epam.ta.reportportal.database.dao.*;
@@ -92,8 +93,13 @@ public class FinishLaunchHandler implements IFinishLaunchHandler {
 	@Autowired
 	private ApplicationEventPublisher eventPublisher;
 
+	@Autowired
+	private DeferredStatisticsUpdater deferredStatisticsUpdater;
+
 	@Override
 	public OperationCompletionRS finishLaunch(String launchId, FinishExecutionRQ finishLaunchRQ, String projectName, String username) {
+		/* Launch status is resolved from statistics, so they should be up to date */
+		deferredStatisticsUpdater.flushEverywhere(launchId);
 
 		Launch launch = launchRepository.findOne(launchId);
 		validate(launchId, launch, finishLaunchRQ);
@@ -130,6 +136,7 @@ public class FinishLaunchHandler implements IFinishLaunchHandler {
 
 	@Override
 	public OperationCompletionRS stopLaunch(String launchId, FinishExecutionRQ finishLaunchRQ, String projectName, String userName) {
+		deferredStatisticsUpdater.flushEverywhere(launchId);
 		Launch launch = launchRepository.findOne(launchId);
 		expect(launch, notNull()).verify(LAUNCH_NOT_FOUND, launchId);
 
@@ -28,6 +28,8 @@ import com.epam.ta.reportportal.core.launch.IMergeLaunchHandler;
 import com.epam.ta.reportportal.core.statistics.StatisticsFacade;
 import com.epam.ta.reportportal.core.statistics.StatisticsFacadeFactory;
 import com.epam.ta.reportportal.core.statistics.StatisticsHelper;
+import com.epam.ta.reportportal.core.widget.content.LaunchTrendStore;
+import com.epam.ta.reportportal.core.widget.content.MostFailedTestCasesStore;
 import com.epam.ta.reportportal.database.dao.*;
 import com.epam.ta.reportportal.database.entity.Launch;
 import com.epam.ta.reportportal.database.entity.Project;
@@ -43,6 +45,7 @@ import com.epam.ta.reportportal.ws.model.launch.DeepMergeLaunchesRQ;
 import com.epam.ta.reportportal.ws.model.launch.LaunchResource;
 import com.epam.ta.reportportal.ws.model.launch.MergeLaunchesRQ;
 import com.epam.ta.reportportal.ws.model.launch.StartLaunchRQ;
+import com.google.common.collect.ImmutableList;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -93,6 +96,12 @@ public class MergeLaunchHandler implements IMergeLaunchHandler {
     @Autowired
     private LaunchResourceAssembler launchResourceAssembler;
 
+    @Autowired
+    private LaunchTrendStore launchTrendStore;
+
+    @Autowired
+    private MostFailedTestCasesStore mostFailedTestCasesStore;
+
     @Autowired
     public void setProjectRepository(ProjectRepository projectRepository) {
         this.projectRepository = projectRepository;
@@ -135,10 +144,14 @@ public class MergeLaunchHandler implements IMergeLaunchHandler {
                 getStatisticsFacade(project.getConfiguration().getStatisticsCalculationStrategy());
         statisticsFacade.recalculateStatistics(launchTarget);
 
-        launchTarget = launchRepository.findOne(launchTarget.getId());
-        updateTargetLaunchInfo(launchTarget, mergeLaunchesRQ);
+        Launch merged = launchRepository.findOne(launchTarget.getId());
+        updateTargetLaunchInfo(merged, mergeLaunchesRQ);
 
         launchRepository.delete(mergeLaunchesRQ.getLaunches());
+        /* Start time of target launch could be changed */
+        launchTrendStore.refresh(ImmutableList.<Launch>builder().addAll(launchesList).add(launchTarget).add(merged).build());
+        launchesList.forEach(mostFailedTestCasesStore::remove);
+        mostFailedTestCasesStore.record(merged);
 
         return new OperationCompletionRS("Launch with ID = '" + launchTargetId + "' is successfully deeply merged.");
     }
@@ -212,6 +225,9 @@ public class MergeLaunchHandler implements IMergeLaunchHandler {
         launch.setEndTime(mergeLaunchesRQ.getEndTime());
         launchRepository.save(launch);
         launchRepository.delete(launchesIds);
+        launchTrendStore.refresh(ImmutableList.<Launch>builder().addAll(launchesList).add(launch).build());
+        launchesList.forEach(mostFailedTestCasesStore::remove);
+        mostFailedTestCasesStore.record(launch);
 
         return launchResourceAssembler.toResource(launch);
     }
@@ -25,6 +25,7 @@ import com.epam.ta.reportportal.commons.EntityUtils;
 import com.epam.ta.reportportal.commons.Preconditions;
 import com.epam.ta.reportportal.commons.validation.Suppliers;
 import com.epam.ta.reportportal.core.launch.IUpdateLaunchHandler;
+import com.epam.ta.reportportal.core.widget.content.LaunchTrendStore;
 import com.epam.ta.reportportal.database.dao.LaunchRepository;
 import com.epam.ta.reportportal.database.dao.ProjectRepository;
 import com.epam.ta.reportportal.database.dao.TestItemRepository;
@@ -87,6 +88,9 @@ public class UpdateLaunchHandler implements IUpdateLaunchHandler {
 	@Qualifier("autoAnalyzeTaskExecutor")
 	private TaskExecutor taskExecutor;
 
+	@Autowired
+	private LaunchTrendStore launchTrendStore;
+
 	@Autowired
 	@Value("${rp.issue.analyzer.depth}")
 	private Integer autoAnalysisDepth;
@@ -112,6 +116,7 @@ public class UpdateLaunchHandler implements IUpdateLaunchHandler {
 		expect(launch, notNull()).verify(LAUNCH_NOT_FOUND, launchId);
 		validate(launch, userName, projectName, rq.getMode());
 		if ((null != rq.getMode()) || (null != rq.getDescription()) || (null != rq.getTags())) {
+			boolean modeChanged = null != rq.getMode() && rq.getMode() != launch.getMode();
 			if (null != rq.getMode()) {
 				launch.setMode(rq.getMode());
 			}
@@ -122,6 +127,9 @@ public class UpdateLaunchHandler implements IUpdateLaunchHandler {
 				launch.setTags(Sets.newHashSet(EntityUtils.trimStrings(EntityUtils.update(rq.getTags()))));
 			}
 			launchRepository.save(launch);
+			if (modeChanged) {
+				launchTrendStore.refresh(launch);
+			}
 		}
 		return new OperationCompletionRS("Launch with ID = '" + launch.getId() + "' successfully updated.");
 	}
@@ -170,7 +178,10 @@ public class UpdateLaunchHandler implements IUpdateLaunchHandler {
 		}
 
 		if (analyzerService.analyzeStarted(launchId)) {
-			taskExecutor.execute(() -> analyzerService.analyze(launchId, toInvestigate, got));
+			taskExecutor.execute(() -> {
+				analyzerService.analyze(launchId, toInvestigate, got);
+				launchTrendStore.refresh(launch);
+			});
 		}
 		return new OperationCompletionRS("Auto-analyzer for launch ID='" + launchId + "' started.");
 	}
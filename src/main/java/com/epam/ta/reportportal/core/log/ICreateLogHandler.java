@@ -23,10 +23,12 @@ package com.epam.ta.reportportal.core.log;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.List;
 
 import com.epam.ta.reportportal.database.BinaryData;
 import com.epam.ta.reportportal.database.entity.Log;
 import com.epam.ta.reportportal.exception.ReportPortalException;
+import com.epam.ta.reportportal.ws.model.BatchElementCreatedRS;
 import com.epam.ta.reportportal.ws.model.EntryCreatedRS;
 import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
 
@@ -48,4 +50,16 @@ public interface ICreateLogHandler {
 	@Nonnull
 	EntryCreatedRS createLog(@Nonnull SaveLogRQ createLogRQ, @Nullable BinaryData binaryData, 
 			@Nullable String filename, @Nullable String projectName);
+
+	/**
+	 * Creates batch of {@link Log} instances. Test items referenced by batch
+	 * are loaded with single query, logs are saved with single bulk insert.
+	 * Failure of some element does not affect the rest of the batch
+	 *
+	 * @param batch       Batch elements
+	 * @param projectName Project name
+	 * @return Results of save operation in order of provided batch elements
+	 */
+	@Nonnull
+	List<BatchElementCreatedRS> createLogs(@Nonnull List<LogBatchElement> batch, @Nullable String projectName);
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.epam.ta.reportportal.core.log;
+
+import com.epam.ta.reportportal.database.BinaryData;
+import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
+import com.google.common.base.Preconditions;
+
+/**
+ * Single element of batch log save operation. Holds save request
+ * and optional binary data attached to it
+ */
+public class LogBatchElement {
+
+	private final SaveLogRQ request;
+
+	private final BinaryData binaryData;
+
+	private final String filename;
+
+	public LogBatchElement(SaveLogRQ request) {
+		this(request, null, null);
+	}
+
+	public LogBatchElement(SaveLogRQ request, BinaryData binaryData, String filename) {
+		Preconditions.checkNotNull(request, "Save log request shouldn't be null");
+		this.request = request;
+		this.binaryData = binaryData;
+		this.filename = filename;
+	}
+
+	public SaveLogRQ getRequest() {
+		return request;
+	}
+
+	public BinaryData getBinaryData() {
+		return binaryData;
+	}
+
+	public String getFilename() {
+		return filename;
+	}
+}
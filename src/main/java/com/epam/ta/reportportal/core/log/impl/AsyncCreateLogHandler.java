@@ -21,10 +21,8 @@
 
 package com.epam.ta.reportportal.core.log.impl;
 
-import com.epam.ta.reportportal.job.SaveBinaryDataJob;
+import com.epam.ta.reportportal.job.AttachmentPipeline;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
 
 import com.epam.ta.reportportal.core.log.ICreateLogHandler;
@@ -32,15 +30,12 @@ import com.epam.ta.reportportal.database.BinaryData;
 import com.epam.ta.reportportal.database.entity.Log;
 import com.epam.ta.reportportal.database.entity.item.TestItem;
 import com.epam.ta.reportportal.exception.ReportPortalException;
-import com.epam.ta.reportportal.ws.model.EntryCreatedRS;
 import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
 
-import javax.inject.Provider;
-
 /**
  * Asynchronous implementation of {@link ICreateLogHandler}. Saves log and
- * returns response, also starts saving binary data in storage asynchronously to
- * decrease server response time
+ * returns response, also submits binary data into {@link AttachmentPipeline} to
+ * be saved in storage asynchronously to decrease server response time
  * 
  * @author Andrei Varabyeu
  * 
@@ -48,36 +43,24 @@ import javax.inject.Provider;
 @Service
 public class AsyncCreateLogHandler extends CreateLogHandler implements ICreateLogHandler {
 
-	/**
-	 * We are using {@link Provider} there because we need
-	 * {@link SaveBinaryDataJob} with scope prototype. Since current class is in
-	 * singleton scope, we have to find a way to get new instance of job for new
-	 * execution
-	 */
-	@Autowired
-	private Provider<SaveBinaryDataJob> saveBinaryDataJob;
-
 	@Autowired
-	@Qualifier("saveLogsTaskExecutor")
-	private TaskExecutor taskExecutor;
+	private AttachmentPipeline attachmentPipeline;
 
 	@Override
-	public EntryCreatedRS createLog(SaveLogRQ createLogRQ, BinaryData binaryData, String filename, String projectName) {
-		TestItem testItem = testItemRepository.findOne(createLogRQ.getTestItemId());
-		validate(testItem, createLogRQ);
-
-		Log log = logBuilder.get().addSaveLogRQ(createLogRQ).addTestItem(testItem).build();
-
-		try {
-			logRepository.save(log);
-		} catch (Exception exc) {
-			throw new ReportPortalException("Error while Log instance creating.", exc);
-		}
+	protected Log buildLog(SaveLogRQ createLogRQ, TestItem testItem, BinaryData binaryData, String filename, String projectName) {
+		return logBuilder.get().addSaveLogRQ(createLogRQ).addTestItem(testItem).build();
+	}
 
+	@Override
+	protected void afterSaved(Log log, BinaryData binaryData, String filename, String projectName) {
 		if (null != binaryData) {
-			taskExecutor.execute(
-					saveBinaryDataJob.get().withProject(projectName).withBinaryData(binaryData).withFilename(filename).withLog(log));
+			try {
+				attachmentPipeline.submit(log, binaryData, filename, projectName);
+			} catch (ReportPortalException e) {
+				/* Binary data is rejected, so log shouldn't be kept as well */
+				logRepository.delete(log);
+				throw e;
+			}
 		}
-		return new EntryCreatedRS(log.getId());
 	}
 }
\ No newline at end of file
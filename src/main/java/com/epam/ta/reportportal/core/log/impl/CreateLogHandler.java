@@ -25,6 +25,7 @@ import com.epam.ta.reportportal.commons.Predicates;
 import com.epam.ta.reportportal.commons.validation.BusinessRule;
 import com.epam.ta.reportportal.commons.validation.Suppliers;
 import com.epam.ta.reportportal.core.log.ICreateLogHandler;
+import com.epam.ta.reportportal.core.log.LogBatchElement;
 import com.epam.ta.reportportal.database.BinaryData;
 import com.epam.ta.reportportal.database.DataStorage;
 import com.epam.ta.reportportal.database.dao.LogRepository;
@@ -34,13 +35,27 @@ import com.epam.ta.reportportal.database.entity.Log;
 import com.epam.ta.reportportal.database.entity.LogLevel;
 import com.epam.ta.reportportal.database.entity.item.TestItem;
 import com.epam.ta.reportportal.exception.ReportPortalException;
+import com.epam.ta.reportportal.util.analyzer.ErrorLogSignatureCache;
 import com.epam.ta.reportportal.ws.converter.builders.LogBuilder;
+import com.epam.ta.reportportal.ws.model.BatchElementCreatedRS;
 import com.epam.ta.reportportal.ws.model.EntryCreatedRS;
 import com.epam.ta.reportportal.ws.model.ErrorType;
 import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
+import com.mongodb.BulkWriteError;
+import org.apache.commons.lang.exception.ExceptionUtils;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
 
 import javax.inject.Provider;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
 
 /**
  * Create log handler. Save log and binary data related to it
@@ -58,6 +73,10 @@ public class CreateLogHandler implements ICreateLogHandler {
 
 	protected Provider<LogBuilder> logBuilder;
 
+	private MongoOperations mongoOperations;
+
+	private ErrorLogSignatureCache errorLogSignatureCache;
+
 	@Autowired
 	public void setTestItemRepository(TestItemRepository testItemRepository) {
 		this.testItemRepository = testItemRepository;
@@ -78,25 +97,139 @@ public class CreateLogHandler implements ICreateLogHandler {
 		this.logBuilder = logBuilder;
 	}
 
+	@Autowired
+	public void setMongoOperations(MongoOperations mongoOperations) {
+		this.mongoOperations = mongoOperations;
+	}
+
+	@Autowired
+	public void setErrorLogSignatureCache(ErrorLogSignatureCache errorLogSignatureCache) {
+		this.errorLogSignatureCache = errorLogSignatureCache;
+	}
+
 	@Override
 	public EntryCreatedRS createLog(SaveLogRQ createLogRQ, BinaryData binaryData, String filename, String project) {
 		TestItem testItem = testItemRepository.findOne(createLogRQ.getTestItemId());
 		validate(testItem, createLogRQ);
 
+		Log log = buildLog(createLogRQ, testItem, binaryData, filename, project);
+
+		try {
+			logRepository.save(log);
+		} catch (Exception exc) {
+			throw new ReportPortalException("Error while Log instance creating.", exc);
+		}
+		errorLogSignatureCache.invalidate(log.getTestItemRef());
+		afterSaved(log, binaryData, filename, project);
+		return new EntryCreatedRS(log.getId());
+	}
+
+	@Override
+	public List<BatchElementCreatedRS> createLogs(List<LogBatchElement> batch, String project) {
+		Set<String> itemIds = batch.stream().map(it -> it.getRequest().getTestItemId()).filter(Objects::nonNull).collect(toSet());
+		Map<String, TestItem> testItems = new HashMap<>();
+		if (!itemIds.isEmpty()) {
+			testItemRepository.findAll(itemIds).forEach(it -> testItems.put(it.getId(), it));
+		}
+
+		BatchElementCreatedRS[] results = new BatchElementCreatedRS[batch.size()];
+		/* Index of log in bulk -> index of element in batch */
+		List<Integer> positions = new ArrayList<>(batch.size());
+		List<Log> logs = new ArrayList<>(batch.size());
+		for (int i = 0; i < batch.size(); i++) {
+			LogBatchElement element = batch.get(i);
+			try {
+				TestItem testItem = testItems.get(element.getRequest().getTestItemId());
+				validate(testItem, element.getRequest());
+				Log log = buildLog(element.getRequest(), testItem, element.getBinaryData(), element.getFilename(), project);
+				/* Bulk insert does not populate entities with generated identifiers */
+				log.setId(new ObjectId().toString());
+				logs.add(log);
+				positions.add(i);
+			} catch (Exception e) {
+				results[i] = toErrorResponse(e);
+			}
+		}
+
+		Map<Integer, Exception> failed = insertAll(logs);
+		for (int i = 0; i < logs.size(); i++) {
+			Log log = logs.get(i);
+			int position = positions.get(i);
+			if (failed.containsKey(i)) {
+				results[position] = toErrorResponse(failed.get(i));
+			} else {
+				errorLogSignatureCache.invalidate(log.getTestItemRef());
+				LogBatchElement element = batch.get(position);
+				try {
+					afterSaved(log, element.getBinaryData(), element.getFilename(), project);
+					results[position] = new BatchElementCreatedRS(log.getId());
+				} catch (Exception e) {
+					results[position] = toErrorResponse(e);
+				}
+			}
+		}
+		return Arrays.asList(results);
+	}
+
+	/**
+	 * Builds {@link Log} instance to be saved. Saves binary data
+	 * synchronously if provided
+	 *
+	 * @param createLogRQ Save log request
+	 * @param testItem    Parent test item
+	 * @param binaryData  Binary data or null
+	 * @param filename    Filename of binary data
+	 * @param project     Project name
+	 * @return Log to be saved
+	 */
+	protected Log buildLog(SaveLogRQ createLogRQ, TestItem testItem, BinaryData binaryData, String filename, String project) {
 		BinaryContent binaryContent = null;
 		if (null != binaryData) {
-			String binaryDataId	= dataStorage.saveData(binaryData, filename);
+			String binaryDataId = dataStorage.saveData(binaryData, filename);
 			binaryContent = new BinaryContent(binaryDataId, null, binaryData.getContentType());
 		}
+		return logBuilder.get().addSaveLogRQ(createLogRQ).addBinaryContent(binaryContent).addTestItem(testItem).build();
+	}
 
-		Log log = logBuilder.get().addSaveLogRQ(createLogRQ).addBinaryContent(binaryContent).addTestItem(testItem).build();
+	/**
+	 * Callback invoked once {@link Log} instance is persisted
+	 *
+	 * @param log        Saved log
+	 * @param binaryData Binary data or null
+	 * @param filename   Filename of binary data
+	 * @param project    Project name
+	 */
+	protected void afterSaved(Log log, BinaryData binaryData, String filename, String project) {
+		// binary data is already saved
+	}
 
+	/**
+	 * Inserts logs with single unordered bulk operation. Bulk insert does not
+	 * fire mapping events, so auditing fields used by retention jobs are set here
+	 *
+	 * @param logs Logs to be inserted
+	 * @return Failed inserts: index of log in provided list -> cause
+	 */
+	private Map<Integer, Exception> insertAll(List<Log> logs) {
+		if (logs.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		Date now = new Date();
+		logs.forEach(log -> log.setLastModified(now));
 		try {
-			logRepository.save(log);
-		} catch (Exception exc) {
-			throw new ReportPortalException("Error while Log instance creating.", exc);
+			mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, Log.class).insert(logs).execute();
+			return Collections.emptyMap();
+		} catch (BulkOperationException e) {
+			return e.getErrors().stream().collect(toMap(BulkWriteError::getIndex,
+					error -> new ReportPortalException("Error while Log instance creating. " + error.getMessage(), e)));
+		} catch (Exception e) {
+			ReportPortalException cause = new ReportPortalException("Error while Log instance creating.", e);
+			return IntStream.range(0, logs.size()).boxed().collect(toMap(Function.identity(), index -> cause));
 		}
-		return new EntryCreatedRS(log.getId());
+	}
+
+	private BatchElementCreatedRS toErrorResponse(Exception e) {
+		return new BatchElementCreatedRS(ExceptionUtils.getStackTrace(e), ExceptionUtils.getMessage(e));
 	}
 
 	/**
@@ -49,6 +49,7 @@ import com.epam.ta.reportportal.database.entity.Project.UserConfig;
 import com.epam.ta.reportportal.database.entity.item.TestItem;
 import com.epam.ta.reportportal.database.entity.user.User;
 import com.epam.ta.reportportal.exception.ReportPortalException;
+import com.epam.ta.reportportal.util.analyzer.ErrorLogSignatureCache;
 import com.epam.ta.reportportal.ws.model.ErrorType;
 import com.epam.ta.reportportal.ws.model.OperationCompletionRS;
 import com.google.common.collect.Lists;
@@ -67,6 +68,7 @@ public class DeleteLogHandler implements IDeleteLogHandler {
 	private LaunchRepository launchRepository;
 	private ProjectRepository projectRepository;
 	private UserRepository userRepository;
+	private ErrorLogSignatureCache errorLogSignatureCache;
 
 	@Autowired
 	public void setLaunchRepository(LaunchRepository launchRepository) {
@@ -93,6 +95,11 @@ public class DeleteLogHandler implements IDeleteLogHandler {
 		this.logRepository = logRepository;
 	}
 
+	@Autowired
+	public void setErrorLogSignatureCache(ErrorLogSignatureCache errorLogSignatureCache) {
+		this.errorLogSignatureCache = errorLogSignatureCache;
+	}
+
 	@Override
 	public OperationCompletionRS deleteLog(String logId, String projectName, String userName) {
 		User user = userRepository.findOne(userName);
@@ -105,6 +112,7 @@ public class DeleteLogHandler implements IDeleteLogHandler {
 		validateRoles(log, user, project);
 		try {
 			logRepository.delete(log);
+			errorLogSignatureCache.invalidate(log.getTestItemRef());
 		} catch (Exception exc) {
 			throw new ReportPortalException("Error while Log instance deleting.", exc);
 		}
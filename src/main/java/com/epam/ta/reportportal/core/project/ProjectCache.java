@@ -0,0 +1,197 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.ta.reportportal.core.project;
+
+import com.epam.ta.reportportal.database.dao.ProjectRepository;
+import com.epam.ta.reportportal.database.entity.Project;
+import com.epam.ta.reportportal.events.*;
+import com.epam.ta.reportportal.util.CacheMetrics;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Near-cache of {@link Project} documents for read-only usage: permission
+ * checks and handlers reading project configuration. Project is loaded once
+ * per request and shared between requests for a short period.
+ * <br>
+ * Entries are invalidated on project save/delete and on project events
+ * (settings, defect types, external systems, user creation). Expiration
+ * period bounds staleness of other partial updates.
+ * <br>
+ * Returned projects are shared, so they must not be modified. Use
+ * {@link ProjectRepository} for read-modify-write operations.
+ * <br>
+ * Hit/miss statistics are exposed as <code>project.cache.*</code> metrics
+ */
+@Component
+public class ProjectCache extends AbstractMongoEventListener<Project> implements PublicMetrics {
+
+	private static final String METRIC_PREFIX = "project.cache.";
+
+	private static final String REQUEST_ATTRIBUTE = ProjectCache.class.getName();
+
+	private final ProjectRepository projectRepository;
+
+	private final Cache<String, Project> cache;
+
+	@Autowired
+	public ProjectCache(ProjectRepository projectRepository, @Value("${rp.project.cache.size:500}") long size,
+			@Value("${rp.project.cache.expireAfter:10}") long expireAfterSeconds) {
+		this.projectRepository = projectRepository;
+		this.cache = CacheBuilder.newBuilder()
+				.maximumSize(size)
+				.expireAfterWrite(expireAfterSeconds, TimeUnit.SECONDS)
+				.recordStats()
+				.build();
+	}
+
+	/**
+	 * @param name Project name
+	 * @return Project or null if there is no such project
+	 */
+	public Project get(String name) {
+		if (null == name) {
+			return null;
+		}
+		Map<String, Project> requestProjects = requestProjects();
+		Project project = null == requestProjects ? null : requestProjects.get(name);
+		if (null == project) {
+			project = cache.getIfPresent(name);
+			if (null == project) {
+				project = projectRepository.findOne(name);
+				/* Absent projects aren't cached, project may be created right after */
+				if (null != project) {
+					cache.put(name, project);
+				}
+			}
+			if (null != project && null != requestProjects) {
+				requestProjects.put(name, project);
+			}
+		}
+		return project;
+	}
+
+	public void invalidate(String name) {
+		if (null != name) {
+			cache.invalidate(name);
+			Map<String, Project> requestProjects = requestProjects();
+			if (null != requestProjects) {
+				requestProjects.remove(name);
+			}
+		}
+	}
+
+	public void invalidateAll() {
+		cache.invalidateAll();
+		Map<String, Project> requestProjects = requestProjects();
+		if (null != requestProjects) {
+			requestProjects.clear();
+		}
+	}
+
+	@Override
+	public void onAfterSave(AfterSaveEvent<Project> event) {
+		invalidate(event.getSource().getName());
+	}
+
+	@Override
+	public void onAfterDelete(AfterDeleteEvent<Project> event) {
+		invalidateAll();
+	}
+
+	@EventListener
+	public void onProjectUpdated(ProjectUpdatedEvent event) {
+		invalidate(event.getBefore().getName());
+	}
+
+	@EventListener
+	public void onEmailConfigUpdated(EmailConfigUpdatedEvent event) {
+		invalidate(event.getBefore().getName());
+	}
+
+	@EventListener
+	public void onDefectTypeCreated(DefectTypeCreatedEvent event) {
+		invalidate(event.getProject());
+	}
+
+	@EventListener
+	public void onDefectTypeUpdated(DefectTypeUpdatedEvent event) {
+		invalidate(event.getProject());
+	}
+
+	@EventListener
+	public void onDefectTypeDeleted(DefectTypeDeletedEvent event) {
+		invalidate(event.getBefore().getName());
+	}
+
+	@EventListener
+	public void onExternalSystemsDeleted(ProjectExternalSystemsDeletedEvent event) {
+		invalidate(event.getProject());
+	}
+
+	@EventListener
+	public void onUserCreated(UserCreatedEvent event) {
+		/* New user is assigned to default and personal projects */
+		invalidateAll();
+	}
+
+	public CacheStats getStats() {
+		return cache.stats();
+	}
+
+	@Override
+	public Collection<Metric<?>> metrics() {
+		return CacheMetrics.of(METRIC_PREFIX, cache);
+	}
+
+	/**
+	 * @return Projects loaded by current request or null if there is no
+	 * request bound to current thread
+	 */
+	@SuppressWarnings("unchecked")
+	private static Map<String, Project> requestProjects() {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (null == attributes) {
+			return null;
+		}
+		Map<String, Project> projects = (Map<String, Project>) attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+		if (null == projects) {
+			projects = new HashMap<>();
+			attributes.setAttribute(REQUEST_ATTRIBUTE, projects, RequestAttributes.SCOPE_REQUEST);
+		}
+		return projects;
+	}
+}
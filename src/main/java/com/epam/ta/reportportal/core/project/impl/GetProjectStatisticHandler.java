@@ -30,9 +30,9 @@ import com.epam.ta.reportportal.database.entity.project.info.InfoInterval;
 import com.epam.ta.reportportal.database.entity.project.info.ProjectInfoWidget;
 import com.epam.ta.reportportal.database.entity.statistics.ExecutionCounter;
 import com.epam.ta.reportportal.database.entity.statistics.IssueCounter;
-import com.epam.ta.reportportal.database.entity.user.User;
 import com.epam.ta.reportportal.database.search.Filter;
 import com.epam.ta.reportportal.database.search.FilterCondition;
+import com.epam.ta.reportportal.database.search.FilterConditionUtils;
 import com.epam.ta.reportportal.events.handler.ExternalSystemActivityHandler;
 import com.epam.ta.reportportal.ws.converter.ProjectInfoResourceAssembler;
 import com.epam.ta.reportportal.ws.model.Page;
@@ -40,20 +40,30 @@ import com.epam.ta.reportportal.ws.model.project.LaunchesPerUser;
 import com.epam.ta.reportportal.ws.model.project.ProjectInfoResource;
 import com.epam.ta.reportportal.ws.model.widget.ChartObject;
 import com.google.common.collect.Lists;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
 import org.springframework.stereotype.Service;
 
 import java.math.RoundingMode;
 import java.text.DecimalFormat;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
 import java.util.*;
-import java.util.Map.Entry;
 
 import static com.epam.ta.reportportal.commons.Predicates.notNull;
 import static com.epam.ta.reportportal.commons.validation.BusinessRule.expect;
+import static com.epam.ta.reportportal.database.entity.Status.IN_PROGRESS;
 import static com.epam.ta.reportportal.database.search.Condition.*;
 import static com.epam.ta.reportportal.events.handler.ExternalSystemActivityHandler.UPDATE;
 import static com.epam.ta.reportportal.events.handler.LaunchActivityHandler.DELETE;
@@ -64,6 +74,7 @@ import static com.epam.ta.reportportal.events.handler.TicketActivitySubscriber.P
 import static com.epam.ta.reportportal.events.handler.UserActivityHandler.CREATE_USER;
 import static com.epam.ta.reportportal.events.handler.WidgetActivityEventHandler.SHARE;
 import static com.epam.ta.reportportal.events.handler.WidgetActivityEventHandler.UNSHARE;
+import static com.epam.ta.reportportal.util.Aggregations.stage;
 import static com.epam.ta.reportportal.ws.model.ErrorType.BAD_REQUEST_ERROR;
 import static com.epam.ta.reportportal.ws.model.ErrorType.PROJECT_NOT_FOUND;
 import static com.epam.ta.reportportal.ws.model.launch.Mode.DEFAULT;
@@ -102,14 +113,39 @@ public class GetProjectStatisticHandler implements IGetProjectInfoHandler {
 	@Autowired
 	private ProjectInfoWidgetDataConverter dataConverter;
 
+	@Autowired
+	private MongoOperations mongoOperations;
+
 	@Override
 	public Iterable<ProjectInfoResource> getAllProjectsInfo(Filter filter, Pageable pageable) {
 		final Page<ProjectInfoResource> preAssembled = projectInfoResourceAssembler
 				.toPagedResources(projectRepository.findByFilter(filter, pageable));
+		List<String> projectIds = new ArrayList<>();
+		preAssembled.forEach(project -> projectIds.add(project.getProjectId()));
+		if (projectIds.isEmpty()) {
+			return preAssembled;
+		}
+
+		/*
+		 * Last run and amount of launches of all projects on page in one round trip. Launches in progress
+		 * are counted, but are not considered as last run
+		 */
+		DBObject finishedStartTime = new BasicDBObject("$cond",
+				Arrays.asList(new BasicDBObject("$ne", Arrays.asList("$status", IN_PROGRESS.name())), "$startTime", null));
+		Aggregation aggregation = Aggregation.newAggregation(
+				stage("$match", new BasicDBObject("projectRef", new BasicDBObject("$in", projectIds)).append("mode", DEFAULT.name())),
+				stage("$group", new BasicDBObject("_id", "$projectRef").append("lastRun", new BasicDBObject("$max", finishedStartTime))
+						.append("count", new BasicDBObject("$sum", 1))));
+		Map<String, DBObject> summaries = new HashMap<>();
+		for (DBObject summary : mongoOperations.aggregate(aggregation, mongoOperations.getCollectionName(Launch.class), DBObject.class)) {
+			summaries.put(String.valueOf(summary.get("_id")), summary);
+		}
 		for (ProjectInfoResource project : preAssembled) {
-			final Optional<Launch> lastLaunch = launchRepository.findLastLaunch(project.getProjectId(), DEFAULT.name());
-			lastLaunch.ifPresent(launch -> project.setLastRun(launch.getStartTime()));
-			project.setLaunchesQuantity(launchRepository.findLaunchesQuantity(project.getProjectId(), DEFAULT.name(), null));
+			DBObject summary = summaries.get(project.getProjectId());
+			if (null != summary && null != summary.get("lastRun")) {
+				project.setLastRun((Date) summary.get("lastRun"));
+			}
+			project.setLaunchesQuantity(null == summary ? 0 : intValue(summary, "count"));
 		}
 		return preAssembled;
 	}
@@ -132,7 +168,7 @@ public class GetProjectStatisticHandler implements IGetProjectInfoHandler {
 		projectInfoResource.setLaunchesPerUser(launches);
 		projectInfoResource.setUsersQuantity(project.getUsers().size());
 
-		List<Launch> allLaunches = getLaunchesForProjectInformation(projectId, interval);
+		List<Launch> allLaunches = getLaunchIdsForProjectInformation(projectId, date);
 		List<String> tickets = itemRepository.getUniqueTicketsCount(allLaunches);
 		projectInfoResource.setUniqueTickets(tickets.size());
 		if ((null != allLaunches) && !allLaunches.isEmpty()) {
@@ -158,19 +194,18 @@ public class GetProjectStatisticHandler implements IGetProjectInfoHandler {
 		expect(widgetType, notNull()).verify(BAD_REQUEST_ERROR, widgetCode);
 
 		Map<String, List<ChartObject>> result;
-		List<Launch> allLaunches = getLaunchesForProjectInformation(projectId, interval);
 		switch (widgetType) {
 		case INVESTIGATED:
-			result = dataConverter.getInvestigatedProjectInfo(allLaunches, interval);
+			result = dataConverter.getInvestigatedProjectInfo(getLaunchStatistics(projectId, interval), interval);
 			break;
 		case CASES_STATISTIC:
-			result = dataConverter.getTestCasesStatisticsProjectInfo(allLaunches);
+			result = dataConverter.getTestCasesStatisticsProjectInfo(getLaunchStatistics(projectId, interval));
 			break;
 		case LAUNCHES_QUANTITY:
-			result = dataConverter.getLaunchesQuantity(allLaunches, interval);
+			result = dataConverter.getLaunchesQuantity(getLaunchStatistics(projectId, interval), interval);
 			break;
 		case ISSUES_CHART:
-			result = dataConverter.getLaunchesIssues(allLaunches, interval);
+			result = dataConverter.getLaunchesIssues(getLaunchStatistics(projectId, interval), interval);
 			break;
 		case ACTIVITIES:
 			result = getActivities(projectId, interval);
@@ -274,22 +309,110 @@ public class GetProjectStatisticHandler implements IGetProjectInfoHandler {
 	 */
 	private List<LaunchesPerUser> getLaunchesInfo(Map<String, Integer> input) {
 		List<LaunchesPerUser> result = Lists.newArrayList();
-		Iterator<Entry<String, Integer>> iterator = input.entrySet().iterator();
-		while (iterator.hasNext()) {
-			Entry<String, Integer> pair = iterator.next();
-			User user = userRepository.findOne(pair.getKey());
-			if (null != user) {
-				LaunchesPerUser single = new LaunchesPerUser(user.getFullName(), input.get(pair.getKey()));
-				result.add(single);
+		if (input.isEmpty()) {
+			return result;
+		}
+		Map<String, String> fullNames = new HashMap<>();
+		userRepository.findAll(input.keySet()).forEach(user -> fullNames.put(user.getLogin(), user.getFullName()));
+		input.forEach((login, count) -> {
+			if (fullNames.containsKey(login)) {
+				result.add(new LaunchesPerUser(fullNames.get(login), count));
 			}
-			iterator.remove();
+		});
+		return result;
+	}
+
+	/**
+	 * Loads IDs of launches of project started after provided date
+	 *
+	 * @param projectId
+	 * @param date
+	 * @return Launches with ID only
+	 */
+	private List<Launch> getLaunchIdsForProjectInformation(String projectId, Date date) {
+		Filter filter = new Filter(Launch.class, EQUALS, false, projectId, Launch.PROJECT);
+		filter.addCondition(FilterConditionUtils.LAUNCH_IN_DEFAULT_MODE());
+		filter.addCondition(new FilterCondition(GREATER_THAN, false, String.valueOf(date.getTime()), "start_time"));
+		return launchRepository.findIdsByFilter(filter);
+	}
+
+	private List<LaunchGroupStatistics> getLaunchStatistics(String projectId, InfoInterval interval) {
+		return getLaunchStatistics(projectId, getStartIntervalDate(interval));
+	}
+
+	/**
+	 * Statistics of launches of project grouped by name and start day on
+	 * database side. Start day is calculated in server time zone
+	 *
+	 * @param projectId
+	 * @param date      Launches started after the date are grouped
+	 * @return Statistics ordered by day
+	 */
+	List<LaunchGroupStatistics> getLaunchStatistics(String projectId, Date date) {
+		DBObject localStartTime = localStartTime(date);
+		Aggregation aggregation = Aggregation.newAggregation(
+				stage("$match", new BasicDBObject("projectRef", projectId).append("mode", DEFAULT.name())
+						.append("startTime", new BasicDBObject("$gt", date))),
+				stage("$group", new BasicDBObject("_id", new BasicDBObject("name", "$name")
+						.append("year", new BasicDBObject("$year", localStartTime))
+						.append("month", new BasicDBObject("$month", localStartTime))
+						.append("day", new BasicDBObject("$dayOfMonth", localStartTime)))
+						.append("count", new BasicDBObject("$sum", 1))
+						.append("totalMin", new BasicDBObject("$min", "$statistics.executionCounter.total"))
+						.append("totalMax", new BasicDBObject("$max", "$statistics.executionCounter.total"))
+						.append("totalSum", new BasicDBObject("$sum", "$statistics.executionCounter.total"))
+						.append("productBug", new BasicDBObject("$sum", "$statistics.issueCounter.productBug.total"))
+						.append("automationBug", new BasicDBObject("$sum", "$statistics.issueCounter.automationBug.total"))
+						.append("systemIssue", new BasicDBObject("$sum", "$statistics.issueCounter.systemIssue.total"))
+						.append("toInvestigate", new BasicDBObject("$sum", "$statistics.issueCounter.toInvestigate.total"))),
+				stage("$sort", new BasicDBObject("_id.year", 1).append("_id.month", 1).append("_id.day", 1)));
+
+		List<LaunchGroupStatistics> result = new ArrayList<>();
+		for (DBObject group : mongoOperations.aggregate(aggregation, mongoOperations.getCollectionName(Launch.class), DBObject.class)) {
+			DBObject id = (DBObject) group.get("_id");
+			result.add(new LaunchGroupStatistics(String.valueOf(id.get("name")),
+					LocalDate.of(intValue(id, "year"), intValue(id, "month"), intValue(id, "day")), intValue(group, "count"),
+					intValue(group, "totalMin"), intValue(group, "totalMax"), longValue(group, "totalSum"), longValue(group, "productBug"),
+					longValue(group, "automationBug"), longValue(group, "systemIssue"), longValue(group, "toInvestigate")));
 		}
 		return result;
 	}
 
-	private List<Launch> getLaunchesForProjectInformation(String projectId, InfoInterval interval) {
-		Date date = getStartIntervalDate(interval);
-		return launchRepository.findLaunchesByProjectId(projectId, date, DEFAULT.name());
+	/**
+	 * Start time shifted by offset of server time zone. Offset is switched at
+	 * each transition of time zone (e.g. daylight saving) since provided date,
+	 * so each launch gets its own local date
+	 */
+	private static DBObject localStartTime(Date from) {
+		ZoneRules rules = ZoneId.systemDefault().getRules();
+		Instant now = Instant.now();
+		List<ZoneOffsetTransition> transitions = new ArrayList<>();
+		for (ZoneOffsetTransition transition = rules.nextTransition(from.toInstant());
+			 null != transition && transition.getInstant().isBefore(now); transition = rules.nextTransition(transition.getInstant())) {
+			transitions.add(transition);
+		}
+		Object offset = offsetOf(transitions.isEmpty() ? rules.getOffset(from.toInstant()) : transitions.get(transitions.size() - 1)
+				.getOffsetAfter());
+		for (int i = transitions.size() - 1; i >= 0; i--) {
+			ZoneOffsetTransition transition = transitions.get(i);
+			offset = new BasicDBObject("$cond", Arrays.asList(
+					new BasicDBObject("$lt", Arrays.asList("$startTime", Date.from(transition.getInstant()))),
+					offsetOf(transition.getOffsetBefore()), offset));
+		}
+		return new BasicDBObject("$add", Arrays.asList("$startTime", offset));
+	}
+
+	private static long offsetOf(ZoneOffset offset) {
+		return offset.getTotalSeconds() * 1000L;
+	}
+
+	private static int intValue(DBObject object, String field) {
+		return (int) longValue(object, field);
+	}
+
+	private static long longValue(DBObject object, String field) {
+		Object value = object.get(field);
+		return value instanceof Number ? ((Number) value).longValue() : 0;
 	}
 
 	/**
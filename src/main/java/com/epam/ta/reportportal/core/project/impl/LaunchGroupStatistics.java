@@ -0,0 +1,104 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.ta.reportportal.core.project.impl;
+
+import java.time.LocalDate;
+
+/**
+ * Statistics of launches with the same name started at the same day. Result
+ * of database side grouping used by project info widgets instead of full
+ * launch documents
+ */
+public class LaunchGroupStatistics {
+
+	private final String name;
+	private final LocalDate day;
+	private final int count;
+	private final int totalMin;
+	private final int totalMax;
+	private final long totalSum;
+	private final long productBug;
+	private final long automationBug;
+	private final long systemIssue;
+	private final long toInvestigate;
+
+	public LaunchGroupStatistics(String name, LocalDate day, int count, int totalMin, int totalMax, long totalSum, long productBug,
+			long automationBug, long systemIssue, long toInvestigate) {
+		this.name = name;
+		this.day = day;
+		this.count = count;
+		this.totalMin = totalMin;
+		this.totalMax = totalMax;
+		this.totalSum = totalSum;
+		this.productBug = productBug;
+		this.automationBug = automationBug;
+		this.systemIssue = systemIssue;
+		this.toInvestigate = toInvestigate;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public LocalDate getDay() {
+		return day;
+	}
+
+	public int getCount() {
+		return count;
+	}
+
+	public int getTotalMin() {
+		return totalMin;
+	}
+
+	public int getTotalMax() {
+		return totalMax;
+	}
+
+	public long getTotalSum() {
+		return totalSum;
+	}
+
+	public long getProductBug() {
+		return productBug;
+	}
+
+	public long getAutomationBug() {
+		return automationBug;
+	}
+
+	public long getSystemIssue() {
+		return systemIssue;
+	}
+
+	public long getToInvestigate() {
+		return toInvestigate;
+	}
+
+	/**
+	 * @return Amount of investigated issues: product bugs, automation bugs and
+	 * system issues
+	 */
+	public long getInvestigated() {
+		return productBug + automationBug + systemIssue;
+	}
+}
@@ -28,7 +28,6 @@ import static java.time.temporal.ChronoUnit.WEEKS;
 
 import java.text.DecimalFormat;
 import java.time.LocalDate;
-import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
 import java.time.temporal.IsoFields;
@@ -43,12 +42,12 @@ import org.joda.time.DateTime;
 import org.joda.time.DateTimeConstants;
 import org.springframework.stereotype.Service;
 
-import com.epam.ta.reportportal.database.entity.Launch;
 import com.epam.ta.reportportal.ws.model.widget.ChartObject;
 import com.google.common.collect.Lists;
 
 /**
- * Data converter for Report Portal common UI graphics
+ * Data converter for Report Portal common UI graphics. Works on launches
+ * statistics grouped by name and day
  * 
  * @author Andrei_Ramanchuk
  */
@@ -68,7 +67,7 @@ public class ProjectInfoWidgetDataConverter {
 	 * @param interval
 	 * @return
 	 */
-	public Map<String, List<ChartObject>> getInvestigatedProjectInfo(List<Launch> initial, InfoInterval interval) {
+	public Map<String, List<ChartObject>> getInvestigatedProjectInfo(List<LaunchGroupStatistics> initial, InfoInterval interval) {
 		if (initial.isEmpty()) {
 			return new HashMap<>();
 		}
@@ -76,20 +75,19 @@ public class ProjectInfoWidgetDataConverter {
 		final String INV = "investigated";
 		final String TI = "toInvestigate";
 		Map<String, List<ChartObject>> result = new HashMap<>();
-		Map<String, List<Launch>> grouped = groupBy(initial, grouping.get(interval));
-		Iterator<Entry<String, List<Launch>>> iterator = grouped.entrySet().iterator();
+		Map<String, List<LaunchGroupStatistics>> grouped = groupBy(initial, grouping.get(interval));
+		Iterator<Entry<String, List<LaunchGroupStatistics>>> iterator = grouped.entrySet().iterator();
 		while (iterator.hasNext()) {
-			Map.Entry<String, List<Launch>> pair = iterator.next();
+			Map.Entry<String, List<LaunchGroupStatistics>> pair = iterator.next();
 			double investigated = 0;
 			double toInvestigate = 0;
-			List<Launch> group = pair.getValue();
+			List<LaunchGroupStatistics> group = pair.getValue();
 			ChartObject currentGroup = new ChartObject();
 			currentGroup.setName(pair.getKey());
 			Map<String, String> values = new HashMap<>();
-			for (Launch one : group) {
-				investigated = investigated + one.getStatistics().getIssueCounter().getProductBugTotal()
-						+ one.getStatistics().getIssueCounter().getSystemIssueTotal() + one.getStatistics().getIssueCounter().getAutomationBugTotal();
-				toInvestigate = toInvestigate + one.getStatistics().getIssueCounter().getToInvestigateTotal();
+			for (LaunchGroupStatistics one : group) {
+				investigated = investigated + one.getInvestigated();
+				toInvestigate = toInvestigate + one.getToInvestigate();
 			}
 			if ((investigated + toInvestigate) > 0) {
 				double investigatedPercent = (investigated / (investigated + toInvestigate)) * 100;
@@ -114,7 +112,7 @@ public class ProjectInfoWidgetDataConverter {
 	 * @param initial
 	 * @return
 	 */
-	public Map<String, List<ChartObject>> getTestCasesStatisticsProjectInfo(List<Launch> initial) {
+	public Map<String, List<ChartObject>> getTestCasesStatisticsProjectInfo(List<LaunchGroupStatistics> initial) {
 		DecimalFormat formatter = new DecimalFormat("#####.##");
 		final String MIN = "min";
 		final String MAX = "max";
@@ -126,18 +124,20 @@ public class ProjectInfoWidgetDataConverter {
 		}
 
 		Map<String, List<ChartObject>> result = new HashMap<>();
-		Map<String, List<Launch>> grouped = groupBy(initial, BY_NAME);
-		for (Entry<String, List<Launch>> pair : grouped.entrySet()) {
+		Map<String, List<LaunchGroupStatistics>> grouped = groupBy(initial, BY_NAME);
+		for (Entry<String, List<LaunchGroupStatistics>> pair : grouped.entrySet()) {
 			ChartObject singleStat = new ChartObject();
 			singleStat.setName(pair.getKey());
 			Map<String, String> values = new HashMap<>();
-			List<Launch> group = pair.getValue();
+			List<LaunchGroupStatistics> group = pair.getValue();
 
-			DoubleSummaryStatistics statistics = group.stream().mapToDouble(it -> it.getStatistics().getExecutionCounter().getTotal())
-					.summaryStatistics();
-			values.put(MIN, String.valueOf(statistics.getMin()));
-			values.put(MAX, String.valueOf(statistics.getMax()));
-			values.put(AVG, formatter.format(statistics.getAverage()));
+			double min = group.stream().mapToDouble(LaunchGroupStatistics::getTotalMin).min().orElse(0);
+			double max = group.stream().mapToDouble(LaunchGroupStatistics::getTotalMax).max().orElse(0);
+			double sum = group.stream().mapToDouble(LaunchGroupStatistics::getTotalSum).sum();
+			int count = group.stream().mapToInt(LaunchGroupStatistics::getCount).sum();
+			values.put(MIN, String.valueOf(min));
+			values.put(MAX, String.valueOf(max));
+			values.put(AVG, formatter.format(count > 0 ? sum / count : 0));
 			singleStat.setValues(values);
 
 			result.put(pair.getKey(), Collections.singletonList(singleStat));
@@ -158,7 +158,7 @@ public class ProjectInfoWidgetDataConverter {
 	 * @param interval
 	 * @return
 	 */
-	public Map<String, List<ChartObject>> getLaunchesQuantity(List<Launch> initial, InfoInterval interval) {
+	public Map<String, List<ChartObject>> getLaunchesQuantity(List<LaunchGroupStatistics> initial, InfoInterval interval) {
 		final String START_PERIOD = "start";
 		final String END_PERIOD = "end";
 		final String COUNT = "count";
@@ -168,10 +168,9 @@ public class ProjectInfoWidgetDataConverter {
 			return result;
 		}
 		ProjectInfoGroup criteria = grouping.get(interval);
-		Map<String, List<Launch>> grouped = groupBy(initial, criteria);
-		for (Entry<String, List<Launch>> entry : grouped.entrySet()) {
-			List<Launch> launches = entry.getValue();
-			Integer count = null != launches ? launches.size() : 0;
+		Map<String, List<LaunchGroupStatistics>> grouped = groupBy(initial, criteria);
+		for (Entry<String, List<LaunchGroupStatistics>> entry : grouped.entrySet()) {
+			int count = entry.getValue().stream().mapToInt(LaunchGroupStatistics::getCount).sum();
 			ChartObject group = new ChartObject();
 			Map<String, String> values = new HashMap<>();
 			values.put(COUNT, String.valueOf(count));
@@ -198,7 +197,7 @@ public class ProjectInfoWidgetDataConverter {
 	 * @param interval
 	 * @return
 	 */
-	public Map<String, List<ChartObject>> getLaunchesIssues(List<Launch> initial, InfoInterval interval) {
+	public Map<String, List<ChartObject>> getLaunchesIssues(List<LaunchGroupStatistics> initial, InfoInterval interval) {
 		HashMap<String, List<ChartObject>> result = new HashMap<>();
 		if (initial.isEmpty()) {
 			return result;
@@ -209,18 +208,18 @@ public class ProjectInfoWidgetDataConverter {
 		final String TI = "toInvestigate";
 
 		ProjectInfoGroup criteria = grouping.get(interval);
-		Map<String, List<Launch>> grouped = groupBy(initial, criteria);
-		for (Entry<String, List<Launch>> entry : grouped.entrySet()) {
-			List<Launch> launches = entry.getValue();
-			Integer pbCount = 0;
-			Integer abCount = 0;
-			Integer siCount = 0;
-			Integer tiCount = 0;
-			for (Launch launch : launches) {
-				pbCount += launch.getStatistics().getIssueCounter().getProductBugTotal();
-				abCount += launch.getStatistics().getIssueCounter().getAutomationBugTotal();
-				siCount += launch.getStatistics().getIssueCounter().getSystemIssueTotal();
-				tiCount += launch.getStatistics().getIssueCounter().getToInvestigateTotal();
+		Map<String, List<LaunchGroupStatistics>> grouped = groupBy(initial, criteria);
+		for (Entry<String, List<LaunchGroupStatistics>> entry : grouped.entrySet()) {
+			List<LaunchGroupStatistics> launches = entry.getValue();
+			long pbCount = 0;
+			long abCount = 0;
+			long siCount = 0;
+			long tiCount = 0;
+			for (LaunchGroupStatistics launch : launches) {
+				pbCount += launch.getProductBug();
+				abCount += launch.getAutomationBug();
+				siCount += launch.getSystemIssue();
+				tiCount += launch.getToInvestigate();
 			}
 			ChartObject object = new ChartObject();
 			Map<String, String> values = new HashMap<>();
@@ -235,18 +234,18 @@ public class ProjectInfoWidgetDataConverter {
 	}
 
 	/**
-	 * Utility method for grouping input list of {@link Launch} by
-	 * {@link ProjectInfoGroup} criteria
+	 * Utility method for grouping input list of {@link LaunchGroupStatistics}
+	 * ordered by day by {@link ProjectInfoGroup} criteria
 	 * 
 	 * @param initial
 	 * @param criteria
 	 * @return
 	 */
-	private static Map<String, List<Launch>> groupBy(List<Launch> initial, ProjectInfoGroup criteria) {
-		Map<String, List<Launch>> result = new LinkedHashMap<>();
+	private static Map<String, List<LaunchGroupStatistics>> groupBy(List<LaunchGroupStatistics> initial, ProjectInfoGroup criteria) {
+		Map<String, List<LaunchGroupStatistics>> result = new LinkedHashMap<>();
 		LocalDate prevDate = null;
-		for (Launch launch : initial) {
-			final LocalDate localDate = launch.getStartTime().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+		for (LaunchGroupStatistics launch : initial) {
+			final LocalDate localDate = launch.getDay();
 
 			String key;
 			switch (criteria) {
@@ -266,7 +265,7 @@ public class ProjectInfoWidgetDataConverter {
 			if (!result.keySet().contains(key))
 				result.put(key, Lists.newArrayList(launch));
 			else {
-				List<Launch> prev = result.get(key);
+				List<LaunchGroupStatistics> prev = result.get(key);
 				prev.add(launch);
 				result.put(key, prev);
 			}
@@ -0,0 +1,315 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.epam.ta.reportportal.core.statistics;
+
+import com.epam.ta.reportportal.database.entity.Launch;
+import com.epam.ta.reportportal.database.entity.Project;
+import com.epam.ta.reportportal.database.entity.item.TestItem;
+import com.google.common.util.concurrent.Striped;
+import com.mongodb.BasicDBObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Opt-in deferred propagation of statistics of finished test items.
+ * Instead of updating all ancestors and launch on each finished item,
+ * counter deltas are buffered per launch in memory and flushed on a short
+ * interval or on demand (e.g. before launch finish). So amount of writes depends
+ * on amount of touched ancestors rather than on amount of finished items.
+ * <br>
+ * Buffers are node-local, so while a node holds deltas of a launch it keeps a
+ * marker document of them. Finishing node waits until markers of other nodes
+ * are gone, see {@link #flushEverywhere(String)}. Buffers are flushed on shutdown.
+ * <br>
+ * Enabled by <code>rp.statistics.deferred.enabled</code> property
+ */
+@Service
+public class DeferredStatisticsUpdater {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(DeferredStatisticsUpdater.class);
+
+	private static final String STATISTICS = "statistics.";
+
+	/* Markers of launches having buffered deltas on some node */
+	private static final String BUFFERS_COLLECTION = "statisticsBuffers";
+	private static final String LAUNCH_REF = "launchRef";
+	private static final String SINCE = "since";
+
+	/* Interval of checking whether other nodes flushed deltas of launch, ms */
+	private static final long AWAIT_INTERVAL = 100;
+
+	/**
+	 * Launch ID -> buffered deltas
+	 */
+	private final Map<String, LaunchDelta> buffer = new ConcurrentHashMap<>();
+
+	/**
+	 * Serializes flushes of the same launch
+	 */
+	private final Striped<Lock> flushLocks = Striped.lock(64);
+
+	private final MongoOperations mongoOperations;
+
+	private final boolean enabled;
+
+	/* Max time of waiting for other nodes flush, also age of markers considered abandoned, ms */
+	private final long awaitTimeout;
+
+	private final String node = UUID.randomUUID().toString();
+
+	@Autowired
+	public DeferredStatisticsUpdater(MongoOperations mongoOperations,
+			@Value("${rp.statistics.deferred.enabled:false}") boolean enabled,
+			@Value("${rp.statistics.deferred.awaitTimeout:5000}") long awaitTimeout) {
+		this.mongoOperations = mongoOperations;
+		this.enabled = enabled;
+		this.awaitTimeout = awaitTimeout;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Buffers statistics of finished test item for the item itself,
+	 * all it's ancestors and launch
+	 *
+	 * @param testItem         Finished test item
+	 * @param statisticsFacade Facade of project's statistics calculation strategy
+	 * @param settings         Project configuration
+	 */
+	public void record(TestItem testItem, StatisticsFacade statisticsFacade, Project.Configuration settings) {
+		StatisticsCounters counters = new StatisticsCounters();
+		if (statisticsFacade.awareExecutionStatistics(testItem)) {
+			counters.addExecution(testItem);
+		}
+		counters.addIssue(testItem, settings);
+		if (!counters.isEmpty()) {
+			record(testItem, counters);
+		}
+	}
+
+	/**
+	 * Buffers statistics delta of test item for the item itself, all it's
+	 * ancestors and launch. Deltas are buffered regardless of
+	 * {@link #isEnabled()}, so caller is responsible for {@link #flush(String)}
+	 *
+	 * @param testItem Test item
+	 * @param counters Statistics delta, may contain negative counters
+	 */
+	public void record(TestItem testItem, StatisticsCounters counters) {
+		buffer.compute(testItem.getLaunchRef(), (launchId, delta) -> {
+			LaunchDelta launchDelta = null == delta ? newDelta(launchId) : delta;
+			launchDelta.add(testItem, counters);
+			return launchDelta;
+		});
+	}
+
+	/**
+	 * Writes buffered deltas of launch. Deltas are taken from buffer atomically and
+	 * written outside of it, so recording is never blocked by database writes.
+	 * Flushes of the same launch are serialized, so once method returns all deltas
+	 * recorded before are written. Failed deltas are returned back to buffer
+	 *
+	 * @param launchId Launch ID
+	 */
+	public void flush(String launchId) {
+		Lock lock = flushLocks.get(launchId);
+		lock.lock();
+		try {
+			LaunchDelta delta = buffer.remove(launchId);
+			if (null != delta) {
+				try {
+					write(launchId, delta);
+				} catch (RuntimeException e) {
+					/* Deltas recorded meanwhile are marked already */
+					if (delta != buffer.merge(launchId, delta, LaunchDelta::add)) {
+						unmark(delta);
+					}
+					throw e;
+				}
+				unmark(delta);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Drops buffered deltas of launch. Should be used when launch statistics
+	 * are recalculated from scratch or launch is removed
+	 *
+	 * @param launchId Launch ID
+	 */
+	public void discard(String launchId) {
+		LaunchDelta delta = buffer.remove(launchId);
+		if (null != delta) {
+			unmark(delta);
+		}
+	}
+
+	/**
+	 * Writes buffered deltas of launch and waits until other nodes write
+	 * theirs, so launch statistics could be read right after. Waiting is
+	 * limited by <code>rp.statistics.deferred.awaitTimeout</code>
+	 *
+	 * @param launchId Launch ID
+	 */
+	public void flushEverywhere(String launchId) {
+		flush(launchId);
+		if (!enabled) {
+			return;
+		}
+		long deadline = System.currentTimeMillis() + awaitTimeout;
+		while (mongoOperations.exists(query(where(LAUNCH_REF).is(launchId).and(SINCE).gt(new Date(System.currentTimeMillis() - awaitTimeout))),
+				BUFFERS_COLLECTION)) {
+			if (System.currentTimeMillis() > deadline) {
+				LOGGER.warn("Statistics of launch '{}' are not flushed by other nodes in {} ms", launchId, awaitTimeout);
+				return;
+			}
+			try {
+				Thread.sleep(AWAIT_INTERVAL);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${rp.statistics.deferred.flushInterval:1000}")
+	public void flushAll() {
+		if (!enabled) {
+			return;
+		}
+		buffer.keySet().forEach(launchId -> {
+			try {
+				flush(launchId);
+			} catch (Exception e) {
+				LOGGER.error("Unable to flush statistics of launch '{}'", launchId, e);
+			}
+		});
+	}
+
+	/**
+	 * Writes all buffered deltas before node is stopped regardless of
+	 * {@link #isEnabled()}, otherwise they are lost
+	 */
+	@PreDestroy
+	public void shutdown() {
+		buffer.keySet().forEach(launchId -> {
+			try {
+				flush(launchId);
+			} catch (Exception e) {
+				LOGGER.error("Unable to flush statistics of launch '{}' on shutdown", launchId, e);
+			}
+		});
+	}
+
+	/**
+	 * Creates buffer of launch deltas. Called under lock of launch buffer,
+	 * so marker is created before any delta becomes visible to flush
+	 */
+	private LaunchDelta newDelta(String launchId) {
+		LaunchDelta delta = new LaunchDelta(enabled ? UUID.randomUUID().toString() : null);
+		if (null != delta.marker) {
+			mongoOperations.insert(new BasicDBObject("_id", delta.marker).append(LAUNCH_REF, launchId)
+					.append("node", node)
+					.append(SINCE, new Date()), BUFFERS_COLLECTION);
+		}
+		return delta;
+	}
+
+	private void unmark(LaunchDelta delta) {
+		if (null != delta.marker) {
+			mongoOperations.remove(query(where("_id").is(delta.marker)), BUFFERS_COLLECTION);
+		}
+	}
+
+	private void write(String launchId, LaunchDelta delta) {
+		BulkOperations bulk = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, TestItem.class);
+		delta.items.forEach((itemId, counters) -> bulk.updateOne(query(where("_id").is(itemId)), toUpdate(counters)));
+		bulk.execute();
+		mongoOperations.updateFirst(query(where("_id").is(launchId)), toUpdate(delta.launch), Launch.class);
+	}
+
+	private Update toUpdate(StatisticsCounters counters) {
+		Update update = new Update();
+		counters.forEachCounter((path, value) -> update.inc(STATISTICS + path, value));
+		return update;
+	}
+
+	/**
+	 * Buffered deltas of single launch. Accessed under lock of
+	 * {@link ConcurrentHashMap#compute(Object, java.util.function.BiFunction)}
+	 * or once removed from buffer
+	 */
+	private static class LaunchDelta {
+
+		/**
+		 * ID of marker document or <b>null</b> if deltas are not marked
+		 */
+		private final String marker;
+
+		/**
+		 * Test item ID -> delta of item statistics
+		 */
+		private final Map<String, StatisticsCounters> items = new HashMap<>();
+
+		private final StatisticsCounters launch = new StatisticsCounters();
+
+		LaunchDelta(String marker) {
+			this.marker = marker;
+		}
+
+		void add(TestItem testItem, StatisticsCounters counters) {
+			items.computeIfAbsent(testItem.getId(), id -> new StatisticsCounters()).add(counters);
+			if (null != testItem.getPath()) {
+				testItem.getPath().forEach(ancestor -> items.computeIfAbsent(ancestor, id -> new StatisticsCounters()).add(counters));
+			}
+			launch.add(counters);
+		}
+
+		LaunchDelta add(LaunchDelta other) {
+			other.items.forEach((itemId, counters) -> items.computeIfAbsent(itemId, id -> new StatisticsCounters()).add(counters));
+			launch.add(other.launch);
+			return this;
+		}
+	}
+}
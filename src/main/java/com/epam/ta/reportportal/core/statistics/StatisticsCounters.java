@@ -0,0 +1,248 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.epam.ta.reportportal.core.statistics;
+
+import com.epam.ta.reportportal.database.entity.Project;
+import com.epam.ta.reportportal.database.entity.Status;
+import com.epam.ta.reportportal.database.entity.item.TestItem;
+import com.epam.ta.reportportal.database.entity.item.issue.TestItemIssueType;
+import com.epam.ta.reportportal.database.entity.statistics.ExecutionCounter;
+import com.epam.ta.reportportal.database.entity.statistics.IssueCounter;
+import com.epam.ta.reportportal.database.entity.statistics.StatisticSubType;
+import com.epam.ta.reportportal.database.entity.statistics.Statistics;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Mutable in-memory accumulator of execution and issue counters. Used to fold
+ * statistics of items tree without repository round trip per item
+ */
+public class StatisticsCounters {
+
+	private static final String EXECUTION_COUNTER = "executionCounter";
+	private static final String ISSUE_COUNTER = "issueCounter";
+
+	private int total;
+	private int passed;
+	private int failed;
+	private int skipped;
+
+	/**
+	 * Issue type group -> (issue sub-type locator -> counter)
+	 */
+	private final Map<TestItemIssueType, Map<String, Integer>> issues = new EnumMap<>(TestItemIssueType.class);
+
+	/**
+	 * Creates accumulator with counters of provided statistics
+	 *
+	 * @param statistics Statistics entity
+	 * @return Accumulator
+	 */
+	public static StatisticsCounters of(Statistics statistics) {
+		StatisticsCounters counters = new StatisticsCounters();
+		if (null == statistics) {
+			return counters;
+		}
+		ExecutionCounter execution = statistics.getExecutionCounter();
+		if (null != execution) {
+			counters.total = valueOf(execution.getTotal());
+			counters.passed = valueOf(execution.getPassed());
+			counters.failed = valueOf(execution.getFailed());
+			counters.skipped = valueOf(execution.getSkipped());
+		}
+		IssueCounter issueCounter = statistics.getIssueCounter();
+		if (null != issueCounter) {
+			counters.putIssueGroup(TestItemIssueType.PRODUCT_BUG, issueCounter.getProductBug());
+			counters.putIssueGroup(TestItemIssueType.AUTOMATION_BUG, issueCounter.getAutomationBug());
+			counters.putIssueGroup(TestItemIssueType.SYSTEM_ISSUE, issueCounter.getSystemIssue());
+			counters.putIssueGroup(TestItemIssueType.TO_INVESTIGATE, issueCounter.getToInvestigate());
+			counters.putIssueGroup(TestItemIssueType.NO_DEFECT, issueCounter.getNoDefect());
+		}
+		return counters;
+	}
+
+	/**
+	 * Counts execution status of provided item
+	 *
+	 * @param item Test item
+	 * @return this
+	 */
+	public StatisticsCounters addExecution(TestItem item) {
+		total++;
+		Status status = item.getStatus();
+		if (Status.PASSED == status) {
+			passed++;
+		} else if (Status.FAILED == status || Status.INTERRUPTED == status) {
+			failed++;
+		} else if (Status.SKIPPED == status) {
+			skipped++;
+		}
+		return this;
+	}
+
+	/**
+	 * Counts issue of provided item if any
+	 *
+	 * @param item     Test item
+	 * @param settings Project configuration with issue sub-types definitions
+	 * @return this
+	 */
+	public StatisticsCounters addIssue(TestItem item, Project.Configuration settings) {
+		return countIssue(item, settings, 1);
+	}
+
+	/**
+	 * Discounts issue of provided item if any. Used to build delta of
+	 * issue type change
+	 *
+	 * @param item     Test item
+	 * @param settings Project configuration with issue sub-types definitions
+	 * @return this
+	 */
+	public StatisticsCounters removeIssue(TestItem item, Project.Configuration settings) {
+		return countIssue(item, settings, -1);
+	}
+
+	private StatisticsCounters countIssue(TestItem item, Project.Configuration settings, int value) {
+		if (null != item.getIssue()) {
+			String locator = item.getIssue().getIssueType();
+			StatisticSubType subType = settings.getByLocator(locator);
+			if (null != subType) {
+				TestItemIssueType group = TestItemIssueType.fromValue(subType.getTypeRef());
+				if (null != group) {
+					Map<String, Integer> counters = issues.computeIfAbsent(group, g -> new HashMap<>());
+					counters.merge(locator, value, Integer::sum);
+					counters.merge(IssueCounter.GROUP_TOTAL, value, Integer::sum);
+				}
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * Adds all counters of another accumulator
+	 *
+	 * @param other Accumulator to be added
+	 * @return this
+	 */
+	public StatisticsCounters add(StatisticsCounters other) {
+		total += other.total;
+		passed += other.passed;
+		failed += other.failed;
+		skipped += other.skipped;
+		other.issues.forEach((group, counters) -> {
+			Map<String, Integer> target = issues.computeIfAbsent(group, g -> new HashMap<>());
+			counters.forEach((locator, value) -> target.merge(locator, value, Integer::sum));
+		});
+		return this;
+	}
+
+	/**
+	 * @return Total executions counter
+	 */
+	public int getTotal() {
+		return total;
+	}
+
+	/**
+	 * @return <code>true</code> if nothing is counted
+	 */
+	public boolean isEmpty() {
+		return 0 == total && issues.isEmpty();
+	}
+
+	/**
+	 * Iterates over non-zero counters. Counters are provided with their property
+	 * paths relative to {@link Statistics}, e.g. <code>executionCounter.total</code>
+	 *
+	 * @param consumer Property path and counter value consumer
+	 */
+	public void forEachCounter(BiConsumer<String, Integer> consumer) {
+		acceptNonZero(consumer, EXECUTION_COUNTER + ".total", total);
+		acceptNonZero(consumer, EXECUTION_COUNTER + ".passed", passed);
+		acceptNonZero(consumer, EXECUTION_COUNTER + ".failed", failed);
+		acceptNonZero(consumer, EXECUTION_COUNTER + ".skipped", skipped);
+		issues.forEach((group, counters) -> counters
+				.forEach((locator, value) -> acceptNonZero(consumer, ISSUE_COUNTER + "." + issueGroupField(group) + "." + locator, value)));
+	}
+
+	/**
+	 * @return Statistics entity with accumulated counters
+	 */
+	public Statistics toStatistics() {
+		return new Statistics(new ExecutionCounter(total, passed, failed, skipped),
+				new IssueCounter(issueGroup(TestItemIssueType.PRODUCT_BUG), issueGroup(TestItemIssueType.AUTOMATION_BUG),
+						issueGroup(TestItemIssueType.SYSTEM_ISSUE), issueGroup(TestItemIssueType.TO_INVESTIGATE),
+						issueGroup(TestItemIssueType.NO_DEFECT)));
+	}
+
+	/**
+	 * @return Non-zero counters by their property paths relative to {@link Statistics}
+	 * @see #forEachCounter(BiConsumer)
+	 */
+	public Map<String, Integer> toMap() {
+		Map<String, Integer> result = new HashMap<>();
+		forEachCounter(result::put);
+		return result;
+	}
+
+	private void putIssueGroup(TestItemIssueType group, Map<String, Integer> counters) {
+		if (null != counters) {
+			Map<String, Integer> target = issues.computeIfAbsent(group, g -> new HashMap<>());
+			counters.forEach((locator, value) -> target.merge(locator, valueOf(value), Integer::sum));
+		}
+	}
+
+	private static int valueOf(Integer value) {
+		return null == value ? 0 : value;
+	}
+
+	private static void acceptNonZero(BiConsumer<String, Integer> consumer, String path, int value) {
+		if (0 != value) {
+			consumer.accept(path, value);
+		}
+	}
+
+	private static String issueGroupField(TestItemIssueType group) {
+		switch (group) {
+			case PRODUCT_BUG:
+				return "productBug";
+			case AUTOMATION_BUG:
+				return "automationBug";
+			case SYSTEM_ISSUE:
+				return "systemIssue";
+			case TO_INVESTIGATE:
+				return "toInvestigate";
+			default:
+				return "noDefect";
+		}
+	}
+
+	private Map<String, Integer> issueGroup(TestItemIssueType group) {
+		Map<String, Integer> counters = new HashMap<>(issues.getOrDefault(group, new HashMap<>()));
+		counters.putIfAbsent(IssueCounter.GROUP_TOTAL, 0);
+		return counters;
+	}
+}
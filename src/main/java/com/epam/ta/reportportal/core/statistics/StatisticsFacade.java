@@ -124,6 +124,14 @@ public interface StatisticsFacade {
 	 */
 	TestItem identifyStatus(TestItem testItem);
 
+	/**
+	 * Checks if execution of the test item affects execution
+	 * statistics. Based on statistics calculating strategy
+	 * @param testItem
+	 * @return
+	 */
+	boolean awareExecutionStatistics(TestItem testItem);
+
 	/**
 	 * Checks if the test item can have issue. Based on
 	 * statistics calculating strategy
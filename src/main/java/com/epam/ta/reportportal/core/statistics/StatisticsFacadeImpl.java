@@ -21,18 +21,22 @@
 
 package com.epam.ta.reportportal.core.statistics;
 
+import com.epam.ta.reportportal.core.project.ProjectCache;
 import com.epam.ta.reportportal.database.dao.LaunchRepository;
-import com.epam.ta.reportportal.database.dao.ProjectRepository;
 import com.epam.ta.reportportal.database.dao.TestItemRepository;
 import com.epam.ta.reportportal.database.entity.Launch;
 import com.epam.ta.reportportal.database.entity.Project;
 import com.epam.ta.reportportal.database.entity.item.TestItem;
-import com.epam.ta.reportportal.database.entity.statistics.ExecutionCounter;
-import com.epam.ta.reportportal.database.entity.statistics.IssueCounter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.util.*;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
 
 /**
  * Default implementation of {@link StatisticsFacade}
@@ -43,6 +47,8 @@ import java.util.List;
 @Service
 public class StatisticsFacadeImpl implements StatisticsFacade {
 
+	private static final String STATISTICS = "statistics";
+
 	@Autowired
 	protected TestItemRepository testItemRepository;
 
@@ -50,7 +56,13 @@ public class StatisticsFacadeImpl implements StatisticsFacade {
 	private LaunchRepository launchRepository;
 
 	@Autowired
-	private ProjectRepository projectRepository;
+	private ProjectCache projectCache;
+
+	@Autowired
+	private MongoOperations mongoOperations;
+
+	@Autowired
+	private DeferredStatisticsUpdater deferredStatisticsUpdater;
 
 	@Override
 	public TestItem updateExecutionStatistics(final TestItem testItem) {
@@ -62,7 +74,7 @@ public class StatisticsFacadeImpl implements StatisticsFacade {
 	@Override
 	public TestItem updateIssueStatistics(final TestItem testItem) {
 		Launch launch = launchRepository.findOne(testItem.getLaunchRef());
-		Project project = projectRepository.findOne(launch.getProjectRef());
+		Project project = projectCache.get(launch.getProjectRef());
 		testItemRepository.updateIssueStatistics(testItem, project.getConfiguration());
 		launchRepository.updateIssueStatistics(testItem, project.getConfiguration());
 		return testItemRepository.findOne(testItem.getId());
@@ -71,7 +83,7 @@ public class StatisticsFacadeImpl implements StatisticsFacade {
 	@Override
 	public TestItem resetIssueStatistics(final TestItem testItem) {
 		Launch launch = launchRepository.findOne(testItem.getLaunchRef());
-		Project project = projectRepository.findOne(launch.getProjectRef());
+		Project project = projectCache.get(launch.getProjectRef());
 		testItemRepository.resetIssueStatistics(testItem, project.getConfiguration());
 		launchRepository.resetIssueStatistics(testItem, project.getConfiguration());
 		return testItemRepository.findOne(testItem.getId());
@@ -116,29 +128,41 @@ public class StatisticsFacadeImpl implements StatisticsFacade {
 
 	@Override
 	public void recalculateStatistics(Launch launch) {
-		deleteLaunchStatistics(launch);
-		testItemRepository.findByLaunch(launch)
-				.forEach(this::recalculateTestItemStatistics);
-
-		List<TestItem> withIssues = testItemRepository.findTestItemWithIssues(launch.getId());
-		withIssues.forEach(this::updateIssueStatistics);
-	}
+		/* Statistics are calculated from scratch, so buffered deltas are already taken into account */
+		deferredStatisticsUpdater.discard(launch.getId());
+		Project project = projectCache.get(launch.getProjectRef());
+		List<TestItem> items = new ArrayList<>(testItemRepository.findByLaunch(launch));
+
+		Map<String, StatisticsCounters> counters = new HashMap<>(items.size());
+		items.forEach(item -> counters.put(item.getId(), new StatisticsCounters()));
+		StatisticsCounters launchCounters = new StatisticsCounters();
+
+		/* Deepest items go first, so children are folded before their parents */
+		items.sort(Comparator.comparingInt((TestItem item) -> null == item.getPath() ? 0 : item.getPath().size()).reversed());
+		for (TestItem item : items) {
+			StatisticsCounters itemCounters = counters.get(item.getId());
+			if (awareExecutionStatistics(item)) {
+				itemCounters.addExecution(item);
+			}
+			itemCounters.addIssue(item, project.getConfiguration());
+			counters.getOrDefault(item.getParent(), launchCounters).add(itemCounters);
+		}
 
-	private void recalculateTestItemStatistics(TestItem item) {
-		this.updateExecutionStatistics(item);
-	}
+		if (!items.isEmpty()) {
+			BulkOperations bulk = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, TestItem.class);
+			counters.forEach((id, itemCounters) -> bulk
+					.updateOne(query(where("_id").is(id)), new Update().set(STATISTICS, itemCounters.toStatistics())));
+			bulk.execute();
+		}
 
-	private void deleteLaunchStatistics(Launch launch) {
-		testItemRepository.findByLaunch(launch).forEach(this::deleteTestItemStatistics);
-		launch.getStatistics().setExecutionCounter(new ExecutionCounter(0, 0, 0, 0));
-		launch.getStatistics().setIssueCounter(new IssueCounter());
-		launchRepository.save(launch);
+		launch.setStatistics(launchCounters.toStatistics());
+		mongoOperations.updateFirst(query(where("_id").is(launch.getId())), new Update().set(STATISTICS, launch.getStatistics()),
+				Launch.class);
 	}
 
-	private void deleteTestItemStatistics(TestItem item) {
-		item.getStatistics().setExecutionCounter(new ExecutionCounter(0, 0, 0, 0));
-		item.getStatistics().setIssueCounter(new IssueCounter());
-		testItemRepository.save(item);
+	@Override
+	public boolean awareExecutionStatistics(TestItem testItem) {
+		return true;
 	}
 
 	@Override
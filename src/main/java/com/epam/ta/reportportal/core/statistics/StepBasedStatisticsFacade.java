@@ -34,13 +34,18 @@ public class StepBasedStatisticsFacade extends StatisticsFacadeImpl implements S
 
 	@Override
 	public TestItem updateExecutionStatistics(final TestItem testItem) {
-		if (!testItem.hasChilds() && testItem.getType().awareStatistics()) {
+		if (awareExecutionStatistics(testItem)) {
 			return super.updateExecutionStatistics(testItem);
 		} else {
 			return testItem;
 		}
 	}
 
+	@Override
+	public boolean awareExecutionStatistics(TestItem testItem) {
+		return !testItem.hasChilds() && testItem.getType().awareStatistics();
+	}
+
 	@Override
 	public TestItem resetExecutionStatistics(TestItem testItem) {
 		if (testItem.getType().awareStatistics()) {
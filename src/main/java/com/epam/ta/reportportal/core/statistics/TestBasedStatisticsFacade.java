@@ -38,14 +38,19 @@ public class TestBasedStatisticsFacade extends StatisticsFacadeImpl implements S
 
     @Override
     public TestItem updateExecutionStatistics(final TestItem testItem) {
-        TestItemType type = testItem.getType();
-        if (type.awareStatistics() && type.sameLevel(TestItemType.TEST)) {
+        if (awareExecutionStatistics(testItem)) {
             return super.updateExecutionStatistics(testItem);
         } else {
             return testItem;
         }
     }
 
+    @Override
+    public boolean awareExecutionStatistics(TestItem testItem) {
+        TestItemType type = testItem.getType();
+        return type.awareStatistics() && type.sameLevel(TestItemType.TEST);
+    }
+
     @Override
     public TestItem resetExecutionStatistics(TestItem testItem) {
         TestItemType type = testItem.getType();
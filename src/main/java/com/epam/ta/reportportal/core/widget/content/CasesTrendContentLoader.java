@@ -56,6 +56,9 @@ public class CasesTrendContentLoader extends StatisticBasedContentLoader impleme
 	@Autowired
 	private LaunchRepository launchRepository;
 
+	@Autowired
+	private LaunchTrendStore launchTrendStore;
+
 	@Override
 	public Map<String, List<ChartObject>> loadContent(Filter filter, Sort sorting, int quantity, List<String> contentFields,
 			List<String> metaDataFields, Map<String, List<String>> options) {
@@ -80,13 +83,17 @@ public class CasesTrendContentLoader extends StatisticBasedContentLoader impleme
 		if (!field.equalsIgnoreCase(SORT_FIELD)) {
 			sorting = new Sort(Sort.Direction.DESC, SORT_FIELD);
 		}
-		launchRepository.loadWithCallback(filter, sorting, quantity, allFields, handler, COLLECTION);
-		List<ChartObject> rawData = handler.getResult();
+		Period period = (options.get(TIMELINE) != null) ? Period.findByName(options.get(TIMELINE).get(0)) : null;
+		/* Timeline of launch series is reduced from daily rows of trend store */
+		List<ChartObject> rawData = null == period ? null : launchTrendStore.loadPeaks(filter, sorting, quantity, contentFields).orElse(null);
+		if (null == rawData) {
+			launchRepository.loadWithCallback(filter, sorting, quantity, allFields, handler, COLLECTION);
+			rawData = handler.getResult();
+		}
 
 		Map<String, List<ChartObject>> result = new LinkedHashMap<>();
-		if ((options.get(TIMELINE) != null) && (Period.findByName(options.get(TIMELINE).get(0)) != null)) {
-			Map<String, List<ChartObject>> timeline = maxByDate(rawData, Period.findByName(options.get(TIMELINE).get(0)),
-					getTotalFieldName());
+		if (null != period) {
+			Map<String, List<ChartObject>> timeline = maxByDate(rawData, period, getTotalFieldName());
 			result.putAll(calculateGroupedDiffs(timeline, sorting));
 		} else {
 			result = calculateDiffs(rawData, sorting);
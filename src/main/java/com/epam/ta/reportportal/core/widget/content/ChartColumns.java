@@ -0,0 +1,166 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.ta.reportportal.core.widget.content;
+
+import com.epam.ta.reportportal.ws.model.widget.ChartObject;
+
+import java.util.*;
+
+/**
+ * Numeric columnar view of widget content rows. Values are kept as numbers
+ * until content is converted into {@link ChartObject} response: rows read
+ * from database as numbers are put into columns as is, values of existing
+ * {@link ChartObject} rows are parsed once into primitive array of their
+ * field. Absent and not numeric values are kept absent as {@link Double#NaN},
+ * so they are never mixed up with zero
+ */
+final class ChartColumns {
+
+	private final Map<String, Integer> fields;
+
+	/* Field index -> row index -> value */
+	private final double[][] columns;
+
+	private final long[] startTimes;
+
+	private ChartColumns(Map<String, Integer> fields, double[][] columns, long[] startTimes) {
+		this.fields = fields;
+		this.columns = columns;
+		this.startTimes = startTimes;
+	}
+
+	/**
+	 * @param rows   Content rows
+	 * @param fields Fields to be parsed
+	 * @return Columns of specified fields
+	 */
+	static ChartColumns of(List<ChartObject> rows, Collection<String> fields) {
+		Map<String, Integer> index = index(fields);
+		double[][] columns = absent(index.size(), rows.size());
+		long[] startTimes = new long[rows.size()];
+		for (int row = 0; row < rows.size(); row++) {
+			ChartObject object = rows.get(row);
+			startTimes[row] = parseLong(object.getStartTime());
+			if (null != object.getValues()) {
+				for (Map.Entry<String, Integer> field : index.entrySet()) {
+					columns[field.getValue()][row] = parseDouble(object.getValues().get(field.getKey()));
+				}
+			}
+		}
+		return new ChartColumns(index, columns, startTimes);
+	}
+
+	/**
+	 * @param fields     Fields of columns
+	 * @param startTimes Start time of each row in milliseconds
+	 * @param values     Numeric values of row by field, absent values are
+	 *                   missed
+	 * @return Columns of specified fields
+	 */
+	static ChartColumns of(Collection<String> fields, long[] startTimes, List<? extends Map<String, ? extends Number>> values) {
+		Map<String, Integer> index = index(fields);
+		double[][] columns = absent(index.size(), startTimes.length);
+		for (int row = 0; row < values.size(); row++) {
+			for (Map.Entry<String, Integer> field : index.entrySet()) {
+				Number value = values.get(row).get(field.getKey());
+				if (null != value) {
+					columns[field.getValue()][row] = value.doubleValue();
+				}
+			}
+		}
+		return new ChartColumns(index, columns, startTimes);
+	}
+
+	int size() {
+		return startTimes.length;
+	}
+
+	Set<String> fields() {
+		return fields.keySet();
+	}
+
+	/**
+	 * @param field Field name
+	 * @return Values of field by row, {@link Double#NaN} if value is absent
+	 */
+	double[] column(String field) {
+		Integer index = fields.get(field);
+		return null == index ? absent(1, size())[0] : columns[index];
+	}
+
+	/**
+	 * @param row    Row index
+	 * @param fields Field names
+	 * @return <code>true</code> if all specified values of row are present
+	 */
+	boolean isPresent(int row, String... fields) {
+		for (String field : fields) {
+			if (isAbsent(column(field)[row])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	long startTime(int row) {
+		return startTimes[row];
+	}
+
+	static boolean isAbsent(double value) {
+		return Double.isNaN(value);
+	}
+
+	private static Map<String, Integer> index(Collection<String> fields) {
+		Map<String, Integer> index = new LinkedHashMap<>();
+		fields.forEach(field -> index.putIfAbsent(field, index.size()));
+		return index;
+	}
+
+	private static double[][] absent(int fields, int rows) {
+		double[][] columns = new double[fields][rows];
+		for (double[] column : columns) {
+			Arrays.fill(column, Double.NaN);
+		}
+		return columns;
+	}
+
+	private static double parseDouble(String value) {
+		if (null == value) {
+			return Double.NaN;
+		}
+		try {
+			return Double.parseDouble(value);
+		} catch (NumberFormatException e) {
+			return Double.NaN;
+		}
+	}
+
+	private static long parseLong(String value) {
+		if (null == value) {
+			return 0;
+		}
+		try {
+			return Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+}
@@ -22,7 +22,6 @@
 package com.epam.ta.reportportal.core.widget.content;
 
 import com.epam.ta.reportportal.core.widget.impl.WidgetUtils;
-import com.epam.ta.reportportal.database.dao.LaunchRepository;
 import com.epam.ta.reportportal.database.entity.Launch;
 import com.epam.ta.reportportal.database.entity.filter.UserFilter;
 import com.epam.ta.reportportal.database.entity.item.TestItem;
@@ -31,17 +30,35 @@ import com.epam.ta.reportportal.database.search.Condition;
 import com.epam.ta.reportportal.database.search.Filter;
 import com.epam.ta.reportportal.database.search.FilterCondition;
 import com.epam.ta.reportportal.database.search.FilterConditionUtils;
+import com.epam.ta.reportportal.database.search.QueryBuilder;
 import com.epam.ta.reportportal.exception.ReportPortalException;
 import com.epam.ta.reportportal.ws.model.launch.Mode;
 import com.epam.ta.reportportal.ws.model.widget.ChartObject;
+import com.google.common.base.Splitter;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Sets;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
 import org.springframework.stereotype.Service;
 
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
+
+import static java.util.stream.Collectors.toList;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
 
 /**
  * Implementation of
@@ -53,8 +70,18 @@ import java.util.stream.Collectors;
 @Service("OldBuildFilterStrategy")
 public class GeneralFilterStrategy implements BuildFilterStrategy {
 
+	private static final String LAUNCH_REF = "launchRef";
+	private static final String PROJECT_REF = "projectRef";
+	private static final String MODE = "mode";
+
+	/* Amount of project launches checked for matching items by single query */
+	private static final int LAUNCHES_BATCH = 1000;
+
+	/* Restricts test items by absent launch, so nothing is matched */
+	private static final FilterCondition NO_LAUNCH = new FilterCondition(Condition.EXISTS, false, "false", TestItem.LAUNCH_CRITERIA);
+
 	@Autowired
-	private LaunchRepository launchRepository;
+	private MongoOperations mongoOperations;
 
 	@Autowired
 	private WidgetContentProvider widgetContentProvider;
@@ -76,7 +103,7 @@ public class GeneralFilterStrategy implements BuildFilterStrategy {
 		}
 		// all widget content should be selected per project, so added
 		// additional condition to filter
-		searchFilter.addConditions(getAdditionalConditions(searchFilter.getTarget(), projectName));
+		searchFilter.addConditions(getAdditionalConditions(searchFilter, projectName));
 		return widgetContentProvider.getChartContent(searchFilter, userFilter.getSelectionOptions(), contentOptions);
 	}
 
@@ -86,15 +113,16 @@ public class GeneralFilterStrategy implements BuildFilterStrategy {
 	 * <li>data only from current project;
 	 * <li>data only from non debug launches;
 	 *
-	 * @param type
+	 * @param searchFilter
 	 * @param projectName
 	 * @return FilterCondition
 	 */
-	private Set<FilterCondition> getAdditionalConditions(Class<?> type, String projectName) {
+	private Set<FilterCondition> getAdditionalConditions(Filter searchFilter, String projectName) {
+		Class<?> type = searchFilter.getTarget();
 		Set<FilterCondition> result = new HashSet<>();
 		// TODO consider to avoid this(if operations)
 		if (TestItem.class.equals(type)) {
-			result.add(getConditionForTestItem(projectName));
+			result.add(getConditionForTestItem(searchFilter, projectName));
 		} else if (type.equals(Launch.class)) {
 			result.add(new FilterCondition(Condition.EQUALS, false, projectName, Launch.PROJECT));
 			// skip in progress launches
@@ -110,18 +138,69 @@ public class GeneralFilterStrategy implements BuildFilterStrategy {
 	 * {@link TestItem} doen't has
 	 * {@link com.epam.ta.reportportal.database.entity.Project} field, in this
 	 * case<br>
-	 * we should find all launches by project and mode(not Debug mode) and use
-	 * them for searching<br>
-	 * testItem using "In" filter.
+	 * we should restrict testItem by launches of project in not Debug mode
+	 * using "In" filter.<br>
+	 * Launches of project (and of filter's own launch restriction if any) are
+	 * streamed by batches and only ones having items matching filter are kept,
+	 * so neither items of other projects are scanned nor launches without
+	 * matching items are added to condition.
 	 *
+	 * @param searchFilter
 	 * @param projectName
 	 * @return FilterCondition
 	 */
-	private FilterCondition getConditionForTestItem(String projectName) {
-		Filter filter = new Filter(Launch.class, Condition.EQUALS, false, projectName, Launch.PROJECT);
-		filter.addCondition(modeCondition);
-		List<Launch> launches = launchRepository.findIdsByFilter(filter);
-		final String value = launches.stream().map(Launch::getId).collect(Collectors.joining(Condition.VALUES_SEPARATOR));
-		return new FilterCondition(Condition.IN, false, value, TestItem.LAUNCH_CRITERIA);
+	private FilterCondition getConditionForTestItem(Filter searchFilter, String projectName) {
+		Query launchQuery = query(where(PROJECT_REF).is(projectName).and(MODE).is(Mode.DEFAULT.name()));
+		Optional<Set<String>> requested = getRequestedLaunches(searchFilter);
+		if (requested.isPresent()) {
+			if (requested.get().isEmpty()) {
+				return NO_LAUNCH;
+			}
+			launchQuery.addCriteria(where("_id").in(requested.get()));
+		}
+		launchQuery.fields().include("_id");
+
+		MongoConverter converter = mongoOperations.getConverter();
+		DBObject itemQuery = new QueryMapper(converter).getMappedObject(
+				QueryBuilder.newBuilder().with(searchFilter).build().getQueryObject(),
+				converter.getMappingContext().getPersistentEntity(TestItem.class));
+		DBCollection items = mongoOperations.getCollection(mongoOperations.getCollectionName(TestItem.class));
+
+		Set<String> launches = new LinkedHashSet<>();
+		try (CloseableIterator<Launch> iterator = mongoOperations.stream(launchQuery, Launch.class)) {
+			Iterators.partition(iterator, LAUNCHES_BATCH).forEachRemaining(batch -> {
+				DBObject batchQuery = new BasicDBObject("$and", Arrays.asList(itemQuery,
+						new BasicDBObject(LAUNCH_REF, new BasicDBObject("$in", batch.stream().map(Launch::getId).collect(toList())))));
+				items.distinct(LAUNCH_REF, batchQuery).forEach(launch -> launches.add(launch.toString()));
+			});
+		}
+		/* None of project launches has matching items */
+		return launches.isEmpty() ?
+				NO_LAUNCH :
+				new FilterCondition(Condition.IN, false, String.join(Condition.VALUES_SEPARATOR, launches), TestItem.LAUNCH_CRITERIA);
+	}
+
+	/**
+	 * IDs of launches filter is restricted by. Intersection of all not negative
+	 * EQUALS/IN conditions by launch
+	 *
+	 * @param searchFilter
+	 * @return Launch IDs if filter has launch conditions
+	 */
+	private static Optional<Set<String>> getRequestedLaunches(Filter searchFilter) {
+		Set<String> result = null;
+		for (FilterCondition condition : searchFilter.getFilterConditions()) {
+			if (TestItem.LAUNCH_CRITERIA.equals(condition.getSearchCriteria()) && !condition.isNegative() && (
+					Condition.EQUALS == condition.getCondition() || Condition.IN == condition.getCondition()) && null != condition.getValue()) {
+				Set<String> ids = Sets.newHashSet(Splitter.on(Condition.VALUES_SEPARATOR).trimResults().omitEmptyStrings()
+						.split(condition.getValue()));
+				if (null == result) {
+					result = ids;
+				} else {
+					result.retainAll(ids);
+				}
+			}
+		}
+		return Optional.ofNullable(result);
 	}
-}
\ No newline at end of file
+}
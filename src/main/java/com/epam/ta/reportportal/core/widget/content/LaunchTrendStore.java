@@ -0,0 +1,549 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.ta.reportportal.core.widget.content;
+
+import com.epam.ta.reportportal.core.statistics.StatisticsCounters;
+import com.epam.ta.reportportal.core.widget.content.StatisticBasedContentLoader.Period;
+import com.epam.ta.reportportal.core.widget.impl.WidgetUtils;
+import com.epam.ta.reportportal.database.dao.LaunchRepository;
+import com.epam.ta.reportportal.database.entity.Launch;
+import com.epam.ta.reportportal.database.entity.Status;
+import com.epam.ta.reportportal.database.entity.item.TestItem;
+import com.epam.ta.reportportal.database.entity.statistics.Statistics;
+import com.epam.ta.reportportal.database.search.Condition;
+import com.epam.ta.reportportal.database.search.Filter;
+import com.epam.ta.reportportal.database.search.FilterCondition;
+import com.epam.ta.reportportal.database.search.FilterConditionUtils;
+import com.epam.ta.reportportal.events.ItemIssueTypeDefined;
+import com.epam.ta.reportportal.events.LaunchDeletedEvent;
+import com.epam.ta.reportportal.events.LaunchFinishForcedEvent;
+import com.epam.ta.reportportal.ws.model.launch.Mode;
+import com.epam.ta.reportportal.ws.model.widget.ChartObject;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.joda.time.DateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Pre-aggregated daily series of launch statistics per project and launch
+ * name. Each {@link Bucket} holds sum of statistics of finished launches
+ * started within day and statistics of launch with max total executions.
+ * Trend widgets with timeline read one row per day instead of one row per
+ * launch and group them by the same {@link StatisticBasedContentLoader}
+ * methods launch rows are grouped by, so both paths produce identical
+ * content.
+ * <br>
+ * Bucket of launch is recalculated once launch is finished (after
+ * auto-analysis), interrupted, merged, deleted, moved to/from debug mode or
+ * issues of its items are defined. Window of launches is served only if all
+ * of its launches are recorded. Buckets of launches finished before store is
+ * introduced are backfilled in background after startup, until then widgets
+ * fall back to launches scan.
+ */
+@Component
+public class LaunchTrendStore {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(LaunchTrendStore.class);
+
+	private static final String STATISTICS_PREFIX = "statistics.";
+
+	private static final String BACKFILL_ID = "launchTrend";
+
+	private static final int BACKFILL_BATCH = 500;
+
+	private final MongoOperations mongoOperations;
+
+	private final LaunchRepository launchRepository;
+
+	private final WidgetContentCache widgetContentCache;
+
+	private final WidgetContentSnapshots widgetContentSnapshots;
+
+	private final TaskExecutor backfillExecutor;
+
+	private final AtomicBoolean backfillStarted = new AtomicBoolean();
+
+	@Autowired
+	public LaunchTrendStore(MongoOperations mongoOperations, LaunchRepository launchRepository, WidgetContentCache widgetContentCache,
+			WidgetContentSnapshots widgetContentSnapshots, @Qualifier("launchTrendBackfillTaskExecutor") TaskExecutor backfillExecutor) {
+		this.mongoOperations = mongoOperations;
+		this.launchRepository = launchRepository;
+		this.widgetContentCache = widgetContentCache;
+		this.widgetContentSnapshots = widgetContentSnapshots;
+		this.backfillExecutor = backfillExecutor;
+	}
+
+	/**
+	 * Recalculates bucket provided launch belongs to
+	 *
+	 * @param launch Launch
+	 */
+	public void refresh(Launch launch) {
+		refresh(Collections.singletonList(launch));
+	}
+
+	/**
+	 * Recalculates buckets provided launches belong to. Each bucket is
+	 * recalculated once
+	 *
+	 * @param launches Launches
+	 */
+	public void refresh(Collection<Launch> launches) {
+		Set<Key> keys = new LinkedHashSet<>();
+		for (Launch launch : launches) {
+			if (null != launch && null != launch.getStartTime()) {
+				keys.add(keyOf(launch));
+			}
+		}
+		keys.forEach(this::recalculate);
+		keys.stream().map(key -> key.project).distinct().forEach(project -> {
+			widgetContentCache.invalidateProject(project);
+			widgetContentSnapshots.invalidateProject(project);
+		});
+	}
+
+	/**
+	 * Drops all buckets and backfill progress, so buckets are backfilled
+	 * from scratch on next startup
+	 *
+	 * @param mongoOperations Mongo operations
+	 */
+	public static void reset(MongoOperations mongoOperations) {
+		mongoOperations.dropCollection(Bucket.class);
+		mongoOperations.dropCollection(Backfill.class);
+	}
+
+	@EventListener
+	public void onContextRefreshed(ContextRefreshedEvent event) {
+		if (backfillStarted.compareAndSet(false, true)) {
+			backfillExecutor.execute(() -> {
+				try {
+					backfill();
+				} catch (Exception e) {
+					LOGGER.error("Launch trend backfill is interrupted. It will be resumed on next startup", e);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Builds buckets of all series of finished launches. Series are processed
+	 * one by one in order of project and name, and progress is saved after
+	 * each series, so interrupted backfill is resumed from the next series.
+	 * Launches are streamed in order of start time, so only launches of one
+	 * day are kept in memory. Buckets are only inserted: buckets already
+	 * recalculated by launch events are never overwritten
+	 */
+	void backfill() {
+		Backfill progress = Optional.ofNullable(mongoOperations.findById(BACKFILL_ID, Backfill.class)).orElseGet(Backfill::new);
+		if (progress.completed) {
+			return;
+		}
+		progress.id = BACKFILL_ID;
+		Aggregation series = Aggregation.newAggregation(
+				Aggregation.match(where("mode").is(Mode.DEFAULT).and("status").ne(Status.IN_PROGRESS)), Aggregation.group("projectRef", "name"),
+				Aggregation.sort(Sort.Direction.ASC, "projectRef", "name"))
+				.withOptions(Aggregation.newAggregationOptions().allowDiskUse(true).build());
+		for (DBObject result : mongoOperations.aggregate(series, Launch.class, DBObject.class)) {
+			DBObject key = (DBObject) result.get("_id");
+			String project = (String) key.get("projectRef");
+			String name = (String) key.get("name");
+			if (null != progress.projectRef && compare(project, name, progress.projectRef, progress.name) <= 0) {
+				continue;
+			}
+			backfill(project, name);
+			progress.projectRef = project;
+			progress.name = name;
+			mongoOperations.save(progress);
+		}
+		progress.completed = true;
+		mongoOperations.save(progress);
+	}
+
+	private void backfill(String project, String name) {
+		Query launchesQuery = query(finishedLaunches(project, name)).with(new Sort(Sort.Direction.ASC, "startTime"));
+		launchesQuery.fields().include("projectRef").include("name").include("number").include("startTime").include("statistics");
+		BulkOperations bulk = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, Bucket.class);
+		int queued = 0;
+		Key day = null;
+		List<Launch> launches = new ArrayList<>();
+		try (CloseableIterator<Launch> iterator = mongoOperations.stream(launchesQuery, Launch.class)) {
+			while (iterator.hasNext()) {
+				Launch launch = iterator.next();
+				if (null == launch.getStartTime()) {
+					continue;
+				}
+				Key key = keyOf(launch);
+				if (!key.equals(day) && !launches.isEmpty()) {
+					queueInsert(bulk, toBucket(day, launches));
+					launches = new ArrayList<>();
+					if (++queued == BACKFILL_BATCH) {
+						bulk.execute();
+						bulk = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, Bucket.class);
+						queued = 0;
+					}
+				}
+				day = key;
+				launches.add(launch);
+			}
+		}
+		if (!launches.isEmpty()) {
+			queueInsert(bulk, toBucket(day, launches));
+			queued++;
+		}
+		if (queued > 0) {
+			bulk.execute();
+		}
+	}
+
+	private void queueInsert(BulkOperations bulk, Bucket bucket) {
+		DBObject document = new BasicDBObject();
+		mongoOperations.getConverter().write(bucket, document);
+		Update update = new Update();
+		document.keySet().stream().filter(field -> !"_id".equals(field)).forEach(field -> update.setOnInsert(field, document.get(field)));
+		bulk.upsert(query(where("_id").is(bucket.id)), update);
+	}
+
+	@EventListener
+	public void onLaunchDeleted(LaunchDeletedEvent event) {
+		refresh(event.getLaunch());
+	}
+
+	@EventListener
+	public void onLaunchFinishForced(LaunchFinishForcedEvent event) {
+		refresh(launchRepository.findOne(event.getLaunch().getId()));
+	}
+
+	@EventListener
+	public void onIssueTypeDefined(ItemIssueTypeDefined event) {
+		Set<String> launchIds = event.getBefore().values().stream().map(TestItem::getLaunchRef).collect(Collectors.toSet());
+		refresh(launchRepository.find(launchIds));
+	}
+
+	/**
+	 * Loads one row of summed statistics per day. Rows are expected to be
+	 * grouped the same way as rows of launches. Counters are kept numeric
+	 * until grouped content is built
+	 *
+	 * @return Rows if filter can be served by store
+	 * @see StatisticBasedContentLoader#groupByDate(ChartColumns, Period)
+	 */
+	Optional<ChartColumns> loadSums(Filter filter, Sort sorting, int quantity, List<String> contentFields) {
+		return load(filter, sorting, quantity, contentFields).map(buckets -> {
+			/* Row of sums takes start time of day's peak launch, any time within day is grouped the same */
+			long[] startTimes = buckets.stream().mapToLong(bucket -> bucket.peakStartTime.getTime()).toArray();
+			List<Map<String, Integer>> values = buckets.stream()
+					.map(bucket -> valuesOf(bucket.statistics, contentFields))
+					.collect(Collectors.toList());
+			return ChartColumns.of(contentFields, startTimes, values);
+		});
+	}
+
+	/**
+	 * Loads one row per day with statistics of launch with max total
+	 * executions. Rows are expected to be grouped the same way as rows of
+	 * launches
+	 *
+	 * @return Rows if filter can be served by store
+	 * @see StatisticBasedContentLoader#maxByDate(List, Period, String)
+	 */
+	public Optional<List<ChartObject>> loadPeaks(Filter filter, Sort sorting, int quantity, List<String> contentFields) {
+		return load(filter, sorting, quantity, contentFields).map(
+				buckets -> buckets.stream().map(bucket -> toChartObject(bucket, contentFields)).collect(Collectors.toList()));
+	}
+
+	private Optional<List<Bucket>> load(Filter filter, Sort sorting, int quantity, List<String> contentFields) {
+		Optional<Key> series = seriesOf(filter, sorting, contentFields);
+		if (!series.isPresent()) {
+			return Optional.empty();
+		}
+		String project = series.get().project;
+		String name = series.get().name;
+		/* Newest buckets which cover requested quantity of launches. Each bucket has at least one launch */
+		List<Bucket> buckets = new ArrayList<>();
+		int launches = 0;
+		for (Bucket bucket : mongoOperations.find(
+				query(where("projectRef").is(project).and("name").is(name)).with(new Sort(Sort.Direction.DESC, "start")).limit(quantity),
+				Bucket.class)) {
+			if (launches >= quantity) {
+				break;
+			}
+			buckets.add(bucket);
+			launches += bucket.launches;
+		}
+		/* Launches finished since the oldest bucket but not recorded yet (or not backfilled) can't be served */
+		Criteria window = finishedLaunches(project, name);
+		if (!buckets.isEmpty()) {
+			window = window.and("startTime").gte(buckets.get(buckets.size() - 1).start);
+		}
+		if (mongoOperations.count(query(window), Launch.class) != launches) {
+			return Optional.empty();
+		}
+		if (launches > quantity) {
+			/* Only the newest launches of the oldest day are requested */
+			Bucket oldest = buckets.get(buckets.size() - 1);
+			List<Launch> newest = mongoOperations.find(query(finishedLaunches(project, name).and("startTime")
+					.gte(oldest.start)
+					.lt(Period.DAY.next(new DateTime(oldest.start)).toDate())).with(new Sort(Sort.Direction.DESC, "startTime"))
+					.limit(oldest.launches - (launches - quantity)), Launch.class);
+			if (newest.isEmpty()) {
+				return Optional.empty();
+			}
+			buckets.set(buckets.size() - 1, toBucket(new Key(project, name, oldest.start), newest));
+		}
+		return Optional.of(buckets);
+	}
+
+	/**
+	 * Store keeps series of launches with the same name only. So filter
+	 * should have launch name condition and conditions widget content is
+	 * restricted by (project, mode, not in progress status) only. Newest
+	 * launches are expected to be requested
+	 *
+	 * @return Project and launch name of series if filter can be served by
+	 * store
+	 */
+	private static Optional<Key> seriesOf(Filter filter, Sort sorting, List<String> contentFields) {
+		if (!Launch.class.equals(filter.getTarget()) || contentFields.stream().anyMatch(field -> !field.startsWith(STATISTICS_PREFIX))) {
+			return Optional.empty();
+		}
+		Sort.Order order = sorting.iterator().next();
+		if (!WidgetUtils.START_TIME.equals(order.getProperty()) || Sort.Direction.DESC != order.getDirection()) {
+			return Optional.empty();
+		}
+		FilterCondition notInProgress = FilterConditionUtils.LAUNCH_NOT_IN_PROGRESS();
+		String project = null;
+		String name = null;
+		boolean defaultMode = false;
+		boolean finished = false;
+		for (FilterCondition condition : filter.getFilterConditions()) {
+			String criteria = condition.getSearchCriteria();
+			boolean equals = Condition.EQUALS == condition.getCondition() && !condition.isNegative();
+			if (Launch.PROJECT.equals(criteria) && equals && (null == project || project.equals(condition.getValue()))) {
+				project = condition.getValue();
+			} else if (Launch.NAME.equals(criteria) && equals && (null == name || name.equals(condition.getValue()))) {
+				name = condition.getValue();
+			} else if (Launch.MODE_CRITERIA.equals(criteria) && equals && Mode.DEFAULT.name().equals(condition.getValue())) {
+				defaultMode = true;
+			} else if (criteria.equals(notInProgress.getSearchCriteria()) && notInProgress.getCondition() == condition.getCondition()
+					&& notInProgress.isNegative() == condition.isNegative() && notInProgress.getValue().equals(condition.getValue())) {
+				finished = true;
+			} else {
+				return Optional.empty();
+			}
+		}
+		return null != project && null != name && defaultMode && finished ? Optional.of(new Key(project, name, null)) : Optional.empty();
+	}
+
+	private void recalculate(Key key) {
+		Date end = Period.DAY.next(new DateTime(key.start)).toDate();
+		List<Launch> launches = mongoOperations.find(query(finishedLaunches(key.project, key.name).and("startTime").gte(key.start).lt(end)),
+				Launch.class);
+		if (launches.isEmpty()) {
+			mongoOperations.remove(query(where("_id").is(key.id())), Bucket.class);
+			return;
+		}
+		mongoOperations.save(toBucket(key, launches));
+	}
+
+	/**
+	 * @return Key of bucket of day launch belongs to. Day is truncated in the
+	 * same time zone launch rows are grouped in
+	 */
+	private static Key keyOf(Launch launch) {
+		return new Key(launch.getProjectRef(), launch.getName(), Period.DAY.truncate(new DateTime(launch.getStartTime())).toDate());
+	}
+
+	private static Criteria finishedLaunches(String project, String name) {
+		return where("projectRef").is(project).and("name").is(name).and("mode").is(Mode.DEFAULT).and("status").ne(Status.IN_PROGRESS);
+	}
+
+	private static int compare(String project, String name, String otherProject, String otherName) {
+		int result = project.compareTo(otherProject);
+		return 0 != result ? result : name.compareTo(otherName);
+	}
+
+	/**
+	 * Same as launch rows are built by statistics document handler: values
+	 * are integer counters, start time is in milliseconds
+	 */
+	private static ChartObject toChartObject(Bucket bucket, List<String> contentFields) {
+		ChartObject chartObject = new ChartObject();
+		chartObject.setStartTime(String.valueOf(bucket.peakStartTime.getTime()));
+		chartObject.setId(bucket.peakId);
+		chartObject.setName(bucket.name);
+		chartObject.setNumber(bucket.peakNumber);
+		Map<String, String> values = new HashMap<>();
+		valuesOf(bucket.peak, contentFields).forEach((field, value) -> values.put(field, String.valueOf(value)));
+		chartObject.setValues(values);
+		return chartObject;
+	}
+
+	/**
+	 * @return Counters of requested content fields. Fields without counter
+	 * are absent
+	 */
+	private static Map<String, Integer> valuesOf(Statistics statistics, List<String> contentFields) {
+		Map<String, Integer> counters = StatisticsCounters.of(statistics).toMap();
+		Map<String, Integer> values = new HashMap<>();
+		for (String field : contentFields) {
+			Integer value = counters.get(field.substring(STATISTICS_PREFIX.length()));
+			if (null != value) {
+				values.put(field, value);
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Peak is a launch with max total executions. The latest launch wins in
+	 * case of equal totals, the same as launch rows are reduced
+	 */
+	private static Bucket toBucket(Key key, List<Launch> launches) {
+		StatisticsCounters sum = new StatisticsCounters();
+		Launch peak = null;
+		int peakTotal = -1;
+		for (Launch launch : launches) {
+			StatisticsCounters counters = StatisticsCounters.of(launch.getStatistics());
+			sum.add(counters);
+			if (counters.getTotal() > peakTotal || (counters.getTotal() == peakTotal && launch.getStartTime().after(peak.getStartTime()))) {
+				peak = launch;
+				peakTotal = counters.getTotal();
+			}
+		}
+		Bucket bucket = new Bucket();
+		bucket.id = key.id();
+		bucket.projectRef = key.project;
+		bucket.name = key.name;
+		bucket.start = key.start;
+		bucket.launches = launches.size();
+		bucket.statistics = sum.toStatistics();
+		bucket.peak = peak.getStatistics();
+		bucket.peakId = peak.getId();
+		bucket.peakNumber = String.valueOf(peak.getNumber());
+		bucket.peakStartTime = peak.getStartTime();
+		return bucket;
+	}
+
+	/**
+	 * Statistics of launches with the same name started within day
+	 */
+	@Document(collection = "launchTrend")
+	@CompoundIndex(name = "project_name_start", def = "{'projectRef': 1, 'name': 1, 'start': -1}")
+	public static class Bucket {
+
+		@Id
+		private String id;
+
+		private String projectRef;
+
+		private String name;
+
+		private Date start;
+
+		private int launches;
+
+		private Statistics statistics;
+
+		private Statistics peak;
+
+		private String peakId;
+
+		private String peakNumber;
+
+		private Date peakStartTime;
+	}
+
+	/**
+	 * Last series backfill is done for
+	 */
+	@Document(collection = "launchTrendBackfill")
+	static class Backfill {
+
+		@Id
+		private String id;
+
+		private String projectRef;
+
+		private String name;
+
+		private boolean completed;
+	}
+
+	private static class Key {
+
+		private final String project;
+		private final String name;
+		private final Date start;
+
+		Key(String project, String name, Date start) {
+			this.project = project;
+			this.name = name;
+			this.start = start;
+		}
+
+		String id() {
+			return project + "|" + name + "|" + start.getTime();
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			Key key = (Key) o;
+			return Objects.equals(project, key.project) && Objects.equals(name, key.name) && Objects.equals(start, key.start);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(project, name, start);
+		}
+	}
+}
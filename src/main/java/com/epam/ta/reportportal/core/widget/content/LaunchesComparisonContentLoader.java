@@ -72,65 +72,68 @@ public class LaunchesComparisonContentLoader extends StatisticBasedContentLoader
 	private Map<String, List<ChartObject>> convertResult(List<ChartObject> objects) {
 		DecimalFormat formatter = new DecimalFormat("###.##");
 
-		for (ChartObject object : objects) {
+		ChartColumns columns = ChartColumns.of(objects, ImmutableList.of(getTotalFieldName(), getFailedFieldName(), getSkippedFieldName(),
+				getToInvestigateFieldName(), getProductBugFieldName(), getSystemIssueFieldName(), getAutomationBugFieldName(),
+				getNoDefectFieldName()));
+		double[] total = columns.column(getTotalFieldName());
+		double[] failed = columns.column(getFailedFieldName());
+		double[] skipped = columns.column(getSkippedFieldName());
+		double[] toInvestigate = columns.column(getToInvestigateFieldName());
+		double[] productBugs = columns.column(getProductBugFieldName());
+		double[] systemIssues = columns.column(getSystemIssueFieldName());
+		double[] automationBugs = columns.column(getAutomationBugFieldName());
+		double[] noDefects = columns.column(getNoDefectFieldName());
+
+		for (int row = 0; row < objects.size(); row++) {
 			Map<String, String> values = new HashMap<>();
-			/* Total */
-			Double totalValue = Double.valueOf(object.getValues().get(getTotalFieldName()));
-			values.put(getTotalFieldName(), formatter.format(totalValue));
-
-			/* Failed */
-			Double failedItems = totalValue.intValue() == 0 ? 0.0
-					: Double.valueOf(object.getValues().get(getFailedFieldName())) / totalValue * 100;
-			values.put(getFailedFieldName(), formatter.format(failedItems));
-
-			/* Skipped */
-			Double skippedItems = totalValue.intValue() == 0 ? 0.0
-					: Double.valueOf(object.getValues().get(getSkippedFieldName())) / totalValue * 100;
-			values.put(getSkippedFieldName(), formatter.format(skippedItems));
-
-			/* Passed */
-			values.put(getPassedFieldName(), formatter.format((totalValue.intValue() == 0) ? 0.0 : 100 - failedItems - skippedItems));
-
-			/* To Investigate */
-			int toInvestigateQuantity = Integer.parseInt(object.getValues().get(getToInvestigateFieldName()));
-
-			/* Product Bugs */
-			int productBugsQuantity = Integer.parseInt(object.getValues().get(getProductBugFieldName()));
-
-			/* System Issues */
-			int systemIssuesQuantity = Integer.parseInt(object.getValues().get(getSystemIssueFieldName()));
-
-			/* Automation Bugs */
-			int testBugsQuantity = Integer.parseInt(object.getValues().get(getAutomationBugFieldName()));
-
-			String noDefectValue = object.getValues().get(getNoDefectFieldName());
-			int noDefectQuantity = noDefectValue == null ? 0 : Integer.parseInt(noDefectValue);
-
-			int failedQuantity = toInvestigateQuantity + productBugsQuantity + systemIssuesQuantity + testBugsQuantity + noDefectQuantity;
-			if (failedQuantity != 0) {
-				Double investigatedItems = (double) toInvestigateQuantity / failedQuantity * 100;
-				values.put(getToInvestigateFieldName(), formatter.format(investigatedItems));
-
-				Double productBugItems = (double) productBugsQuantity / failedQuantity * 100;
-				values.put(getProductBugFieldName(), formatter.format(productBugItems));
-
-				Double systemIssueItems = (double) systemIssuesQuantity / failedQuantity * 100;
-				values.put(getSystemIssueFieldName(), formatter.format(systemIssueItems));
-
-				Double noDefectItems = (double) noDefectQuantity / failedQuantity * 100;
-				values.put(getNoDefectFieldName(), formatter.format(noDefectItems));
+			/* Percentages of absent statistics are absent as well */
+			if (columns.isPresent(row, getTotalFieldName(), getFailedFieldName(), getSkippedFieldName())) {
+				/* Total */
+				double totalValue = total[row];
+				values.put(getTotalFieldName(), formatter.format(totalValue));
+
+				/* Failed */
+				double failedItems = totalValue == 0 ? 0.0 : failed[row] / totalValue * 100;
+				values.put(getFailedFieldName(), formatter.format(failedItems));
+
+				/* Skipped */
+				double skippedItems = totalValue == 0 ? 0.0 : skipped[row] / totalValue * 100;
+				values.put(getSkippedFieldName(), formatter.format(skippedItems));
+
+				/* Passed */
+				values.put(getPassedFieldName(), formatter.format(totalValue == 0 ? 0.0 : 100 - failedItems - skippedItems));
+			}
 
-				values.put(getAutomationBugFieldName(),
-						formatter.format(100 - investigatedItems - productBugItems - systemIssueItems - noDefectItems));
-			} else {
-				String formatted = formatter.format(0.0);
-				values.put(getToInvestigateFieldName(), formatted);
-				values.put(getProductBugFieldName(), formatted);
-				values.put(getSystemIssueFieldName(), formatted);
-				values.put(getAutomationBugFieldName(), formatted);
-				values.put(getNoDefectFieldName(), formatted);
+			if (columns.isPresent(row, getToInvestigateFieldName(), getProductBugFieldName(), getSystemIssueFieldName(),
+					getAutomationBugFieldName())) {
+				/* No defect statistics is absent in launches created before it was introduced */
+				double noDefect = ChartColumns.isAbsent(noDefects[row]) ? 0 : noDefects[row];
+				double failedQuantity = toInvestigate[row] + productBugs[row] + systemIssues[row] + automationBugs[row] + noDefect;
+				if (failedQuantity != 0) {
+					double investigatedItems = toInvestigate[row] / failedQuantity * 100;
+					values.put(getToInvestigateFieldName(), formatter.format(investigatedItems));
+
+					double productBugItems = productBugs[row] / failedQuantity * 100;
+					values.put(getProductBugFieldName(), formatter.format(productBugItems));
+
+					double systemIssueItems = systemIssues[row] / failedQuantity * 100;
+					values.put(getSystemIssueFieldName(), formatter.format(systemIssueItems));
+
+					double noDefectItems = noDefect / failedQuantity * 100;
+					values.put(getNoDefectFieldName(), formatter.format(noDefectItems));
+
+					values.put(getAutomationBugFieldName(),
+							formatter.format(100 - investigatedItems - productBugItems - systemIssueItems - noDefectItems));
+				} else {
+					String formatted = formatter.format(0.0);
+					values.put(getToInvestigateFieldName(), formatted);
+					values.put(getProductBugFieldName(), formatted);
+					values.put(getSystemIssueFieldName(), formatted);
+					values.put(getAutomationBugFieldName(), formatted);
+					values.put(getNoDefectFieldName(), formatted);
+				}
 			}
-			object.setValues(values);
+			objects.get(row).setValues(values);
 		}
 		return Collections.singletonMap(RESULT, objects);
 	}
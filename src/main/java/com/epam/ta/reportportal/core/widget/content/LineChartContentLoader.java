@@ -37,6 +37,7 @@ import org.springframework.stereotype.Service;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Implementation of {@link IContentLoadingStrategy} for line chart
@@ -50,6 +51,9 @@ public class LineChartContentLoader extends StatisticBasedContentLoader implemen
 	@Autowired
 	private LaunchRepository launchRepository;
 
+	@Autowired
+	private LaunchTrendStore launchTrendStore;
+
 	@SuppressFBWarnings("NP_NULL_PARAM_DEREF")
 	@Override
 	public Map<String, List<ChartObject>> loadContent(Filter filter, Sort sorting, int quantity, List<String> contentFields,
@@ -58,14 +62,20 @@ public class LineChartContentLoader extends StatisticBasedContentLoader implemen
 		BusinessRule.expect(metaDataFields == null || metaDataFields.isEmpty(), Predicates.equalTo(Boolean.FALSE))
 				.verify(ErrorType.UNABLE_LOAD_WIDGET_CONTENT, "Metadata fields should exist for providing content.");
 
+		Period period = (options.get(TIMELINE) != null) ? Period.findByName(options.get(TIMELINE).get(0)) : null;
+		/* Timeline of launch series is grouped from daily rows of trend store */
+		Optional<ChartColumns> stored = null == period ? Optional.empty() : launchTrendStore.loadSums(filter, sorting, quantity, contentFields);
+		if (stored.isPresent()) {
+			return groupByDate(stored.get(), period);
+		}
 		List<String> allFields = ImmutableList.<String>builder().addAll(contentFields).addAll(metaDataFields).build();
 		StatisticsDocumentHandler handler = new StatisticsDocumentHandler(contentFields, metaDataFields);
 		String collectionName = getCollectionName(filter.getTarget());
 
 		// here can be used any repository which extends ReportPortalRepository
 		launchRepository.loadWithCallback(filter, sorting, quantity, allFields, handler, collectionName);
-		if ((options.get(TIMELINE) != null) && (Period.findByName(options.get(TIMELINE).get(0)) != null)) {
-			return groupByDate(handler.getResult(), Period.findByName(options.get(TIMELINE).get(0)));
+		if (null != period) {
+			return groupByDate(handler.getResult(), period);
 		}
 		return Collections.singletonMap(RESULT, handler.getResult());
 	}
@@ -38,6 +38,7 @@ import java.text.DecimalFormat;
 import java.util.*;
 import java.util.Map.Entry;
 
+import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
 
 /**
@@ -71,6 +72,9 @@ public class MostFailedTestCasesFilterStrategy implements BuildFilterStrategy {
 	@Autowired
 	private CriteriaMapFactory criteriaMapFactory;
 
+	@Autowired
+	private MostFailedTestCasesStore mostFailedTestCasesStore;
+
 	@Override
 	public Map<String, List<ChartObject>> buildFilterAndLoadContent(UserFilter userFilter, ContentOptions contentOptions,
 			String projectName) {
@@ -90,20 +94,20 @@ public class MostFailedTestCasesFilterStrategy implements BuildFilterStrategy {
 			return result;
 		}
 
-		String criteria = new StatisticBasedContentLoader().getSystemIssueFieldName();
-		if (null != contentOptions.getContentFields() && contentOptions.getContentFields().size() >= 1) {
-			criteria = WidgetContentProvider.transformToDBStyle(criteriaMapFactory.getCriteriaMap(Launch.class),
-					contentOptions.getContentFields()).get(0);
-		}
+		String criteria = null != contentOptions.getContentFields() && contentOptions.getContentFields().size() >= 1 ?
+				WidgetContentProvider.transformToDBStyle(criteriaMapFactory.getCriteriaMap(Launch.class), contentOptions.getContentFields())
+						.get(0) :
+				new StatisticBasedContentLoader().getSystemIssueFieldName();
 
 		List<Launch> launchHistory = historyServiceStrategy.loadLaunches(contentOptions.getItemsCount(), lastLaunchForProject.get().getId(),
 				projectName, false);
 		if (launchHistory.isEmpty()) {
 			return result;
 		}
-		Map<String, String> dbProcessor = itemRepository.getMostFailedTestCases(launchHistory, criteria);
-
-		Map<String, ComplexValue> dbProcessed = this.mapAggregationConvert(dbProcessor);
+		/* Aggregate test items of launches if runs of some launch are not recorded */
+		Map<String, ComplexValue> dbProcessed = mostFailedTestCasesStore.load(projectName,
+				contentOptions.getWidgetOptions().get(LAUNCH_NAME_FIELD).get(0), launchHistory.stream().map(Launch::getId).collect(toList()),
+				criteria, ITEMS_COUNT_VALUE).orElseGet(() -> this.mapAggregationConvert(itemRepository.getMostFailedTestCases(launchHistory, criteria)));
 		// Hack due history method missed launch Name field
 		// TODO review launches formation or wait till widgets refactoring
 		launchHistory.get(0).setName(contentOptions.getWidgetOptions().get(LAUNCH_NAME_FIELD).get(0));
@@ -151,22 +155,10 @@ public class MostFailedTestCasesFilterStrategy implements BuildFilterStrategy {
 	 * @param map
 	 * @return
 	 */
-	@SuppressWarnings("hiding")
-	private static <K, ComplexValue extends Comparable<? super ComplexValue>> LinkedHashMap<K, ComplexValue> sortByValue(
-			Map<K, ComplexValue> map) {
-		List<Map.Entry<K, ComplexValue>> list = new LinkedList<>(map.entrySet());
-		Collections.sort(list, Comparator.comparing(object -> (object.getValue())));
+	private static LinkedHashMap<String, ComplexValue> sortByValue(Map<String, ComplexValue> map) {
 		// Splitter for TOP-20 values included
-		LinkedHashMap<K, ComplexValue> result = new LinkedHashMap<>();
-		int counter = 0;
-		for (Map.Entry<K, ComplexValue> entry : list) {
-			if (counter < ITEMS_COUNT_VALUE) {
-				result.put(entry.getKey(), entry.getValue());
-				counter++;
-			} else
-				break;
-		}
-		return result;
+		return map.entrySet().stream().sorted(Entry.comparingByValue()).limit(ITEMS_COUNT_VALUE)
+				.collect(toMap(Entry::getKey, Entry::getValue, (a, b) -> a, LinkedHashMap::new));
 	}
 
 	/**
@@ -0,0 +1,351 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.ta.reportportal.core.widget.content;
+
+import com.epam.ta.reportportal.core.statistics.StatisticsCounters;
+import com.epam.ta.reportportal.core.widget.content.MostFailedTestCasesFilterStrategy.ComplexValue;
+import com.epam.ta.reportportal.database.entity.Launch;
+import com.epam.ta.reportportal.database.entity.item.TestItem;
+import com.epam.ta.reportportal.events.ItemIssueTypeDefined;
+import com.epam.ta.reportportal.events.LaunchDeletedEvent;
+import com.epam.ta.reportportal.events.LaunchFinishForcedEvent;
+import com.epam.ta.reportportal.ws.model.launch.Mode;
+import com.google.common.collect.ImmutableList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.epam.ta.reportportal.util.Aggregations.stage;
+import static java.util.stream.Collectors.toSet;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Materialized results of test cases per project and launch name. For each
+ * test case (test item without children, identified by name) recent runs
+ * are kept as launch number, item start time and bit flags of criteria
+ * item statistics are non-zero for. Runs of launch are recorded once it is
+ * finished (or merged), recorded again in background once issues of its
+ * items are defined and removed once it is deleted.
+ * <br>
+ * Most failed test cases widget counts runs within its launches window on
+ * database side instead of aggregating test items of all launches of
+ * window. Window is served only if all of its launches are recorded.
+ */
+@Component
+public class MostFailedTestCasesStore {
+
+	/**
+	 * Supported criteria. Index of criteria is the bit of its flag
+	 */
+	static final List<String> CRITERIA = ImmutableList.of("statistics.executionCounter.failed", "statistics.executionCounter.skipped",
+			"statistics.issueCounter.productBug.total", "statistics.issueCounter.automationBug.total",
+			"statistics.issueCounter.systemIssue.total", "statistics.issueCounter.toInvestigate.total",
+			"statistics.issueCounter.noDefect.total");
+
+	private static final String STATISTICS_PREFIX = "statistics.";
+
+	private static final String RUNS = "runs";
+	private static final String NUMBER = "n";
+	private static final String START_TIME = "t";
+	private static final String FLAGS = "f";
+
+	private static final String TOTAL = "total";
+	private static final String FAILED = "failed";
+	private static final String LAST_FAILURE = "lastFailure";
+	private static final String RATE = "rate";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(MostFailedTestCasesStore.class);
+
+	private final MongoOperations mongoOperations;
+
+	private final TaskExecutor taskExecutor;
+
+	private final int maxRuns;
+
+	/* IDs of launches waiting to be recorded again */
+	private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+	@Autowired
+	public MostFailedTestCasesStore(MongoOperations mongoOperations, @Qualifier("launchFinishTaskExecutor") TaskExecutor taskExecutor,
+			@Value("${rp.widget.mostFailed.maxRuns:500}") int maxRuns) {
+		this.mongoOperations = mongoOperations;
+		this.taskExecutor = taskExecutor;
+		this.maxRuns = maxRuns;
+	}
+
+	/**
+	 * Records runs of test cases of finished launch. Runs recorded for
+	 * launch previously are replaced. Run is pushed only if test case has
+	 * no run of launch yet and then updated in place, so recording the
+	 * same launch again (or concurrently) never duplicates its runs
+	 *
+	 * @param launch Finished launch
+	 */
+	public void record(Launch launch) {
+		if (Mode.DEFAULT != launch.getMode() || null == launch.getNumber() || null == launch.getStartTime()) {
+			return;
+		}
+		unrecord(launch);
+
+		Query itemsQuery = query(where("launchRef").is(launch.getId()).and("hasChilds").is(false));
+		itemsQuery.fields().include("name").include("startTime").include("statistics");
+		Map<String, Integer> flags = new HashMap<>();
+		Map<String, Long> startTimes = new HashMap<>();
+		mongoOperations.find(itemsQuery, TestItem.class).forEach(item -> {
+			flags.merge(item.getName(), flagsOf(item), (a, b) -> a | b);
+			/* The latest run of test case within launch */
+			startTimes.merge(item.getName(), null == item.getStartTime() ? launch.getStartTime().getTime() : item.getStartTime().getTime(),
+					Math::max);
+		});
+
+		/* Runs of test cases which are not in launch anymore */
+		mongoOperations.updateMulti(query(where("projectRef").is(launch.getProjectRef()).and("launchName").is(launch.getName())
+						.and(RUNS + "." + NUMBER).is(launch.getNumber()).and("name").nin(flags.keySet())),
+				new Update().pull(RUNS, new BasicDBObject(NUMBER, launch.getNumber())), TestCaseRuns.class);
+
+		if (!flags.isEmpty()) {
+			BulkOperations bulk = mongoOperations.bulkOps(BulkOperations.BulkMode.ORDERED, TestCaseRuns.class);
+			flags.forEach((name, value) -> {
+				String id = id(launch.getProjectRef(), launch.getName(), name);
+				bulk.upsert(query(where("_id").is(id)), new Update().setOnInsert("projectRef", launch.getProjectRef())
+						.setOnInsert("launchName", launch.getName())
+						.setOnInsert("name", name));
+				bulk.updateOne(query(where("_id").is(id).and(RUNS + "." + NUMBER).ne(launch.getNumber())),
+						new Update().push(RUNS).slice(-maxRuns).each(new BasicDBObject(NUMBER, launch.getNumber())));
+				bulk.updateOne(query(where("_id").is(id).and(RUNS + "." + NUMBER).is(launch.getNumber())),
+						new Update().set(RUNS + ".$." + START_TIME, startTimes.get(name)).set(RUNS + ".$." + FLAGS, value));
+			});
+			bulk.execute();
+		}
+
+		/* Numbers of recorded launches are trimmed the same way runs are */
+		String recordedId = id(launch.getProjectRef(), launch.getName());
+		mongoOperations.upsert(query(where("_id").is(recordedId)), new Update().setOnInsert("numbers", Collections.emptyList()),
+				RecordedLaunches.class);
+		mongoOperations.updateFirst(query(where("_id").is(recordedId).and("numbers").ne(launch.getNumber())),
+				new Update().push("numbers").slice(-maxRuns).each(launch.getNumber()), RecordedLaunches.class);
+	}
+
+	/**
+	 * Removes runs of test cases of launch
+	 *
+	 * @param launch Launch
+	 */
+	public void remove(Launch launch) {
+		if (null == launch.getNumber()) {
+			return;
+		}
+		unrecord(launch);
+		mongoOperations.updateMulti(query(where("projectRef").is(launch.getProjectRef()).and("launchName").is(launch.getName())
+				.and(RUNS + "." + NUMBER).is(launch.getNumber())), new Update().pull(RUNS, new BasicDBObject(NUMBER, launch.getNumber())),
+				TestCaseRuns.class);
+	}
+
+	@EventListener
+	public void onLaunchDeleted(LaunchDeletedEvent event) {
+		if (null != event.getLaunch()) {
+			remove(event.getLaunch());
+		}
+	}
+
+	@EventListener
+	public void onLaunchFinishForced(LaunchFinishForcedEvent event) {
+		Launch launch = mongoOperations.findById(event.getLaunch().getId(), Launch.class);
+		if (null != launch) {
+			record(launch);
+		}
+	}
+
+	/**
+	 * Launches are marked as not recorded at once, so widget doesn't serve
+	 * outdated runs, and recorded again in background. Several definitions
+	 * of the same launch waiting for recording are recorded once
+	 */
+	@EventListener
+	public void onIssueTypeDefined(ItemIssueTypeDefined event) {
+		Set<String> launchIds = event.getBefore().values().stream().map(TestItem::getLaunchRef).collect(toSet());
+		Query launchesQuery = query(where("_id").in(launchIds));
+		launchesQuery.fields().include("projectRef").include("name").include("number");
+		for (Launch launch : mongoOperations.find(launchesQuery, Launch.class)) {
+			unrecord(launch);
+			if (pending.add(launch.getId())) {
+				try {
+					taskExecutor.execute(() -> {
+						pending.remove(launch.getId());
+						Launch recorded = mongoOperations.findById(launch.getId(), Launch.class);
+						if (null != recorded) {
+							record(recorded);
+						}
+					});
+				} catch (TaskRejectedException e) {
+					/* Launch stays not recorded, so widget aggregates its items */
+					pending.remove(launch.getId());
+					LOGGER.warn("Runs of launch '{}' are not recorded. Task is rejected.", launch.getId());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Marks launch as not recorded, so windows with launch are not served
+	 */
+	private void unrecord(Launch launch) {
+		if (null != launch.getNumber()) {
+			mongoOperations.updateFirst(query(where("_id").is(id(launch.getProjectRef(), launch.getName()))),
+					new Update().pull("numbers", launch.getNumber()), RecordedLaunches.class);
+		}
+	}
+
+	/**
+	 * Counts runs of test cases within window of launches. Test cases are
+	 * ordered by failure rate, only top ones are returned
+	 *
+	 * @param project    Project name
+	 * @param launchName Launch name
+	 * @param launchIds  IDs of launches of window
+	 * @param criteria   Criteria run is counted as failed by
+	 * @param limit      Max number of test cases
+	 * @return Failures, runs and last failure time by test case name if
+	 * window and criteria can be served by store
+	 */
+	Optional<Map<String, ComplexValue>> load(String project, String launchName, List<String> launchIds, String criteria, int limit) {
+		int flag = CRITERIA.indexOf(criteria);
+		if (flag < 0) {
+			return Optional.empty();
+		}
+		Query launchesQuery = query(where("_id").in(launchIds));
+		launchesQuery.fields().include("number");
+		Set<Long> window = mongoOperations.find(launchesQuery, Launch.class).stream().map(Launch::getNumber).collect(toSet());
+		RecordedLaunches recorded = mongoOperations.findById(id(project, launchName), RecordedLaunches.class);
+		if (window.size() != launchIds.size() || null == recorded || !recorded.numbers.containsAll(window)) {
+			return Optional.empty();
+		}
+
+		/* Run is failed if bit of criteria is set: flags % 2^(bit + 1) >= 2^bit */
+		String run = "$" + RUNS + ".";
+		List<Long> numbers = new ArrayList<>(window);
+		DBObject failed = new BasicDBObject("$gte", Arrays.asList(new BasicDBObject("$mod", Arrays.asList(run + FLAGS, 1 << (flag + 1))),
+				1 << flag));
+		Aggregation aggregation = Aggregation.newAggregation(
+				stage("$match", new BasicDBObject("projectRef", project).append("launchName", launchName)
+						.append(RUNS + "." + NUMBER, new BasicDBObject("$in", numbers))),
+				stage("$project", new BasicDBObject("name", 1).append(RUNS, 1)),
+				stage("$unwind", "$" + RUNS),
+				stage("$match", new BasicDBObject(RUNS + "." + NUMBER, new BasicDBObject("$in", numbers))),
+				stage("$group", new BasicDBObject("_id", "$name")
+						.append(TOTAL, new BasicDBObject("$sum", 1))
+						.append(FAILED, new BasicDBObject("$sum", new BasicDBObject("$cond", Arrays.asList(failed, 1, 0))))
+						.append(LAST_FAILURE, new BasicDBObject("$max", new BasicDBObject("$cond", Arrays.asList(failed, run + START_TIME, 0))))),
+				stage("$match", new BasicDBObject(FAILED, new BasicDBObject("$gt", 0))),
+				stage("$project", new BasicDBObject(TOTAL, 1).append(FAILED, 1).append(LAST_FAILURE, 1)
+						.append(RATE, new BasicDBObject("$divide", Arrays.asList("$" + FAILED, "$" + TOTAL)))),
+				stage("$sort", new BasicDBObject(RATE, -1).append("_id", 1)),
+				stage("$limit", limit)).withOptions(Aggregation.newAggregationOptions().allowDiskUse(true).build());
+
+		Map<String, ComplexValue> result = new HashMap<>();
+		for (DBObject testCase : mongoOperations.aggregate(aggregation, TestCaseRuns.class, DBObject.class)) {
+			result.put((String) testCase.get("_id"), new ComplexValue(((Number) testCase.get(FAILED)).intValue(),
+					((Number) testCase.get(LAST_FAILURE)).longValue(), ((Number) testCase.get(TOTAL)).intValue()));
+		}
+		return Optional.of(result);
+	}
+
+	private static int flagsOf(TestItem item) {
+		Map<String, Integer> counters = StatisticsCounters.of(item.getStatistics()).toMap();
+		int flags = 0;
+		for (int i = 0; i < CRITERIA.size(); i++) {
+			if (counters.getOrDefault(CRITERIA.get(i).substring(STATISTICS_PREFIX.length()), 0) > 0) {
+				flags |= 1 << i;
+			}
+		}
+		return flags;
+	}
+
+	private static String id(String... parts) {
+		return String.join("|", parts);
+	}
+
+	/**
+	 * Recent runs of test case
+	 */
+	@Document(collection = "testCaseRuns")
+	@CompoundIndex(name = "project_launch_name", def = "{'projectRef': 1, 'launchName': 1}")
+	public static class TestCaseRuns {
+
+		@Id
+		private String id;
+
+		private String projectRef;
+
+		private String launchName;
+
+		private String name;
+
+		private List<Run> runs = new ArrayList<>();
+	}
+
+	/**
+	 * Run of test case in launch
+	 */
+	public static class Run {
+
+		/* Launch number */
+		private long n;
+
+		/* Start time of the latest item of test case in launch */
+		private long t;
+
+		/* Flags of criteria */
+		private int f;
+	}
+
+	/**
+	 * Numbers of recent launches runs of which are recorded
+	 */
+	@Document(collection = "testCaseRunsLaunches")
+	public static class RecordedLaunches {
+
+		@Id
+		private String id;
+
+		private List<Long> numbers = new ArrayList<>();
+	}
+}
@@ -83,19 +83,24 @@ public class NotPassedTestsContentLoader extends StatisticBasedContentLoader imp
 		if (objects.isEmpty()) {
 			return Collections.emptyMap();
 		}
-		for (ChartObject object : objects) {
+		ChartColumns columns = ChartColumns.of(objects, ImmutableList.of(getFailedFieldName(), getSkippedFieldName(), getTotalFieldName()));
+		double[] failed = columns.column(getFailedFieldName());
+		double[] skipped = columns.column(getSkippedFieldName());
+		double[] total = columns.column(getTotalFieldName());
+		for (int row = 0; row < objects.size(); row++) {
 			Map<String, String> values = new HashMap<>();
-			double failed = Integer.parseInt(object.getValues().get(getFailedFieldName()));
-			double skipped = Integer.parseInt(object.getValues().get(getSkippedFieldName()));
-			double total = Integer.parseInt(object.getValues().get(getTotalFieldName()));
-
-			if (total > 0) {
-				double percent = (failed + skipped) / total * 100;
+			if (!columns.isPresent(row, getFailedFieldName(), getSkippedFieldName(), getTotalFieldName())) {
+				/* Percent of absent statistics is absent as well */
+				objects.get(row).setValues(values);
+				continue;
+			}
+			if (total[row] > 0) {
+				double percent = (failed[row] + skipped[row]) / total[row] * 100;
 				values.put(NOT_PASSED_PERCENT, formatter.format(percent));
 			} else {
 				values.put(NOT_PASSED_PERCENT, "0");
 			}
-			object.setValues(values);
+			objects.get(row).setValues(values);
 		}
 		return Collections.singletonMap(RESULT, objects);
 	}
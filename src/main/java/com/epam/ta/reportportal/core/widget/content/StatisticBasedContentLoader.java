@@ -25,8 +25,6 @@ import com.epam.ta.reportportal.ws.model.widget.ChartObject;
 import org.joda.time.DateTime;
 
 import java.util.*;
-import java.util.function.BinaryOperator;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -56,7 +54,7 @@ public class StatisticBasedContentLoader {
 	private static final String AUTOMATION_BUG = "statistics.issueCounter.automationBug.total";
 	private static final String SYSTEM_ISSUE = "statistics.issueCounter.systemIssue.total";
 	private static final String NO_DEFECT = "statistics.issueCounter.noDefect.total";
-	private static final String DATE_PATTERN = "yyyy-MM-dd";
+	static final String DATE_PATTERN = "yyyy-MM-dd";
 
 	/**
 	 * Return collection name using input class object
@@ -122,23 +120,67 @@ public class StatisticBasedContentLoader {
 	 * @return
 	 */
 	public Map<String, List<ChartObject>> groupByDate(List<ChartObject> input, Period period) {
+		if (input.isEmpty()) {
+			return new LinkedHashMap<>();
+		}
+		return groupByDate(ChartColumns.of(input, input.get(0).getValues().keySet()), period);
+	}
+
+	/**
+	 * Return sums of columns grouped by specified period. Values are
+	 * converted into strings of response only once summed. Field absent in
+	 * all rows of period is absent in its group as well
+	 *
+	 * @param columns
+	 * @param period
+	 * @return
+	 */
+	Map<String, List<ChartObject>> groupByDate(ChartColumns columns, Period period) {
 		HashMap<String, List<ChartObject>> result = new LinkedHashMap<>();
-		Map<String, ChartObject> range = buildRange(input, period);
-
-		/* Fill ranged items with calculated */
-		for (ChartObject anInput : input) {
-			String group = new DateTime(Long.valueOf(anInput.getStartTime())).toString(DATE_PATTERN);
-			ChartObject axisObject = range.get(group);
-			Map<String, String> values = axisObject.getValues();
-			Map<String, String> updated = new HashMap<>();
-			for (String key : anInput.getValues().keySet()) {
-				updated.put(key, String.valueOf(Double.valueOf(anInput.getValues().get(key)) + Double.valueOf(values.get(key))));
+		List<String> fields = new ArrayList<>(columns.fields());
+		Map<String, ChartObject> range = buildRange(columns, fields, period);
+		if (range.isEmpty()) {
+			return result;
+		}
+
+		/* Group index by its date. Rows are put into the latest group started not after row date */
+		List<String> groups = new ArrayList<>(range.keySet());
+		TreeMap<String, Integer> groupIndex = new TreeMap<>();
+		for (int i = 0; i < groups.size(); i++) {
+			groupIndex.put(groups.get(i), i);
+		}
+
+		double[][] values = fields.stream().map(columns::column).toArray(double[][]::new);
+		double[][] sums = new double[fields.size()][groups.size()];
+		for (double[] sum : sums) {
+			Arrays.fill(sum, Double.NaN);
+		}
+		boolean[] filled = new boolean[groups.size()];
+		for (int row = 0; row < columns.size(); row++) {
+			Map.Entry<String, Integer> group = groupIndex.floorEntry(new DateTime(columns.startTime(row)).toString(DATE_PATTERN));
+			int index = null == group ? 0 : group.getValue();
+			filled[index] = true;
+			for (int field = 0; field < fields.size(); field++) {
+				double value = values[field][row];
+				if (!ChartColumns.isAbsent(value)) {
+					sums[field][index] = ChartColumns.isAbsent(sums[field][index]) ? value : sums[field][index] + value;
+				}
 			}
-			axisObject.setValues(updated);
-			range.put(group, axisObject);
 		}
 
-		range.keySet().forEach(date -> result.put(date, Collections.singletonList(range.get(date))));
+		for (int i = 0; i < groups.size(); i++) {
+			ChartObject axisObject = range.get(groups.get(i));
+			if (filled[i]) {
+				Map<String, String> updated = new HashMap<>();
+				for (int field = 0; field < fields.size(); field++) {
+					if (!ChartColumns.isAbsent(sums[field][i])) {
+						updated.put(fields.get(field), String.valueOf(sums[field][i]));
+					}
+				}
+				axisObject.setValues(updated);
+			}
+			result.put(groups.get(i), Collections.singletonList(axisObject));
+		}
 		return result;
 	}
 
@@ -152,43 +194,57 @@ public class StatisticBasedContentLoader {
 	 * @return
 	 */
 	public Map<String, List<ChartObject>> maxByDate(List<ChartObject> input, Period period, String maxSeries) {
-		final Function<ChartObject, String> chartObjectToDate = chartObject -> new DateTime(Long.valueOf(chartObject.getStartTime()))
-				.toString(DATE_PATTERN);
-		final BinaryOperator<ChartObject> chartObjectReducer = (o1,
-				o2) -> Integer.valueOf(o1.getValues().get(maxSeries)) > Integer.valueOf(o2.getValues().get(maxSeries)) ? o1 : o2;
-		final Map<String, Optional<ChartObject>> groupByDate = input.stream().sorted(Comparator.comparing(ChartObject::getStartTime))
-				.collect(Collectors.groupingBy(chartObjectToDate, LinkedHashMap::new, Collectors.reducing(chartObjectReducer)));
-		final Map<String, ChartObject> range = buildRange(input, period);
+		if (input.isEmpty()) {
+			return new LinkedHashMap<>();
+		}
+		ChartColumns columns = ChartColumns.of(input, Collections.singletonList(maxSeries));
+		double[] series = columns.column(maxSeries);
+		/* Rows in order of start time. Later row wins in case of equal values, row without value never wins */
+		List<Integer> rows = new ArrayList<>(columns.size());
+		for (int row = 0; row < columns.size(); row++) {
+			rows.add(row);
+		}
+		rows.sort(Comparator.comparing(row -> input.get(row).getStartTime()));
+		final Map<String, Integer> maxByDate = new HashMap<>();
+		for (Integer row : rows) {
+			maxByDate.merge(new DateTime(columns.startTime(row)).toString(DATE_PATTERN), row,
+					(max, candidate) -> ChartColumns.isAbsent(series[candidate]) || series[max] > series[candidate] ? max : candidate);
+		}
+		final Map<String, ChartObject> range = buildRange(columns, input.get(0).getValues().keySet(), period);
 		final LinkedHashMap<String, List<ChartObject>> result = new LinkedHashMap<>();
 		// used forEach cause aspectj compiler can't infer types properly
 		range.forEach((key, value) -> result.put(key,
-				Collections.singletonList(groupByDate.getOrDefault(key, Optional.of(createChartObject(input.get(0)))).get())));
+				Collections.singletonList(maxByDate.containsKey(key) ? input.get(maxByDate.get(key)) : value)));
 		return result;
 	}
 
-	private ChartObject createChartObject(ChartObject input) {
+	private ChartObject createChartObject(Collection<String> fields) {
 		final ChartObject chartObject = new ChartObject();
-		chartObject.setValues(input.getValues().entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, entry -> "0")));
+		chartObject.setValues(fields.stream().collect(Collectors.toMap(field -> field, field -> "0")));
 		return chartObject;
 	}
 
 	/**
 	 * Create ranged empty timeline billet
 	 * 
-	 * @param base
+	 * @param columns
+	 * @param fields
 	 * @param period
 	 * @return
 	 */
-	private Map<String, ChartObject> buildRange(List<ChartObject> base, Period period) {
-		final LongSummaryStatistics statistics = base.stream().mapToLong(object -> Long.valueOf(object.getStartTime())).summaryStatistics();
+	private Map<String, ChartObject> buildRange(ChartColumns columns, Collection<String> fields, Period period) {
+		if (0 == columns.size())
+			return Collections.emptyMap();
+		final LongSummaryStatistics statistics = new LongSummaryStatistics();
+		for (int row = 0; row < columns.size(); row++) {
+			statistics.accept(columns.startTime(row));
+		}
 		final DateTime start = new DateTime(statistics.getMin());
 		final DateTime end = new DateTime(statistics.getMax());
 		DateTime intermediate = start;
 		final LinkedHashMap<String, ChartObject> map = new LinkedHashMap<>();
-		if (base.isEmpty())
-			return Collections.emptyMap();
 		while (intermediate.isBefore(end)) {
-			map.put(intermediate.toString(DATE_PATTERN), createChartObject(base.get(0)));
+			map.put(intermediate.toString(DATE_PATTERN), createChartObject(fields));
 			switch (period) {
 			case DAY:
 				intermediate = intermediate.plusDays(1);
@@ -201,7 +257,7 @@ public class StatisticBasedContentLoader {
 				break;
 			}
 		}
-		map.put(end.toString(DATE_PATTERN), createChartObject(base.get(0)));
+		map.put(end.toString(DATE_PATTERN), createChartObject(fields));
 		return map;
 	}
 
@@ -227,6 +283,36 @@ public class StatisticBasedContentLoader {
 			return value;
 		}
 
+		/**
+		 * @param date Date
+		 * @return Start of period which date belongs to
+		 */
+		public DateTime truncate(DateTime date) {
+			switch (this) {
+			case WEEK:
+				return date.withDayOfWeek(1).withTimeAtStartOfDay();
+			case MONTH:
+				return date.withDayOfMonth(1).withTimeAtStartOfDay();
+			default:
+				return date.withTimeAtStartOfDay();
+			}
+		}
+
+		/**
+		 * @param start Start of period
+		 * @return Start of next period
+		 */
+		public DateTime next(DateTime start) {
+			switch (this) {
+			case WEEK:
+				return start.plusWeeks(1);
+			case MONTH:
+				return start.plusMonths(1);
+			default:
+				return start.plusDays(1);
+			}
+		}
+
 		public static boolean isPresent(String name) {
 			return null != findByName(name);
 		}
@@ -21,44 +21,144 @@
 
 package com.epam.ta.reportportal.core.widget.content;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
 import org.springframework.stereotype.Service;
 
-import com.epam.ta.reportportal.database.UniqueBugDocumentHandler;
-import com.epam.ta.reportportal.database.dao.TestItemRepository;
+import com.epam.ta.reportportal.database.entity.item.TestItem;
 import com.epam.ta.reportportal.database.search.Filter;
+import com.epam.ta.reportportal.database.search.QueryBuilder;
 import com.epam.ta.reportportal.ws.model.widget.ChartObject;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+
+import static com.epam.ta.reportportal.util.Aggregations.stage;
 
 /**
  * Implementation of
  * {@link com.epam.ta.reportportal.core.widget.content.IContentLoadingStrategy}
- * for Unique Bug Table
+ * for Unique Bug Table. Tickets are grouped on database side and only the most
+ * recently submitted tickets are returned. Items of returned tickets are read
+ * by cursor afterwards, at most <code>maxItems</code> per ticket
  *
  * @author Dzmitry_Kavalets
  */
 @Service("UniqueBugContentLoader")
 public class UniqueBugContentLoader implements IContentLoadingStrategy {
 
-	private static final String[] META_DATA_FIELDS = { "launchRef", "submitDate", "submitter", "ticketId", "issue" };
 	private static final String COLLECTION_NAME = "testItem";
 
+	private static final String EXTERNAL_SYSTEM_ISSUES = "issue.externalSystemIssues";
+	private static final String TICKET_ID = "ticketId";
+	private static final String SUBMIT_DATE = "submitDate";
+	private static final String SUBMITTER = "submitter";
+	private static final String URL = "url";
+	private static final String LAUNCH_REF = "launchRef";
+	private static final String ID = "_id";
+
 	@Autowired
-	private TestItemRepository testItemRepository;
+	private MongoOperations mongoOperations;
+
+	@Value("${rp.widget.uniqueBugs.maxTickets:1000}")
+	private int maxTickets;
+
+	@Value("${rp.widget.uniqueBugs.maxItems:100}")
+	private int maxItems;
 
 	@Override
 	public Map<String, List<ChartObject>> loadContent(Filter filter, Sort sorting, int quantity, List<String> contentFields,
 			List<String> metaDataFields, Map<String, List<String>> options) {
 
-		UniqueBugDocumentHandler uniqueBugDocumentHandler = new UniqueBugDocumentHandler();
+		MongoConverter converter = mongoOperations.getConverter();
+		DBObject query = new QueryMapper(converter).getMappedObject(QueryBuilder.newBuilder().with(filter).build().getQueryObject(),
+				converter.getMappingContext().getPersistentEntity(TestItem.class));
+
+		/* Ticket metadata is taken from the earliest submission of ticket */
+		Aggregation aggregation = Aggregation.newAggregation(stage("$match", query),
+				stage("$project", new BasicDBObject(EXTERNAL_SYSTEM_ISSUES, 1)),
+				stage("$unwind", "$" + EXTERNAL_SYSTEM_ISSUES),
+				stage("$sort", new BasicDBObject(field(SUBMIT_DATE), 1)),
+				stage("$group", new BasicDBObject(ID, "$" + field(TICKET_ID))
+						.append(SUBMIT_DATE, new BasicDBObject("$first", "$" + field(SUBMIT_DATE)))
+						.append(SUBMITTER, new BasicDBObject("$first", "$" + field(SUBMITTER)))
+						.append(URL, new BasicDBObject("$first", "$" + field(URL)))),
+				stage("$sort", new BasicDBObject(SUBMIT_DATE, -1)),
+				stage("$limit", maxTickets))
+				.withOptions(Aggregation.newAggregationOptions().allowDiskUse(true).build());
+
+		Map<String, DBObject> tickets = new LinkedHashMap<>();
+		for (DBObject ticket : mongoOperations.aggregate(aggregation, COLLECTION_NAME, DBObject.class)) {
+			tickets.put(String.valueOf(ticket.get(ID)), ticket);
+		}
+		return loadItems(query, tickets);
+	}
+
+	/**
+	 * Reads items of tickets matching query
+	 *
+	 * @param query   Items query
+	 * @param tickets Ticket ID -> ticket
+	 * @return Ticket ID -> at most <code>maxItems</code> items of ticket
+	 */
+	private Map<String, List<ChartObject>> loadItems(DBObject query, Map<String, DBObject> tickets) {
+		Map<String, List<ChartObject>> result = new LinkedHashMap<>();
+		if (tickets.isEmpty()) {
+			return result;
+		}
+		tickets.keySet().forEach(ticket -> result.put(ticket, new ArrayList<>()));
+		DBObject itemsQuery = new BasicDBObject("$and",
+				Arrays.asList(query, new BasicDBObject(field(TICKET_ID), new BasicDBObject("$in", new ArrayList<>(tickets.keySet())))));
+		DBObject fields = new BasicDBObject(LAUNCH_REF, 1).append(field(TICKET_ID), 1);
+		try (DBCursor cursor = mongoOperations.getCollection(COLLECTION_NAME).find(itemsQuery, fields)) {
+			while (cursor.hasNext()) {
+				DBObject item = cursor.next();
+				for (String ticket : ticketsOf(item)) {
+					List<ChartObject> items = result.get(ticket);
+					if (null != items && items.size() < maxItems) {
+						items.add(toChartObject(tickets.get(ticket), item));
+					}
+				}
+			}
+		}
+		return result;
+	}
 
-		testItemRepository.loadWithCallback(filter, sorting, Integer.MAX_VALUE, Arrays.asList(META_DATA_FIELDS), uniqueBugDocumentHandler,
-				COLLECTION_NAME);
-		return uniqueBugDocumentHandler.getResult();
+	private static Set<String> ticketsOf(DBObject item) {
+		Set<String> tickets = new HashSet<>();
+		Object issue = item.get("issue");
+		if (issue instanceof DBObject && ((DBObject) issue).get("externalSystemIssues") instanceof List) {
+			for (Object ticket : (List<?>) ((DBObject) issue).get("externalSystemIssues")) {
+				if (ticket instanceof DBObject && null != ((DBObject) ticket).get(TICKET_ID)) {
+					tickets.add(((DBObject) ticket).get(TICKET_ID).toString());
+				}
+			}
+		}
+		return tickets;
 	}
 
+	private static ChartObject toChartObject(DBObject ticket, DBObject item) {
+		Map<String, String> values = new HashMap<>();
+		values.put(SUBMIT_DATE, String.valueOf(ticket.get(SUBMIT_DATE)));
+		values.put(SUBMITTER, String.valueOf(ticket.get(SUBMITTER)));
+		values.put(LAUNCH_REF, String.valueOf(item.get(LAUNCH_REF)));
+		if (null != ticket.get(URL)) {
+			values.put(URL, ticket.get(URL).toString());
+		}
+		ChartObject chartObject = new ChartObject();
+		chartObject.setId(item.get(ID).toString());
+		chartObject.setValues(values);
+		return chartObject;
+	}
+
+	private static String field(String name) {
+		return EXTERNAL_SYSTEM_ISSUES + "." + name;
+	}
 }
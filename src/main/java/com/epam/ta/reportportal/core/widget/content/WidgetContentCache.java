@@ -0,0 +1,194 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.ta.reportportal.core.widget.content;
+
+import com.epam.ta.reportportal.database.entity.filter.UserFilter;
+import com.epam.ta.reportportal.database.entity.widget.ContentOptions;
+import com.epam.ta.reportportal.events.*;
+import com.epam.ta.reportportal.exception.ReportPortalException;
+import com.epam.ta.reportportal.util.CacheMetrics;
+import com.epam.ta.reportportal.ws.model.widget.ChartObject;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cache of loaded widget content. Content is cached by widget, filter and
+ * content options and invalidated once data of the project is changed
+ * (launch finished, auto-analyzed or deleted, issue type defined) or widget
+ * is updated.
+ * Entries also expire after configured period, since not every data change
+ * is tracked (e.g. running launches).
+ * <br>
+ * Hit/miss statistics are exposed as <code>widget.cache.*</code> metrics
+ */
+@Component
+public class WidgetContentCache implements PublicMetrics {
+
+	private static final String METRIC_PREFIX = "widget.cache.";
+
+	private final Cache<Key, Map<String, List<ChartObject>>> cache;
+
+	@Autowired
+	public WidgetContentCache(@Value("${rp.widget.cache.size:1000}") long size,
+			@Value("${rp.widget.cache.expireAfter:300}") long expireAfterSeconds) {
+		this.cache = CacheBuilder.newBuilder()
+				.maximumSize(size)
+				.expireAfterWrite(expireAfterSeconds, TimeUnit.SECONDS)
+				.recordStats()
+				.build();
+	}
+
+	/**
+	 * Returns cached content of widget or loads it
+	 *
+	 * @param project        Project name
+	 * @param widgetId       Widget ID
+	 * @param userFilter     Applied filter if any
+	 * @param contentOptions Widget content options
+	 * @param loader         Loads content if it's absent in cache
+	 * @return Widget content
+	 */
+	public Map<String, List<ChartObject>> get(String project, String widgetId, Optional<UserFilter> userFilter,
+			ContentOptions contentOptions, Supplier<Map<String, List<ChartObject>>> loader) {
+		try {
+			return cache.get(new Key(project, widgetId, signature(userFilter, contentOptions)), loader::get);
+		} catch (ExecutionException e) {
+			throw new ReportPortalException("Unable to load widget content", e.getCause());
+		} catch (UncheckedExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	public void invalidateProject(String project) {
+		if (null != project) {
+			cache.asMap().keySet().removeIf(key -> key.project.equalsIgnoreCase(project));
+		}
+	}
+
+	public void invalidateWidget(String widgetId) {
+		cache.asMap().keySet().removeIf(key -> key.widgetId.equals(widgetId));
+	}
+
+	@EventListener
+	public void onLaunchFinished(LaunchFinishedEvent event) {
+		invalidateProject(event.getProject().getName());
+	}
+
+	@EventListener
+	public void onLaunchAnalyzed(LaunchAnalyzedEvent event) {
+		invalidateProject(event.getProject().getName());
+	}
+
+	@EventListener
+	public void onLaunchDeleted(LaunchDeletedEvent event) {
+		if (null != event.getLaunch()) {
+			invalidateProject(event.getLaunch().getProjectRef());
+		}
+	}
+
+	@EventListener
+	public void onIssueTypeDefined(ItemIssueTypeDefined event) {
+		invalidateProject(event.getProject());
+	}
+
+	@EventListener
+	public void onWidgetUpdated(WidgetUpdatedEvent event) {
+		invalidateWidget(event.getBefore().getId());
+	}
+
+	public CacheStats getStats() {
+		return cache.stats();
+	}
+
+	@Override
+	public Collection<Metric<?>> metrics() {
+		return CacheMetrics.of(METRIC_PREFIX, cache);
+	}
+
+	/**
+	 * String representation of everything content depends on except widget
+	 * and project
+	 */
+	static String signature(Optional<UserFilter> userFilter, ContentOptions options) {
+		StringBuilder signature = new StringBuilder();
+		userFilter.ifPresent(filter -> {
+			signature.append(filter.getId()).append('|').append(filter.getFilter().getTarget().getSimpleName());
+			filter.getFilter().getFilterConditions().stream()
+					.map(it -> it.getSearchCriteria() + ":" + (null == it.getCondition() ? null : it.getCondition().getMarker()) + ":"
+							+ it.isNegative() + ":" + it.getValue()).sorted().forEach(it -> signature.append('|').append(it));
+			if (null != filter.getSelectionOptions()) {
+				signature.append('|').append(filter.getSelectionOptions().getSortingColumnName()).append(':')
+						.append(filter.getSelectionOptions().isAsc()).append(':').append(filter.getSelectionOptions().getPageNumber());
+			}
+		});
+		signature.append('#').append(options.getGadgetType()).append('|').append(options.getType()).append('|')
+				.append(options.getContentFields()).append('|').append(options.getMetadataFields()).append('|')
+				.append(options.getItemsCount()).append('|')
+				.append(null == options.getWidgetOptions() ? null : new TreeMap<>(options.getWidgetOptions()));
+		return signature.toString();
+	}
+
+	static final class Key {
+		final String project;
+		final String widgetId;
+		private final String signature;
+
+		Key(String project, String widgetId, String signature) {
+			this.project = project;
+			this.widgetId = widgetId;
+			this.signature = signature;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			Key key = (Key) o;
+			return Objects.equals(project, key.project) && Objects.equals(widgetId, key.widgetId) && Objects.equals(signature,
+					key.signature);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(project, widgetId, signature);
+		}
+	}
+}
@@ -126,22 +126,16 @@ public class WidgetContentProvider {
 	 */
 	private Map<String, List<ChartObject>> transformToFilterStyle(CriteriaMap<?> criteriaMap, Map<String, List<ChartObject>> input,
 			List<String> chartFields) {
-		Map<String, List<ChartObject>> result = new LinkedHashMap<>();
+		/* Query criteria -> filter criteria of chart fields */
+		Map<String, String> names = new HashMap<>();
+		for (String field : chartFields) {
+			String queryCriteria = criteriaMap.getCriteriaHolder(field).getQueryCriteria();
+			names.putIfAbsent(queryCriteria, criteriaMap.getCriteriaHolder(queryCriteria).getFilterCriteria());
+		}
 
+		Map<String, List<ChartObject>> result = new LinkedHashMap<>();
 		for (Map.Entry<String, List<ChartObject>> entry : input.entrySet()) {
-			boolean isConverted = false;
-			List<ChartObject> data = entry.getValue();
-			for (String field : chartFields) {
-
-				String queryCriteria = criteriaMap.getCriteriaHolder(field).getQueryCriteria();
-				if (queryCriteria.equals(entry.getKey())) {
-					result.put(criteriaMap.getCriteriaHolder(queryCriteria).getFilterCriteria(), data);
-					isConverted = true;
-					break;
-				}
-			}
-			if (!isConverted)
-				result.put(entry.getKey(), data);
+			result.put(names.getOrDefault(entry.getKey(), entry.getKey()), entry.getValue());
 		}
 		return result;
 	}
@@ -153,13 +147,13 @@ public class WidgetContentProvider {
 	 * @return
 	 */
 	private Map<String, List<ChartObject>> transformNamesForUI(Map<String, List<ChartObject>> input) {
-		// TODO RECREATE with Java 8 streaming!
+		/* Each distinct name is transformed once */
+		Map<String, String> names = new HashMap<>();
 		for (Map.Entry<String, List<ChartObject>> entry : input.entrySet()) {
 			for (ChartObject exist : entry.getValue()) {
-				Map<String, String> values = new HashMap<>();
-				for (String key : exist.getValues().keySet()) {
-					String keyValue = exist.getValues().get(key);
-					values.put(key.replaceAll("\\.", "\\$"), keyValue);
+				Map<String, String> values = new HashMap<>(exist.getValues().size() * 2);
+				for (Map.Entry<String, String> value : exist.getValues().entrySet()) {
+					values.put(names.computeIfAbsent(value.getKey(), key -> key.replace('.', '$')), value.getValue());
 				}
 				exist.setValues(values);
 			}
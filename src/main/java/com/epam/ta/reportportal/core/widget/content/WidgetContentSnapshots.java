@@ -0,0 +1,230 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.ta.reportportal.core.widget.content;
+
+import com.epam.ta.reportportal.core.widget.content.WidgetContentCache.Key;
+import com.epam.ta.reportportal.database.entity.filter.UserFilter;
+import com.epam.ta.reportportal.database.entity.widget.ContentOptions;
+import com.epam.ta.reportportal.events.*;
+import com.epam.ta.reportportal.ws.model.widget.ChartObject;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Precomputed content of hot shared widgets. Snapshot of widget content is
+ * kept while widget is requested within hot period. Once data of the project
+ * changes (launch finished, auto-analyzed or deleted, issue type defined) or
+ * snapshot gets older than refresh period, content is recomputed in
+ * background. Meanwhile
+ * previous snapshot is served, but not longer than max staleness period:
+ * after that content is loaded by request as usual.
+ * <br>
+ * Statistics are exposed as <code>widget.snapshot.*</code> metrics
+ */
+@Component
+public class WidgetContentSnapshots implements PublicMetrics {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(WidgetContentSnapshots.class);
+
+	private static final String METRIC_PREFIX = "widget.snapshot.";
+
+	private final Cache<Key, Snapshot> snapshots;
+
+	private final TaskExecutor executor;
+
+	private final long maxStalenessMillis;
+
+	private final long refreshAfterMillis;
+
+	private final AtomicLong staleHits = new AtomicLong();
+
+	private final AtomicLong refreshes = new AtomicLong();
+
+	@Autowired
+	public WidgetContentSnapshots(@Qualifier("widgetPrecomputeTaskExecutor") TaskExecutor executor,
+			@Value("${rp.widget.precompute.hotWidgets:200}") long hotWidgets,
+			@Value("${rp.widget.precompute.hotPeriod:600}") long hotPeriodSeconds,
+			@Value("${rp.widget.precompute.refreshAfter:300}") long refreshAfterSeconds,
+			@Value("${rp.widget.precompute.maxStaleness:60}") long maxStalenessSeconds) {
+		this.executor = executor;
+		this.snapshots = CacheBuilder.newBuilder().maximumSize(hotWidgets).expireAfterAccess(hotPeriodSeconds, TimeUnit.SECONDS).build();
+		this.refreshAfterMillis = TimeUnit.SECONDS.toMillis(refreshAfterSeconds);
+		this.maxStalenessMillis = TimeUnit.SECONDS.toMillis(maxStalenessSeconds);
+	}
+
+	/**
+	 * Returns snapshot of widget content if it's not stale longer than
+	 * allowed, otherwise loads content and keeps it as snapshot
+	 *
+	 * @param project        Project name
+	 * @param widgetId       Widget ID
+	 * @param userFilter     Applied filter if any
+	 * @param contentOptions Widget content options
+	 * @param loader         Loads content of widget. Used for recomputation as well
+	 * @return Widget content
+	 */
+	public Map<String, List<ChartObject>> get(String project, String widgetId, Optional<UserFilter> userFilter,
+			ContentOptions contentOptions, Supplier<Map<String, List<ChartObject>>> loader) {
+		Key key = new Key(project, widgetId, WidgetContentCache.signature(userFilter, contentOptions));
+		Snapshot snapshot = snapshots.getIfPresent(key);
+		long now = System.currentTimeMillis();
+		if (null != snapshot) {
+			long staleSince = snapshot.staleSince(refreshAfterMillis);
+			if (staleSince > now) {
+				return snapshot.content;
+			}
+			if (now - staleSince <= maxStalenessMillis) {
+				staleHits.incrementAndGet();
+				scheduleRefresh(snapshot);
+				return snapshot.content;
+			}
+		}
+		Snapshot loaded = new Snapshot(key, loader);
+		loaded.refresh();
+		snapshots.put(key, loaded);
+		return loaded.content;
+	}
+
+	public void invalidateProject(String project) {
+		if (null != project) {
+			snapshots.asMap().values().stream().filter(it -> it.key.project.equalsIgnoreCase(project)).forEach(snapshot -> {
+				snapshot.markStale();
+				scheduleRefresh(snapshot);
+			});
+		}
+	}
+
+	public void invalidateWidget(String widgetId) {
+		snapshots.asMap().keySet().removeIf(key -> key.widgetId.equals(widgetId));
+	}
+
+	@EventListener
+	public void onLaunchFinished(LaunchFinishedEvent event) {
+		invalidateProject(event.getProject().getName());
+	}
+
+	@EventListener
+	public void onLaunchAnalyzed(LaunchAnalyzedEvent event) {
+		invalidateProject(event.getProject().getName());
+	}
+
+	@EventListener
+	public void onLaunchDeleted(LaunchDeletedEvent event) {
+		if (null != event.getLaunch()) {
+			invalidateProject(event.getLaunch().getProjectRef());
+		}
+	}
+
+	@EventListener
+	public void onIssueTypeDefined(ItemIssueTypeDefined event) {
+		invalidateProject(event.getProject());
+	}
+
+	@EventListener
+	public void onWidgetUpdated(WidgetUpdatedEvent event) {
+		invalidateWidget(event.getBefore().getId());
+	}
+
+	@Override
+	public Collection<Metric<?>> metrics() {
+		return Arrays.asList(new Metric<>(METRIC_PREFIX + "size", snapshots.size()),
+				new Metric<>(METRIC_PREFIX + "staleHit", staleHits.get()), new Metric<>(METRIC_PREFIX + "refresh", refreshes.get()));
+	}
+
+	private void scheduleRefresh(Snapshot snapshot) {
+		if (!snapshot.scheduled.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			executor.execute(() -> {
+				snapshot.scheduled.set(false);
+				try {
+					snapshot.refresh();
+					refreshes.incrementAndGet();
+				} catch (Exception e) {
+					LOGGER.warn("Unable to recompute content of widget '{}'", snapshot.key.widgetId, e);
+				}
+			});
+		} catch (TaskRejectedException e) {
+			/* Snapshot becomes outdated and is loaded by request */
+			snapshot.scheduled.set(false);
+		}
+	}
+
+	private static final class Snapshot {
+
+		private final Key key;
+		private final Supplier<Map<String, List<ChartObject>>> loader;
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+		/* Incremented on each change of underlying data */
+		private final AtomicLong version = new AtomicLong();
+
+		private volatile Map<String, List<ChartObject>> content;
+		private volatile long computedAt;
+		private volatile long changedAt;
+		private volatile boolean stale;
+
+		Snapshot(Key key, Supplier<Map<String, List<ChartObject>>> loader) {
+			this.key = key;
+			this.loader = loader;
+		}
+
+		void refresh() {
+			long before = version.get();
+			long startedAt = System.currentTimeMillis();
+			content = loader.get();
+			computedAt = startedAt;
+			/* Data changed during recomputation, one more refresh is scheduled by change */
+			stale = before != version.get();
+		}
+
+		void markStale() {
+			changedAt = System.currentTimeMillis();
+			version.incrementAndGet();
+			stale = true;
+		}
+
+		/**
+		 * @return Moment snapshot became stale, in future if it's still fresh
+		 */
+		long staleSince(long refreshAfterMillis) {
+			long expiresAt = computedAt + refreshAfterMillis;
+			return stale ? Math.min(changedAt, expiresAt) : expiresAt;
+		}
+	}
+}
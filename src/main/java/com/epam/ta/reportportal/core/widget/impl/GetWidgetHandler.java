@@ -26,6 +26,8 @@ import com.epam.ta.reportportal.core.acl.AclUtils;
 import com.epam.ta.reportportal.core.widget.IGetWidgetHandler;
 import com.epam.ta.reportportal.core.widget.content.BuildFilterStrategy;
 import com.epam.ta.reportportal.core.widget.content.GadgetTypes;
+import com.epam.ta.reportportal.core.widget.content.WidgetContentCache;
+import com.epam.ta.reportportal.core.widget.content.WidgetContentSnapshots;
 import com.epam.ta.reportportal.database.dao.UserFilterRepository;
 import com.epam.ta.reportportal.database.dao.WidgetRepository;
 import com.epam.ta.reportportal.database.entity.Log;
@@ -66,6 +68,10 @@ public class GetWidgetHandler implements IGetWidgetHandler {
 
 	private Map<GadgetTypes, BuildFilterStrategy> buildFilterStrategy;
 
+	private WidgetContentCache widgetContentCache;
+
+	private WidgetContentSnapshots widgetContentSnapshots;
+
 	@Autowired
 	public void setWidgetRepository(WidgetRepository widgetRepository) {
 		this.widgetRepository = widgetRepository;
@@ -81,6 +87,16 @@ public class GetWidgetHandler implements IGetWidgetHandler {
 		this.userFilterRepository = userFilterRepository;
 	}
 
+	@Autowired
+	public void setWidgetContentCache(WidgetContentCache widgetContentCache) {
+		this.widgetContentCache = widgetContentCache;
+	}
+
+	@Autowired
+	public void setWidgetContentSnapshots(WidgetContentSnapshots widgetContentSnapshots) {
+		this.widgetContentSnapshots = widgetContentSnapshots;
+	}
+
 	@Resource(name = "buildFilterStrategy")
 	public void setBuildFilterStrategy(Map<GadgetTypes, BuildFilterStrategy> buildFilterStrategy) {
 		this.buildFilterStrategy = buildFilterStrategy;
@@ -110,8 +126,17 @@ public class GetWidgetHandler implements IGetWidgetHandler {
 			final GadgetTypes gadgetType = GadgetTypes.findByName(widget.getContentOptions().getGadgetType()).get();
 			if (!isRequireUserFilter(gadgetType, userFilter) || isFilterUnShared(userName, project, userFilter)) {
 				widgetResource.setContent(new HashMap<>());
+			} else if (!widget.getAcl().getEntries().isEmpty()) {
+				/*
+				 * Shared widgets are rendered constantly on dashboards, so
+				 * content is precomputed. Filter is re-read on each computation
+				 * since filter strategies modify it
+				 */
+				widgetResource.setContent(widgetContentSnapshots.get(project, widgetId, userFilter, widget.getContentOptions(),
+						() -> loadContentByFilterType(findUserFilter(widget.getApplyingFilterId()), project, widget.getContentOptions())));
 			} else {
-				widgetResource.setContent(loadContentByFilterType(userFilter, project, widget.getContentOptions()));
+				widgetResource.setContent(widgetContentCache.get(project, widgetId, userFilter, widget.getContentOptions(),
+						() -> loadContentByFilterType(userFilter, project, widget.getContentOptions())));
 			}
 		}
 		return widgetResource;
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.ta.reportportal.events;
+
+import com.epam.ta.reportportal.database.entity.Launch;
+import com.epam.ta.reportportal.database.entity.Project;
+import com.google.common.base.Preconditions;
+
+/**
+ * Published once auto-analysis stage of finished launch is done, so issues
+ * of its items may be changed
+ */
+public class LaunchAnalyzedEvent {
+
+	private final Launch launch;
+	private final Project project;
+
+	public LaunchAnalyzedEvent(Launch launch, Project project) {
+		this.launch = Preconditions.checkNotNull(launch, "Launch should not be null");
+		this.project = Preconditions.checkNotNull(project, "Project should not be null");
+	}
+
+	public Launch getLaunch() {
+		return launch;
+	}
+
+	public Project getProject() {
+		return project;
+	}
+}
@@ -26,7 +26,6 @@ import com.epam.ta.reportportal.database.entity.Launch;
 import com.epam.ta.reportportal.database.entity.item.Activity;
 import com.epam.ta.reportportal.events.LaunchDeletedEvent;
 import com.epam.ta.reportportal.events.LaunchFinishForcedEvent;
-import com.epam.ta.reportportal.events.LaunchFinishedEvent;
 import com.epam.ta.reportportal.events.LaunchStartedEvent;
 import com.epam.ta.reportportal.ws.converter.builders.ActivityBuilder;
 import com.epam.ta.reportportal.ws.model.launch.Mode;
@@ -57,9 +56,13 @@ public class LaunchActivityHandler {
 		this.activityRepository = activityRepository;
 	}
 
-	@EventListener
-	public void onLaunchFinish(LaunchFinishedEvent event) {
-		afterLaunchFinished(event.getLaunch(), event.getLaunch().getUserRef());
+	/**
+	 * Invoked by {@link LaunchFinishQueue} as a last post-finish stage
+	 *
+	 * @param launch Finished launch
+	 */
+	public void onLaunchFinish(Launch launch) {
+		afterLaunchFinished(launch, launch.getUserRef());
 	}
 
 	@EventListener
@@ -0,0 +1,395 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.ta.reportportal.events.handler;
+
+import com.epam.ta.reportportal.core.widget.content.LaunchTrendStore;
+import com.epam.ta.reportportal.core.widget.content.MostFailedTestCasesStore;
+import com.epam.ta.reportportal.database.dao.LaunchRepository;
+import com.epam.ta.reportportal.database.dao.ProjectRepository;
+import com.epam.ta.reportportal.database.entity.Launch;
+import com.epam.ta.reportportal.database.entity.Project;
+import com.epam.ta.reportportal.events.LaunchAnalyzedEvent;
+import com.epam.ta.reportportal.events.LaunchFinishedEvent;
+import com.mongodb.WriteResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Durable queue of finished launches. Post-finish processing (auto-analysis,
+ * widget data, email notifications, activity) is executed by ordered {@link Stage}s on
+ * separate worker pool, so launch finish request is not blocked by it.
+ * <br>
+ * Each finished launch is stored as {@link Task} along with the next stage
+ * to be executed. Task is leased by worker while processed and removed once
+ * all stages are done. Lease of task in progress is renewed by heartbeat job,
+ * so long-running stage is not picked up by another worker. Tasks with expired
+ * lease (e.g. node has been restarted) are picked up again by recovery job.
+ * Stage which keeps failing is skipped after a few attempts and stored as
+ * {@link FailedStage}, so it could be inspected and reprocessed later.
+ */
+@Component
+public class LaunchFinishQueue {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(LaunchFinishQueue.class);
+
+	/* Time task is leased by worker. Renewed by heartbeat while task is processed */
+	private static final long LEASE = TimeUnit.MINUTES.toMillis(5);
+
+	/* Delay before retry of failed stage */
+	private static final long RETRY_DELAY = TimeUnit.MINUTES.toMillis(1);
+
+	private static final int MAX_ATTEMPTS = 3;
+
+	private static final String LOCKED_UNTIL = "lockedUntil";
+
+	private static final String LEASE_ID = "leaseId";
+
+	/**
+	 * Post-finish stages in order of execution
+	 */
+	public enum Stage {
+		ANALYSIS,
+		TREND,
+		TEST_CASES,
+		EMAIL,
+		ACTIVITY
+	}
+
+	private final MongoOperations mongoOperations;
+
+	private final LaunchRepository launchRepository;
+
+	private final ProjectRepository projectRepository;
+
+	private final LaunchFinishedEventHandler launchFinishedHandler;
+
+	private final LaunchActivityHandler activityHandler;
+
+	private final LaunchTrendStore launchTrendStore;
+
+	private final MostFailedTestCasesStore mostFailedTestCasesStore;
+
+	private final TaskExecutor taskExecutor;
+
+	private final ApplicationEventPublisher eventPublisher;
+
+	/* Launch ID -> lease ID of tasks processed by this node */
+	private final Map<String, String> leases = new ConcurrentHashMap<>();
+
+	@Autowired
+	public LaunchFinishQueue(MongoOperations mongoOperations, LaunchRepository launchRepository, ProjectRepository projectRepository,
+			LaunchFinishedEventHandler launchFinishedHandler, LaunchActivityHandler activityHandler, LaunchTrendStore launchTrendStore,
+			MostFailedTestCasesStore mostFailedTestCasesStore, @Qualifier("launchFinishTaskExecutor") TaskExecutor taskExecutor,
+			ApplicationEventPublisher eventPublisher) {
+		this.mongoOperations = mongoOperations;
+		this.launchRepository = launchRepository;
+		this.projectRepository = projectRepository;
+		this.launchFinishedHandler = launchFinishedHandler;
+		this.activityHandler = activityHandler;
+		this.launchTrendStore = launchTrendStore;
+		this.mostFailedTestCasesStore = mostFailedTestCasesStore;
+		this.taskExecutor = taskExecutor;
+		this.eventPublisher = eventPublisher;
+	}
+
+	@EventListener
+	public void onLaunchFinished(LaunchFinishedEvent event) {
+		Task task = new Task();
+		task.launchId = event.getLaunch().getId();
+		task.projectRef = event.getProject().getName();
+		task.baseUrl = currentBaseUrl();
+		task.stage = Stage.values()[0];
+		task.leaseId = UUID.randomUUID().toString();
+		task.lockedUntil = new Date(System.currentTimeMillis() + LEASE);
+		task.creationDate = new Date();
+		mongoOperations.save(task);
+		submit(task);
+	}
+
+	/**
+	 * Picks up tasks which are not processed by any worker: rejected by
+	 * worker pool, waiting for retry or abandoned by stopped node
+	 */
+	@Scheduled(fixedDelayString = "${rp.launch.finish.recoveryInterval:60000}")
+	public void recover() {
+		mongoOperations.find(query(where(LOCKED_UNTIL).lte(new Date())), Task.class).forEach(task -> {
+			Task leased = lease(task.launchId);
+			if (null != leased) {
+				submit(leased);
+			}
+		});
+	}
+
+	/**
+	 * Prolongs leases of tasks processed by this node
+	 */
+	@Scheduled(fixedDelayString = "${rp.launch.finish.heartbeatInterval:60000}")
+	public void heartbeat() {
+		leases.forEach((launchId, leaseId) -> {
+			WriteResult result = mongoOperations.updateFirst(query(where("_id").is(launchId).and(LEASE_ID).is(leaseId)),
+					new Update().set(LOCKED_UNTIL, new Date(System.currentTimeMillis() + LEASE)), Task.class);
+			if (0 == result.getN()) {
+				LOGGER.warn("Lease of launch '{}' post-finish processing is lost.", launchId);
+			}
+		});
+	}
+
+	/**
+	 * Executes remaining stages of leased task
+	 *
+	 * @param task Leased task
+	 */
+	void process(Task task) {
+		leases.put(task.launchId, task.leaseId);
+		try {
+			processStages(task);
+		} finally {
+			leases.remove(task.launchId, task.leaseId);
+		}
+	}
+
+	private void processStages(Task task) {
+		Launch launch = launchRepository.findOne(task.launchId);
+		Project project = projectRepository.findOne(task.projectRef);
+		if (null == launch || null == project) {
+			/* Launch or project removed meanwhile */
+			remove(task);
+			return;
+		}
+		for (int i = task.stage.ordinal(); i < Stage.values().length; i++) {
+			Stage stage = Stage.values()[i];
+			try {
+				execute(stage, launch, project, task.baseUrl);
+			} catch (Exception e) {
+				if (task.attempts + 1 < MAX_ATTEMPTS) {
+					LOGGER.error("Stage '{}' of launch '{}' post-finish processing failed. It will be retried.", stage, task.launchId, e);
+					update(task, new Update().set("stage", stage).inc("attempts", 1)
+							.set(LOCKED_UNTIL, new Date(System.currentTimeMillis() + RETRY_DELAY)));
+					return;
+				}
+				LOGGER.error("Stage '{}' of launch '{}' post-finish processing failed. Skipped after {} attempts.", stage, task.launchId,
+						MAX_ATTEMPTS, e);
+				saveFailed(task, stage, e);
+			}
+			task.attempts = 0;
+			if (Stage.ANALYSIS == stage) {
+				/* Issues of items may be changed by analysis */
+				eventPublisher.publishEvent(new LaunchAnalyzedEvent(launch, project));
+			}
+			if (i + 1 < Stage.values().length) {
+				/* Store progress and prolong lease */
+				if (!update(task, new Update().set("stage", Stage.values()[i + 1]).set("attempts", 0)
+						.set(LOCKED_UNTIL, new Date(System.currentTimeMillis() + LEASE)))) {
+					LOGGER.warn("Lease of launch '{}' post-finish processing is lost. Remaining stages are left to its new owner.",
+							task.launchId);
+					return;
+				}
+				/* Next stages may depend on results of previous one */
+				launch = launchRepository.findOne(task.launchId);
+				if (null == launch) {
+					break;
+				}
+			}
+		}
+		remove(task);
+	}
+
+	private void execute(Stage stage, Launch launch, Project project, String baseUrl) {
+		switch (stage) {
+			case ANALYSIS:
+				launchFinishedHandler.analyze(launch, project);
+				break;
+			case TREND:
+				launchTrendStore.refresh(launch);
+				break;
+			case TEST_CASES:
+				mostFailedTestCasesStore.record(launch);
+				break;
+			case EMAIL:
+				launchFinishedHandler.sendNotifications(launch, project, baseUrl);
+				break;
+			case ACTIVITY:
+				activityHandler.onLaunchFinish(launch);
+				break;
+			default:
+				break;
+		}
+	}
+
+	private void saveFailed(Task task, Stage stage, Exception e) {
+		FailedStage failed = new FailedStage();
+		failed.id = task.launchId + "_" + stage;
+		failed.launchId = task.launchId;
+		failed.projectRef = task.projectRef;
+		failed.baseUrl = task.baseUrl;
+		failed.stage = stage;
+		failed.attempts = MAX_ATTEMPTS;
+		failed.error = e.toString();
+		failed.failureDate = new Date();
+		try {
+			mongoOperations.save(failed);
+		} catch (Exception saveError) {
+			LOGGER.error("Failed stage '{}' of launch '{}' cannot be stored.", stage, task.launchId, saveError);
+		}
+	}
+
+	private void submit(Task task) {
+		try {
+			taskExecutor.execute(() -> process(task));
+		} catch (TaskRejectedException e) {
+			/* Release lease, so task is picked up by recovery job */
+			mongoOperations.updateFirst(query(where("_id").is(task.launchId)), new Update().set(LOCKED_UNTIL, new Date()), Task.class);
+		}
+	}
+
+	private Task lease(String launchId) {
+		Date now = new Date();
+		return mongoOperations.findAndModify(query(where("_id").is(launchId).and(LOCKED_UNTIL).lte(now)),
+				new Update().set(LOCKED_UNTIL, new Date(now.getTime() + LEASE)).set(LEASE_ID, UUID.randomUUID().toString()),
+				FindAndModifyOptions.options().returnNew(true), Task.class);
+	}
+
+	/**
+	 * Updates task if it's still leased by current worker
+	 *
+	 * @return <b>false</b> if task has been leased by another worker
+	 */
+	private boolean update(Task task, Update update) {
+		return 0 != mongoOperations.updateFirst(query(where("_id").is(task.launchId).and(LEASE_ID).is(task.leaseId)), update, Task.class)
+				.getN();
+	}
+
+	private void remove(Task task) {
+		mongoOperations.remove(query(where("_id").is(task.launchId).and(LEASE_ID).is(task.leaseId)), Task.class);
+	}
+
+	/**
+	 * Origin of current request if any. Captured while launch is finished
+	 * to be used in notifications later
+	 */
+	private static String currentBaseUrl() {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes instanceof ServletRequestAttributes) {
+			return UriComponentsBuilder.fromHttpRequest(new ServletServerHttpRequest(((ServletRequestAttributes) attributes).getRequest()))
+					.replacePath(null).replaceQuery(null).build().toUriString();
+		}
+		return "";
+	}
+
+	/**
+	 * Finished launch waiting for post-finish processing
+	 */
+	@Document(collection = "launchFinishQueue")
+	public static class Task {
+
+		@Id
+		private String launchId;
+
+		private String projectRef;
+
+		private String baseUrl;
+
+		private Stage stage;
+
+		private int attempts;
+
+		private String leaseId;
+
+		private Date lockedUntil;
+
+		private Date creationDate;
+
+		public String getLaunchId() {
+			return launchId;
+		}
+
+		public Stage getStage() {
+			return stage;
+		}
+
+		public int getAttempts() {
+			return attempts;
+		}
+	}
+
+	/**
+	 * Post-finish stage of launch skipped after all attempts failed
+	 */
+	@Document(collection = "launchFinishFailures")
+	public static class FailedStage {
+
+		@Id
+		private String id;
+
+		private String launchId;
+
+		private String projectRef;
+
+		private String baseUrl;
+
+		private Stage stage;
+
+		private int attempts;
+
+		private String error;
+
+		private Date failureDate;
+
+		public String getLaunchId() {
+			return launchId;
+		}
+
+		public Stage getStage() {
+			return stage;
+		}
+
+		public String getError() {
+			return error;
+		}
+	}
+}
@@ -22,7 +22,6 @@ package com.epam.ta.reportportal.events.handler;
 
 import com.epam.ta.reportportal.commons.SendCase;
 import com.epam.ta.reportportal.database.dao.FailReferenceResourceRepository;
-import com.epam.ta.reportportal.database.dao.LaunchRepository;
 import com.epam.ta.reportportal.database.dao.TestItemRepository;
 import com.epam.ta.reportportal.database.dao.UserRepository;
 import com.epam.ta.reportportal.database.entity.Launch;
@@ -34,30 +33,28 @@ import com.epam.ta.reportportal.database.entity.project.ProjectUtils;
 import com.epam.ta.reportportal.database.entity.project.email.EmailSenderCase;
 import com.epam.ta.reportportal.database.entity.project.email.ProjectEmailConfig;
 import com.epam.ta.reportportal.database.entity.user.User;
-import com.epam.ta.reportportal.events.LaunchFinishedEvent;
 import com.epam.ta.reportportal.util.analyzer.IIssuesAnalyzer;
 import com.epam.ta.reportportal.util.email.EmailService;
 import com.epam.ta.reportportal.util.email.MailServiceFactory;
 import com.epam.ta.reportportal.ws.model.launch.Mode;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Strings;
 import org.apache.commons.lang3.BooleanUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.event.EventListener;
-import org.springframework.http.server.ServletServerHttpRequest;
 import org.springframework.stereotype.Component;
-import org.springframework.web.util.UriComponentsBuilder;
 
-import javax.inject.Provider;
-import javax.servlet.http.HttpServletRequest;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
+ * Post-finish processing of launch: auto-analysis and email notifications.
+ * Executed asynchronously by {@link LaunchFinishQueue}
+ *
  * @author Andrei Varabyeu
  */
 @Component
@@ -69,61 +66,39 @@ public class LaunchFinishedEventHandler {
 
 	private final TestItemRepository testItemRepository;
 
-	private final LaunchRepository launchRepository;
-
 	private final IIssuesAnalyzer analyzerService;
 
 	private final MailServiceFactory emailServiceFactory;
 
 	private final UserRepository userRepository;
 
-	private final Provider<HttpServletRequest> currentRequest;
-
 	private final Integer autoAnalysisDepth;
 
 	@Autowired
 	public LaunchFinishedEventHandler(IIssuesAnalyzer analyzerService, UserRepository userRepository, TestItemRepository testItemRepository,
-			Provider<HttpServletRequest> currentRequest, LaunchRepository launchRepository, MailServiceFactory emailServiceFactory,
+			MailServiceFactory emailServiceFactory,
 			FailReferenceResourceRepository issuesRepository, @Value("${rp.issue.analyzer.depth}") Integer autoAnalysisDepth) {
 		this.analyzerService = analyzerService;
 		this.userRepository = userRepository;
 		this.testItemRepository = testItemRepository;
-		this.currentRequest = currentRequest;
-		this.launchRepository = launchRepository;
 		this.emailServiceFactory = emailServiceFactory;
 		this.issuesRepository = issuesRepository;
 		this.autoAnalysisDepth = autoAnalysisDepth;
 	}
 
-	@EventListener
-	public void onApplicationEvent(LaunchFinishedEvent event) {
-		afterFinishLaunch(event.getProject(), event.getLaunch());
-	}
-
-	private void afterFinishLaunch(final Project project, final Launch launch) { // NOSONAR
-
-		/* Should we send email right now or wait till AA is finished? */
-		boolean waitForAutoAnalysis;
-
-		/* Avoid NULL object processing */
-		if (null == project || null == launch)
-			return;
-
-		Optional<EmailService> emailService = emailServiceFactory.getDefaultEmailService(project.getConfiguration().getEmailConfig());
-
-		/* If AA enabled then waiting results processing */
-		waitForAutoAnalysis = BooleanUtils.toBoolean(project.getConfiguration().getIsAutoAnalyzerEnabled());
-
-		/* If email enabled and AA disabled then send results immediately */
-		if (!waitForAutoAnalysis) {
-			emailService.ifPresent(service -> sendEmailRightNow(launch, project, service));
-		}
-
+	/**
+	 * Auto-analysis stage of {@link LaunchFinishQueue}. Analyzes launch if
+	 * it's enabled for the project and clears failure references of launch
+	 *
+	 * @param launch  Finished launch
+	 * @param project Project of launch
+	 */
+	public void analyze(final Launch launch, final Project project) {
 		// Do not process debug launches.
 		if (launch.getMode().equals(Mode.DEBUG))
 			return;
 		List<FailReferenceResource> resources = issuesRepository.findAllLaunchIssues(launch.getId());
-		if (!project.getConfiguration().getIsAutoAnalyzerEnabled()) {
+		if (!BooleanUtils.toBoolean(project.getConfiguration().getIsAutoAnalyzerEnabled())) {
 			this.clearInvestigatedIssues(resources);
 			return;
 		}
@@ -134,13 +109,22 @@ public class LaunchFinishedEventHandler {
 
 		// Remove already processed items from repository
 		this.clearInvestigatedIssues(resources);
+	}
 
-		/* Previous email sending cycle was skipped due waiting AA results */
-		if (waitForAutoAnalysis) {
-			// Get launch with AA results
-			Launch freshLaunch = launchRepository.findOne(launch.getId());
-			emailService.ifPresent(it -> sendEmailRightNow(freshLaunch, project, it));
-		}
+	/**
+	 * Email stage of {@link LaunchFinishQueue}. Executed after auto-analysis,
+	 * so notifications contain its results
+	 *
+	 * @param launch  Finished launch
+	 * @param project Project of launch
+	 * @param baseUrl Origin of server used in launch link
+	 */
+	public void sendNotifications(final Launch launch, final Project project, String baseUrl) {
+		/* Auto-analyzed project's debug launches are not notified */
+		if (BooleanUtils.toBoolean(project.getConfiguration().getIsAutoAnalyzerEnabled()) && launch.getMode().equals(Mode.DEBUG))
+			return;
+		emailServiceFactory.getDefaultEmailService(project.getConfiguration().getEmailConfig())
+				.ifPresent(service -> sendEmailRightNow(launch, project, service, baseUrl));
 	}
 
 	/**
@@ -222,8 +206,9 @@ public class LaunchFinishedEventHandler {
 	 * @param launch       Launch to be used
 	 * @param project      Project to be used
 	 * @param emailService Mail Service
+	 * @param baseUrl      Origin of server used in launch link
 	 */
-	void sendEmailRightNow(Launch launch, Project project, EmailService emailService) {
+	void sendEmailRightNow(Launch launch, Project project, EmailService emailService, String baseUrl) {
 		ProjectEmailConfig projectConfig = project.getConfiguration().getEmailConfig();
 		for (EmailSenderCase one : projectConfig.getEmailCases()) {
 			Optional<SendCase> option = SendCase.findByName(one.getSendCase());
@@ -234,9 +219,7 @@ public class LaunchFinishedEventHandler {
 			if (successRate && matchedNames && matchedTags) {
 				String[] recipientsArray = findRecipients(launch.getUserRef(), recipients);
 				try {
-					/* Update with static Util resources provider */
-					String basicURL = UriComponentsBuilder.fromHttpRequest(new ServletServerHttpRequest(currentRequest.get()))
-							.replacePath(String.format("/#%s/launches/all/", project.getName())).build().toUriString();
+					String basicURL = Strings.nullToEmpty(baseUrl) + String.format("/#%s/launches/all/", project.getName());
 
 					emailService
 							.sendLaunchFinishNotification(recipientsArray, basicURL + launch.getId(), launch, project.getConfiguration());
@@ -0,0 +1,330 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.epam.ta.reportportal.job;
+
+import com.epam.ta.reportportal.database.BinaryData;
+import com.epam.ta.reportportal.database.dao.LogRepository;
+import com.epam.ta.reportportal.database.entity.Log;
+import com.epam.ta.reportportal.exception.ReportPortalException;
+import com.google.common.base.Preconditions;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import javax.inject.Provider;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.epam.ta.reportportal.ws.model.ErrorType.BINARY_DATA_CANNOT_BE_SAVED;
+
+/**
+ * Bounded pipeline of binary data (attachments) processing. Consists of two stages:
+ * <ol>
+ * <li>Storage stage streams binary data into storage and links it to the log</li>
+ * <li>Thumbnail stage creates thumbnails of already stored images and links them to the log</li>
+ * </ol>
+ * Images are copied into memory while they are streamed into storage, so thumbnail stage
+ * doesn't read them back. Amount of copied bytes is limited: images which don't fit into
+ * the limit are read from storage by thumbnail stage
+ * Amount of data waiting for storage stage is limited in bytes. Once limit is reached,
+ * binary data is either spooled into local disk (limited in bytes as well) by separate
+ * spool executor or rejected, so caller threads never do storage or spooling work by themselves.
+ * Log is deleted if its binary data cannot be saved, the same way as rejected one is
+ *
+ * @see SaveBinaryDataJob
+ * @see CreateThumbnailJob
+ */
+public class AttachmentPipeline {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(AttachmentPipeline.class);
+
+	/**
+	 * Policy applied to binary data once in-memory queue limit is reached
+	 */
+	public enum OverflowPolicy {
+		REJECT,
+		SPOOL
+	}
+
+	private final TaskExecutor storageExecutor;
+
+	private final TaskExecutor spoolExecutor;
+
+	private final TaskExecutor thumbnailExecutor;
+
+	private final Provider<SaveBinaryDataJob> saveBinaryDataJob;
+
+	private final Provider<CreateThumbnailJob> createThumbnailJob;
+
+	private final LogRepository logRepository;
+
+	private final OverflowPolicy overflowPolicy;
+
+	private final long maxQueuedBytes;
+
+	private final long maxSpooledBytes;
+
+	private final long maxThumbnailSourceBytes;
+
+	private final Path spoolDirectory;
+
+	private final AtomicLong queuedBytes = new AtomicLong();
+
+	private final AtomicLong spooledBytes = new AtomicLong();
+
+	private final AtomicLong thumbnailSourceBytes = new AtomicLong();
+
+	public AttachmentPipeline(TaskExecutor storageExecutor, TaskExecutor spoolExecutor, TaskExecutor thumbnailExecutor,
+			Provider<SaveBinaryDataJob> saveBinaryDataJob, Provider<CreateThumbnailJob> createThumbnailJob, LogRepository logRepository,
+			OverflowPolicy overflowPolicy, long maxQueuedBytes, long maxSpooledBytes, long maxThumbnailSourceBytes, Path spoolDirectory) {
+		this.storageExecutor = Preconditions.checkNotNull(storageExecutor);
+		this.spoolExecutor = Preconditions.checkNotNull(spoolExecutor);
+		this.thumbnailExecutor = Preconditions.checkNotNull(thumbnailExecutor);
+		this.saveBinaryDataJob = Preconditions.checkNotNull(saveBinaryDataJob);
+		this.createThumbnailJob = Preconditions.checkNotNull(createThumbnailJob);
+		this.logRepository = Preconditions.checkNotNull(logRepository);
+		this.overflowPolicy = Preconditions.checkNotNull(overflowPolicy);
+		this.maxQueuedBytes = maxQueuedBytes;
+		this.maxSpooledBytes = maxSpooledBytes;
+		this.maxThumbnailSourceBytes = maxThumbnailSourceBytes;
+		this.spoolDirectory = Preconditions.checkNotNull(spoolDirectory);
+	}
+
+	/**
+	 * Submits binary data of saved log into pipeline
+	 *
+	 * @param log        Saved log
+	 * @param binaryData Binary data to be saved
+	 * @param filename   Filename of binary data
+	 * @param project    Project name
+	 * @throws ReportPortalException in case pipeline is overloaded and binary data is rejected
+	 */
+	public void submit(Log log, BinaryData binaryData, String filename, String project) {
+		long size = Optional.ofNullable(binaryData.getLength()).orElse(0L);
+
+		if (tryAcquire(queuedBytes, size, maxQueuedBytes)) {
+			execute(log, binaryData, filename, project, () -> queuedBytes.addAndGet(-size));
+			return;
+		}
+
+		if (OverflowPolicy.SPOOL == overflowPolicy && tryAcquire(spooledBytes, size, maxSpooledBytes)) {
+			try {
+				spoolExecutor.execute(() -> spoolAndExecute(log, binaryData, filename, project, size));
+			} catch (TaskRejectedException e) {
+				spooledBytes.addAndGet(-size);
+				throw new ReportPortalException(BINARY_DATA_CANNOT_BE_SAVED,
+						"Server is overloaded with binary data saving. Please, try again later");
+			}
+			return;
+		}
+
+		throw new ReportPortalException(BINARY_DATA_CANNOT_BE_SAVED,
+				"Server is overloaded with binary data saving. Please, try again later");
+	}
+
+	/**
+	 * @return Amount of bytes waiting for storage stage in memory
+	 */
+	public long getQueuedBytes() {
+		return queuedBytes.get();
+	}
+
+	/**
+	 * @return Amount of bytes waiting for storage stage on disk
+	 */
+	public long getSpooledBytes() {
+		return spooledBytes.get();
+	}
+
+	/**
+	 * @return Amount of image bytes copied in memory for thumbnail stage
+	 */
+	public long getThumbnailSourceBytes() {
+		return thumbnailSourceBytes.get();
+	}
+
+	/**
+	 * Copies binary data into local disk and passes it to storage stage. Executed by spool
+	 * executor, so there is no caller to report errors to: they are logged and log is deleted
+	 */
+	private void spoolAndExecute(Log log, BinaryData binaryData, String filename, String project, long size) {
+		Path file = null;
+		InputStream spooledStream;
+		try {
+			file = spool(binaryData);
+			spooledStream = Files.newInputStream(file);
+		} catch (IOException e) {
+			deleteQuietly(file);
+			spooledBytes.addAndGet(-size);
+			LOGGER.error("Binary data [{}] of log [{}] cannot be spooled", filename, log.getId(), e);
+			discard(log);
+			return;
+		}
+
+		Path spooled = file;
+		try {
+			execute(log, new BinaryData(binaryData.getContentType(), size, spooledStream), filename, project, () -> {
+				IOUtils.closeQuietly(spooledStream);
+				deleteQuietly(spooled);
+				spooledBytes.addAndGet(-size);
+			});
+		} catch (ReportPortalException e) {
+			LOGGER.error("Binary data [{}] of log [{}] is rejected by storage stage", filename, log.getId(), e);
+			discard(log);
+		}
+	}
+
+	private void execute(Log log, BinaryData binaryData, String filename, String project, Runnable release) {
+		SaveBinaryDataJob job = saveBinaryDataJob.get().withProject(project).withBinaryData(binaryData).withFilename(filename).withLog(log);
+		long copied = reserveThumbnailSource(job, binaryData);
+		try {
+			storageExecutor.execute(() -> {
+				try {
+					job.run();
+				} catch (Exception e) {
+					thumbnailSourceBytes.addAndGet(-copied);
+					LOGGER.error("Binary data [{}] of log [{}] cannot be saved", filename, log.getId(), e);
+					discard(log);
+					return;
+				} finally {
+					release.run();
+				}
+				if (job.isImage()) {
+					scheduleThumbnail(job, filename, project, copied);
+				}
+			});
+		} catch (TaskRejectedException e) {
+			release.run();
+			thumbnailSourceBytes.addAndGet(-copied);
+			throw new ReportPortalException(BINARY_DATA_CANNOT_BE_SAVED, e.getMessage());
+		}
+	}
+
+	/**
+	 * Requests storage stage to copy image for thumbnail stage if image of known size
+	 * fits into copy limit
+	 *
+	 * @return Amount of reserved bytes
+	 */
+	private long reserveThumbnailSource(SaveBinaryDataJob job, BinaryData binaryData) {
+		Long size = binaryData.getLength();
+		if (!job.isImage() || null == size || size <= 0 || size > maxThumbnailSourceBytes || size > Integer.MAX_VALUE) {
+			return 0;
+		}
+		while (true) {
+			long current = thumbnailSourceBytes.get();
+			if (current + size > maxThumbnailSourceBytes) {
+				return 0;
+			}
+			if (thumbnailSourceBytes.compareAndSet(current, current + size)) {
+				job.withThumbnailSource(size.intValue());
+				return size;
+			}
+		}
+	}
+
+	/**
+	 * Schedules thumbnail creation of already saved image. Storage stage never waits
+	 * for thumbnail stage: if there are no free thumbnail workers, thumbnail is skipped.
+	 * Reserved copy bytes are released once thumbnail stage is done with the copy
+	 */
+	private void scheduleThumbnail(SaveBinaryDataJob job, String filename, String project, long copied) {
+		byte[] source = job.getThumbnailSource();
+		long reserved = copied;
+		if (null == source) {
+			thumbnailSourceBytes.addAndGet(-reserved);
+			reserved = 0;
+		}
+		CreateThumbnailJob thumbnailJob = createThumbnailJob.get().withDataId(job.getDataId()).withLogId(job.getLog().getId())
+				.withContentType(job.getBinaryData().getContentType()).withFilename(filename).withProject(project).withSource(source);
+		long release = reserved;
+		try {
+			thumbnailExecutor.execute(0 == release ? thumbnailJob : () -> {
+				try {
+					thumbnailJob.run();
+				} finally {
+					thumbnailSourceBytes.addAndGet(-release);
+				}
+			});
+		} catch (TaskRejectedException e) {
+			thumbnailSourceBytes.addAndGet(-release);
+			// do not propagate. Thumbnail is not so critical
+			LOGGER.warn("Thumbnail is not created for file [{}]. Thumbnail queue is full", filename);
+		}
+	}
+
+	/**
+	 * Deletes log which binary data is lost, so log without attachment is not kept
+	 */
+	private void discard(Log log) {
+		try {
+			logRepository.delete(log);
+		} catch (Exception e) {
+			LOGGER.error("Log [{}] without binary data cannot be deleted", log.getId(), e);
+		}
+	}
+
+	private Path spool(BinaryData binaryData) throws IOException {
+		Files.createDirectories(spoolDirectory);
+		Path file = Files.createTempFile(spoolDirectory, "attachment-", ".tmp");
+		try (InputStream is = binaryData.getInputStream()) {
+			Files.copy(is, file, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			deleteQuietly(file);
+			throw e;
+		}
+		return file;
+	}
+
+	/**
+	 * Reserves provided amount of bytes. Single element bigger than limit
+	 * is allowed only if there is nothing reserved
+	 */
+	private static boolean tryAcquire(AtomicLong counter, long size, long limit) {
+		while (true) {
+			long current = counter.get();
+			if (current > 0 && current + size > limit) {
+				return false;
+			}
+			if (counter.compareAndSet(current, current + size)) {
+				return true;
+			}
+		}
+	}
+
+	private static void deleteQuietly(Path file) {
+		if (null != file) {
+			try {
+				Files.deleteIfExists(file);
+			} catch (IOException e) {
+				LOGGER.warn("Unable to delete spooled binary data {}", file, e);
+			}
+		}
+	}
+}
@@ -21,38 +21,73 @@
 
 package com.epam.ta.reportportal.job;
 
-import com.epam.ta.reportportal.database.dao.*;
+import com.epam.ta.reportportal.database.dao.ActivityRepository;
+import com.epam.ta.reportportal.database.dao.ProjectRepository;
 import com.epam.ta.reportportal.database.entity.Launch;
+import com.epam.ta.reportportal.database.entity.Log;
 import com.epam.ta.reportportal.database.entity.Project;
 import com.epam.ta.reportportal.database.entity.item.TestItem;
+import com.epam.ta.reportportal.util.analyzer.ErrorLogSignatureCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
-import java.util.stream.Collectors;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 
 import static java.time.Duration.ofDays;
 
 import static com.epam.ta.reportportal.database.entity.project.KeepLogsDelay.findByName;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
 
 /**
- * Clean logs job in accordance with project settings
+ * Clean logs job in accordance with project settings. Projects are processed
+ * in parallel. Launches of project are walked in order of ID, logs are
+ * removed by bounded batches of test items.
+ * <br>
+ * Launches last modified (by server clock) before the previous run's
+ * retention bound don't have logs to remove anymore, so the bound is kept per
+ * project as checkpoint and such launches are skipped. Progress of the
+ * current run is saved after each batch of launches, so interrupted run is
+ * resumed from the last processed launch.
  *
  * @author Andrei_Ramanchuk
  */
 @Service
 public class CleanLogsJob implements Runnable {
 
-	@Autowired
-	private LogRepository logRepo;
+	private static final Logger LOGGER = LoggerFactory.getLogger(CleanLogsJob.class);
 
-	@Autowired
-	private LaunchRepository launchRepo;
+	/* Logs may be saved a bit later than launch is finished */
+	private static final Duration CHECKPOINT_MARGIN = ofDays(1);
+
+	private static final String LAST_MODIFIED = "last_modified";
+	private static final String PENDING_BOUND = "pendingBound";
+	private static final String LAST_LAUNCH = "lastLaunch";
 
 	@Autowired
-	private TestItemRepository testItemRepo;
+	private MongoOperations mongoOperations;
 
 	@Autowired
 	private ProjectRepository projectRepository;
@@ -60,26 +95,178 @@ public class CleanLogsJob implements Runnable {
 	@Autowired
 	private ActivityRepository activityRepository;
 
+	@Autowired
+	private ErrorLogSignatureCache errorLogSignatureCache;
+
+	@Autowired
+	@Qualifier("cleanLogsTaskExecutor")
+	private TaskExecutor executor;
+
+	@Value("${com.ta.reportportal.job.clean.logs.launchBatchSize:100}")
+	private int launchBatchSize;
+
+	@Value("${com.ta.reportportal.job.clean.logs.itemBatchSize:1000}")
+	private int itemBatchSize;
+
 	@Override
 	@Scheduled(cron = "${com.ta.reportportal.job.clean.logs.cron}")
 	public void run() {
+		long started = System.currentTimeMillis();
+		AtomicLong removed = new AtomicLong();
+		List<CompletableFuture<Void>> projects = new ArrayList<>();
 		try (Stream<Project> stream = projectRepository.streamAllIdsAndConfiguration()) {
 			stream.forEach(project -> {
 				Duration period = ofDays(findByName(project.getConfiguration().getKeepLogs()).getDays());
-				activityRepository.deleteModifiedLaterAgo(project.getId(), period);
-				removeOutdatedLogs(project.getId(), period);
+				projects.add(CompletableFuture.runAsync(() -> {
+					activityRepository.deleteModifiedLaterAgo(project.getId(), period);
+					removed.addAndGet(removeOutdatedLogs(project.getId(), period));
+				}, executor).exceptionally(e -> {
+					LOGGER.error("Unable to clean logs of project '{}'", project.getId(), e);
+					return null;
+				}));
 			});
 		}
+		CompletableFuture.allOf(projects.toArray(new CompletableFuture[projects.size()])).join();
+		LOGGER.info("Logs cleaning finished: {} logs of {} projects removed in {}", removed.get(), projects.size(),
+				throughput(removed.get(), started));
 	}
 
-	private void removeOutdatedLogs(String projectId, Duration period) {
-		try (Stream<Launch> launchStream = launchRepo.streamIdsByProject(projectId)) {
-			launchStream.forEach(launch -> {
-				try (Stream<TestItem> testItemStream = testItemRepo.streamIdsByLaunch(launch.getId())) {
-					logRepo.deleteByPeriodAndItemsRef(period, testItemStream.map(TestItem::getId)
-							.collect(Collectors.toList()));
+	/**
+	 * Removes logs of project modified earlier than provided period ago.
+	 * Interrupted previous run is completed first
+	 *
+	 * @param projectId Project
+	 * @param period    Logs retention period
+	 * @return Amount of removed logs
+	 */
+	long removeOutdatedLogs(String projectId, Duration period) {
+		long started = System.currentTimeMillis();
+		Checkpoint checkpoint = mongoOperations.findById(projectId, Checkpoint.class);
+		if (null == checkpoint) {
+			checkpoint = new Checkpoint(projectId, null);
+		}
+
+		long removed = 0;
+		if (null != checkpoint.pendingBound) {
+			removed += removeOutdatedLogs(checkpoint, checkpoint.pendingBound, checkpoint.lastLaunch);
+			checkpoint = complete(checkpoint, checkpoint.pendingBound);
+		}
+		Date bound = Date.from(Instant.now().minus(period));
+		removed += removeOutdatedLogs(checkpoint, bound, null);
+		complete(checkpoint, bound);
+
+		LOGGER.info("Logs of project '{}' cleaned: {} logs removed in {}", projectId, removed, throughput(removed, started));
+		return removed;
+	}
+
+	/**
+	 * Removes logs of project modified before bound
+	 *
+	 * @param checkpoint Checkpoint of project
+	 * @param bound      Retention bound of run
+	 * @param lastLaunch ID of the last processed launch of interrupted run or <b>null</b>
+	 * @return Amount of removed logs
+	 */
+	private long removeOutdatedLogs(Checkpoint checkpoint, Date bound, String lastLaunch) {
+		Criteria launches = where("projectRef").is(checkpoint.project).and("startTime").lt(bound);
+		if (null != lastLaunch) {
+			launches = launches.and("_id").gt(lastLaunch);
+		}
+		if (null != checkpoint.bound) {
+			Date processed = Date.from(checkpoint.bound.toInstant().minus(CHECKPOINT_MARGIN));
+			launches = launches.orOperator(where(LAST_MODIFIED).is(null), where(LAST_MODIFIED).gt(processed));
+		}
+		Query launchQuery = query(launches).with(new Sort(Sort.Direction.ASC, "_id"));
+		launchQuery.fields().include("_id");
+
+		long removed = 0;
+		List<String> launchIds = new ArrayList<>(launchBatchSize);
+		try (CloseableIterator<Launch> iterator = mongoOperations.stream(launchQuery, Launch.class)) {
+			while (iterator.hasNext()) {
+				launchIds.add(iterator.next().getId());
+				if (launchIds.size() == launchBatchSize) {
+					removed += removeLogsOfLaunches(checkpoint.project, launchIds, bound);
+					launchIds = new ArrayList<>(launchBatchSize);
 				}
-			});
+			}
+		}
+		return removed + removeLogsOfLaunches(checkpoint.project, launchIds, bound);
+	}
+
+	/**
+	 * Saves bound of completed run as checkpoint unless previous one is later
+	 * and clears progress of the run
+	 */
+	private Checkpoint complete(Checkpoint checkpoint, Date bound) {
+		Checkpoint completed = new Checkpoint(checkpoint.project,
+				null == checkpoint.bound || checkpoint.bound.before(bound) ? bound : checkpoint.bound);
+		mongoOperations.save(completed);
+		return completed;
+	}
+
+	private long removeLogsOfLaunches(String projectId, List<String> launchIds, Date bound) {
+		if (launchIds.isEmpty()) {
+			return 0;
+		}
+		Query itemQuery = query(where("launchRef").in(launchIds));
+		itemQuery.fields().include("_id");
+
+		long removed = 0;
+		List<String> itemIds = new ArrayList<>(itemBatchSize);
+		try (CloseableIterator<TestItem> iterator = mongoOperations.stream(itemQuery, TestItem.class)) {
+			while (iterator.hasNext()) {
+				itemIds.add(iterator.next().getId());
+				if (itemIds.size() == itemBatchSize) {
+					removed += removeLogsOfItems(itemIds, bound);
+					itemIds.clear();
+				}
+			}
+		}
+		removed += removeLogsOfItems(itemIds, bound);
+		/* Progress of run */
+		mongoOperations.upsert(query(where("_id").is(projectId)),
+				new Update().set(PENDING_BOUND, bound).set(LAST_LAUNCH, launchIds.get(launchIds.size() - 1)), Checkpoint.class);
+		return removed;
+	}
+
+	private long removeLogsOfItems(List<String> itemIds, Date bound) {
+		if (itemIds.isEmpty()) {
+			return 0;
+		}
+		int removed = mongoOperations.remove(query(where("testItemRef").in(itemIds).and(LAST_MODIFIED).lte(bound)), Log.class).getN();
+		errorLogSignatureCache.invalidateAll(itemIds);
+		return removed;
+	}
+
+	private static String throughput(long removed, long started) {
+		long millis = Math.max(1, System.currentTimeMillis() - started);
+		return millis + " ms (" + removed * TimeUnit.SECONDS.toMillis(1) / millis + " logs/s)";
+	}
+
+	/**
+	 * Retention bound of the last completed run of the project and progress
+	 * of the current one
+	 */
+	@Document(collection = "logRetentionCheckpoint")
+	static class Checkpoint {
+
+		@Id
+		private String project;
+
+		private Date bound;
+
+		/* Retention bound of the current run */
+		private Date pendingBound;
+
+		/* ID of the last launch processed by the current run */
+		private String lastLaunch;
+
+		Checkpoint() {
+		}
+
+		Checkpoint(String project, Date bound) {
+			this.project = project;
+			this.bound = bound;
 		}
 	}
-}
\ No newline at end of file
+}
@@ -21,49 +21,119 @@
 
 package com.epam.ta.reportportal.job;
 
-import com.epam.ta.reportportal.database.DataStorage;
-import com.epam.ta.reportportal.database.dao.LogRepository;
 import com.epam.ta.reportportal.database.dao.ProjectRepository;
+import com.epam.ta.reportportal.database.entity.Log;
 import com.epam.ta.reportportal.database.entity.Project;
 import com.epam.ta.reportportal.database.entity.project.KeepScreenshotsDelay;
+import com.mongodb.DBObject;
+import com.mongodb.gridfs.GridFSDBFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.gridfs.GridFsOperations;
+import org.springframework.data.util.CloseableIterator;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
 import java.util.stream.Stream;
 
 import static java.time.Duration.ofDays;
+import static java.util.stream.Collectors.toList;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
 
 /**
- * Clear screenshots from GridFS in accordance with projects settings
+ * Clear screenshots from GridFS in accordance with projects settings.
+ * Ids of expired files are streamed from the files collection of GridFS
+ * bucket and removed by batches: files and their GridFS chunks are
+ * removed with one query each, binary content of logs is cleared with one
+ * multi-update per batch. Bucket is taken from files found by GridFS
+ * template binary data storage works with
  *
  * @author Andrei_Ramanchuk
  */
 @Service
 public class CleanScreenshotsJob implements Runnable {
 
-    @Autowired
-    private DataStorage gridFS;
+    private static final Logger LOGGER = LoggerFactory.getLogger(CleanScreenshotsJob.class);
+
+    private static final String BINARY_CONTENT = "binary_content";
+    private static final String BINARY_CONTENT_ID = "binary_content.id";
 
     @Autowired
     private ProjectRepository projectRepository;
 
     @Autowired
-    private LogRepository logRepository;
+    private MongoOperations mongoOperations;
+
+    @Autowired
+    private GridFsOperations gridFsOperations;
+
+    @Value("${com.ta.reportportal.job.clean.screenshots.batchSize:500}")
+    private int batchSize;
 
     @Override
     @Scheduled(cron = "${com.ta.reportportal.job.clean.screenshots.cron}")
     public void run() {
         try (Stream<Project> projects = projectRepository.streamAllIdsAndConfiguration()) {
-            projects.forEach(project -> gridFS.findModifiedLaterAgo(
-                    ofDays(KeepScreenshotsDelay.findByName(project.getConfiguration().getKeepScreenshots()).getDays()),
-                    project.getId())
-                    .forEach(file -> {
-                        gridFS.deleteData(file.getId().toString());
-                        /* Clear binary_content fields from log repository */
-                        logRepository.removeBinaryContent(file.getId().toString());
-                    })
-            );
+            projects.forEach(project -> {
+                long removed = removeOutdatedFiles(project.getId(),
+                        ofDays(KeepScreenshotsDelay.findByName(project.getConfiguration().getKeepScreenshots()).getDays()).toMillis());
+                if (removed > 0) {
+                    LOGGER.info("{} outdated files of project '{}' removed", removed, project.getId());
+                }
+            });
+        }
+    }
+
+    /**
+     * Streams ids of project's files uploaded earlier than given period ago
+     * and removes them by batches
+     *
+     * @param projectId Project ID
+     * @param period    Period files are kept, ms
+     * @return Amount of removed files
+     */
+    long removeOutdatedFiles(String projectId, long period) {
+        Query outdated = query(where("metadata.project").is(projectId).and("uploadDate")
+                .lt(new Date(System.currentTimeMillis() - period)));
+        GridFSDBFile first = gridFsOperations.findOne(outdated);
+        if (null == first) {
+            return 0;
+        }
+        String bucket = first.getFS().getBucketName();
+        outdated.fields().include("_id");
+        long removed = 0;
+        List<Object> ids = new ArrayList<>(batchSize);
+        try (CloseableIterator<DBObject> files = mongoOperations.stream(outdated, DBObject.class, bucket + ".files")) {
+            while (files.hasNext()) {
+                ids.add(files.next().get("_id"));
+                if (ids.size() == batchSize) {
+                    removeFiles(bucket, ids);
+                    removed += ids.size();
+                    ids = new ArrayList<>(batchSize);
+                }
+            }
         }
+        if (!ids.isEmpty()) {
+            removeFiles(bucket, ids);
+            removed += ids.size();
+        }
+        return removed;
+    }
+
+    private void removeFiles(String bucket, List<Object> ids) {
+        /* Clear binary_content fields from log repository */
+        mongoOperations.updateMulti(query(where(BINARY_CONTENT_ID).in(ids.stream().map(Object::toString).collect(toList()))),
+                new Update().unset(BINARY_CONTENT), Log.class);
+        mongoOperations.remove(query(where("files_id").in(ids)), bucket + ".chunks");
+        mongoOperations.remove(query(where("_id").in(ids)), bucket + ".files");
     }
-}
\ No newline at end of file
+}
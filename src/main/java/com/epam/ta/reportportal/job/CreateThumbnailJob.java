@@ -0,0 +1,150 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.epam.ta.reportportal.job;
+
+import com.epam.reportportal.commons.Thumbnailator;
+import com.epam.ta.reportportal.database.BinaryData;
+import com.epam.ta.reportportal.database.DataStorage;
+import com.epam.ta.reportportal.database.entity.Log;
+import com.google.common.base.Preconditions;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Collections;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Creates thumbnail of image already saved by {@link SaveBinaryDataJob}, saves it
+ * into storage and links it to the log. Small images are taken from the copy made while
+ * image was saved, bigger ones are read directly from storage stream and never buffered
+ * as a whole. Expected to be executed asynchronously.
+ * Statefull, so cannot be a singleton bean
+ */
+public class CreateThumbnailJob implements Runnable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CreateThumbnailJob.class);
+
+	private static final String BINARY_CONTENT_ID = "binary_content.id";
+	private static final String THUMBNAIL_ID = "binary_content.thumbnail_id";
+
+	@Autowired
+	private DataStorage dataStorageService;
+
+	@Autowired
+	private Thumbnailator thumbnailator;
+
+	@Autowired
+	private MongoOperations mongoOperations;
+
+	/**
+	 * ID of saved image
+	 */
+	private String dataId;
+
+	/**
+	 * ID of log image belongs to
+	 */
+	private String logId;
+
+	/**
+	 * Image copied while it was saved or <b>null</b> if image should be read from storage
+	 */
+	private byte[] source;
+
+	private String contentType;
+
+	/**
+	 * Name of file thumbnail created for
+	 */
+	private String filename;
+
+	private String project;
+
+	@Override
+	public void run() {
+		InputStream image;
+		if (null != source) {
+			image = new ByteArrayInputStream(source);
+		} else {
+			BinaryData stored = dataStorageService.fetchData(dataId);
+			if (null == stored) {
+				LOGGER.warn("Thumbnail is not created for file [{}]. File is already removed", filename);
+				return;
+			}
+			image = stored.getInputStream();
+		}
+		try (InputStream is = image) {
+			byte[] thumbnailBytes = IOUtils.toByteArray(thumbnailator.createThumbnail(is));
+			String thumbnailId = dataStorageService.saveData(
+					new BinaryData(contentType, (long) thumbnailBytes.length, new ByteArrayInputStream(thumbnailBytes)),
+					"thumbnail-".concat(filename), Collections.singletonMap("project", project));
+			/* Log could be changed meanwhile, so only thumbnail field is updated and only if image is still there */
+			mongoOperations.updateFirst(query(where("_id").is(logId).and(BINARY_CONTENT_ID).is(dataId)),
+					new Update().set(THUMBNAIL_ID, thumbnailId), Log.class);
+		} catch (Exception e) {
+			// do not propogate. Thumbnail is not so critical
+			LOGGER.error("Thumbnail is not created for file [{}]. Error:\n{}", filename, e);
+		}
+	}
+
+	public CreateThumbnailJob withDataId(String dataId) {
+		Preconditions.checkNotNull(dataId, "Data ID shouldn't be null");
+		this.dataId = dataId;
+		return this;
+	}
+
+	public CreateThumbnailJob withLogId(String logId) {
+		Preconditions.checkNotNull(logId, "Log ID shouldn't be null");
+		this.logId = logId;
+		return this;
+	}
+
+	public CreateThumbnailJob withSource(byte[] source) {
+		this.source = source;
+		return this;
+	}
+
+	public CreateThumbnailJob withContentType(String contentType) {
+		this.contentType = contentType;
+		return this;
+	}
+
+	public CreateThumbnailJob withFilename(String filename) {
+		Preconditions.checkNotNull(filename, "Filename shouldn't be null");
+		this.filename = filename;
+		return this;
+	}
+
+	public CreateThumbnailJob withProject(String projectName) {
+		Preconditions.checkNotNull(projectName, "Project name shouldn't be null");
+		this.project = projectName;
+		return this;
+	}
+}
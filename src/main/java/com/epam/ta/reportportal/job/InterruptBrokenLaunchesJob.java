@@ -22,6 +22,7 @@
 package com.epam.ta.reportportal.job;
 
 import com.epam.ta.reportportal.core.statistics.StatisticsFacadeFactory;
+import com.epam.ta.reportportal.core.widget.content.LaunchTrendStore;
 import com.epam.ta.reportportal.database.dao.*;
 import com.epam.ta.reportportal.database.entity.Launch;
 import com.epam.ta.reportportal.database.entity.Project;
@@ -29,15 +30,22 @@ import com.epam.ta.reportportal.database.entity.Status;
 import com.epam.ta.reportportal.database.entity.item.TestItem;
 import com.epam.ta.reportportal.database.entity.project.InterruptionJobDelay;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.util.Calendar;
+import java.util.Date;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import static java.time.Duration.ofHours;
+import static java.util.stream.Collectors.toSet;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
 
 /**
  * Finds jobs witn duration more than defined and finishes them with interrupted
@@ -66,6 +74,12 @@ public class InterruptBrokenLaunchesJob implements Runnable {
 	@Autowired
 	private ProjectRepository projectRepository;
 
+	@Autowired
+	private MongoOperations mongoOperations;
+
+	@Autowired
+	private LaunchTrendStore launchTrendStore;
+
 	@Override
 	@Scheduled(cron = "${com.ta.reportportal.job.interrupt.broken.launches.cron}")
 	public void run() {
@@ -107,14 +121,15 @@ public class InterruptBrokenLaunchesJob implements Runnable {
 									}
 								}
 								if (isLaunchBroken) {
-									interruptItems(testItemRepository.findInStatusItems(Status.IN_PROGRESS.name(), launch.getId()), launch);
+									interruptItems(testItemRepository.findInStatusItems(Status.IN_PROGRESS.name(), launch.getId()), launch,
+											project);
 								}
 							} else {
 							/*
 							 * If not just INTERRUPT all found items and launch
 							 */
 								interruptItems(testItemRepository.findInStatusItems(Status.IN_PROGRESS.name(),
-                                        launch.getId()), launch);
+                                        launch.getId()), launch, project);
 							}
 						}
 					}
@@ -127,6 +142,7 @@ public class InterruptBrokenLaunchesJob implements Runnable {
 		launch.setStatus(Status.INTERRUPTED);
 		launch.setEndTime(Calendar.getInstance().getTime());
 		launchRepository.save(launch);
+		launchTrendStore.refresh(launch);
 		/*
 		 * Delete references on failed\skipped tests in launch. It cannot be
 		 * used in main function cause break operators for valid launches.
@@ -136,16 +152,32 @@ public class InterruptBrokenLaunchesJob implements Runnable {
 		this.clearIssueReferences(launch.getId());
 	}
 
-	private void interruptItems(List<TestItem> testItems, Launch launch) {
+	private void interruptItems(List<TestItem> testItems, Launch launch, Project project) {
 		if (testItems.isEmpty()) {
 			return;
 		}
-		testItems.forEach(item -> interruptItem(item, launch));
+		Date endTime = Calendar.getInstance().getTime();
+		Update interrupt = new Update().set("status", Status.INTERRUPTED).set("endTime", endTime);
+
+		/* All in progress items of launch at once */
+		mongoOperations.updateMulti(query(where("launchRef").is(launch.getId()).and("status").is(Status.IN_PROGRESS)), interrupt,
+				TestItem.class);
+
+		/* And their ancestors which are not interrupted yet */
+		Set<String> ancestors = testItems.stream().filter(item -> null != item.getPath()).flatMap(item -> item.getPath().stream())
+				.collect(toSet());
+		if (!ancestors.isEmpty()) {
+			mongoOperations.updateMulti(query(where("_id").in(ancestors).and("status").ne(Status.INTERRUPTED)), interrupt, TestItem.class);
+		}
 
 		Launch launchReloaded = launchRepository.findOne(launch.getId());
+		/* Single in-memory rollup instead of statistics update per interrupted item */
+		statisticsFacadeFactory.getStatisticsFacade(project.getConfiguration().getStatisticsCalculationStrategy())
+				.recalculateStatistics(launchReloaded);
 		launchReloaded.setStatus(Status.INTERRUPTED);
-		launchReloaded.setEndTime(Calendar.getInstance().getTime());
+		launchReloaded.setEndTime(endTime);
 		launchRepository.save(launchReloaded);
+		launchTrendStore.refresh(launchReloaded);
 		/*
 		 * Delete references on failed\skipped tests in launch. It cannot be
 		 * used in main function cause break operators for valid launches. For
@@ -163,31 +195,4 @@ public class InterruptBrokenLaunchesJob implements Runnable {
 	private void clearIssueReferences(String launchId) {
 		issuesRepository.deleteAllIssuesForLaunch(launchId);
 	}
-
-	private void interruptItem(TestItem item, Launch launch) {
-		/*
-		 * If not interrupted yet
-		 */
-		if (!Status.INTERRUPTED.equals(item.getStatus())) {
-			item.setStatus(Status.INTERRUPTED);
-			item.setEndTime(Calendar.getInstance().getTime());
-			item = testItemRepository.save(item);
-
-			if (!item.hasChilds()) {
-				Project project = projectRepository.findOne(launch.getProjectRef());
-				item = statisticsFacadeFactory
-						.getStatisticsFacade(project.getConfiguration().getStatisticsCalculationStrategy())
-						.updateExecutionStatistics(item);
-				if (null != item.getIssue()) {
-					item = statisticsFacadeFactory
-							.getStatisticsFacade(project.getConfiguration().getStatisticsCalculationStrategy())
-							.updateIssueStatistics(item);
-				}
-			}
-
-			if (null != item.getParent()) {
-				interruptItem(testItemRepository.findOne(item.getParent()), launch);
-			}
-		}
-	}
-}
\ No newline at end of file
+}
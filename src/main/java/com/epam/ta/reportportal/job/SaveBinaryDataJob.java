@@ -21,7 +21,6 @@
 
 package com.epam.ta.reportportal.job;
 
-import com.epam.reportportal.commons.Thumbnailator;
 import com.epam.ta.reportportal.database.BinaryData;
 import com.epam.ta.reportportal.database.DataStorage;
 import com.epam.ta.reportportal.database.dao.LogRepository;
@@ -29,36 +28,32 @@ import com.epam.ta.reportportal.database.entity.BinaryContent;
 import com.epam.ta.reportportal.database.entity.Log;
 import com.google.common.base.Preconditions;
 import org.apache.commons.io.IOUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.apache.commons.io.input.TeeInputStream;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
+import java.io.ByteArrayOutputStream;
 import java.util.Collections;
 import java.util.Map;
 
 /**
  * Save binary data job. Expected to be executed asynchronously. Statefull, so
  * cannot be a singleton bean. Saves binary data, then updates related log entry
- * with saved data id
+ * with saved data id. Thumbnail of saved image is created afterwards by
+ * {@link CreateThumbnailJob}, so storage never waits for thumbnail creation.
+ * Small images could be copied into memory while they are streamed into storage,
+ * so thumbnail is created without reading image back from storage
  * 
  * @author Andrei Varabyeu
  * 
  */
 public class SaveBinaryDataJob implements Runnable {
 
-	private static final Logger LOGGER = LoggerFactory.getLogger(SaveBinaryDataJob.class);
-
 	@Autowired
 	private LogRepository logRepository;
 
 	@Autowired
 	private DataStorage dataStorageService;
 
-	@Autowired
-	private Thumbnailator thumbnailator;
-
 	/**
 	 * Name of file to be saved
 	 */
@@ -76,30 +71,40 @@ public class SaveBinaryDataJob implements Runnable {
 	 */
 	private Log log;
 
+	/**
+	 * ID of saved binary data
+	 */
+	private String dataId;
+
+	/**
+	 * Max amount of bytes copied for thumbnail creation, 0 if data isn't copied
+	 */
+	private int thumbnailSourceSize;
+
+	/**
+	 * Copy of saved binary data
+	 */
+	private byte[] thumbnailSource;
+
 	@Override
 	public void run() {
-
-		String thumbnailId = null;
 		Map<String, String> metadata = Collections.singletonMap("project", project);
 
-		if (isImage(binaryData)) {
-			try {
-				byte[] image = IOUtils.toByteArray(binaryData.getInputStream());
-				byte[] thumbnailBytes = thumbnailator.createThumbnail(image);
-				thumbnailId = dataStorageService.saveData(new BinaryData(binaryData.getContentType(), (long) thumbnailBytes.length,
-						new ByteArrayInputStream(thumbnailBytes)), "thumbnail-".concat(filename), metadata);
-				binaryData = new BinaryData(binaryData.getContentType(), binaryData.getLength(), new ByteArrayInputStream(image));
-			} catch (IOException e) {
-				// do not propogate. Thumbnail is not so critical
-				LOGGER.error("Thumbnail is not created for log [{}]. Error:\n{}", log.getId(), e);
-			}
-		}
-
 		/*
-		 * Saves binary data into storage
+		 * Saves binary data into storage copying it for thumbnail if requested
 		 */
-		//String dataId = dataStorageService.saveData(binaryData, filename);
-		String dataId = dataStorageService.saveData(binaryData, filename, metadata);
+		HeadBuffer copy = thumbnailSourceSize > 0 ? new HeadBuffer(thumbnailSourceSize) : null;
+		BinaryData data = null == copy ?
+				binaryData :
+				new BinaryData(binaryData.getContentType(), binaryData.getLength(), new TeeInputStream(binaryData.getInputStream(), copy));
+		try {
+			dataId = dataStorageService.saveData(data, filename, metadata);
+		} finally {
+			IOUtils.closeQuietly(binaryData.getInputStream());
+		}
+		if (null != copy && !copy.isOverflowed()) {
+			thumbnailSource = copy.toByteArray();
+		}
 
 		/*
 		 * Then updates log with just created binary data id
@@ -107,13 +112,7 @@ public class SaveBinaryDataJob implements Runnable {
 		BinaryContent content = new BinaryContent();
 		content.setBinaryDataId(dataId);
 		content.setContentType(binaryData.getContentType());
-		if (null != thumbnailId) {
-			content.setThumbnailId(thumbnailId);
-		}
 
-		/*
-		 * Adds thumbnail if created
-		 */
 		log.setBinaryContent(content);
 		logRepository.save(log);
 	}
@@ -136,13 +135,92 @@ public class SaveBinaryDataJob implements Runnable {
 		return this;
 	}
 	
+	/**
+	 * Copies up to provided amount of bytes while data is saved
+	 *
+	 * @param thumbnailSourceSize Max size of copy
+	 * @return this job
+	 */
+	public SaveBinaryDataJob withThumbnailSource(int thumbnailSourceSize) {
+		this.thumbnailSourceSize = thumbnailSourceSize;
+		return this;
+	}
+
 	public SaveBinaryDataJob withProject(String projectName) {
 		Preconditions.checkNotNull(projectName, "Project name shouldn't be null");
 		this.project = projectName;
 		return this;
 	}
 
-	private boolean isImage(BinaryData binaryData) {
+	public BinaryData getBinaryData() {
+		return binaryData;
+	}
+
+	public Log getLog() {
+		return log;
+	}
+
+	/**
+	 * @return ID of saved binary data or <b>null</b> if job hasn't been executed yet
+	 */
+	public String getDataId() {
+		return dataId;
+	}
+
+	/**
+	 * @return Copy of saved binary data or <b>null</b> if data isn't copied or is bigger than requested
+	 */
+	public byte[] getThumbnailSource() {
+		return thumbnailSource;
+	}
+
+	/**
+	 * @return <code>true</code> if binary data is an image, so thumbnail can be created
+	 */
+	public boolean isImage() {
 		return binaryData.getContentType() != null && binaryData.getContentType().contains("image");
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Keeps written bytes until limit is exceeded. Once exceeded, copy is dropped
+	 * and the rest of data is skipped
+	 */
+	private static class HeadBuffer extends ByteArrayOutputStream {
+
+		private final int limit;
+
+		private boolean overflowed;
+
+		HeadBuffer(int limit) {
+			super(Math.min(limit, 32 * 1024));
+			this.limit = limit;
+		}
+
+		@Override
+		public synchronized void write(int b) {
+			if (fits(1)) {
+				super.write(b);
+			}
+		}
+
+		@Override
+		public synchronized void write(byte[] b, int off, int len) {
+			if (fits(len)) {
+				super.write(b, off, len);
+			}
+		}
+
+		boolean isOverflowed() {
+			return overflowed;
+		}
+
+		private boolean fits(int len) {
+			if (!overflowed && count + len > limit) {
+				overflowed = true;
+				buf = new byte[0];
+				count = 0;
+			}
+			return !overflowed;
+		}
+	}
+}
@@ -21,6 +21,7 @@
 
 package com.epam.ta.reportportal.migration;
 
+import com.epam.ta.reportportal.core.widget.content.LaunchTrendStore;
 import com.github.mongobee.changeset.ChangeLog;
 import com.github.mongobee.changeset.ChangeSet;
 import com.google.common.base.Charsets;
@@ -42,4 +43,13 @@ public class ChangeSets_3_1 {
 		mongoTemplate.getDb().doEval(asCharSource(getResource("migration/v3_1_0_1.js"), Charsets.UTF_8).read());
 	}
 
+	/**
+	 * Buckets are backfilled in background after startup, so migration
+	 * only resets buckets and backfill progress
+	 */
+	@ChangeSet(order = "3.1.0-2", id = "v3.1.0-Reset launch trend buckets", author = "avarabyeu")
+	public void resetLaunchTrend(MongoTemplate mongoTemplate) {
+		LaunchTrendStore.reset(mongoTemplate);
+	}
+
 }
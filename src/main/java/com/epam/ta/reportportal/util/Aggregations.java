@@ -0,0 +1,46 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.ta.reportportal.util;
+
+import com.mongodb.BasicDBObject;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+
+/**
+ * Helpers for aggregation pipelines built of raw stages
+ */
+public final class Aggregations {
+
+	private Aggregations() {
+		//static only
+	}
+
+	/**
+	 * Aggregation stage which is passed to database as is, e.g. for
+	 * operators or expressions not supported by aggregation builders
+	 *
+	 * @param operator Stage operator, e.g. <b>$group</b>
+	 * @param body     Stage specification
+	 * @return Aggregation operation
+	 */
+	public static AggregationOperation stage(String operator, Object body) {
+		return context -> new BasicDBObject(operator, body);
+	}
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.ta.reportportal.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheStats;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Public metrics of Guava caches
+ */
+public final class CacheMetrics {
+
+	private CacheMetrics() {
+		//static only
+	}
+
+	/**
+	 * @param prefix Prefix of metric names
+	 * @param cache  Cache recording its stats
+	 * @return Size, hits, misses, hit rate and evictions of cache
+	 */
+	public static Collection<Metric<?>> of(String prefix, Cache<?, ?> cache) {
+		CacheStats stats = cache.stats();
+		return Arrays.asList(new Metric<>(prefix + "size", cache.size()), new Metric<>(prefix + "hit", stats.hitCount()),
+				new Metric<>(prefix + "miss", stats.missCount()), new Metric<>(prefix + "hitRate", stats.hitRate()),
+				new Metric<>(prefix + "eviction", stats.evictionCount()));
+	}
+}
@@ -23,7 +23,8 @@ package com.epam.ta.reportportal.util.analyzer;
 
 /**
  * Enumerator for AA cache launch statuses.<br>
- * STARTED - launch been put in AA cache and going to be processed.<br>
+ * STARTED - launch been put in AA cache and going to be processed. May be
+ * followed by progress of processing, e.g. <code>STARTED 3/10</code>.<br>
  * FINISHED - launch processing finished.
  * 
  * @author Andrei_Ramanchuk
@@ -32,6 +33,24 @@ package com.epam.ta.reportportal.util.analyzer;
 public enum CacheElementEnum {
 	//@formatter:off
 	STARTED,
-	FINISHED
+	FINISHED;
 	//@formatter:on
+
+	/**
+	 * @param done  Amount of processed parts
+	 * @param total Total amount of parts
+	 * @return Cache value of status with progress of processing
+	 */
+	public String withProgress(int done, int total) {
+		return name() + " " + done + "/" + total;
+	}
+
+	/**
+	 * @param value Cache value
+	 * @return <b>true</b> if value represents this status with or without
+	 * progress
+	 */
+	public boolean is(String value) {
+		return null != value && (value.equalsIgnoreCase(name()) || value.toUpperCase().startsWith(name() + " "));
+	}
 }
\ No newline at end of file
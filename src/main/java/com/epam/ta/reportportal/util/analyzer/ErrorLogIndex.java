@@ -0,0 +1,126 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.ta.reportportal.util.analyzer;
+
+import java.util.*;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * In-memory locality sensitive index of {@link ErrorLogSignature}s. MinHash
+ * fingerprints are split into bands and every band is used as a bucket key,
+ * so items with similar error logs collide at least in one bucket with high
+ * probability. Only the best ranked colliding items are compared with exact
+ * Levenshtein distance.
+ */
+public class ErrorLogIndex {
+
+	private static final int ROWS = 3;
+	private static final int BANDS = ErrorLogSignature.HASHES / ROWS;
+
+	/* Default number of candidates compared with exact distance */
+	static final int DEFAULT_CANDIDATES = 10;
+
+	private final Map<String, ErrorLogSignature> signatures = new LinkedHashMap<>();
+	private final Map<Long, List<String>> buckets = new HashMap<>();
+	private final int candidatesLimit;
+
+	public ErrorLogIndex() {
+		this(DEFAULT_CANDIDATES);
+	}
+
+	public ErrorLogIndex(int candidatesLimit) {
+		this.candidatesLimit = candidatesLimit;
+	}
+
+	/**
+	 * Add item signature to the index. Items without error logs are ignored
+	 * since they are never similar to anything.
+	 *
+	 * @param itemId    ID of test item
+	 * @param signature Signature of item's error logs
+	 */
+	public void add(String itemId, ErrorLogSignature signature) {
+		if (signature.isEmpty() || null != signatures.putIfAbsent(itemId, signature)) {
+			return;
+		}
+		int[] minHash = signature.getMinHash();
+		for (int band = 0; band < BANDS; band++) {
+			buckets.computeIfAbsent(bucketKey(minHash, band), key -> new ArrayList<>()).add(itemId);
+		}
+	}
+
+	public int size() {
+		return signatures.size();
+	}
+
+	/**
+	 * Find the most similar indexed item
+	 *
+	 * @param itemId     ID of analyzed item, excluded from the result
+	 * @param signature  Signature of analyzed item's error logs
+	 * @param acceptRate Minimal percentage of equality
+	 * @return ID of the most similar item with equality not less than
+	 * accept rate
+	 */
+	public Optional<String> findSimilar(String itemId, ErrorLogSignature signature, double acceptRate) {
+		String result = null;
+		double best = -1;
+		for (String candidate : candidates(itemId, signature)) {
+			double similarity = signature.similarity(signatures.get(candidate));
+			if (similarity >= acceptRate && similarity > best) {
+				best = similarity;
+				result = candidate;
+			}
+		}
+		return Optional.ofNullable(result);
+	}
+
+	/**
+	 * Items colliding with provided signature at least in one band, ranked by
+	 * estimated similarity
+	 */
+	List<String> candidates(String itemId, ErrorLogSignature signature) {
+		if (signature.isEmpty()) {
+			return Collections.emptyList();
+		}
+		int[] minHash = signature.getMinHash();
+		Set<String> collisions = new LinkedHashSet<>();
+		for (int band = 0; band < BANDS; band++) {
+			collisions.addAll(buckets.getOrDefault(bucketKey(minHash, band), Collections.emptyList()));
+		}
+		collisions.remove(itemId);
+
+		return collisions.stream()
+				.filter(id -> signatures.get(id).getMessages().size() == signature.getMessages().size())
+				.sorted(Comparator.comparingDouble((String id) -> signature.estimateSimilarity(signatures.get(id))).reversed())
+				.limit(candidatesLimit)
+				.collect(toList());
+	}
+
+	private static long bucketKey(int[] minHash, int band) {
+		int hash = 1;
+		for (int i = band * ROWS; i < (band + 1) * ROWS; i++) {
+			hash = 31 * hash + minHash[i];
+		}
+		return ((long) band << 32) | (hash & 0xFFFFFFFFL);
+	}
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.ta.reportportal.util.analyzer;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Normalized error logs of a single test item together with their MinHash
+ * fingerprint. Built once per item and reused for every comparison, so
+ * normalization and hashing costs are not paid per pair of items.
+ *
+ * @see ErrorLogIndex
+ */
+public final class ErrorLogSignature {
+
+	/* Number of hash functions used for MinHash fingerprint */
+	static final int HASHES = 60;
+
+	/* Number of words joined into one shingle */
+	private static final int SHINGLE_SIZE = 3;
+
+	private static final Pattern DIGITS = Pattern.compile("\\d+");
+	private static final Pattern AT = Pattern.compile("\\s(at)\\s");
+	private static final Pattern DELIMITERS = Pattern.compile("\\W+");
+
+	private static final int[] SEEDS = new int[HASHES];
+
+	static {
+		int seed = 0x9E3779B9;
+		for (int i = 0; i < HASHES; i++) {
+			seed = mix(seed + i);
+			SEEDS[i] = seed;
+		}
+	}
+
+	private final List<String> messages;
+	private final int[] minHash;
+
+	private ErrorLogSignature(List<String> messages, int[] minHash) {
+		this.messages = messages;
+		this.minHash = minHash;
+	}
+
+	/**
+	 * Normalize provided error messages and calculate their fingerprint
+	 *
+	 * @param logMessages Raw error log messages in order of their appearance
+	 * @return Signature of messages
+	 */
+	public static ErrorLogSignature of(List<String> logMessages) {
+		List<String> normalized = logMessages.stream().map(ErrorLogSignature::normalize).collect(Collectors.toList());
+		return new ErrorLogSignature(Collections.unmodifiableList(normalized), minHash(normalized));
+	}
+
+	/**
+	 * Signature with already normalized messages and calculated fingerprint
+	 *
+	 * @param messages Normalized error log messages
+	 * @param minHash  Fingerprint of messages
+	 * @return Signature of messages
+	 */
+	static ErrorLogSignature restore(List<String> messages, int[] minHash) {
+		return new ErrorLogSignature(Collections.unmodifiableList(messages), minHash);
+	}
+
+	/**
+	 * Removes volatile parts of log message: numbers (ids, line numbers,
+	 * timestamps) and stack trace 'at' markers
+	 *
+	 * @param message Raw log message
+	 * @return Normalized message
+	 */
+	public static String normalize(String message) {
+		if (null == message) {
+			return "";
+		}
+		return AT.matcher(DIGITS.matcher(message).replaceAll("")).replaceAll("");
+	}
+
+	public List<String> getMessages() {
+		return messages;
+	}
+
+	public boolean isEmpty() {
+		return messages.isEmpty();
+	}
+
+	/**
+	 * Approximate size of signature used to bound caches
+	 *
+	 * @return Total length of normalized messages plus fingerprint size
+	 */
+	public int getWeight() {
+		return messages.stream().mapToInt(String::length).sum() + HASHES;
+	}
+
+	int[] getMinHash() {
+		return minHash;
+	}
+
+	/**
+	 * Estimates Jaccard similarity of shingle sets of two signatures
+	 *
+	 * @param other Signature to compare with
+	 * @return Value between 0 and 1
+	 */
+	double estimateSimilarity(ErrorLogSignature other) {
+		int equal = 0;
+		for (int i = 0; i < HASHES; i++) {
+			if (minHash[i] == other.minHash[i]) {
+				equal++;
+			}
+		}
+		return (double) equal / HASHES;
+	}
+
+	/**
+	 * Exact similarity as arithmetical mean of per-message Levenshtein
+	 * equality percentage. Signatures with different number of messages are
+	 * not comparable.
+	 *
+	 * @param other Signature to compare with
+	 * @return Percentage of equality or -1 if signatures are not comparable
+	 */
+	double similarity(ErrorLogSignature other) {
+		if (messages.isEmpty() || messages.size() != other.messages.size()) {
+			return -1;
+		}
+		double sum = 0;
+		for (int i = 0; i < messages.size(); i++) {
+			String current = messages.get(i);
+			String previous = other.messages.get(i);
+			int maxLength = Math.max(current.length(), previous.length());
+			if (maxLength == 0) {
+				sum += 100;
+				continue;
+			}
+			int diff = StringUtils.getLevenshteinDistance(current, previous);
+			sum += ((double) (maxLength - diff)) / maxLength * 100;
+		}
+		return sum / messages.size();
+	}
+
+	private static int[] minHash(List<String> messages) {
+		int[] result = new int[HASHES];
+		Arrays.fill(result, Integer.MAX_VALUE);
+		for (String message : messages) {
+			String[] words = Arrays.stream(DELIMITERS.split(message)).filter(it -> !it.isEmpty()).toArray(String[]::new);
+			int shingles = Math.max(1, words.length - SHINGLE_SIZE + 1);
+			for (int i = 0; i < shingles; i++) {
+				int hash = 1;
+				for (int j = i; j < Math.min(words.length, i + SHINGLE_SIZE); j++) {
+					hash = 31 * hash + words[j].hashCode();
+				}
+				for (int h = 0; h < HASHES; h++) {
+					int value = mix(hash ^ SEEDS[h]);
+					if (value < result[h]) {
+						result[h] = value;
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	/* Murmur3 finalization mix */
+	private static int mix(int h) {
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		h *= 0xc2b2ae35;
+		h ^= h >>> 16;
+		return h;
+	}
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.ta.reportportal.util.analyzer;
+
+import com.epam.ta.reportportal.database.dao.LogRepository;
+import com.epam.ta.reportportal.database.entity.Log;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Bounded cache of normalized error log signatures of test items. Lives
+ * across Auto-Analyzer runs, so history analyzed for previous launches is
+ * not reloaded and normalized again. Cache is weighted by total length of
+ * normalized messages and backed by {@link StoredSignature} collection, so
+ * signatures evicted from memory or lost on restart are not recalculated
+ * from logs. Should be invalidated once logs of test item are created or
+ * deleted.
+ */
+@Component
+public class ErrorLogSignatureCache {
+
+	/* Idle entries are evicted after this period */
+	private static final int EXPIRE_AFTER_ACCESS_HOURS = 24;
+
+	/* Stored signatures of items without log changes are recalculated after this period */
+	private static final int STORED_EXPIRE_AFTER_DAYS = 14;
+
+	private final MongoOperations mongoOperations;
+
+	private final LoadingCache<String, ErrorLogSignature> signatures;
+
+	@Autowired
+	public ErrorLogSignatureCache(LogRepository logRepository, MongoOperations mongoOperations,
+			@Value("${rp.issue.analyzer.cache.maxWeight:20000000}") long maxWeight) {
+		this.mongoOperations = mongoOperations;
+		this.signatures = CacheBuilder.newBuilder()
+				.maximumWeight(maxWeight)
+				.<String, ErrorLogSignature>weigher((itemId, signature) -> signature.getWeight())
+				.expireAfterAccess(EXPIRE_AFTER_ACCESS_HOURS, TimeUnit.HOURS)
+				.recordStats()
+				.build(new CacheLoader<String, ErrorLogSignature>() {
+					@Override
+					public ErrorLogSignature load(String itemId) {
+						StoredSignature stored = mongoOperations.findById(itemId, StoredSignature.class);
+						if (null != stored) {
+							return ErrorLogSignature.restore(stored.messages,
+									stored.minHash.stream().mapToInt(Integer::intValue).toArray());
+						}
+						ErrorLogSignature signature = ErrorLogSignature.of(
+								logRepository.findTestItemErrorLogs(itemId).stream().map(Log::getLogMsg).collect(Collectors.toList()));
+						mongoOperations.save(new StoredSignature(itemId, signature));
+						return signature;
+					}
+				});
+	}
+
+	/**
+	 * Signature of test item's error logs. Loaded from stored signatures or
+	 * calculated from logs if absent.
+	 *
+	 * @param itemId ID of test item
+	 * @return Signature of error logs
+	 */
+	public ErrorLogSignature get(String itemId) {
+		return signatures.getUnchecked(itemId);
+	}
+
+	/**
+	 * Drop cached signature of test item
+	 *
+	 * @param itemId ID of test item
+	 */
+	public void invalidate(String itemId) {
+		if (null != itemId) {
+			signatures.invalidate(itemId);
+			mongoOperations.remove(query(where("_id").is(itemId)), StoredSignature.class);
+		}
+	}
+
+	/**
+	 * Drop cached signatures of test items
+	 *
+	 * @param itemIds IDs of test items
+	 */
+	public void invalidateAll(Collection<String> itemIds) {
+		signatures.invalidateAll(itemIds);
+		mongoOperations.remove(query(where("_id").in(itemIds)), StoredSignature.class);
+	}
+
+	public CacheStats getStats() {
+		return signatures.stats();
+	}
+
+	public long size() {
+		return signatures.size();
+	}
+
+	/**
+	 * Persisted signature of test item. Expires after a while, so signatures
+	 * of deleted items are not kept forever.
+	 */
+	@Document(collection = "errorLogSignature")
+	static class StoredSignature {
+
+		@Id
+		private String id;
+
+		private List<String> messages;
+
+		private List<Integer> minHash;
+
+		@Indexed(expireAfterSeconds = STORED_EXPIRE_AFTER_DAYS * 24 * 60 * 60)
+		private Date calculated;
+
+		StoredSignature() {
+		}
+
+		StoredSignature(String id, ErrorLogSignature signature) {
+			this.id = id;
+			this.messages = signature.getMessages();
+			this.minHash = IntStream.of(signature.getMinHash()).boxed().collect(Collectors.toList());
+			this.calculated = new Date();
+		}
+	}
+}
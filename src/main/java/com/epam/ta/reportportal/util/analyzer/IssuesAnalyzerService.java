@@ -37,13 +37,12 @@
 package com.epam.ta.reportportal.util.analyzer;
 
 import com.epam.ta.reportportal.core.item.history.ITestItemsHistoryService;
-import com.epam.ta.reportportal.core.statistics.StatisticsFacadeFactory;
+import com.epam.ta.reportportal.core.statistics.DeferredStatisticsUpdater;
+import com.epam.ta.reportportal.core.statistics.StatisticsCounters;
 import com.epam.ta.reportportal.database.dao.LaunchRepository;
-import com.epam.ta.reportportal.database.dao.LogRepository;
 import com.epam.ta.reportportal.database.dao.ProjectRepository;
 import com.epam.ta.reportportal.database.dao.TestItemRepository;
 import com.epam.ta.reportportal.database.entity.Launch;
-import com.epam.ta.reportportal.database.entity.Log;
 import com.epam.ta.reportportal.database.entity.Project;
 import com.epam.ta.reportportal.database.entity.item.TestItem;
 import com.epam.ta.reportportal.database.entity.item.issue.TestItemIssue;
@@ -52,16 +51,21 @@ import com.google.common.base.Strings;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
-import org.apache.commons.lang3.StringUtils;
+import com.google.common.collect.Lists;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -90,17 +94,27 @@ public class IssuesAnalyzerService implements IIssuesAnalyzer {
 	private TestItemRepository testItemRepository;
 
 	@Autowired
-	private LogRepository logRepository;
+	private ErrorLogSignatureCache signatureCache;
 
 	@Autowired
 	private ITestItemsHistoryService historyServiceStrategy;
 
 	@Autowired
-	private StatisticsFacadeFactory statisticsFacadeFactory;
+	private DeferredStatisticsUpdater statisticsUpdater;
+
+	@Autowired
+	@Qualifier("autoAnalyzeChunkExecutor")
+	private TaskExecutor chunkExecutor;
 
 	@Value("${rp.issue.analyzer.rate}")
 	private double acceptRate;
 
+	/**
+	 * Amount of items analyzed by single task
+	 */
+	@Value("${rp.issue.analyzer.chunkSize:100}")
+	private int chunkSize;
+
 	/**
 	 * Cache for processing launches with Auto-Analyzer
 	 */
@@ -126,79 +140,113 @@ public class IssuesAnalyzerService implements IIssuesAnalyzer {
 
 	@Override
 	public void analyze(String launchId, List<TestItem> resources, List<TestItem> scope) {
+		/* Launch ID -> settings of its project, keys are also launches statistics deltas are recorded for */
+		Map<String, Project.Configuration> settings = new HashMap<>();
 		try {
-			for (TestItem current : resources) {
-				List<Double> curRate = new ArrayList<>();
-				TestItemIssue issue = null;
-				boolean isInvestigated = false;
-				List<Log> curItemErr = logRepository.findTestItemErrorLogs(current.getId());
-
-				Launch launch = launchRepository.findOne(current.getLaunchRef());
-				Project project = projectRepository.findOne(launch.getProjectRef());
-
-				for (TestItem item : scope) {
-				/*
-				 * Avoid comparison with itself as investigated item during
-				 * in_progress launch. Cause manually investigated item will be
-				 * included in history of current one.
-				 */
-					if (item.getId().equalsIgnoreCase(current.getId()))
-						continue;
-
-					List<Log> errors = logRepository.findTestItemErrorLogs(item.getId());
-					if (errors.size() == curItemErr.size()) {
-						for (int i = 0; i < curItemErr.size(); i++) {
-							String curMsg = curItemErr.get(i).getLogMsg().replaceAll("\\d+", "").replaceAll("\\s(at)\\s", "");
-							String scopeMsg = errors.get(i).getLogMsg().replaceAll("\\d+", "").replaceAll("\\s(at)\\s", "");
-						/*
-						 * Get Levenshtein distance for two comparing log
-						 * strings
-						 */
-							int maxString = Math.max(curMsg.length(), scopeMsg.length());
-							int diff = StringUtils.getLevenshteinDistance(curMsg, scopeMsg);
-						/*
-						 * Store percentage of equality
-						 */
-							curRate.add(((double) (maxString - diff)) / maxString * 100);
-						}
-					}
-					if (!curRate.isEmpty() && (this.mathMiddle(curRate) >= acceptRate)) {
-						isInvestigated = true;
-						issue = item.getIssue();
-					/* Stop looping cause acceptable item found already. */
-						break;
-					} else
-						curRate.clear();
-				}
-
-				if (isInvestigated) {
-					TestItemIssue currentIssue = current.getIssue();
-				/* If item was investigated till Launch finished. */
-					if ((null != currentIssue.getExternalSystemIssues()) || (!currentIssue.getIssueType().equalsIgnoreCase(TestItemIssueType.TO_INVESTIGATE.getLocator()))
-							|| (null != currentIssue.getIssueDescription())) {
-						currentIssue.setIssueDescription(this.suggest(currentIssue.getIssueDescription(), issue, project.getConfiguration()));
-						current.setIssue(currentIssue);
-						testItemRepository.save(current);
-					/* If system investigate item from scratch */
-					} else {
-						issue.setIssueDescription(this.mark(issue.getIssueDescription()));
-						current = statisticsFacadeFactory.getStatisticsFacade(project.getConfiguration().getStatisticsCalculationStrategy())
-								.resetIssueStatistics(current);
-						current.setIssue(issue);
-						testItemRepository.save(current);
-						statisticsFacadeFactory.getStatisticsFacade(project.getConfiguration().getStatisticsCalculationStrategy()).updateIssueStatistics(current);
-					}
-				}
+			/* Fingerprint history once, signatures of already analyzed items are taken from cache */
+			Map<String, TestItem> scopeItems = new LinkedHashMap<>(scope.size());
+			scope.forEach(item -> scopeItems.putIfAbsent(item.getId(), item));
+			List<String> scopeIds = new ArrayList<>(scopeItems.keySet());
+			List<ErrorLogSignature> signatures = inChunks(scopeIds,
+					chunk -> chunk.stream().map(signatureCache::get).collect(Collectors.toList()));
+			ErrorLogIndex index = new ErrorLogIndex();
+			for (int i = 0; i < scopeIds.size(); i++) {
+				index.add(scopeIds.get(i), signatures.get(i));
 			}
+
+			resources.forEach(item -> settings.computeIfAbsent(item.getLaunchRef(),
+					launchRef -> projectRepository.findOne(launchRepository.findOne(launchRef).getProjectRef()).getConfiguration()));
+
+			int chunks = (resources.size() + chunkSize - 1) / chunkSize;
+			AtomicInteger analyzed = new AtomicInteger();
+			processingIds.put(launchId, CacheElementEnum.STARTED.withProgress(0, chunks));
+			inChunks(resources, chunk -> {
+				List<TestItem> result = analyzeChunk(chunk, index, scopeItems, settings);
+				/* Progress is updated only while analysis is in progress */
+				processingIds.asMap().computeIfPresent(launchId, (key, value) -> CacheElementEnum.STARTED.is(value) ?
+						CacheElementEnum.STARTED.withProgress(analyzed.incrementAndGet(), chunks) :
+						value);
+				return result;
+			});
 		} finally {
-			analyzeFinished(launchId);
+			try {
+				/* Statistics deltas of all chunks (including ones saved before failure) are merged by launch and written at once */
+				settings.keySet().forEach(statisticsUpdater::flush);
+			} finally {
+				analyzeFinished(launchId);
+			}
+		}
+	}
+
+	/**
+	 * Analyze part of launch's items. Found issues are saved, statistics deltas
+	 * are buffered with {@link DeferredStatisticsUpdater}
+	 *
+	 * @return Items with changed issue type
+	 */
+	private List<TestItem> analyzeChunk(List<TestItem> resources, ErrorLogIndex index, Map<String, TestItem> scope,
+			Map<String, Project.Configuration> settings) {
+		List<TestItem> toSave = new ArrayList<>();
+		List<TestItem> updated = new ArrayList<>();
+		for (TestItem current : resources) {
+			/*
+			 * Comparison with itself is avoided by index. Cause manually
+			 * investigated item will be included in history of current one
+			 * during in_progress launch.
+			 */
+			Optional<TestItem> similar = index.findSimilar(current.getId(), signatureCache.get(current.getId()), acceptRate)
+					.map(scope::get);
+			if (!similar.isPresent()) {
+				continue;
+			}
+			TestItemIssue issue = similar.get().getIssue();
+			Project.Configuration configuration = settings.get(current.getLaunchRef());
+
+			TestItemIssue currentIssue = current.getIssue();
+			/* If item was investigated till Launch finished. */
+			if ((null != currentIssue.getExternalSystemIssues()) || (!currentIssue.getIssueType().equalsIgnoreCase(TestItemIssueType.TO_INVESTIGATE.getLocator()))
+					|| (null != currentIssue.getIssueDescription())) {
+				currentIssue.setIssueDescription(this.suggest(currentIssue.getIssueDescription(), issue, configuration));
+				current.setIssue(currentIssue);
+			/* If system investigate item from scratch */
+			} else {
+				/* History item may be found by several items of concurrent chunks, so it's issue is not shared */
+				TestItemIssue found = new TestItemIssue();
+				found.setIssueType(issue.getIssueType());
+				found.setIssueDescription(this.mark(issue.getIssueDescription()));
+				found.setExternalSystemIssues(issue.getExternalSystemIssues());
+
+				StatisticsCounters delta = new StatisticsCounters().removeIssue(current, configuration);
+				current.setIssue(found);
+				statisticsUpdater.record(current, delta.addIssue(current, configuration));
+				updated.add(current);
+			}
+			toSave.add(current);
+		}
+		if (!toSave.isEmpty()) {
+			testItemRepository.save(toSave);
 		}
+		return updated;
+	}
+
+	/**
+	 * Applies task to chunks of items on {@link #chunkExecutor} and waits for
+	 * all of them, even if some of them fail
+	 *
+	 * @return Results of all chunks in order of items
+	 * @throws CompletionException with error of the first failed chunk
+	 */
+	private <T, R> List<R> inChunks(List<T> items, Function<List<T>, List<R>> task) {
+		List<CompletableFuture<List<R>>> futures = Lists.partition(items, chunkSize).stream()
+				.map(chunk -> CompletableFuture.supplyAsync(() -> task.apply(chunk), chunkExecutor)).collect(Collectors.toList());
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).handle((result, error) -> null).join();
+		return futures.stream().flatMap(future -> future.join().stream()).collect(Collectors.toList());
 	}
 
 	@Override
 	public boolean isPossible(String key) {
 		String value = processingIds.getIfPresent(key);
-		return Strings.isNullOrEmpty(value) || CacheElementEnum.FINISHED.name().equalsIgnoreCase(value);
+		return Strings.isNullOrEmpty(value) || CacheElementEnum.FINISHED.is(value);
 	}
 
 	@Override
@@ -218,16 +266,6 @@ public class IssuesAnalyzerService implements IIssuesAnalyzer {
 		}
 	}
 
-	/*
-	 * Arithmetical Mean of list of double values
-	 */
-	private double mathMiddle(List<Double> rates) {
-		double sum = 0;
-		for (double i : rates)
-			sum += i;
-		return sum / rates.size();
-	}
-
 	/*
 	 * Marker for issues which were auto-detected
 	 */
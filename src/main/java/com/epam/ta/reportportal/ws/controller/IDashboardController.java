@@ -21,6 +21,7 @@
 
 package com.epam.ta.reportportal.ws.controller;
 
+import com.epam.ta.reportportal.core.dashboard.DashboardWidgetsResource;
 import com.epam.ta.reportportal.exception.ReportPortalException;
 import com.epam.ta.reportportal.ws.model.EntryCreatedRS;
 import com.epam.ta.reportportal.ws.model.OperationCompletionRS;
@@ -70,6 +71,16 @@ public interface IDashboardController {
      */
     DashboardResource getDashboard(String projectName, String dashboardId, Principal principal);
 
+    /**
+     * Get widgets of specified dashboard with their content
+     *
+     * @param projectName Project Name
+     * @param dashboardId Dashboard ID
+     * @param principal   Login
+     * @return Loaded widgets and errors of not loaded ones
+     */
+    DashboardWidgetsResource getDashboardWidgets(String projectName, String dashboardId, Principal principal);
+
     /**
      * Update dashboard with specified id.
      *
@@ -40,6 +40,7 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
+import com.epam.ta.reportportal.core.dashboard.DashboardWidgetsResource;
 import com.epam.ta.reportportal.core.dashboard.ICreateDashboardHandler;
 import com.epam.ta.reportportal.core.dashboard.IDeleteDashboardHandler;
 import com.epam.ta.reportportal.core.dashboard.IGetDashboardHandler;
@@ -106,6 +107,16 @@ public class DashboardController implements IDashboardController {
 		return getHandler.getDashboard(dashboardId, principal.getName(), EntityUtils.normalizeProjectName(projectName));
 	}
 
+	@Override
+	@RequestMapping(value = "/{dashboardId}/widgets", method = RequestMethod.GET)
+	@ResponseStatus(OK)
+	@ResponseBody
+	@ApiOperation("Get widgets of specified dashboard with their content")
+	public DashboardWidgetsResource getDashboardWidgets(@PathVariable String projectName, @PathVariable String dashboardId,
+			Principal principal) {
+		return getHandler.getDashboardWidgets(dashboardId, principal.getName(), EntityUtils.normalizeProjectName(projectName));
+	}
+
 	@Override
 	@RequestMapping(value = "/{dashboardId}", method = RequestMethod.PUT)
 	@ResponseBody
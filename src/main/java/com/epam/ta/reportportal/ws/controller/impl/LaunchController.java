@@ -37,6 +37,7 @@
 package com.epam.ta.reportportal.ws.controller.impl;
 
 import com.epam.ta.reportportal.core.jasper.IGetJasperReportHandler;
+import com.epam.ta.reportportal.core.jasper.LaunchReport;
 import com.epam.ta.reportportal.core.jasper.ReportFormat;
 import com.epam.ta.reportportal.core.launch.*;
 import com.epam.ta.reportportal.database.entity.Launch;
@@ -55,7 +56,6 @@ import com.epam.ta.reportportal.ws.resolver.SortFor;
 import com.google.common.net.HttpHeaders;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
-import net.sf.jasperreports.engine.JasperPrint;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -319,14 +319,15 @@ public class LaunchController implements ILaunchController {
 			@ApiParam(allowableValues = "pdf, xml, xls, html") @RequestParam(value = "view", required = false, defaultValue = "pdf") String view,
             Principal principal, HttpServletResponse response) throws IOException {
 
-		JasperPrint jasperPrint = getJasperHandler.getLaunchDetails(launchId, principal.getName());
-
 		ReportFormat format = getJasperHandler.getReportFormat(view);
-		response.setContentType(format.getContentType());
-		response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
-				String.format("attachment; filename=RP_%s_Report.%s", format.name(), format.getValue()));
 
-		getJasperHandler.writeReport(format, response.getOutputStream(), jasperPrint);
+		try (LaunchReport report = getJasperHandler.getLaunchDetails(launchId, principal.getName())) {
+			response.setContentType(format.getContentType());
+			response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+					String.format("attachment; filename=RP_%s_Report.%s", format.name(), format.getValue()));
+
+			getJasperHandler.writeReport(format, response.getOutputStream(), report.getPrint());
+		}
 
 	}
 
@@ -29,6 +29,7 @@ import com.epam.ta.reportportal.commons.validation.Suppliers;
 import com.epam.ta.reportportal.core.log.ICreateLogHandler;
 import com.epam.ta.reportportal.core.log.IDeleteLogHandler;
 import com.epam.ta.reportportal.core.log.IGetLogHandler;
+import com.epam.ta.reportportal.core.log.LogBatchElement;
 import com.epam.ta.reportportal.database.BinaryData;
 import com.epam.ta.reportportal.database.entity.Log;
 import com.epam.ta.reportportal.database.search.Condition;
@@ -64,7 +65,9 @@ import javax.servlet.http.HttpServletRequest;
 import javax.validation.ConstraintViolation;
 import javax.validation.Path.Node;
 import javax.validation.Validator;
-import java.io.ByteArrayInputStream;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.Serializable;
 import java.security.Principal;
 import java.util.*;
@@ -82,6 +85,11 @@ import static org.springframework.http.HttpStatus.CREATED;
 @PreAuthorize(ASSIGNED_TO_PROJECT)
 public class LogController implements ILogController {
 
+    /**
+     * Amount of bytes used to detect content type of binary data
+     */
+    private static final int CONTENT_TYPE_PREFIX_SIZE = 64 * 1024;
+
     private final ICreateLogHandler createLogMessageHandler;
     private final IDeleteLogHandler deleteLogMessageHandler;
     private final IGetLogHandler getLogHandler;
@@ -127,50 +135,31 @@ public class LogController implements ILogController {
 		 * files
 		 */
         Map<String, MultipartFile> uploadedFiles = getUploadedFiles(request);
-        BatchSaveOperatingRS response = new BatchSaveOperatingRS();
-        EntryCreatedRS responseItem;
+        BatchElementCreatedRS[] results = new BatchElementCreatedRS[createLogRQs.length];
+        List<LogBatchElement> batch = new ArrayList<>(createLogRQs.length);
+        List<Integer> positions = new ArrayList<>(createLogRQs.length);
 		/* Go through all provided save log request items */
-        for (SaveLogRQ createLogRq : createLogRQs) {
+        for (int i = 0; i < createLogRQs.length; i++) {
+            SaveLogRQ createLogRq = createLogRQs[i];
             try {
                 validateSaveRQ(createLogRq);
-                String filename = createLogRq.getFile() == null ? null : createLogRq.getFile().getName();
-                if (StringUtils.isEmpty(filename)) {
-					/*
-					 * There is no filename in request. Use simple save
-					 * method
-					 */
-                    responseItem = createLog(prjName, createLogRq, principal);
-
-                } else {
-					/* Find by request part */
-                    MultipartFile data = findByFileName(filename, uploadedFiles);
-                    BusinessRule.expect(data, Predicates.notNull()).verify(ErrorType.BINARY_DATA_CANNOT_BE_SAVED,
-                            Suppliers.formattedSupplier("There is no request part or file with name {}", filename));
-					/*
-					 * If provided content type is null or this is octet
-					 * stream, try to detect real content type of binary
-					 * data
-					 */
-                    if (!StringUtils.isEmpty(data.getContentType()) && !MediaType.APPLICATION_OCTET_STREAM_VALUE
-                            .equals(data.getContentType())) {
-                        responseItem = createLogMessageHandler
-                                .createLog(createLogRq,
-                                        new BinaryData(data.getContentType(), data.getSize(), data.getInputStream()),
-                                        data.getOriginalFilename(), prjName);
-                    } else {
-                        byte[] consumedData = IOUtils.toByteArray(data.getInputStream());
-                        responseItem = createLogMessageHandler.createLog(createLogRq,
-                                new BinaryData(contentTypeResolver.detectContentType(consumedData), data.getSize(),
-                                        new ByteArrayInputStream(consumedData)), data.getOriginalFilename(), prjName);
-
-                    }
-                }
-                response.addResponse(new BatchElementCreatedRS(responseItem.getId()));
+                batch.add(toBatchElement(createLogRq, uploadedFiles));
+                positions.add(i);
             } catch (Exception e) {
-                response.addResponse(
-                        new BatchElementCreatedRS(ExceptionUtils.getStackTrace(e), ExceptionUtils.getMessage(e)));
+                results[i] = new BatchElementCreatedRS(ExceptionUtils.getStackTrace(e), ExceptionUtils.getMessage(e));
             }
         }
+
+		/* Valid items are saved with single batch */
+        List<BatchElementCreatedRS> saved = createLogMessageHandler.createLogs(batch, prjName);
+        for (int i = 0; i < saved.size(); i++) {
+            results[positions.get(i)] = saved.get(i);
+        }
+
+        BatchSaveOperatingRS response = new BatchSaveOperatingRS();
+        for (BatchElementCreatedRS result : results) {
+            response.addResponse(result);
+        }
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
@@ -215,6 +204,48 @@ public class LogController implements ILogController {
         return getLogHandler.getLog(logId, EntityUtils.normalizeProjectName(projectName));
     }
 
+    /**
+     * Builds batch element of save log request and binary data related to it
+     *
+     * @param createLogRq   Save log request
+     * @param uploadedFiles Files uploaded with multipart request
+     * @return Batch element
+     * @throws IOException in case of binary data cannot be read
+     */
+    private LogBatchElement toBatchElement(SaveLogRQ createLogRq, Map<String, MultipartFile> uploadedFiles) throws IOException {
+        String filename = createLogRq.getFile() == null ? null : createLogRq.getFile().getName();
+        if (StringUtils.isEmpty(filename)) {
+			/*
+			 * There is no filename in request. Log without binary data
+			 */
+            return new LogBatchElement(createLogRq);
+        }
+		/* Find by request part */
+        MultipartFile data = findByFileName(filename, uploadedFiles);
+        BusinessRule.expect(data, Predicates.notNull()).verify(ErrorType.BINARY_DATA_CANNOT_BE_SAVED,
+                Suppliers.formattedSupplier("There is no request part or file with name {}", filename));
+		/*
+		 * If provided content type is null or this is octet
+		 * stream, try to detect real content type of binary
+		 * data
+		 */
+        if (!StringUtils.isEmpty(data.getContentType()) && !MediaType.APPLICATION_OCTET_STREAM_VALUE
+                .equals(data.getContentType())) {
+            return new LogBatchElement(createLogRq,
+                    new BinaryData(data.getContentType(), data.getSize(), data.getInputStream()),
+                    data.getOriginalFilename());
+        }
+        /* Only beginning of data is read, the rest is streamed to storage */
+        InputStream dataStream = new BufferedInputStream(data.getInputStream(), CONTENT_TYPE_PREFIX_SIZE);
+        dataStream.mark(CONTENT_TYPE_PREFIX_SIZE);
+        byte[] prefix = new byte[CONTENT_TYPE_PREFIX_SIZE];
+        int prefixSize = IOUtils.read(dataStream, prefix);
+        dataStream.reset();
+        return new LogBatchElement(createLogRq,
+                new BinaryData(contentTypeResolver.detectContentType(Arrays.copyOf(prefix, prefixSize)), data.getSize(),
+                        dataStream), data.getOriginalFilename());
+    }
+
     /**
      * Tries to find request part or file with specified name in multipart files
      * map.
@@ -31,6 +31,7 @@ import com.epam.ta.reportportal.database.entity.Launch;
 import com.epam.ta.reportportal.database.entity.statistics.ExecutionCounter;
 import com.epam.ta.reportportal.database.entity.statistics.IssueCounter;
 import com.epam.ta.reportportal.database.entity.statistics.Statistics;
+import com.epam.ta.reportportal.util.analyzer.CacheElementEnum;
 import com.epam.ta.reportportal.util.analyzer.IssuesAnalyzerService;
 import com.epam.ta.reportportal.ws.model.launch.LaunchResource;
 
@@ -58,7 +59,7 @@ public class LaunchResourceBuilder extends Builder<LaunchResource> {
 			resource.setApproximateDuration(launch.getApproximateDuration());
 			try {
 				if (null != analyzeService.getProcessIds().get(launch.getId())) {
-					if ("started".equalsIgnoreCase(analyzeService.getProcessIds().get(launch.getId())))
+					if (CacheElementEnum.STARTED.is(analyzeService.getProcessIds().get(launch.getId())))
 						resource.setIsProcessing(true);
 				} else
 					resource.setIsProcessing(false);
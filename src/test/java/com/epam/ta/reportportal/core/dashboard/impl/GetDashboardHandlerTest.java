@@ -0,0 +1,146 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.epam.ta.reportportal.core.dashboard.impl;
+
+import com.epam.ta.reportportal.core.dashboard.DashboardWidgetsResource;
+import com.epam.ta.reportportal.core.widget.IGetWidgetHandler;
+import com.epam.ta.reportportal.database.dao.DashboardRepository;
+import com.epam.ta.reportportal.database.entity.Dashboard;
+import com.epam.ta.reportportal.database.entity.sharing.Acl;
+import com.epam.ta.reportportal.ws.converter.DashboardResourceAssembler;
+import com.epam.ta.reportportal.ws.model.widget.WidgetResource;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.stream.Collectors.toList;
+import static org.mockito.Mockito.*;
+
+public class GetDashboardHandlerTest {
+
+	private static final String DASHBOARD = "dashboard";
+	private static final String USER = "user";
+	private static final String PROJECT = "project";
+	private static final long TIMEOUT = 300;
+
+	private DashboardRepository dashboardRepository;
+
+	private IGetWidgetHandler getWidgetHandler;
+
+	private ThreadPoolTaskExecutor executor;
+
+	@Before
+	public void before() {
+		dashboardRepository = mock(DashboardRepository.class);
+		getWidgetHandler = mock(IGetWidgetHandler.class);
+	}
+
+	@After
+	public void after() {
+		executor.shutdown();
+	}
+
+	@Test
+	public void slowWidgetIsInterruptedOnTimeout() throws Exception {
+		GetDashboardHandler handler = handler(2, 10);
+		dashboard("fast", "slow");
+		when(getWidgetHandler.getWidget("fast", USER, PROJECT)).thenReturn(new WidgetResource());
+		CountDownLatch interrupted = new CountDownLatch(1);
+		when(getWidgetHandler.getWidget("slow", USER, PROJECT)).thenAnswer(invocation -> {
+			try {
+				Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+			} catch (InterruptedException e) {
+				interrupted.countDown();
+			}
+			return new WidgetResource();
+		});
+
+		long start = System.currentTimeMillis();
+		DashboardWidgetsResource result = handler.getDashboardWidgets(DASHBOARD, USER, PROJECT);
+
+		Assert.assertTrue(System.currentTimeMillis() - start < TIMEOUT * 5);
+		Assert.assertTrue(result.getWidgets().containsKey("fast"));
+		Assert.assertEquals("Widget content is not loaded in time", result.getErrors().get("slow"));
+		/* Loader thread is released */
+		Assert.assertTrue(interrupted.await(TIMEOUT, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void rejectedWidgetIsNotLoadedByCaller() throws Exception {
+		GetDashboardHandler handler = handler(1, 0);
+		dashboard("first", "second");
+		CountDownLatch release = new CountDownLatch(1);
+		when(getWidgetHandler.getWidget("first", USER, PROJECT)).thenAnswer(invocation -> {
+			release.await(TIMEOUT / 3, TimeUnit.MILLISECONDS);
+			return new WidgetResource();
+		});
+
+		DashboardWidgetsResource result = handler.getDashboardWidgets(DASHBOARD, USER, PROJECT);
+		release.countDown();
+
+		Assert.assertTrue(result.getWidgets().containsKey("first"));
+		Assert.assertEquals("Widget content is not loaded in time", result.getErrors().get("second"));
+		/* Rejected widget is not loaded in request thread */
+		verify(getWidgetHandler, never()).getWidget("second", USER, PROJECT);
+	}
+
+	@Test
+	public void failedWidgetIsReported() {
+		GetDashboardHandler handler = handler(2, 10);
+		dashboard("broken");
+		when(getWidgetHandler.getWidget("broken", USER, PROJECT)).thenThrow(new IllegalStateException("broken widget"));
+
+		DashboardWidgetsResource result = handler.getDashboardWidgets(DASHBOARD, USER, PROJECT);
+
+		Assert.assertTrue(result.getWidgets().isEmpty());
+		Assert.assertEquals("broken widget", result.getErrors().get("broken"));
+	}
+
+	private GetDashboardHandler handler(int threads, int queueCapacity) {
+		executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(threads);
+		executor.setMaxPoolSize(threads);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.AbortPolicy());
+		executor.initialize();
+		return new GetDashboardHandler(dashboardRepository, mock(DashboardResourceAssembler.class), getWidgetHandler, executor, TIMEOUT);
+	}
+
+	private void dashboard(String... widgets) {
+		Acl acl = new Acl();
+		acl.setOwnerUserId(USER);
+		Dashboard dashboard = new Dashboard();
+		dashboard.setId(DASHBOARD);
+		dashboard.setProjectName(PROJECT);
+		dashboard.setAcl(acl);
+		dashboard.setWidgets(Arrays.stream(widgets)
+				.map(widget -> new Dashboard.WidgetObject(widget, Arrays.asList(1, 1), Arrays.asList(0, 0)))
+				.collect(toList()));
+		when(dashboardRepository.findOne(DASHBOARD)).thenReturn(dashboard);
+	}
+}
@@ -37,6 +37,8 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import com.epam.ta.reportportal.commons.validation.Suppliers;
+import com.epam.ta.reportportal.core.project.ProjectCache;
+import com.epam.ta.reportportal.core.statistics.DeferredStatisticsUpdater;
 import com.epam.ta.reportportal.core.statistics.StatisticsFacadeFactory;
 import com.epam.ta.reportportal.database.dao.LaunchRepository;
 import com.epam.ta.reportportal.database.dao.ProjectRepository;
@@ -53,6 +55,7 @@ import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
 import com.epam.ta.reportportal.ws.model.OperationCompletionRS;
 import com.google.common.collect.Lists;
 import org.mockito.Mockito;
+import org.springframework.data.mongodb.core.MongoOperations;
 
 /**
  * @author Dzmitry_Kavalets
@@ -138,7 +141,7 @@ public class FinishItemTest {
 		when(testItemRepository.hasDescendants(testItemId)).thenReturn(true);
 
 		final FinishTestItemHandlerImpl finishTestItemHandler = new FinishTestItemHandlerImpl();
-		finishTestItemHandler.setProjectRepository(projectRepository);
+		finishTestItemHandler.setProjectCache(new ProjectCache(projectRepository, 10, 10));
 		finishTestItemHandler.setLaunchRepository(launchRepository);
 		finishTestItemHandler.setTestItemRepository(testItemRepository);
 
@@ -149,6 +152,7 @@ public class FinishItemTest {
 		when(facadeFactoryMock.getStatisticsFacade(any()))
 				.thenReturn(facadeMock);
 		finishTestItemHandler.setStatisticsFacadeFactory(facadeFactoryMock);
+		finishTestItemHandler.setDeferredStatisticsUpdater(new DeferredStatisticsUpdater(mock(MongoOperations.class), false, 0));
 
 		final FinishTestItemRQ finishExecutionRQ = new FinishTestItemRQ();
 		finishExecutionRQ.setStatus(Status.PASSED.name());
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.epam.ta.reportportal.core.item;
+
+import com.epam.ta.reportportal.database.entity.item.TestItem;
+import com.google.common.collect.ImmutableList;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+
+public class TestItemTreeTest {
+
+	@Test
+	public void depthFirst() {
+		TestItem suite1 = item("suite1", null);
+		TestItem suite2 = item("suite2", null);
+		TestItem test1 = item("test1", suite1);
+		TestItem test2 = item("test2", suite1);
+		TestItem step1 = item("step1", test1);
+		TestItem step2 = item("step2", test2);
+		TestItem step3 = item("step3", suite2);
+
+		List<TestItem> ordered = TestItemTree.depthFirst(ImmutableList.of(suite1, suite2, test1, test2, step1, step2, step3));
+		Assert.assertEquals(ImmutableList.of("suite1", "test1", "step1", "test2", "step2", "suite2", "step3"), ids(ordered));
+	}
+
+	@Test
+	public void subtreeRootsAreItemsWithAbsentParent() {
+		TestItem suite = item("suite", null);
+		TestItem test1 = item("test1", suite);
+		TestItem test2 = item("test2", suite);
+		TestItem step = item("step", test2);
+
+		List<TestItem> ordered = TestItemTree.depthFirst(ImmutableList.of(step, test1, test2));
+		Assert.assertEquals(ImmutableList.of("test1", "test2", "step"), ids(ordered));
+	}
+
+	@Test
+	public void parentResolvedByPath() {
+		TestItem suite = item("suite", null);
+		TestItem test = item("test", suite);
+		test.setParent(null);
+		TestItem other = item("other", null);
+
+		List<TestItem> ordered = TestItemTree.depthFirst(ImmutableList.of(suite, other, test));
+		Assert.assertEquals(ImmutableList.of("suite", "test", "other"), ids(ordered));
+	}
+
+	@Test
+	public void deepTree() {
+		List<TestItem> items = new ArrayList<>();
+		for (int i = 0; i < 100_000; i++) {
+			TestItem item = new TestItem();
+			item.setId(String.valueOf(i));
+			item.setParent(i == 0 ? null : String.valueOf(i - 1));
+			items.add(item);
+		}
+		Collections.reverse(items);
+		List<TestItem> ordered = TestItemTree.depthFirst(items);
+		Assert.assertEquals(items.size(), ordered.size());
+		Assert.assertEquals("0", ordered.get(0).getId());
+		Assert.assertEquals("99999", ordered.get(ordered.size() - 1).getId());
+	}
+
+	@Test
+	public void empty() {
+		Assert.assertTrue(TestItemTree.depthFirst(Collections.emptyList()).isEmpty());
+	}
+
+	private static TestItem item(String id, TestItem parent) {
+		TestItem item = new TestItem();
+		item.setId(id);
+		List<String> path = new ArrayList<>();
+		if (null != parent) {
+			path.addAll(parent.getPath());
+			path.add(parent.getId());
+			item.setParent(parent.getId());
+		}
+		item.setPath(path);
+		return item;
+	}
+
+	private static List<String> ids(List<TestItem> items) {
+		return items.stream().map(TestItem::getId).collect(toList());
+	}
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.epam.ta.reportportal.core.item.merge.strategy;
+
+import com.epam.ta.reportportal.database.dao.TestItemRepository;
+import com.epam.ta.reportportal.database.entity.item.TestItem;
+import com.google.common.collect.ImmutableList;
+import com.mongodb.DBObject;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+public class SuiteMergeStrategyTest {
+
+	@Test
+	public void subtreeMovedWithBulkUpdates() {
+		TestItemRepository testItemRepository = mock(TestItemRepository.class);
+		MongoOperations mongoOperations = mock(MongoOperations.class);
+		BulkOperations bulk = mock(BulkOperations.class);
+		when(mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, TestItem.class)).thenReturn(bulk);
+
+		TestItem target = item("target", "targetLaunch", null);
+		TestItem source = item("source", "sourceLaunch", null);
+		TestItem test = item("test", "sourceLaunch", source);
+		/* parent is not defined for legacy items, path is used instead */
+		test.setParent(null);
+		TestItem step = item("step", "sourceLaunch", test);
+		when(mongoOperations.find(any(Query.class), eq(TestItem.class))).thenReturn(ImmutableList.of(step, test));
+
+		new SuiteMergeStrategy(testItemRepository, mongoOperations).mergeTestItems(target, ImmutableList.of(source));
+
+		ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+		ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+		verify(bulk, times(2)).updateOne(queries.capture(), updates.capture());
+		verify(bulk).execute();
+		verify(testItemRepository, never()).save(anyListOf(TestItem.class));
+		verify(testItemRepository).delete(source);
+
+		Map<Object, DBObject> updatesById = new HashMap<>();
+		for (int i = 0; i < queries.getAllValues().size(); i++) {
+			updatesById.put(queries.getAllValues().get(i).getQueryObject().get("_id"),
+					(DBObject) updates.getAllValues().get(i).getUpdateObject().get("$set"));
+		}
+		DBObject testUpdate = updatesById.get("test");
+		Assert.assertEquals("target", testUpdate.get("parent"));
+		Assert.assertEquals(ImmutableList.of("target"), testUpdate.get("path"));
+		Assert.assertEquals("targetLaunch", testUpdate.get("launchRef"));
+
+		DBObject stepUpdate = updatesById.get("step");
+		Assert.assertFalse(stepUpdate.containsField("parent"));
+		Assert.assertEquals(ImmutableList.of("target", "test"), stepUpdate.get("path"));
+		Assert.assertEquals("targetLaunch", stepUpdate.get("launchRef"));
+	}
+
+	private static TestItem item(String id, String launch, TestItem parent) {
+		TestItem item = new TestItem();
+		item.setId(id);
+		item.setLaunchRef(launch);
+		List<String> path = new ArrayList<>();
+		if (null != parent) {
+			path.addAll(parent.getPath());
+			path.add(parent.getId());
+			item.setParent(parent.getId());
+		}
+		item.setPath(path);
+		return item;
+	}
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.epam.ta.reportportal.core.jasper;
+
+import com.epam.ta.reportportal.database.dao.TestItemRepository;
+import com.epam.ta.reportportal.database.entity.Launch;
+import com.epam.ta.reportportal.database.entity.Status;
+import com.epam.ta.reportportal.database.entity.item.TestItem;
+import com.epam.ta.reportportal.database.entity.item.TestItemType;
+import com.epam.ta.reportportal.database.entity.statistics.ExecutionCounter;
+import com.epam.ta.reportportal.database.entity.statistics.IssueCounter;
+import com.epam.ta.reportportal.database.entity.statistics.Statistics;
+import com.google.common.collect.ImmutableList;
+import net.sf.jasperreports.engine.JRField;
+import net.sf.jasperreports.engine.JRVirtualizer;
+import net.sf.jasperreports.engine.JasperPrint;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.stream.Collectors.toList;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+public class JasperDataProviderTest {
+
+	private static final String LAUNCH = "launch";
+
+	@Test
+	public void streamedInSameOrderAsLoaded() throws Exception {
+		TestItemRepository testItemRepository = mock(TestItemRepository.class);
+		MongoOperations mongoOperations = mock(MongoOperations.class);
+		Launch launch = new Launch();
+		launch.setId(LAUNCH);
+
+		/* items are sorted by start time, children of each node are read by separate cursor */
+		when(testItemRepository.findByLaunch(launch)).thenReturn(tree());
+		AtomicInteger openCursors = new AtomicInteger();
+		when(mongoOperations.stream(any(Query.class), eq(TestItem.class))).thenAnswer(invocation -> {
+			Object parent = ((Query) invocation.getArguments()[0]).getQueryObject().get("parent");
+			openCursors.incrementAndGet();
+			return iterator(tree().stream().filter(it -> Objects.equals(parent, it.getParent())).collect(toList()),
+					openCursors::decrementAndGet);
+		});
+
+		JasperDataProvider provider = new JasperDataProvider(testItemRepository, mongoOperations);
+		List<String> loaded = provider.getReportSource(launch).stream().map(TestItemPojo::getName).collect(toList());
+
+		JRField name = mock(JRField.class);
+		when(name.getName()).thenReturn("name");
+		List<String> streamed = new ArrayList<>();
+		try (TestItemTreeDataSource source = provider.streamReportSource(launch)) {
+			while (source.next()) {
+				streamed.add((String) source.getFieldValue(name));
+			}
+		}
+
+		Assert.assertEquals(ImmutableList.of("suite1", "    test1", "        step1", "        step2", "    test2", "suite2",
+				"    test3"), loaded);
+		Assert.assertEquals(loaded, streamed);
+		Assert.assertEquals(0, openCursors.get());
+	}
+
+	@Test
+	public void reportCloseCleansVirtualizer() {
+		JRVirtualizer virtualizer = mock(JRVirtualizer.class);
+		try (LaunchReport ignored = new LaunchReport(new JasperPrint(), virtualizer)) {
+			verify(virtualizer, never()).cleanup();
+		}
+		verify(virtualizer).cleanup();
+	}
+
+	@Test
+	public void reportWithoutVirtualizerClosed() {
+		new LaunchReport(new JasperPrint(), null).close();
+	}
+
+	/**
+	 * @return New instances of launch items ordered by start time
+	 */
+	private static List<TestItem> tree() {
+		TestItem suite1 = item("suite1", TestItemType.SUITE, null);
+		TestItem suite2 = item("suite2", TestItemType.SUITE, null);
+		TestItem test1 = item("test1", TestItemType.TEST, suite1);
+		TestItem test2 = item("test2", TestItemType.TEST, suite1);
+		TestItem test3 = item("test3", TestItemType.TEST, suite2);
+		TestItem step1 = item("step1", TestItemType.STEP, test1);
+		TestItem step2 = item("step2", TestItemType.STEP, test1);
+		return ImmutableList.of(suite1, suite2, test1, test2, test3, step1, step2);
+	}
+
+	private static TestItem item(String id, TestItemType type, TestItem parent) {
+		TestItem item = new TestItem();
+		item.setId(id);
+		item.setName(id);
+		item.setLaunchRef(LAUNCH);
+		item.setType(type);
+		item.setStatus(Status.PASSED);
+		item.setStatistics(new Statistics(new ExecutionCounter(), new IssueCounter()));
+		List<String> path = new ArrayList<>();
+		if (null != parent) {
+			path.addAll(parent.getPath());
+			path.add(parent.getId());
+			item.setParent(parent.getId());
+			parent.setHasChilds(true);
+		}
+		item.setPath(path);
+		return item;
+	}
+
+	private static <T> CloseableIterator<T> iterator(List<T> elements, Runnable onClose) {
+		Iterator<T> iterator = elements.iterator();
+		return new CloseableIterator<T>() {
+			@Override
+			public void close() {
+				onClose.run();
+			}
+
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+
+			@Override
+			public T next() {
+				return iterator.next();
+			}
+		};
+	}
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.epam.ta.reportportal.core.job;
+
+import com.epam.ta.reportportal.database.BinaryData;
+import com.epam.ta.reportportal.database.dao.LogRepository;
+import com.epam.ta.reportportal.database.entity.Log;
+import com.epam.ta.reportportal.exception.ReportPortalException;
+import com.epam.ta.reportportal.job.AttachmentPipeline;
+import com.epam.ta.reportportal.job.CreateThumbnailJob;
+import com.epam.ta.reportportal.job.SaveBinaryDataJob;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link AttachmentPipeline}
+ */
+public class AttachmentPipelineTest {
+
+	/* Builder methods of mocked jobs return the mock itself */
+	private static final Answer<Object> RETURNS_BUILDER = invocation -> invocation.getMethod().getReturnType()
+			.isInstance(invocation.getMock()) ? invocation.getMock() : Mockito.RETURNS_DEFAULTS.answer(invocation);
+
+	@Rule
+	public TemporaryFolder spool = new TemporaryFolder();
+
+	/* Tasks are collected but never executed, so queued bytes are never released */
+	private final List<Runnable> storageTasks = new ArrayList<>();
+
+	private final List<Runnable> spoolTasks = new ArrayList<>();
+
+	private final LogRepository logRepository = mock(LogRepository.class);
+
+	@Test(expected = ReportPortalException.class)
+	public void rejectsWhenQueueIsFull() {
+		AttachmentPipeline pipeline = pipeline(AttachmentPipeline.OverflowPolicy.REJECT);
+		pipeline.submit(new Log(), data(8), "first", "project");
+		Assert.assertEquals(8, pipeline.getQueuedBytes());
+		pipeline.submit(new Log(), data(8), "second", "project");
+	}
+
+	@Test
+	public void spoolsWhenQueueIsFull() throws Exception {
+		AttachmentPipeline pipeline = pipeline(AttachmentPipeline.OverflowPolicy.SPOOL);
+		pipeline.submit(new Log(), data(8), "first", "project");
+		pipeline.submit(new Log(), data(8), "second", "project");
+		Assert.assertEquals(8, pipeline.getQueuedBytes());
+		Assert.assertEquals(8, pipeline.getSpooledBytes());
+
+		/* Caller thread doesn't copy data into disk */
+		Assert.assertEquals(0, Files.list(spool.getRoot().toPath()).count());
+		Assert.assertEquals(1, storageTasks.size());
+
+		spoolTasks.forEach(Runnable::run);
+		Assert.assertEquals(1, Files.list(spool.getRoot().toPath()).count());
+		Assert.assertEquals(2, storageTasks.size());
+	}
+
+	@Test(expected = ReportPortalException.class)
+	public void rejectsWhenSpoolIsFull() {
+		AttachmentPipeline pipeline = pipeline(AttachmentPipeline.OverflowPolicy.SPOOL);
+		pipeline.submit(new Log(), data(8), "first", "project");
+		pipeline.submit(new Log(), data(8), "second", "project");
+		pipeline.submit(new Log(), data(8), "third", "project");
+	}
+
+	@Test
+	public void logIsDeletedWhenSpooledDataIsRejected() throws Exception {
+		AttachmentPipeline pipeline = new AttachmentPipeline(task -> {
+			if (!storageTasks.isEmpty()) {
+				throw new TaskRejectedException("Storage queue is full");
+			}
+			storageTasks.add(task);
+		}, spoolTasks::add, Runnable::run, SaveBinaryDataJob::new, CreateThumbnailJob::new, logRepository,
+				AttachmentPipeline.OverflowPolicy.SPOOL, 10, 10, 10, spool.getRoot().toPath());
+		Log spooled = new Log();
+		pipeline.submit(new Log(), data(8), "first", "project");
+		pipeline.submit(spooled, data(8), "second", "project");
+
+		spoolTasks.forEach(Runnable::run);
+		verify(logRepository).delete(spooled);
+		Assert.assertEquals(0, pipeline.getSpooledBytes());
+		Assert.assertEquals(0, Files.list(spool.getRoot().toPath()).count());
+	}
+
+	@Test
+	public void logIsDeletedWhenDataIsNotSaved() {
+		SaveBinaryDataJob saveJob = saveJob();
+		doThrow(new IllegalStateException("Storage is not available")).when(saveJob).run();
+		List<Runnable> thumbnailTasks = new ArrayList<>();
+		AttachmentPipeline pipeline = new AttachmentPipeline(Runnable::run, spoolTasks::add, thumbnailTasks::add, () -> saveJob,
+				() -> mock(CreateThumbnailJob.class, RETURNS_BUILDER), logRepository, AttachmentPipeline.OverflowPolicy.REJECT, 10, 10, 10,
+				spool.getRoot().toPath());
+
+		pipeline.submit(saveJob.getLog(), image(8), "image", "project");
+
+		verify(logRepository).delete(saveJob.getLog());
+		Assert.assertEquals(0, pipeline.getQueuedBytes());
+		Assert.assertEquals(0, pipeline.getThumbnailSourceBytes());
+		Assert.assertTrue(thumbnailTasks.isEmpty());
+	}
+
+	@Test
+	public void storageDoesNotWaitForThumbnail() {
+		SaveBinaryDataJob saveJob = saveJob();
+		CreateThumbnailJob thumbnailJob = mock(CreateThumbnailJob.class, RETURNS_BUILDER);
+		List<Runnable> thumbnailTasks = new ArrayList<>();
+		AttachmentPipeline pipeline = new AttachmentPipeline(Runnable::run, spoolTasks::add, thumbnailTasks::add, () -> saveJob,
+				() -> thumbnailJob, logRepository, AttachmentPipeline.OverflowPolicy.REJECT, 10, 10, 10, spool.getRoot().toPath());
+
+		pipeline.submit(saveJob.getLog(), image(8), "image", "project");
+
+		/* Storage stage is completed while thumbnail is still waiting for free thumbnail worker */
+		verify(saveJob).run();
+		Assert.assertEquals(0, pipeline.getQueuedBytes());
+		Assert.assertEquals(1, thumbnailTasks.size());
+		verify(thumbnailJob).withDataId("data");
+		verify(thumbnailJob).withLogId("log");
+		verify(thumbnailJob, never()).run();
+	}
+
+	@Test
+	public void copiedImageIsPassedToThumbnail() {
+		SaveBinaryDataJob saveJob = saveJob();
+		byte[] copy = new byte[8];
+		doReturn(copy).when(saveJob).getThumbnailSource();
+		CreateThumbnailJob thumbnailJob = mock(CreateThumbnailJob.class, RETURNS_BUILDER);
+		List<Runnable> thumbnailTasks = new ArrayList<>();
+		AttachmentPipeline pipeline = new AttachmentPipeline(Runnable::run, spoolTasks::add, thumbnailTasks::add, () -> saveJob,
+				() -> thumbnailJob, logRepository, AttachmentPipeline.OverflowPolicy.REJECT, 10, 10, 10, spool.getRoot().toPath());
+
+		pipeline.submit(saveJob.getLog(), image(8), "image", "project");
+
+		verify(saveJob).withThumbnailSource(8);
+		verify(thumbnailJob).withSource(copy);
+		/* Copy is held until thumbnail is created */
+		Assert.assertEquals(8, pipeline.getThumbnailSourceBytes());
+		thumbnailTasks.forEach(Runnable::run);
+		verify(thumbnailJob).run();
+		Assert.assertEquals(0, pipeline.getThumbnailSourceBytes());
+	}
+
+	@Test
+	public void imageIsNotCopiedWhenCopyLimitIsReached() {
+		SaveBinaryDataJob saveJob = saveJob();
+		doReturn(new byte[8]).when(saveJob).getThumbnailSource();
+		List<Runnable> thumbnailTasks = new ArrayList<>();
+		AttachmentPipeline pipeline = new AttachmentPipeline(Runnable::run, spoolTasks::add, thumbnailTasks::add, () -> saveJob,
+				() -> mock(CreateThumbnailJob.class, RETURNS_BUILDER), logRepository, AttachmentPipeline.OverflowPolicy.REJECT, 10, 10, 10,
+				spool.getRoot().toPath());
+
+		pipeline.submit(saveJob.getLog(), image(8), "first", "project");
+		pipeline.submit(saveJob.getLog(), image(8), "second", "project");
+
+		/* Second image doesn't fit into copy limit, so thumbnail stage reads it from storage */
+		verify(saveJob, times(1)).withThumbnailSource(8);
+		Assert.assertEquals(8, pipeline.getThumbnailSourceBytes());
+		Assert.assertEquals(2, thumbnailTasks.size());
+	}
+
+	@Test
+	public void thumbnailIsSkippedWhenThumbnailQueueIsFull() {
+		SaveBinaryDataJob saveJob = saveJob();
+		AttachmentPipeline pipeline = new AttachmentPipeline(Runnable::run, spoolTasks::add, task -> {
+			throw new TaskRejectedException("Thumbnail queue is full");
+		}, () -> saveJob, () -> mock(CreateThumbnailJob.class, RETURNS_BUILDER), logRepository, AttachmentPipeline.OverflowPolicy.REJECT, 10, 10, 10,
+				spool.getRoot().toPath());
+
+		pipeline.submit(saveJob.getLog(), image(8), "image", "project");
+
+		verify(saveJob).run();
+		Assert.assertEquals(0, pipeline.getQueuedBytes());
+		Assert.assertEquals(0, pipeline.getThumbnailSourceBytes());
+	}
+
+	private SaveBinaryDataJob saveJob() {
+		Log log = new Log();
+		log.setId("log");
+		SaveBinaryDataJob job = mock(SaveBinaryDataJob.class, RETURNS_BUILDER);
+		doReturn(true).when(job).isImage();
+		doReturn("data").when(job).getDataId();
+		doReturn(log).when(job).getLog();
+		doReturn(image(8)).when(job).getBinaryData();
+		return job;
+	}
+
+	private AttachmentPipeline pipeline(AttachmentPipeline.OverflowPolicy policy) {
+		return new AttachmentPipeline(storageTasks::add, spoolTasks::add, Runnable::run, SaveBinaryDataJob::new,
+				CreateThumbnailJob::new, logRepository, policy, 10, 10, 10, spool.getRoot().toPath());
+	}
+
+	private BinaryData data(int size) {
+		return new BinaryData("text/plain", (long) size, new ByteArrayInputStream(new byte[size]));
+	}
+
+	private BinaryData image(int size) {
+		return new BinaryData("image/png", (long) size, new ByteArrayInputStream(new byte[size]));
+	}
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.epam.ta.reportportal.core.job;
+
+import com.epam.ta.reportportal.core.statistics.StatisticsFacade;
+import com.epam.ta.reportportal.core.statistics.StatisticsFacadeFactory;
+import com.epam.ta.reportportal.core.widget.content.LaunchTrendStore;
+import com.epam.ta.reportportal.database.dao.*;
+import com.epam.ta.reportportal.database.entity.Launch;
+import com.epam.ta.reportportal.database.entity.Project;
+import com.epam.ta.reportportal.database.entity.StatisticsCalculationStrategy;
+import com.epam.ta.reportportal.database.entity.Status;
+import com.epam.ta.reportportal.database.entity.item.TestItem;
+import com.epam.ta.reportportal.database.entity.project.InterruptionJobDelay;
+import com.epam.ta.reportportal.job.InterruptBrokenLaunchesJob;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.mongodb.DBObject;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.stream.Stream;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks broken launch items are interrupted with bulk updates and statistics
+ * are recalculated once per launch by project's statistics strategy
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class InterruptBrokenLaunchesJobStatisticsTest {
+
+	@Mock
+	private LaunchRepository launchRepository;
+
+	@Mock
+	private TestItemRepository testItemRepository;
+
+	@Mock
+	private LogRepository logRepository;
+
+	@Mock
+	private FailReferenceResourceRepository issuesRepository;
+
+	@Mock
+	private StatisticsFacadeFactory statisticsFacadeFactory;
+
+	@Mock
+	private ProjectRepository projectRepository;
+
+	@Mock
+	private MongoOperations mongoOperations;
+
+	@Mock
+	private LaunchTrendStore launchTrendStore;
+
+	@Mock
+	private StatisticsFacade statisticsFacade;
+
+	@InjectMocks
+	private InterruptBrokenLaunchesJob job;
+
+	@Test
+	public void interruptItemsWithSingleRollup() {
+		Project project = new Project();
+		project.setId("project");
+		project.getConfiguration().setInterruptJobTime(InterruptionJobDelay.THREE_HOURS.getValue());
+		project.getConfiguration().setStatisticsCalculationStrategy(StatisticsCalculationStrategy.TEST_BASED);
+		when(projectRepository.streamAllIdsAndConfiguration()).thenReturn(Stream.of(project));
+
+		Launch launch = new Launch();
+		launch.setId("launch");
+		Launch reloaded = new Launch();
+		reloaded.setId("launch");
+		when(launchRepository.findModifiedLaterAgo(any(Duration.class), eq(Status.IN_PROGRESS), eq("project")))
+				.thenReturn(ImmutableList.of(launch));
+		when(launchRepository.hasItems(launch, Status.IN_PROGRESS)).thenReturn(true);
+		when(launchRepository.findOne("launch")).thenReturn(reloaded);
+		when(testItemRepository.hasTestItemsAddedLately(any(Duration.class), eq(launch), eq(Status.IN_PROGRESS))).thenReturn(false);
+		when(testItemRepository.hasLogs(anyListOf(TestItem.class))).thenReturn(false);
+
+		TestItem step1 = inProgress("step1", "suite", "test");
+		TestItem step2 = inProgress("step2", "suite", "test");
+		when(testItemRepository.findInStatusItems(Status.IN_PROGRESS.name(), "launch")).thenReturn(ImmutableList.of(step1, step2));
+		when(statisticsFacadeFactory.getStatisticsFacade(StatisticsCalculationStrategy.TEST_BASED)).thenReturn(statisticsFacade);
+
+		job.run();
+
+		/* In progress items and then their ancestors */
+		ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+		verify(mongoOperations, times(2)).updateMulti(queries.capture(), any(Update.class), eq(TestItem.class));
+		DBObject ancestors = (DBObject) queries.getAllValues().get(1).getQueryObject().get("_id");
+		Assert.assertEquals(ImmutableSet.of("suite", "test"), new HashSet<>((Collection<?>) ancestors.get("$in")));
+
+		verify(statisticsFacade, times(1)).recalculateStatistics(reloaded);
+		verify(statisticsFacade, never()).updateExecutionStatistics(any(TestItem.class));
+		verify(testItemRepository, never()).save(any(TestItem.class));
+		Assert.assertEquals(Status.INTERRUPTED, reloaded.getStatus());
+		verify(launchRepository).save(reloaded);
+		verify(launchTrendStore).refresh(reloaded);
+		verify(issuesRepository).deleteAllIssuesForLaunch("launch");
+	}
+
+	private static TestItem inProgress(String id, String... path) {
+		TestItem item = new TestItem();
+		item.setId(id);
+		item.setLaunchRef("launch");
+		item.setStatus(Status.IN_PROGRESS);
+		item.setPath(ImmutableList.copyOf(path));
+		return item;
+	}
+}
@@ -21,9 +21,11 @@
 
 package com.epam.ta.reportportal.core.launch;
 
+import static com.epam.ta.reportportal.database.entity.user.UserRole.ADMINISTRATOR;
 import static com.epam.ta.reportportal.database.entity.user.UserRole.USER;
 import static com.epam.ta.reportportal.ws.model.ErrorType.ACCESS_DENIED;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.HashMap;
@@ -36,6 +38,8 @@ import org.springframework.context.ApplicationEventPublisher;
 
 import com.epam.ta.reportportal.commons.validation.Suppliers;
 import com.epam.ta.reportportal.core.launch.impl.DeleteLaunchHandler;
+import com.epam.ta.reportportal.core.project.ProjectCache;
+import com.epam.ta.reportportal.core.statistics.DeferredStatisticsUpdater;
 import com.epam.ta.reportportal.database.dao.LaunchRepository;
 import com.epam.ta.reportportal.database.dao.ProjectRepository;
 import com.epam.ta.reportportal.database.dao.UserRepository;
@@ -57,12 +61,28 @@ public class DeleteLaunchHandlerTest {
 		final String projectId = "project";
 		final String member = "member";
 		DeleteLaunchHandler deleteLaunchHandler = new DeleteLaunchHandler(Mockito.mock(ApplicationEventPublisher.class),
-				launchRepositoryMock(launchId, projectId), projectRepositoryMock(projectId, member), userRepositoryMock(member));
+				launchRepositoryMock(launchId, projectId), new ProjectCache(projectRepositoryMock(projectId, member), 10, 10),
+				userRepositoryMock(member), mock(DeferredStatisticsUpdater.class));
 		thrown.expect(ReportPortalException.class);
 		thrown.expectMessage(Suppliers.clearPlaceholders(ACCESS_DENIED.getDescription()));
 		deleteLaunchHandler.deleteLaunch(launchId, projectId, member);
 	}
 
+	@Test
+	public void deletedLaunchStatisticsDiscarded() {
+		final String launchId = "launchId";
+		final String projectId = "project";
+		final String admin = "admin";
+		UserRepository userRepository = userRepositoryMock(admin);
+		userRepository.findOne(admin).setRole(ADMINISTRATOR);
+		DeferredStatisticsUpdater deferredStatisticsUpdater = mock(DeferredStatisticsUpdater.class);
+		DeleteLaunchHandler deleteLaunchHandler = new DeleteLaunchHandler(Mockito.mock(ApplicationEventPublisher.class),
+				launchRepositoryMock(launchId, projectId), new ProjectCache(projectRepositoryMock(projectId, admin), 10, 10),
+				userRepository, deferredStatisticsUpdater);
+		deleteLaunchHandler.deleteLaunch(launchId, projectId, admin);
+		verify(deferredStatisticsUpdater).discard(launchId);
+	}
+
 	private UserRepository userRepositoryMock(String member) {
 		UserRepository userRepository = mock(UserRepository.class);
 		User user = new User();
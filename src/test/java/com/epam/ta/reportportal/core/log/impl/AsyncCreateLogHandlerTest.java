@@ -21,17 +21,24 @@
  
 package com.epam.ta.reportportal.core.log.impl;
 
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
 
 import com.epam.ta.BaseTest;
 import org.junit.Rule;
+import org.junit.Assert;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import com.epam.ta.reportportal.core.log.ICreateLogHandler;
+import com.epam.ta.reportportal.core.log.LogBatchElement;
+import com.epam.ta.reportportal.database.dao.LogRepository;
 import com.epam.ta.reportportal.database.fixture.SpringFixture;
 import com.epam.ta.reportportal.database.fixture.SpringFixtureRule;
 import com.epam.ta.reportportal.exception.ReportPortalException;
+import com.epam.ta.reportportal.ws.model.BatchElementCreatedRS;
 import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
 
 @SpringFixture("itemsUnitTestsSorting")
@@ -45,6 +52,9 @@ public class AsyncCreateLogHandlerTest extends BaseTest{
 	
 	@Autowired
 	private ICreateLogHandler logHandler;
+
+	@Autowired
+	private LogRepository logRepository;
 	
 	/**
 	 * Added for for covering EPMCDP-700 bug fixes.
@@ -61,4 +71,36 @@ public class AsyncCreateLogHandlerTest extends BaseTest{
 		saveLogRQ.setTestItemId(ITEM_ID);
 		logHandler.createLog(saveLogRQ, null, null, null);
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testCreateLogsBatch() {
+		SaveLogRQ valid = new SaveLogRQ();
+		valid.setLogTime(new Date());
+		valid.setMessage("Log message");
+		valid.setTestItemId(ITEM_ID);
+
+		SaveLogRQ notExistingItem = new SaveLogRQ();
+		notExistingItem.setLogTime(new Date());
+		notExistingItem.setMessage("Log message");
+		notExistingItem.setTestItemId("44524cc1524de753b3e5aa2e");
+
+		List<BatchElementCreatedRS> results = logHandler
+				.createLogs(Arrays.asList(new LogBatchElement(valid), new LogBatchElement(notExistingItem)), null);
+		Assert.assertEquals(2, results.size());
+		Assert.assertNotNull(results.get(0).getId());
+		Assert.assertNotNull(logRepository.findOne(results.get(0).getId()));
+		Assert.assertNull(results.get(1).getId());
+	}
+
+	@Test
+	public void testCreateLogsBatchSetsLastModified() {
+		SaveLogRQ valid = new SaveLogRQ();
+		valid.setLogTime(new Date());
+		valid.setMessage("Log message");
+		valid.setTestItemId(ITEM_ID);
+
+		List<BatchElementCreatedRS> results = logHandler.createLogs(Arrays.asList(new LogBatchElement(valid)), null);
+		Assert.assertNotNull("Batch created logs should be picked up by logs retention",
+				logRepository.findOne(results.get(0).getId()).getLastModified());
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.ta.reportportal.core.project;
+
+import com.epam.ta.reportportal.database.dao.ProjectRepository;
+import com.epam.ta.reportportal.database.entity.Project;
+import com.epam.ta.reportportal.events.DefectTypeCreatedEvent;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+
+import static org.mockito.Mockito.*;
+
+public class ProjectCacheTest {
+
+	private static final String PROJECT = "project";
+
+	private ProjectRepository projectRepository;
+	private ProjectCache cache;
+
+	@Before
+	public void before() {
+		projectRepository = mock(ProjectRepository.class);
+		Project project = new Project();
+		project.setName(PROJECT);
+		when(projectRepository.findOne(PROJECT)).thenReturn(project);
+		cache = new ProjectCache(projectRepository, 10, 10);
+	}
+
+	@Test
+	public void projectLoadedOnce() {
+		Assert.assertSame(cache.get(PROJECT), cache.get(PROJECT));
+
+		verify(projectRepository, times(1)).findOne(PROJECT);
+		Assert.assertEquals(1, cache.getStats().hitCount());
+	}
+
+	@Test
+	public void absentProjectNotCached() {
+		Assert.assertNull(cache.get("absent"));
+		Assert.assertNull(cache.get("absent"));
+
+		verify(projectRepository, times(2)).findOne("absent");
+	}
+
+	@Test
+	public void invalidatedOnSave() {
+		Project project = cache.get(PROJECT);
+		cache.onAfterSave(new AfterSaveEvent<>(project, null, "project"));
+		cache.get(PROJECT);
+
+		verify(projectRepository, times(2)).findOne(PROJECT);
+	}
+
+	@Test
+	public void invalidatedOnDefectTypeCreated() {
+		cache.get(PROJECT);
+		cache.onDefectTypeCreated(new DefectTypeCreatedEvent(PROJECT, "user", null));
+		cache.get(PROJECT);
+
+		verify(projectRepository, times(2)).findOne(PROJECT);
+	}
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.epam.ta.reportportal.core.project.impl;
+
+import com.epam.ta.reportportal.core.statistics.StatisticsCounters;
+import com.epam.ta.reportportal.database.dao.ProjectRepository;
+import com.epam.ta.reportportal.database.entity.Launch;
+import com.epam.ta.reportportal.database.entity.Project;
+import com.epam.ta.reportportal.database.entity.Status;
+import com.epam.ta.reportportal.database.entity.statistics.ExecutionCounter;
+import com.epam.ta.reportportal.database.entity.statistics.Statistics;
+import com.epam.ta.reportportal.database.search.Condition;
+import com.epam.ta.reportportal.database.search.Filter;
+import com.epam.ta.reportportal.ws.converter.ProjectInfoResourceAssembler;
+import com.epam.ta.reportportal.ws.model.Page;
+import com.epam.ta.reportportal.ws.model.launch.Mode;
+import com.epam.ta.reportportal.ws.model.project.ProjectInfoResource;
+import com.github.fakemongo.Fongo;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+import static java.util.stream.Collectors.toList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+public class GetProjectStatisticHandlerTest {
+
+	private static final String PROJECT = "project";
+
+	private TimeZone defaultTimeZone;
+	private MongoTemplate mongoTemplate;
+	private GetProjectStatisticHandler handler;
+
+	@Before
+	public void before() {
+		defaultTimeZone = TimeZone.getDefault();
+		/* Zone with daylight saving time */
+		TimeZone.setDefault(TimeZone.getTimeZone("Europe/Berlin"));
+		mongoTemplate = new MongoTemplate(new Fongo("project-statistic").getMongo(), "reportportal");
+		handler = new GetProjectStatisticHandler();
+		ReflectionTestUtils.setField(handler, "mongoOperations", mongoTemplate);
+	}
+
+	@After
+	public void after() {
+		TimeZone.setDefault(defaultTimeZone);
+	}
+
+	@Test
+	public void launchesGroupedByLocalDayAcrossDaylightSaving() {
+		List<Launch> launches = Arrays.asList(
+				save(launch("1", "first", localTime(2017, 3, 25, 23, 30), Status.PASSED, 3)),
+				save(launch("2", "first", localTime(2017, 3, 26, 0, 30), Status.PASSED, 5)),
+				save(launch("3", "first", localTime(2017, 7, 10, 0, 30), Status.FAILED, 7)),
+				save(launch("4", "first", localTime(2017, 7, 10, 23, 30), Status.PASSED, 2)),
+				save(launch("5", "first", localTime(2017, 10, 29, 0, 30), Status.PASSED, 4)),
+				save(launch("6", "first", localTime(2017, 11, 1, 0, 30), Status.PASSED, 6)));
+
+		List<LaunchGroupStatistics> statistics = handler.getLaunchStatistics(PROJECT, localTime(2017, 1, 1, 0, 0));
+
+		Map<LocalDate, Integer> expected = new TreeMap<>();
+		launches.forEach(launch -> expected.merge(localDay(launch), 1, Integer::sum));
+		Assert.assertEquals(new ArrayList<>(expected.keySet()), statistics.stream().map(LaunchGroupStatistics::getDay).collect(toList()));
+		Assert.assertEquals(new ArrayList<>(expected.values()),
+				statistics.stream().map(LaunchGroupStatistics::getCount).collect(toList()));
+		Assert.assertEquals(LocalDate.of(2017, 7, 10), statistics.get(2).getDay());
+		Assert.assertEquals(2, statistics.get(2).getTotalMin());
+		Assert.assertEquals(7, statistics.get(2).getTotalMax());
+	}
+
+	@Test
+	public void launchesInProgressAreGrouped() {
+		save(launch("1", "first", localTime(2017, 5, 2, 10, 0), Status.PASSED, 3));
+		save(launch("2", "first", localTime(2017, 5, 2, 11, 0), Status.IN_PROGRESS, 1));
+		Launch debug = launch("3", "first", localTime(2017, 5, 2, 12, 0), Status.PASSED, 1);
+		debug.setMode(Mode.DEBUG);
+		save(debug);
+
+		List<LaunchGroupStatistics> statistics = handler.getLaunchStatistics(PROJECT, localTime(2017, 1, 1, 0, 0));
+
+		Assert.assertEquals(1, statistics.size());
+		Assert.assertEquals(2, statistics.get(0).getCount());
+		Assert.assertEquals(4, statistics.get(0).getTotalSum());
+	}
+
+	@Test
+	public void projectsInfoIsIdenticalToPerProjectCounting() {
+		Date start = localTime(2017, 5, 2, 10, 0);
+		save(launch("1", "first", start, Status.PASSED, 1));
+		save(launch("2", "first", new Date(start.getTime() + 1000), Status.FAILED, 1));
+		save(launch("3", "first", new Date(start.getTime() + 2000), Status.IN_PROGRESS, 1));
+		Launch debug = launch("4", "first", new Date(start.getTime() + 3000), Status.PASSED, 1);
+		debug.setMode(Mode.DEBUG);
+		save(debug);
+		Launch inProgress = launch("5", "first", start, Status.IN_PROGRESS, 1);
+		inProgress.setProjectRef("second");
+		save(inProgress);
+
+		List<String> projects = Arrays.asList(PROJECT, "second", "third");
+		Filter filter = new Filter(Project.class, Condition.EQUALS, false, PROJECT, "name");
+		Pageable pageable = new PageRequest(0, projects.size());
+		PageImpl<Project> found = new PageImpl<>(Collections.emptyList());
+		ProjectRepository projectRepository = mock(ProjectRepository.class);
+		when(projectRepository.findByFilter(filter, pageable)).thenReturn(found);
+		ProjectInfoResourceAssembler assembler = mock(ProjectInfoResourceAssembler.class);
+		List<ProjectInfoResource> resources = projects.stream().map(name -> {
+			ProjectInfoResource resource = new ProjectInfoResource();
+			resource.setProjectId(name);
+			return resource;
+		}).collect(toList());
+		when(assembler.toPagedResources(found)).thenReturn(new Page<>(resources, new Page.PageMetadata(projects.size(), 1, 3, 1)));
+		ReflectionTestUtils.setField(handler, "projectRepository", projectRepository);
+		ReflectionTestUtils.setField(handler, "projectInfoResourceAssembler", assembler);
+
+		for (ProjectInfoResource resource : handler.getAllProjectsInfo(filter, pageable)) {
+			/* Launches quantity and last run as former per project queries calculated them */
+			List<Launch> launches = mongoTemplate.find(
+					query(where("projectRef").is(resource.getProjectId()).and("mode").is(Mode.DEFAULT.name())), Launch.class);
+			Date lastRun = launches.stream()
+					.filter(launch -> launch.getStatus() != Status.IN_PROGRESS)
+					.map(Launch::getStartTime)
+					.max(Date::compareTo)
+					.orElse(null);
+			Assert.assertEquals(launches.size(), (long) resource.getLaunchesQuantity());
+			Assert.assertEquals(lastRun, resource.getLastRun());
+		}
+		Assert.assertEquals(3L, (long) resources.get(0).getLaunchesQuantity());
+		Assert.assertEquals(new Date(start.getTime() + 1000), resources.get(0).getLastRun());
+		Assert.assertEquals(1L, (long) resources.get(1).getLaunchesQuantity());
+		Assert.assertNull(resources.get(1).getLastRun());
+	}
+
+	private Launch save(Launch launch) {
+		mongoTemplate.save(launch);
+		return launch;
+	}
+
+	private static Date localTime(int year, int month, int day, int hour, int minute) {
+		return Date.from(LocalDateTime.of(year, month, day, hour, minute).atZone(ZoneId.systemDefault()).toInstant());
+	}
+
+	private static LocalDate localDay(Launch launch) {
+		return launch.getStartTime().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+	}
+
+	private static Launch launch(String id, String name, Date start, Status status, int total) {
+		Launch launch = new Launch();
+		launch.setId(id);
+		launch.setProjectRef(PROJECT);
+		launch.setName(name);
+		launch.setMode(Mode.DEFAULT);
+		launch.setStatus(status);
+		launch.setStartTime(start);
+		launch.setStatistics(
+				new Statistics(new ExecutionCounter(total, total, 0, 0), new StatisticsCounters().toStatistics().getIssueCounter()));
+		return launch;
+	}
+}
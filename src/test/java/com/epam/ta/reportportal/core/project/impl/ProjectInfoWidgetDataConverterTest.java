@@ -0,0 +1,107 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.epam.ta.reportportal.core.project.impl;
+
+import com.epam.ta.reportportal.database.entity.project.info.InfoInterval;
+import com.epam.ta.reportportal.database.entity.project.info.ProjectInfoGroup;
+import com.epam.ta.reportportal.ws.model.widget.ChartObject;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class ProjectInfoWidgetDataConverterTest {
+
+	private ProjectInfoWidgetDataConverter converter;
+
+	@Before
+	public void before() {
+		converter = new ProjectInfoWidgetDataConverter();
+		ReflectionTestUtils.setField(converter, "grouping",
+				ImmutableMap.of(InfoInterval.ONE_MONTH, ProjectInfoGroup.BY_DAY, InfoInterval.THREE_MONTHS, ProjectInfoGroup.BY_WEEK,
+						InfoInterval.SIX_MONTHS, ProjectInfoGroup.BY_WEEK));
+	}
+
+	@Test
+	public void launchesQuantityByDay() {
+		Map<String, List<ChartObject>> quantity = converter.getLaunchesQuantity(statistics(), InfoInterval.ONE_MONTH);
+
+		Assert.assertEquals(3, quantity.size());
+		Assert.assertEquals("3", quantity.get("2017-05-01").get(0).getValues().get("count"));
+		/* Days without launches are filled */
+		Assert.assertEquals("0", quantity.get("2017-05-02").get(0).getValues().get("count"));
+		Assert.assertEquals("2", quantity.get("2017-05-03").get(0).getValues().get("count"));
+		Assert.assertEquals("2017-05-03", quantity.get("2017-05-03").get(0).getValues().get("start"));
+	}
+
+	@Test
+	public void launchesQuantityByWeek() {
+		Map<String, List<ChartObject>> quantity = converter.getLaunchesQuantity(statistics(), InfoInterval.THREE_MONTHS);
+
+		Assert.assertEquals(1, quantity.size());
+		Map<String, String> values = quantity.get("2017-W18").get(0).getValues();
+		Assert.assertEquals("5", values.get("count"));
+		Assert.assertEquals("2017-05-01", values.get("start"));
+		Assert.assertEquals("2017-05-07", values.get("end"));
+	}
+
+	@Test
+	public void testCasesStatisticsByName() {
+		Map<String, List<ChartObject>> cases = converter.getTestCasesStatisticsProjectInfo(statistics());
+
+		Map<String, String> first = cases.get("first").get(0).getValues();
+		Assert.assertEquals("1.0", first.get("min"));
+		Assert.assertEquals("10.0", first.get("max"));
+		Assert.assertEquals("5.75", first.get("avg"));
+		Map<String, String> second = cases.get("second").get(0).getValues();
+		Assert.assertEquals("3.0", second.get("min"));
+		Assert.assertEquals("3.0", second.get("max"));
+		Assert.assertEquals("3", second.get("avg"));
+	}
+
+	@Test
+	public void issuesAndInvestigatedByDay() {
+		Map<String, List<ChartObject>> issues = converter.getLaunchesIssues(statistics(), InfoInterval.ONE_MONTH);
+		Map<String, String> first = issues.get("2017-05-01").get(0).getValues();
+		Assert.assertEquals("3", first.get("productBug"));
+		Assert.assertEquals("1", first.get("automationBug"));
+		Assert.assertEquals("0", first.get("systemIssue"));
+		Assert.assertEquals("4", first.get("toInvestigate"));
+
+		Map<String, List<ChartObject>> investigated = converter.getInvestigatedProjectInfo(statistics(), InfoInterval.ONE_MONTH);
+		Assert.assertEquals("50", investigated.get("2017-05-01").get(0).getValues().get("investigated"));
+		Assert.assertEquals("0", investigated.get("2017-05-02").get(0).getValues().get("investigated"));
+		Assert.assertEquals("100", investigated.get("2017-05-03").get(0).getValues().get("investigated"));
+	}
+
+	private static List<LaunchGroupStatistics> statistics() {
+		return Arrays.asList(new LaunchGroupStatistics("first", LocalDate.of(2017, 5, 1), 2, 2, 10, 18, 2, 1, 0, 3),
+				new LaunchGroupStatistics("second", LocalDate.of(2017, 5, 1), 1, 3, 3, 3, 1, 0, 0, 1),
+				new LaunchGroupStatistics("first", LocalDate.of(2017, 5, 3), 2, 1, 4, 5, 0, 0, 2, 0));
+	}
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.epam.ta.reportportal.core.statistics;
+
+import com.epam.ta.reportportal.database.entity.Launch;
+import com.epam.ta.reportportal.database.entity.Status;
+import com.epam.ta.reportportal.database.entity.item.TestItem;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.mongodb.DBObject;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+public class DeferredStatisticsUpdaterTest {
+
+	private static final String LAUNCH = "launch";
+	private static final long TIMEOUT = 500;
+
+	private MongoOperations mongoOperations;
+
+	private BulkOperations bulk;
+
+	@Before
+	public void setUp() {
+		mongoOperations = mock(MongoOperations.class);
+		bulk = mock(BulkOperations.class);
+		when(mongoOperations.bulkOps(any(BulkOperations.BulkMode.class), eq(TestItem.class))).thenReturn(bulk);
+	}
+
+	@Test
+	public void flushPropagatesToAncestorsAndLaunch() {
+		DeferredStatisticsUpdater updater = new DeferredStatisticsUpdater(mongoOperations, true, TIMEOUT);
+		updater.record(step("step1", Status.PASSED), new StatisticsCounters().addExecution(step("step1", Status.PASSED)));
+		updater.record(step("step2", Status.FAILED), new StatisticsCounters().addExecution(step("step2", Status.FAILED)));
+
+		updater.flush(LAUNCH);
+
+		Map<String, DBObject> items = itemIncrements(4);
+		Assert.assertEquals(ImmutableMap.of("statistics.executionCounter.total", 1, "statistics.executionCounter.passed", 1),
+				items.get("step1").toMap());
+		Assert.assertEquals(ImmutableMap.of("statistics.executionCounter.total", 2, "statistics.executionCounter.passed", 1,
+				"statistics.executionCounter.failed", 1), items.get("suite").toMap());
+		Assert.assertEquals(items.get("suite").toMap(), items.get("test").toMap());
+
+		ArgumentCaptor<Update> launchUpdate = ArgumentCaptor.forClass(Update.class);
+		verify(mongoOperations).updateFirst(any(Query.class), launchUpdate.capture(), eq(Launch.class));
+		Assert.assertEquals(items.get("suite").toMap(), ((DBObject) launchUpdate.getValue().getUpdateObject().get("$inc")).toMap());
+	}
+
+	@Test
+	public void flushedDeltasAreNotWrittenTwice() {
+		DeferredStatisticsUpdater updater = new DeferredStatisticsUpdater(mongoOperations, true, TIMEOUT);
+		updater.record(step("step1", Status.PASSED), new StatisticsCounters().addExecution(step("step1", Status.PASSED)));
+
+		updater.flush(LAUNCH);
+		updater.flush(LAUNCH);
+
+		verify(bulk, times(1)).execute();
+		verify(mongoOperations, times(1)).updateFirst(any(Query.class), any(Update.class), eq(Launch.class));
+	}
+
+	@Test
+	public void discardedDeltasAreNotWritten() {
+		DeferredStatisticsUpdater updater = new DeferredStatisticsUpdater(mongoOperations, true, TIMEOUT);
+		updater.record(step("step1", Status.PASSED), new StatisticsCounters().addExecution(step("step1", Status.PASSED)));
+
+		updater.discard(LAUNCH);
+		updater.flush(LAUNCH);
+
+		verifyZeroInteractions(bulk);
+		verify(mongoOperations, never()).updateFirst(any(Query.class), any(Update.class), eq(Launch.class));
+		verify(mongoOperations).remove(any(Query.class), eq("statisticsBuffers"));
+	}
+
+	@Test
+	public void bufferedDeltasAreMarkedUntilFlushed() {
+		DeferredStatisticsUpdater updater = new DeferredStatisticsUpdater(mongoOperations, true, TIMEOUT);
+		updater.record(step("step1", Status.PASSED), new StatisticsCounters().addExecution(step("step1", Status.PASSED)));
+		updater.record(step("step2", Status.PASSED), new StatisticsCounters().addExecution(step("step2", Status.PASSED)));
+
+		ArgumentCaptor<DBObject> marker = ArgumentCaptor.forClass(DBObject.class);
+		verify(mongoOperations, times(1)).insert(marker.capture(), eq("statisticsBuffers"));
+		Assert.assertEquals(LAUNCH, marker.getValue().get("launchRef"));
+		verify(mongoOperations, never()).remove(any(Query.class), eq("statisticsBuffers"));
+
+		updater.flush(LAUNCH);
+
+		ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+		verify(mongoOperations).remove(removed.capture(), eq("statisticsBuffers"));
+		Assert.assertEquals(marker.getValue().get("_id"), removed.getValue().getQueryObject().get("_id"));
+	}
+
+	@Test
+	public void finishWaitsForOtherNodes() {
+		when(mongoOperations.exists(any(Query.class), eq("statisticsBuffers"))).thenReturn(true, true, false);
+		DeferredStatisticsUpdater updater = new DeferredStatisticsUpdater(mongoOperations, true, TIMEOUT);
+
+		updater.flushEverywhere(LAUNCH);
+
+		verify(mongoOperations, times(3)).exists(any(Query.class), eq("statisticsBuffers"));
+	}
+
+	@Test
+	public void finishWaitingIsLimited() {
+		when(mongoOperations.exists(any(Query.class), eq("statisticsBuffers"))).thenReturn(true);
+		DeferredStatisticsUpdater updater = new DeferredStatisticsUpdater(mongoOperations, true, TIMEOUT);
+
+		long start = System.currentTimeMillis();
+		updater.flushEverywhere(LAUNCH);
+		Assert.assertTrue(System.currentTimeMillis() - start < TIMEOUT * 4);
+	}
+
+	@Test
+	public void deltasFlushedOnShutdown() {
+		DeferredStatisticsUpdater updater = new DeferredStatisticsUpdater(mongoOperations, false, TIMEOUT);
+		updater.record(step("step1", Status.PASSED), new StatisticsCounters().addExecution(step("step1", Status.PASSED)));
+
+		updater.shutdown();
+		verify(bulk).execute();
+		verify(mongoOperations).updateFirst(any(Query.class), any(Update.class), eq(Launch.class));
+	}
+
+	@Test
+	public void failedDeltasAreKept() {
+		DeferredStatisticsUpdater updater = new DeferredStatisticsUpdater(mongoOperations, true, TIMEOUT);
+		updater.record(step("step1", Status.PASSED), new StatisticsCounters().addExecution(step("step1", Status.PASSED)));
+		when(bulk.execute()).thenThrow(new IllegalStateException("write failed")).thenReturn(null);
+
+		try {
+			updater.flush(LAUNCH);
+			Assert.fail("Write error is expected");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		updater.record(step("step2", Status.PASSED), new StatisticsCounters().addExecution(step("step2", Status.PASSED)));
+		updater.flush(LAUNCH);
+
+		ArgumentCaptor<Update> launchUpdate = ArgumentCaptor.forClass(Update.class);
+		verify(mongoOperations).updateFirst(any(Query.class), launchUpdate.capture(), eq(Launch.class));
+		Assert.assertEquals(2, ((DBObject) launchUpdate.getValue().getUpdateObject().get("$inc")).get("statistics.executionCounter.total"));
+	}
+
+	@Test
+	public void scheduledFlushIsSkippedWhenDisabled() {
+		DeferredStatisticsUpdater updater = new DeferredStatisticsUpdater(mongoOperations, false, TIMEOUT);
+		updater.record(step("step1", Status.PASSED), new StatisticsCounters().addExecution(step("step1", Status.PASSED)));
+
+		updater.flushAll();
+		verifyZeroInteractions(mongoOperations);
+
+		updater.flush(LAUNCH);
+		verify(bulk).execute();
+	}
+
+	@Test
+	public void scheduledFlush() {
+		DeferredStatisticsUpdater updater = new DeferredStatisticsUpdater(mongoOperations, true, TIMEOUT);
+		updater.record(step("step1", Status.PASSED), new StatisticsCounters().addExecution(step("step1", Status.PASSED)));
+
+		updater.flushAll();
+		verify(bulk).execute();
+	}
+
+	private Map<String, DBObject> itemIncrements(int count) {
+		ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+		ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+		verify(bulk, times(count)).updateOne(queries.capture(), updates.capture());
+		Map<String, DBObject> result = new HashMap<>();
+		for (int i = 0; i < count; i++) {
+			result.put((String) queries.getAllValues().get(i).getQueryObject().get("_id"),
+					(DBObject) updates.getAllValues().get(i).getUpdateObject().get("$inc"));
+		}
+		return result;
+	}
+
+	private static TestItem step(String id, Status status) {
+		TestItem item = new TestItem();
+		item.setId(id);
+		item.setLaunchRef(LAUNCH);
+		item.setStatus(status);
+		item.setPath(ImmutableList.of("suite", "test"));
+		return item;
+	}
+}
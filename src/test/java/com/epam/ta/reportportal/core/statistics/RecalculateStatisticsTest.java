@@ -0,0 +1,197 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.epam.ta.reportportal.core.statistics;
+
+import com.epam.ta.reportportal.core.project.ProjectCache;
+import com.epam.ta.reportportal.database.dao.LaunchRepository;
+import com.epam.ta.reportportal.database.dao.TestItemRepository;
+import com.epam.ta.reportportal.database.entity.Launch;
+import com.epam.ta.reportportal.database.entity.Project;
+import com.epam.ta.reportportal.database.entity.Status;
+import com.epam.ta.reportportal.database.entity.item.TestItem;
+import com.epam.ta.reportportal.database.entity.item.TestItemType;
+import com.epam.ta.reportportal.database.entity.item.issue.TestItemIssue;
+import com.epam.ta.reportportal.database.entity.statistics.ExecutionCounter;
+import com.epam.ta.reportportal.database.entity.statistics.IssueCounter;
+import com.epam.ta.reportportal.database.entity.statistics.Statistics;
+import com.google.common.collect.ImmutableList;
+import com.mongodb.DBObject;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks in-memory statistics rollup of launch tree for both statistics calculation strategies
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class RecalculateStatisticsTest {
+
+	private static final String PROJECT = "project";
+	private static final String LAUNCH = "launch";
+
+	@Mock
+	private TestItemRepository testItemRepository;
+
+	@Mock
+	private LaunchRepository launchRepository;
+
+	@Mock
+	private ProjectCache projectCache;
+
+	@Mock
+	private MongoOperations mongoOperations;
+
+	@Mock
+	private DeferredStatisticsUpdater deferredStatisticsUpdater;
+
+	@Mock
+	private BulkOperations bulk;
+
+	@InjectMocks
+	private StepBasedStatisticsFacade stepBasedFacade;
+
+	@InjectMocks
+	private TestBasedStatisticsFacade testBasedFacade;
+
+	private Launch launch;
+
+	@Before
+	public void setUp() {
+		launch = new Launch();
+		launch.setId(LAUNCH);
+		launch.setProjectRef(PROJECT);
+
+		Project project = new Project();
+		project.setConfiguration(new Project.Configuration());
+		when(projectCache.get(PROJECT)).thenReturn(project);
+		when(mongoOperations.bulkOps(any(BulkOperations.BulkMode.class), eq(TestItem.class))).thenReturn(bulk);
+
+		/*
+		 * suite
+		 *   test1: step1 PASSED, step2 FAILED (product bug)
+		 *   test2 PASSED
+		 */
+		TestItem suite = item("suite", TestItemType.SUITE, Status.FAILED, null, true);
+		TestItem test1 = item("test1", TestItemType.TEST, Status.FAILED, suite, true);
+		TestItem step1 = item("step1", TestItemType.STEP, Status.PASSED, test1, false);
+		TestItem step2 = item("step2", TestItemType.STEP, Status.FAILED, test1, false);
+		TestItemIssue issue = new TestItemIssue();
+		issue.setIssueType("PB001");
+		step2.setIssue(issue);
+		TestItem test2 = item("test2", TestItemType.TEST, Status.PASSED, suite, false);
+		when(testItemRepository.findByLaunch(launch)).thenReturn(ImmutableList.of(suite, test1, step1, step2, test2));
+	}
+
+	@Test
+	public void stepBased() {
+		stepBasedFacade.recalculateStatistics(launch);
+		Map<String, Statistics> statistics = savedStatistics();
+
+		assertExecutions(launch.getStatistics(), 3, 2, 1);
+		assertExecutions(statistics.get("suite"), 3, 2, 1);
+		assertExecutions(statistics.get("test1"), 2, 1, 1);
+		assertExecutions(statistics.get("test2"), 1, 1, 0);
+		assertExecutions(statistics.get("step2"), 1, 0, 1);
+		assertProductBugs(launch.getStatistics(), 1);
+		assertProductBugs(statistics.get("suite"), 1);
+		assertProductBugs(statistics.get("test2"), 0);
+		verify(deferredStatisticsUpdater).discard(LAUNCH);
+	}
+
+	@Test
+	public void testBased() {
+		testBasedFacade.recalculateStatistics(launch);
+		Map<String, Statistics> statistics = savedStatistics();
+
+		/* Only test level items are counted, steps are not */
+		assertExecutions(launch.getStatistics(), 2, 1, 1);
+		assertExecutions(statistics.get("suite"), 2, 1, 1);
+		assertExecutions(statistics.get("test1"), 1, 0, 1);
+		assertExecutions(statistics.get("test2"), 1, 1, 0);
+		assertExecutions(statistics.get("step2"), 0, 0, 0);
+		assertProductBugs(launch.getStatistics(), 1);
+		assertProductBugs(statistics.get("test1"), 1);
+		assertProductBugs(statistics.get("suite"), 1);
+	}
+
+	private Map<String, Statistics> savedStatistics() {
+		ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+		ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+		verify(bulk, times(5)).updateOne(queries.capture(), updates.capture());
+		verify(bulk).execute();
+
+		Map<String, Statistics> result = new HashMap<>();
+		for (int i = 0; i < queries.getAllValues().size(); i++) {
+			String id = (String) queries.getAllValues().get(i).getQueryObject().get("_id");
+			DBObject set = (DBObject) updates.getAllValues().get(i).getUpdateObject().get("$set");
+			result.put(id, (Statistics) set.get("statistics"));
+		}
+		return result;
+	}
+
+	private static void assertExecutions(Statistics statistics, int total, int passed, int failed) {
+		ExecutionCounter counter = statistics.getExecutionCounter();
+		Assert.assertEquals(total, counter.getTotal().intValue());
+		Assert.assertEquals(passed, counter.getPassed().intValue());
+		Assert.assertEquals(failed, counter.getFailed().intValue());
+	}
+
+	private static void assertProductBugs(Statistics statistics, int total) {
+		Integer value = statistics.getIssueCounter().getProductBug().get(IssueCounter.GROUP_TOTAL);
+		Assert.assertEquals(total, null == value ? 0 : value.intValue());
+	}
+
+	private static TestItem item(String id, TestItemType type, Status status, TestItem parent, boolean hasChilds) {
+		TestItem item = new TestItem();
+		item.setId(id);
+		item.setLaunchRef(LAUNCH);
+		item.setType(type);
+		item.setStatus(status);
+		item.setHasChilds(hasChilds);
+		List<String> path = new ArrayList<>();
+		if (null != parent) {
+			path.addAll(parent.getPath());
+			path.add(parent.getId());
+			item.setParent(parent.getId());
+		}
+		item.setPath(path);
+		return item;
+	}
+}
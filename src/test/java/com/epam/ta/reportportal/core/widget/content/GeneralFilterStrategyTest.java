@@ -0,0 +1,156 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.epam.ta.reportportal.core.widget.content;
+
+import com.epam.ta.reportportal.database.entity.Launch;
+import com.epam.ta.reportportal.database.entity.filter.UserFilter;
+import com.epam.ta.reportportal.database.entity.item.TestItem;
+import com.epam.ta.reportportal.database.entity.widget.ContentOptions;
+import com.epam.ta.reportportal.database.search.Condition;
+import com.epam.ta.reportportal.database.search.Filter;
+import com.epam.ta.reportportal.database.search.FilterCondition;
+import com.epam.ta.reportportal.ws.model.launch.Mode;
+import com.github.fakemongo.Fongo;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class GeneralFilterStrategyTest {
+
+	private static final String PROJECT = "project";
+	private static final String OTHER_PROJECT = "other";
+
+	private static final String FIRST = "58a2c5d40cf2a1d6a8e3f8a1";
+	private static final String SECOND = "58a2c5d40cf2a1d6a8e3f8a2";
+	private static final String DEBUG = "58a2c5d40cf2a1d6a8e3f8a3";
+	private static final String FOREIGN = "58a2c5d40cf2a1d6a8e3f8a4";
+
+	private WidgetContentProvider widgetContentProvider;
+
+	private GeneralFilterStrategy strategy;
+
+	@Before
+	public void before() {
+		MongoTemplate mongoTemplate = new MongoTemplate(new Fongo("general-filter-strategy").getMongo(), "reportportal");
+		mongoTemplate.save(launch(FIRST, PROJECT, Mode.DEFAULT));
+		mongoTemplate.save(launch(SECOND, PROJECT, Mode.DEFAULT));
+		mongoTemplate.save(launch(DEBUG, PROJECT, Mode.DEBUG));
+		mongoTemplate.save(launch(FOREIGN, OTHER_PROJECT, Mode.DEFAULT));
+
+		mongoTemplate.save(item("login", FIRST));
+		mongoTemplate.save(item("logout", SECOND));
+		mongoTemplate.save(item("login", DEBUG));
+		mongoTemplate.save(item("login", FOREIGN));
+		mongoTemplate.save(item("signup", FOREIGN));
+
+		widgetContentProvider = mock(WidgetContentProvider.class);
+		strategy = new GeneralFilterStrategy();
+		ReflectionTestUtils.setField(strategy, "mongoOperations", mongoTemplate);
+		ReflectionTestUtils.setField(strategy, "widgetContentProvider", widgetContentProvider);
+	}
+
+	@Test
+	public void launchesOfMatchingItemsInProject() {
+		FilterCondition condition = launchCondition(new Filter(TestItem.class, Condition.CONTAINS, false, "log", "name"));
+
+		Assert.assertEquals(Condition.IN, condition.getCondition());
+		Assert.assertEquals(new HashSet<>(Arrays.asList(FIRST, SECOND)),
+				new HashSet<>(Arrays.asList(condition.getValue().split(Condition.VALUES_SEPARATOR))));
+	}
+
+	@Test
+	public void launchesWithoutMatchingItemsSkipped() {
+		FilterCondition condition = launchCondition(new Filter(TestItem.class, Condition.CONTAINS, false, "login", "name"));
+
+		Assert.assertEquals(Condition.IN, condition.getCondition());
+		Assert.assertEquals(FIRST, condition.getValue());
+	}
+
+	@Test
+	public void itemsOfOtherProjectNotMatched() {
+		FilterCondition condition = launchCondition(new Filter(TestItem.class, Condition.CONTAINS, false, "signup", "name"));
+
+		Assert.assertEquals(Condition.EXISTS, condition.getCondition());
+		Assert.assertEquals("false", condition.getValue());
+	}
+
+	@Test
+	public void onlyRequestedLaunchesOfProjectMatched() {
+		FilterCondition condition = launchCondition(new Filter(TestItem.class, Condition.IN, false,
+				String.join(Condition.VALUES_SEPARATOR, FIRST, DEBUG, FOREIGN), TestItem.LAUNCH_CRITERIA));
+
+		Assert.assertEquals(Condition.IN, condition.getCondition());
+		Assert.assertEquals(FIRST, condition.getValue());
+	}
+
+	@Test
+	public void nothingMatchedWithoutAvailableLaunches() {
+		FilterCondition condition = launchCondition(new Filter(TestItem.class, Condition.IN, false,
+				String.join(Condition.VALUES_SEPARATOR, DEBUG, FOREIGN), TestItem.LAUNCH_CRITERIA));
+
+		Assert.assertEquals(Condition.EXISTS, condition.getCondition());
+		Assert.assertEquals("false", condition.getValue());
+	}
+
+	/**
+	 * Builds content with provided filter and returns launch condition
+	 * added by strategy
+	 */
+	private FilterCondition launchCondition(Filter filter) {
+		Set<FilterCondition> initial = new HashSet<>(filter.getFilterConditions());
+		UserFilter userFilter = new UserFilter();
+		userFilter.setFilter(filter);
+		strategy.buildFilterAndLoadContent(userFilter, new ContentOptions(), PROJECT);
+
+		ArgumentCaptor<Filter> captor = ArgumentCaptor.forClass(Filter.class);
+		verify(widgetContentProvider).getChartContent(captor.capture(), any(), any(ContentOptions.class));
+		return captor.getValue().getFilterConditions().stream()
+				.filter(condition -> !initial.contains(condition) && TestItem.LAUNCH_CRITERIA.equals(condition.getSearchCriteria()))
+				.findFirst().orElseThrow(AssertionError::new);
+	}
+
+	private static Launch launch(String id, String project, Mode mode) {
+		Launch launch = new Launch();
+		launch.setId(id);
+		launch.setProjectRef(project);
+		launch.setMode(mode);
+		return launch;
+	}
+
+	private static TestItem item(String name, String launch) {
+		TestItem item = new TestItem();
+		item.setName(name);
+		item.setLaunchRef(launch);
+		return item;
+	}
+}
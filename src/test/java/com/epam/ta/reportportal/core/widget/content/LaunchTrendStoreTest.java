@@ -0,0 +1,260 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.ta.reportportal.core.widget.content;
+
+import com.epam.ta.reportportal.core.statistics.StatisticsCounters;
+import com.epam.ta.reportportal.core.widget.content.StatisticBasedContentLoader.Period;
+import com.epam.ta.reportportal.database.dao.LaunchRepository;
+import com.epam.ta.reportportal.database.entity.Launch;
+import com.epam.ta.reportportal.database.entity.Status;
+import com.epam.ta.reportportal.database.entity.statistics.ExecutionCounter;
+import com.epam.ta.reportportal.database.entity.statistics.Statistics;
+import com.epam.ta.reportportal.database.search.Condition;
+import com.epam.ta.reportportal.database.search.Filter;
+import com.epam.ta.reportportal.database.search.FilterCondition;
+import com.epam.ta.reportportal.database.search.FilterConditionUtils;
+import com.epam.ta.reportportal.ws.model.launch.Mode;
+import com.epam.ta.reportportal.ws.model.widget.ChartObject;
+import com.github.fakemongo.Fongo;
+import org.joda.time.DateTime;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.mockito.Mockito.mock;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+public class LaunchTrendStoreTest {
+
+	private static final String PROJECT = "project";
+	private static final String NAME = "launch";
+	private static final String TOTAL = "statistics.executionCounter.total";
+	private static final String PASSED = "statistics.executionCounter.passed";
+	private static final List<String> FIELDS = Arrays.asList(TOTAL, PASSED);
+	private static final Sort SORTING = new Sort(Sort.Direction.DESC, "start_time");
+
+	private final StatisticBasedContentLoader loader = new StatisticBasedContentLoader();
+
+	private MongoTemplate mongoTemplate;
+	private LaunchTrendStore store;
+
+	@Before
+	public void before() {
+		mongoTemplate = new MongoTemplate(new Fongo("launch-trend-store").getMongo(), "reportportal");
+		store = new LaunchTrendStore(mongoTemplate, mock(LaunchRepository.class), new WidgetContentCache(100, 300),
+				new WidgetContentSnapshots(Runnable::run, 100, 600, 300, 60), Runnable::run);
+	}
+
+	@Test
+	public void sumsAreIdenticalToLaunchesScan() {
+		recordLaunches();
+		for (Period period : Period.values()) {
+			/* Quantity cuts the oldest day of launches in the middle */
+			for (int quantity : Arrays.asList(3, 8, 100)) {
+				Map<String, List<ChartObject>> stored = loader.groupByDate(store.loadSums(filter(), SORTING, quantity, FIELDS).get(), period);
+				assertSameContent(loader.groupByDate(scan(quantity), period), stored, false);
+			}
+		}
+	}
+
+	@Test
+	public void peaksAreIdenticalToLaunchesScan() {
+		recordLaunches();
+		for (Period period : Period.values()) {
+			for (int quantity : Arrays.asList(3, 8, 100)) {
+				Map<String, List<ChartObject>> stored = loader.maxByDate(store.loadPeaks(filter(), SORTING, quantity, FIELDS).get(), period,
+						TOTAL);
+				assertSameContent(loader.maxByDate(scan(quantity), period, TOTAL), stored, true);
+			}
+		}
+	}
+
+	@Test
+	public void unrecordedLaunchesAreNotServed() {
+		DateTime start = new DateTime(2016, 10, 5, 10, 0);
+		store.refresh(save(launch("1", 1, start, 3)));
+		Assert.assertTrue(store.loadSums(filter(), SORTING, 10, FIELDS).isPresent());
+
+		/* Another launch has been finished within window, but its bucket is not recalculated yet */
+		Launch unrecorded = save(launch("2", 2, start.plusHours(1), 5));
+		Assert.assertFalse(store.loadSums(filter(), SORTING, 10, FIELDS).isPresent());
+
+		store.refresh(unrecorded);
+		Assert.assertEquals(8, store.loadSums(filter(), SORTING, 10, FIELDS).get().column(TOTAL)[0], 0);
+	}
+
+	@Test
+	public void deletedLaunchIsRemovedFromBucket() {
+		DateTime start = new DateTime(2016, 10, 5, 10, 0);
+		Launch first = save(launch("1", 1, start, 3));
+		store.refresh(Arrays.asList(first, save(launch("2", 2, start.plusHours(1), 5))));
+
+		mongoTemplate.remove(first);
+		store.refresh(first);
+
+		ChartColumns rows = store.loadSums(filter(), SORTING, 10, FIELDS).get();
+		Assert.assertEquals(1, rows.size());
+		Assert.assertEquals(5, rows.column(TOTAL)[0], 0);
+	}
+
+	@Test
+	public void backfillBuildsBucketsOfAllSeries() {
+		List<Launch> launches = launches();
+		launches.forEach(this::save);
+		Launch other = launch("other", 1, new DateTime(2016, 10, 5, 10, 0), 3);
+		other.setName("other");
+		save(other);
+		Assert.assertFalse(store.loadSums(filter(), SORTING, 100, FIELDS).isPresent());
+
+		store.backfill();
+
+		Assert.assertEquals(1, mongoTemplate.count(query(where("name").is("other")), LaunchTrendStore.Bucket.class));
+		for (Period period : Period.values()) {
+			assertSameContent(loader.groupByDate(scan(100), period),
+					loader.groupByDate(store.loadSums(filter(), SORTING, 100, FIELDS).get(), period), false);
+		}
+	}
+
+	@Test
+	public void backfillDoesNotOverwriteRecordedBuckets() {
+		DateTime start = new DateTime(2016, 10, 5, 10, 0);
+		Launch launch = save(launch("1", 1, start, 3));
+		store.refresh(launch);
+		/* Bucket is changed after backfill has read launches */
+		mongoTemplate.updateFirst(query(where("name").is(NAME)), new Update().set(TOTAL, 42), LaunchTrendStore.Bucket.class);
+
+		store.backfill();
+
+		Assert.assertEquals(42, store.loadSums(filter(), SORTING, 10, FIELDS).get().column(TOTAL)[0], 0);
+	}
+
+	@Test
+	public void completedBackfillIsNotRepeated() {
+		store.backfill();
+		save(launch("1", 1, new DateTime(2016, 10, 5, 10, 0), 3));
+
+		store.backfill();
+
+		Assert.assertEquals(0, mongoTemplate.count(new Query(), LaunchTrendStore.Bucket.class));
+	}
+
+	@Test
+	public void notSeriesFilterIsNotServed() {
+		recordLaunches();
+		Filter filter = filter();
+		filter.addCondition(new FilterCondition(Condition.HAS, false, "smoke", Launch.TAGS));
+		Assert.assertFalse(store.loadSums(filter, SORTING, 10, FIELDS).isPresent());
+
+		/* The oldest launches are requested */
+		Assert.assertFalse(store.loadSums(filter(), new Sort(Sort.Direction.ASC, "start_time"), 10, FIELDS).isPresent());
+	}
+
+	/**
+	 * Launches of several days and months. Days have several launches with
+	 * equal totals, so peak is chosen by start time
+	 */
+	private static List<Launch> launches() {
+		DateTime start = new DateTime(2016, 9, 28, 10, 0);
+		List<Launch> launches = new ArrayList<>();
+		int number = 1;
+		for (int day : Arrays.asList(0, 1, 3, 4, 10, 35)) {
+			for (int hour = 0; hour < 3; hour++) {
+				launches.add(launch(String.valueOf(number), number, start.plusDays(day).plusHours(hour), 2 + (number % 2)));
+				number++;
+			}
+		}
+		return launches;
+	}
+
+	private void recordLaunches() {
+		List<Launch> launches = launches();
+		launches.forEach(this::save);
+		store.refresh(launches);
+	}
+
+	/**
+	 * Rows the same as statistics document handler builds from the newest launches
+	 */
+	private List<ChartObject> scan(int quantity) {
+		return mongoTemplate.find(query(where("name").is(NAME)).with(new Sort(Sort.Direction.DESC, "startTime")).limit(quantity),
+				Launch.class).stream().map(launch -> {
+			ChartObject row = new ChartObject();
+			row.setId(launch.getId());
+			row.setName(launch.getName());
+			row.setNumber(String.valueOf(launch.getNumber()));
+			row.setStartTime(String.valueOf(launch.getStartTime().getTime()));
+			Map<String, String> values = new HashMap<>();
+			values.put(TOTAL, String.valueOf(launch.getStatistics().getExecutionCounter().getTotal()));
+			values.put(PASSED, String.valueOf(launch.getStatistics().getExecutionCounter().getPassed()));
+			row.setValues(values);
+			return row;
+		}).collect(Collectors.toList());
+	}
+
+	private static void assertSameContent(Map<String, List<ChartObject>> expected, Map<String, List<ChartObject>> actual, boolean peaks) {
+		Assert.assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(actual.keySet()));
+		expected.forEach((date, rows) -> {
+			ChartObject expectedRow = rows.get(0);
+			ChartObject actualRow = actual.get(date).get(0);
+			Assert.assertEquals(date, expectedRow.getValues(), actualRow.getValues());
+			if (peaks) {
+				Assert.assertEquals(date, expectedRow.getId(), actualRow.getId());
+				Assert.assertEquals(date, expectedRow.getNumber(), actualRow.getNumber());
+				Assert.assertEquals(date, expectedRow.getStartTime(), actualRow.getStartTime());
+			}
+		});
+	}
+
+	private Launch save(Launch launch) {
+		mongoTemplate.save(launch);
+		return launch;
+	}
+
+	private static Filter filter() {
+		Filter filter = new Filter(Launch.class, Condition.EQUALS, false, PROJECT, Launch.PROJECT);
+		filter.addCondition(new FilterCondition(Condition.EQUALS, false, NAME, Launch.NAME));
+		filter.addCondition(new FilterCondition(Condition.EQUALS, false, Mode.DEFAULT.toString(), Launch.MODE_CRITERIA));
+		filter.addCondition(FilterConditionUtils.LAUNCH_NOT_IN_PROGRESS());
+		return filter;
+	}
+
+	private static Launch launch(String id, long number, DateTime start, int total) {
+		Launch launch = new Launch();
+		launch.setId(id);
+		launch.setProjectRef(PROJECT);
+		launch.setName(NAME);
+		launch.setNumber(number);
+		launch.setMode(Mode.DEFAULT);
+		launch.setStatus(Status.PASSED);
+		launch.setStartTime(start.toDate());
+		launch.setStatistics(
+				new Statistics(new ExecutionCounter(total, total - 1, 1, 0), new StatisticsCounters().toStatistics().getIssueCounter()));
+		return launch;
+	}
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.ta.reportportal.core.widget.content;
+
+import com.epam.ta.reportportal.core.statistics.StatisticsCounters;
+import com.epam.ta.reportportal.core.widget.content.MostFailedTestCasesFilterStrategy.ComplexValue;
+import com.epam.ta.reportportal.database.entity.Launch;
+import com.epam.ta.reportportal.database.entity.item.TestItem;
+import com.epam.ta.reportportal.database.entity.statistics.ExecutionCounter;
+import com.epam.ta.reportportal.database.entity.statistics.Statistics;
+import com.epam.ta.reportportal.events.ItemIssueTypeDefined;
+import com.epam.ta.reportportal.ws.model.issue.IssueDefinition;
+import com.epam.ta.reportportal.ws.model.launch.Mode;
+import com.google.common.collect.ImmutableMap;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+
+import static org.mockito.Mockito.*;
+
+public class MostFailedTestCasesStoreTest {
+
+	private static final String PROJECT = "project";
+	private static final String NAME = "launch";
+	private static final String FAILED = "statistics.executionCounter.failed";
+
+	private MongoOperations mongoOperations;
+	private List<Runnable> tasks;
+	private MostFailedTestCasesStore store;
+
+	@Before
+	public void before() {
+		mongoOperations = mock(MongoOperations.class);
+		tasks = new ArrayList<>();
+		store = new MostFailedTestCasesStore(mongoOperations, tasks::add, 500);
+	}
+
+	@Test
+	public void unsupportedCriteriaNotServed() {
+		Assert.assertFalse(store.load(PROJECT, NAME, Collections.singletonList("1"), "statistics.issueCounter.productBug.PB001", 20)
+				.isPresent());
+		verifyZeroInteractions(mongoOperations);
+	}
+
+	@Test
+	public void notRecordedWindowNotServed() {
+		when(mongoOperations.find(any(Query.class), eq(Launch.class))).thenReturn(Collections.singletonList(launch(Mode.DEFAULT)));
+
+		Assert.assertFalse(store.load(PROJECT, NAME, Collections.singletonList("1"), FAILED, 20).isPresent());
+		verify(mongoOperations, never()).aggregate(any(Aggregation.class), eq(MostFailedTestCasesStore.TestCaseRuns.class),
+				eq(DBObject.class));
+	}
+
+	@Test
+	public void debugLaunchNotRecorded() {
+		store.record(launch(Mode.DEBUG));
+		verifyZeroInteractions(mongoOperations);
+	}
+
+	@Test
+	public void runsRecordedPerTestCase() {
+		BulkOperations bulk = mock(BulkOperations.class);
+		when(mongoOperations.bulkOps(BulkOperations.BulkMode.ORDERED, MostFailedTestCasesStore.TestCaseRuns.class)).thenReturn(bulk);
+		/* The same test case may be run several times within launch */
+		when(mongoOperations.find(any(Query.class), eq(TestItem.class))).thenReturn(
+				Arrays.asList(item("login", 1, 0, 100L), item("login", 0, 1, 300L), item("logout", 0, 1, 200L)));
+
+		store.record(launch(Mode.DEFAULT));
+
+		ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+		ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+		verify(bulk, times(2)).upsert(any(Query.class), any(Update.class));
+		verify(bulk, times(4)).updateOne(queries.capture(), updates.capture());
+		verify(bulk).execute();
+		Map<Object, Object> flags = new HashMap<>();
+		Map<Object, Object> startTimes = new HashMap<>();
+		for (int i = 0; i < queries.getAllValues().size(); i++) {
+			DBObject query = queries.getAllValues().get(i).getQueryObject();
+			DBObject update = updates.getAllValues().get(i).getUpdateObject();
+			if (update.containsField("$push")) {
+				/* Run is pushed only if there is no run of launch yet */
+				Assert.assertEquals(new BasicDBObject("$ne", 1L), query.get("runs.n"));
+				DBObject push = (DBObject) ((DBObject) update.get("$push")).get("runs");
+				Assert.assertEquals(-500, push.get("$slice"));
+			} else {
+				/* Run of launch is updated in place */
+				Assert.assertEquals(1L, query.get("runs.n"));
+				DBObject set = (DBObject) update.get("$set");
+				flags.put(query.get("_id"), set.get("runs.$.f"));
+				startTimes.put(query.get("_id"), set.get("runs.$.t"));
+			}
+		}
+		Assert.assertEquals(ImmutableMap.of(PROJECT + "|" + NAME + "|login", 1, PROJECT + "|" + NAME + "|logout", 0), flags);
+		Assert.assertEquals(ImmutableMap.of(PROJECT + "|" + NAME + "|login", 300L, PROJECT + "|" + NAME + "|logout", 200L), startTimes);
+	}
+
+	@Test
+	public void recordedLaunchNumbersTrimmed() {
+		when(mongoOperations.find(any(Query.class), eq(TestItem.class))).thenReturn(Collections.emptyList());
+
+		store.record(launch(Mode.DEFAULT));
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+		verify(mongoOperations, times(2)).updateFirst(query.capture(), update.capture(),
+				eq(MostFailedTestCasesStore.RecordedLaunches.class));
+		/* The first update marks launch as not recorded, the second one records it */
+		Assert.assertEquals(new BasicDBObject("$ne", 1L), query.getAllValues().get(1).getQueryObject().get("numbers"));
+		DBObject push = (DBObject) ((DBObject) update.getAllValues().get(1).getUpdateObject().get("$push")).get("numbers");
+		Assert.assertEquals(-500, push.get("$slice"));
+	}
+
+	@Test
+	public void runsCountedOnDatabaseSide() {
+		when(mongoOperations.find(any(Query.class), eq(Launch.class))).thenReturn(Collections.singletonList(launch(Mode.DEFAULT)));
+		MostFailedTestCasesStore.RecordedLaunches recorded = new MostFailedTestCasesStore.RecordedLaunches();
+		ReflectionTestUtils.setField(recorded, "numbers", Arrays.asList(1L, 2L));
+		when(mongoOperations.findById(PROJECT + "|" + NAME, MostFailedTestCasesStore.RecordedLaunches.class)).thenReturn(recorded);
+		DBObject counted = new BasicDBObject("_id", "login").append("total", 3).append("failed", 2).append("lastFailure", 100L);
+		when(mongoOperations.aggregate(any(Aggregation.class), eq(MostFailedTestCasesStore.TestCaseRuns.class), eq(DBObject.class)))
+				.thenReturn(new AggregationResults<>(Collections.singletonList(counted), new BasicDBObject()));
+
+		Map<String, ComplexValue> result = store.load(PROJECT, NAME, Collections.singletonList("1"), FAILED, 20).get();
+
+		Assert.assertEquals(Collections.singletonMap("login", new ComplexValue(2, 100L, 3)), result);
+		ArgumentCaptor<Aggregation> aggregation = ArgumentCaptor.forClass(Aggregation.class);
+		verify(mongoOperations).aggregate(aggregation.capture(), eq(MostFailedTestCasesStore.TestCaseRuns.class), eq(DBObject.class));
+		List<?> pipeline = (List<?>) aggregation.getValue().toDbObject("testCaseRuns", Aggregation.DEFAULT_CONTEXT).get("pipeline");
+		Assert.assertEquals(new BasicDBObject("$unwind", "$runs"), pipeline.get(2));
+		Assert.assertEquals(new BasicDBObject("$match", new BasicDBObject("runs.n", new BasicDBObject("$in", Collections.singletonList(1L)))),
+				pipeline.get(3));
+		Assert.assertEquals(new BasicDBObject("$limit", 20), pipeline.get(pipeline.size() - 1));
+	}
+
+	@Test
+	public void issueDefinitionRecordedInBackground() {
+		Launch launch = launch(Mode.DEFAULT);
+		when(mongoOperations.find(any(Query.class), eq(Launch.class))).thenReturn(Collections.singletonList(launch));
+		when(mongoOperations.findById("1", Launch.class)).thenReturn(launch);
+
+		store.onIssueTypeDefined(issueDefined());
+		store.onIssueTypeDefined(issueDefined());
+
+		/* Launch is not served until recorded again */
+		verify(mongoOperations, times(2)).updateFirst(any(Query.class), any(Update.class),
+				eq(MostFailedTestCasesStore.RecordedLaunches.class));
+		verify(mongoOperations, never()).find(any(Query.class), eq(TestItem.class));
+		Assert.assertEquals(1, tasks.size());
+
+		tasks.get(0).run();
+		verify(mongoOperations).find(any(Query.class), eq(TestItem.class));
+		verify(mongoOperations).upsert(any(Query.class), any(Update.class), eq(MostFailedTestCasesStore.RecordedLaunches.class));
+		verify(mongoOperations, times(4)).updateFirst(any(Query.class), any(Update.class),
+				eq(MostFailedTestCasesStore.RecordedLaunches.class));
+	}
+
+	private static ItemIssueTypeDefined issueDefined() {
+		TestItem item = new TestItem();
+		item.setLaunchRef("1");
+		return new ItemIssueTypeDefined(Collections.singletonMap(new IssueDefinition(), item), "user", PROJECT);
+	}
+
+	private static TestItem item(String name, int failed, int passed, long startTime) {
+		TestItem item = new TestItem();
+		item.setName(name);
+		item.setStartTime(new Date(startTime));
+		item.setStatistics(new Statistics(new ExecutionCounter(failed + passed, passed, failed, 0),
+				new StatisticsCounters().toStatistics().getIssueCounter()));
+		return item;
+	}
+
+	private static Launch launch(Mode mode) {
+		Launch launch = new Launch();
+		launch.setId("1");
+		launch.setProjectRef(PROJECT);
+		launch.setName(NAME);
+		launch.setNumber(1L);
+		launch.setMode(mode);
+		launch.setStartTime(new Date());
+		return launch;
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.ta.reportportal.core.widget.content;
+
+import com.epam.ta.reportportal.core.widget.content.StatisticBasedContentLoader.Period;
+import com.epam.ta.reportportal.ws.model.widget.ChartObject;
+import org.joda.time.DateTime;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+public class StatisticBasedContentLoaderTest {
+
+	private static final String TOTAL = "statistics.executionCounter.total";
+	private static final String PASSED = "statistics.executionCounter.passed";
+	private static final DateTime DAY = new DateTime(2016, 10, 5, 10, 0);
+
+	private final StatisticBasedContentLoader loader = new StatisticBasedContentLoader();
+
+	@Test
+	public void groupByDateSumsRowsOfDay() {
+		List<ChartObject> input = Arrays.asList(row("1", DAY, 3), row("2", DAY.plusHours(1), 4), row("3", DAY.plusDays(2), 5));
+
+		Map<String, List<ChartObject>> result = loader.groupByDate(input, Period.DAY);
+
+		Assert.assertEquals(Arrays.asList("2016-10-05", "2016-10-06", "2016-10-07"), new ArrayList<>(result.keySet()));
+		Assert.assertEquals("7.0", result.get("2016-10-05").get(0).getValues().get(TOTAL));
+		Assert.assertEquals("0", result.get("2016-10-06").get(0).getValues().get(TOTAL));
+		Assert.assertEquals("5.0", result.get("2016-10-07").get(0).getValues().get(TOTAL));
+	}
+
+	@Test
+	public void maxByDateChoosesMaxRowOfDay() {
+		List<ChartObject> input = Arrays.asList(row("1", DAY, 3), row("2", DAY.plusHours(1), 4), row("3", DAY.plusHours(2), 2));
+
+		Map<String, List<ChartObject>> result = loader.maxByDate(input, Period.DAY, TOTAL);
+
+		Assert.assertEquals("2", result.get("2016-10-05").get(0).getId());
+	}
+
+	@Test
+	public void groupByDateKeepsAbsentValuesAbsent() {
+		ChartObject absent = row("2", DAY.plusHours(1), 0);
+		absent.getValues().put(TOTAL, "n/a");
+		ChartObject other = row("3", DAY.plusDays(1), 5);
+		other.getValues().remove(TOTAL);
+		other.getValues().put(PASSED, "5");
+		List<ChartObject> input = Arrays.asList(row("1", DAY, 3), absent, other);
+		input.get(0).getValues().put(PASSED, "2");
+
+		Map<String, List<ChartObject>> result = loader.groupByDate(input, Period.DAY);
+
+		Assert.assertEquals("3.0", result.get("2016-10-05").get(0).getValues().get(TOTAL));
+		Assert.assertEquals("2.0", result.get("2016-10-05").get(0).getValues().get(PASSED));
+		Assert.assertFalse(result.get("2016-10-06").get(0).getValues().containsKey(TOTAL));
+		Assert.assertEquals("5.0", result.get("2016-10-06").get(0).getValues().get(PASSED));
+	}
+
+	@Test
+	public void groupByDateOfNumericColumns() {
+		long[] startTimes = { DAY.getMillis(), DAY.plusHours(1).getMillis() };
+		List<Map<String, Integer>> values = Arrays.asList(Collections.singletonMap(TOTAL, 3), Collections.emptyMap());
+		ChartColumns columns = ChartColumns.of(Arrays.asList(TOTAL, PASSED), startTimes, values);
+
+		Map<String, List<ChartObject>> result = loader.groupByDate(columns, Period.DAY);
+
+		Assert.assertEquals(Collections.singletonMap(TOTAL, "3.0"), result.get("2016-10-05").get(0).getValues());
+	}
+
+	@Test
+	public void maxByDateSkipsAbsentValues() {
+		ChartObject absent = row("2", DAY.plusHours(1), 0);
+		absent.getValues().remove(TOTAL);
+		List<ChartObject> input = Arrays.asList(row("1", DAY, 3), absent);
+
+		Map<String, List<ChartObject>> result = loader.maxByDate(input, Period.DAY, TOTAL);
+
+		Assert.assertEquals("1", result.get("2016-10-05").get(0).getId());
+	}
+
+	@Test
+	public void emptyInput() {
+		Assert.assertTrue(loader.groupByDate(Collections.emptyList(), Period.DAY).isEmpty());
+	}
+
+	private static ChartObject row(String id, DateTime startTime, int total) {
+		ChartObject object = new ChartObject();
+		object.setId(id);
+		object.setStartTime(String.valueOf(startTime.getMillis()));
+		object.setValues(new HashMap<>(Collections.singletonMap(TOTAL, String.valueOf(total))));
+		return object;
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.epam.ta.reportportal.core.widget.content;
+
+import com.epam.ta.reportportal.database.entity.item.TestItem;
+import com.epam.ta.reportportal.database.search.Condition;
+import com.epam.ta.reportportal.database.search.Filter;
+import com.epam.ta.reportportal.database.search.FilterCondition;
+import com.epam.ta.reportportal.ws.model.widget.ChartObject;
+import com.github.fakemongo.Fongo;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.stream.Collectors.toList;
+
+public class UniqueBugContentLoaderTest {
+
+	private static final String LAUNCH = "launch";
+	private static final String OTHER_LAUNCH = "other";
+
+	private UniqueBugContentLoader loader;
+
+	@Before
+	public void before() {
+		MongoTemplate mongoTemplate = new MongoTemplate(new Fongo("unique-bug-content-loader").getMongo(), "reportportal");
+		DBCollection items = mongoTemplate.getCollection("testItem");
+		items.insert(item("item1", LAUNCH, ticket("BUG-1", 100L, "first")));
+		items.insert(item("item2", LAUNCH, ticket("BUG-1", 300L, "second"), ticket("BUG-2", 200L, "second")));
+		items.insert(item("item3", LAUNCH, ticket("BUG-2", 150L, "third")));
+		items.insert(item("item4", LAUNCH));
+		items.insert(item("item5", OTHER_LAUNCH, ticket("BUG-3", 500L, "other")));
+
+		loader = new UniqueBugContentLoader();
+		ReflectionTestUtils.setField(loader, "mongoOperations", mongoTemplate);
+		ReflectionTestUtils.setField(loader, "maxTickets", 1000);
+		ReflectionTestUtils.setField(loader, "maxItems", 100);
+	}
+
+	@Test
+	public void itemsGroupedByTicket() {
+		Map<String, List<ChartObject>> content = load();
+
+		/* The most recently submitted ticket first */
+		Assert.assertEquals(ImmutableList.of("BUG-2", "BUG-1"), ImmutableList.copyOf(content.keySet()));
+		Assert.assertEquals(Sets.newHashSet("item2", "item3"), Sets.newHashSet(ids(content.get("BUG-2"))));
+		Assert.assertEquals(Sets.newHashSet("item1", "item2"), Sets.newHashSet(ids(content.get("BUG-1"))));
+
+		/* Ticket is described by its earliest submission */
+		ChartObject item = content.get("BUG-1").get(0);
+		Assert.assertEquals("100", item.getValues().get("submitDate"));
+		Assert.assertEquals("first", item.getValues().get("submitter"));
+		Assert.assertEquals(LAUNCH, item.getValues().get("launchRef"));
+	}
+
+	@Test
+	public void ticketsAreLimited() {
+		ReflectionTestUtils.setField(loader, "maxTickets", 1);
+
+		Map<String, List<ChartObject>> content = load();
+
+		Assert.assertEquals(Collections.singleton("BUG-2"), content.keySet());
+	}
+
+	@Test
+	public void itemsOfTicketAreLimited() {
+		ReflectionTestUtils.setField(loader, "maxItems", 1);
+
+		Map<String, List<ChartObject>> content = load();
+
+		Assert.assertEquals(2, content.size());
+		content.values().forEach(items -> Assert.assertEquals(1, items.size()));
+	}
+
+	private Map<String, List<ChartObject>> load() {
+		Filter filter = new Filter(TestItem.class, Sets.newHashSet(new FilterCondition(Condition.IN, false, LAUNCH, TestItem.LAUNCH_CRITERIA)));
+		filter.addCondition(new FilterCondition(Condition.EXISTS, false, "true", TestItem.EXTERNAL_SYSTEM_ISSUES));
+		return loader.loadContent(filter, null, 0, Collections.emptyList(), Collections.emptyList(), Collections.emptyMap());
+	}
+
+	private static List<String> ids(List<ChartObject> items) {
+		return items.stream().map(ChartObject::getId).collect(toList());
+	}
+
+	private static BasicDBObject item(String id, String launch, BasicDBObject... tickets) {
+		BasicDBObject item = new BasicDBObject("_id", id).append("launchRef", launch);
+		if (tickets.length > 0) {
+			item.append("issue", new BasicDBObject("externalSystemIssues", Arrays.asList(tickets)));
+		}
+		return item;
+	}
+
+	private static BasicDBObject ticket(String id, long submitDate, String submitter) {
+		return new BasicDBObject("ticketId", id).append("submitDate", submitDate).append("submitter", submitter).append("url", "http://" + id);
+	}
+}
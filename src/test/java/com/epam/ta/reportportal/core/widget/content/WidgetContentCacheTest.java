@@ -0,0 +1,103 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.ta.reportportal.core.widget.content;
+
+import com.epam.ta.reportportal.database.entity.Launch;
+import com.epam.ta.reportportal.database.entity.Project;
+import com.epam.ta.reportportal.database.entity.widget.ContentOptions;
+import com.epam.ta.reportportal.database.entity.widget.Widget;
+import com.epam.ta.reportportal.events.LaunchFinishedEvent;
+import com.epam.ta.reportportal.events.WidgetUpdatedEvent;
+import com.epam.ta.reportportal.ws.model.widget.ChartObject;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class WidgetContentCacheTest {
+
+	private static final String PROJECT = "project";
+	private static final String WIDGET_ID = "widget";
+
+	private WidgetContentCache cache;
+	private ContentOptions options;
+	private AtomicInteger loads;
+	private Supplier<Map<String, List<ChartObject>>> loader;
+
+	@Before
+	public void before() {
+		cache = new WidgetContentCache(100, 300);
+		options = new ContentOptions();
+		options.setGadgetType(GadgetTypes.LAUNCH_STATISTICS.getType());
+		options.setContentFields(Collections.singletonList("statistics$executions$total"));
+		loads = new AtomicInteger();
+		loader = () -> {
+			loads.incrementAndGet();
+			return new HashMap<>();
+		};
+	}
+
+	@Test
+	public void contentLoadedOnce() {
+		cache.get(PROJECT, WIDGET_ID, Optional.empty(), options, loader);
+		cache.get(PROJECT, WIDGET_ID, Optional.empty(), options, loader);
+
+		Assert.assertEquals(1, loads.get());
+		Assert.assertEquals(1, cache.getStats().hitCount());
+		Assert.assertEquals(1, cache.getStats().missCount());
+	}
+
+	@Test
+	public void differentOptionsAreCachedSeparately() {
+		cache.get(PROJECT, WIDGET_ID, Optional.empty(), options, loader);
+		options.setItemsCount(50);
+		cache.get(PROJECT, WIDGET_ID, Optional.empty(), options, loader);
+
+		Assert.assertEquals(2, loads.get());
+	}
+
+	@Test
+	public void invalidatedOnLaunchFinish() {
+		cache.get(PROJECT, WIDGET_ID, Optional.empty(), options, loader);
+		Project project = new Project();
+		project.setName(PROJECT);
+		cache.onLaunchFinished(new LaunchFinishedEvent(new Launch(), project));
+		cache.get(PROJECT, WIDGET_ID, Optional.empty(), options, loader);
+
+		Assert.assertEquals(2, loads.get());
+	}
+
+	@Test
+	public void invalidatedOnWidgetUpdate() {
+		cache.get(PROJECT, WIDGET_ID, Optional.empty(), options, loader);
+		cache.get(PROJECT, "another", Optional.empty(), options, loader);
+		Widget widget = new Widget();
+		widget.setId(WIDGET_ID);
+		cache.onWidgetUpdated(new WidgetUpdatedEvent(widget, null, "user"));
+		cache.get(PROJECT, WIDGET_ID, Optional.empty(), options, loader);
+		cache.get(PROJECT, "another", Optional.empty(), options, loader);
+
+		Assert.assertEquals(3, loads.get());
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.ta.reportportal.core.widget.content;
+
+import com.epam.ta.reportportal.database.entity.Launch;
+import com.epam.ta.reportportal.database.entity.Project;
+import com.epam.ta.reportportal.database.entity.widget.ContentOptions;
+import com.epam.ta.reportportal.events.LaunchAnalyzedEvent;
+import com.epam.ta.reportportal.events.LaunchFinishedEvent;
+import com.epam.ta.reportportal.ws.model.widget.ChartObject;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class WidgetContentSnapshotsTest {
+
+	private static final String PROJECT = "project";
+	private static final String WIDGET_ID = "widget";
+
+	private ContentOptions options;
+	private AtomicInteger loads;
+	private Supplier<Map<String, List<ChartObject>>> loader;
+	private List<Runnable> tasks;
+
+	@Before
+	public void before() {
+		options = new ContentOptions();
+		options.setGadgetType(GadgetTypes.LAUNCH_STATISTICS.getType());
+		options.setContentFields(Collections.singletonList("statistics$executions$total"));
+		loads = new AtomicInteger();
+		loader = () -> Collections.singletonMap("result", Collections.nCopies(loads.incrementAndGet(), new ChartObject()));
+		tasks = new ArrayList<>();
+	}
+
+	@Test
+	public void recomputedInBackgroundOnLaunchFinish() {
+		WidgetContentSnapshots snapshots = new WidgetContentSnapshots(tasks::add, 100, 600, 300, 60);
+		snapshots.get(PROJECT, WIDGET_ID, Optional.empty(), options, loader);
+		snapshots.onLaunchFinished(new LaunchFinishedEvent(new Launch(), project()));
+		snapshots.onLaunchFinished(new LaunchFinishedEvent(new Launch(), project()));
+
+		/* Previous snapshot is served until recomputation is done */
+		Assert.assertEquals(1, snapshots.get(PROJECT, WIDGET_ID, Optional.empty(), options, loader).get("result").size());
+		Assert.assertEquals(1, tasks.size());
+
+		tasks.forEach(Runnable::run);
+		Assert.assertEquals(2, snapshots.get(PROJECT, WIDGET_ID, Optional.empty(), options, loader).get("result").size());
+		Assert.assertEquals(2, loads.get());
+	}
+
+	@Test
+	public void recomputedInBackgroundOnLaunchAnalyzed() {
+		WidgetContentSnapshots snapshots = new WidgetContentSnapshots(tasks::add, 100, 600, 300, 60);
+		snapshots.get(PROJECT, WIDGET_ID, Optional.empty(), options, loader);
+		snapshots.onLaunchAnalyzed(new LaunchAnalyzedEvent(new Launch(), project()));
+
+		Assert.assertEquals(1, tasks.size());
+		tasks.forEach(Runnable::run);
+		Assert.assertEquals(2, snapshots.get(PROJECT, WIDGET_ID, Optional.empty(), options, loader).get("result").size());
+	}
+
+	@Test
+	public void loadedByRequestOnceStalenessExceeded() {
+		WidgetContentSnapshots snapshots = new WidgetContentSnapshots(tasks::add, 100, 600, 300, 0);
+		snapshots.get(PROJECT, WIDGET_ID, Optional.empty(), options, loader);
+		snapshots.onLaunchFinished(new LaunchFinishedEvent(new Launch(), project()));
+		sleep();
+
+		Assert.assertEquals(2, snapshots.get(PROJECT, WIDGET_ID, Optional.empty(), options, loader).get("result").size());
+	}
+
+	@Test
+	public void otherProjectsNotAffected() {
+		WidgetContentSnapshots snapshots = new WidgetContentSnapshots(tasks::add, 100, 600, 300, 60);
+		snapshots.get("another", WIDGET_ID, Optional.empty(), options, loader);
+		snapshots.onLaunchFinished(new LaunchFinishedEvent(new Launch(), project()));
+
+		Assert.assertTrue(tasks.isEmpty());
+	}
+
+	private static Project project() {
+		Project project = new Project();
+		project.setName(PROJECT);
+		return project;
+	}
+
+	private static void sleep() {
+		try {
+			Thread.sleep(5);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.ta.reportportal.events.handler;
+
+import com.epam.ta.reportportal.core.widget.content.LaunchTrendStore;
+import com.epam.ta.reportportal.core.widget.content.MostFailedTestCasesStore;
+import com.epam.ta.reportportal.database.dao.LaunchRepository;
+import com.epam.ta.reportportal.database.dao.ProjectRepository;
+import com.epam.ta.reportportal.database.entity.Launch;
+import com.epam.ta.reportportal.database.entity.Project;
+import com.epam.ta.reportportal.events.LaunchAnalyzedEvent;
+import com.epam.ta.reportportal.events.LaunchFinishedEvent;
+import com.mongodb.DBObject;
+import com.mongodb.WriteResult;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.mockito.Mockito.*;
+
+public class LaunchFinishQueueTest {
+
+	private static final String LAUNCH_ID = "launch";
+	private static final String PROJECT = "project";
+
+	private MongoOperations mongoOperations;
+	private LaunchFinishedEventHandler launchFinishedHandler;
+	private LaunchActivityHandler activityHandler;
+	private LaunchTrendStore launchTrendStore;
+	private MostFailedTestCasesStore mostFailedTestCasesStore;
+	private ApplicationEventPublisher eventPublisher;
+	private Launch launch;
+	private Project project;
+
+	@Before
+	public void before() {
+		launch = new Launch();
+		launch.setId(LAUNCH_ID);
+		project = new Project();
+		project.setName(PROJECT);
+
+		mongoOperations = mock(MongoOperations.class);
+		launchFinishedHandler = mock(LaunchFinishedEventHandler.class);
+		activityHandler = mock(LaunchActivityHandler.class);
+		launchTrendStore = mock(LaunchTrendStore.class);
+		mostFailedTestCasesStore = mock(MostFailedTestCasesStore.class);
+		eventPublisher = mock(ApplicationEventPublisher.class);
+		when(mongoOperations.updateFirst(any(Query.class), any(Update.class), eq(LaunchFinishQueue.Task.class))).thenReturn(
+				new WriteResult(1, true, null));
+	}
+
+	@Test
+	public void stagesExecutedInOrder() {
+		queue(Runnable::run).onLaunchFinished(new LaunchFinishedEvent(launch, project));
+
+		InOrder inOrder = inOrder(mongoOperations, launchFinishedHandler, launchTrendStore, mostFailedTestCasesStore, activityHandler);
+		inOrder.verify(mongoOperations).save(any(LaunchFinishQueue.Task.class));
+		inOrder.verify(launchFinishedHandler).analyze(launch, project);
+		inOrder.verify(launchTrendStore).refresh(launch);
+		inOrder.verify(mostFailedTestCasesStore).record(launch);
+		inOrder.verify(launchFinishedHandler).sendNotifications(eq(launch), eq(project), anyString());
+		inOrder.verify(activityHandler).onLaunchFinish(launch);
+		inOrder.verify(mongoOperations).remove(any(Query.class), eq(LaunchFinishQueue.Task.class));
+	}
+
+	@Test
+	public void analyzedEventPublishedAfterAnalysis() {
+		queue(Runnable::run).onLaunchFinished(new LaunchFinishedEvent(launch, project));
+
+		InOrder inOrder = inOrder(launchFinishedHandler, eventPublisher, launchTrendStore);
+		inOrder.verify(launchFinishedHandler).analyze(launch, project);
+		inOrder.verify(eventPublisher).publishEvent(any(LaunchAnalyzedEvent.class));
+		inOrder.verify(launchTrendStore).refresh(launch);
+	}
+
+	@Test
+	public void failedStageIsRetriedLater() {
+		doThrow(new RuntimeException("Analyzer failure")).when(launchFinishedHandler).analyze(launch, project);
+
+		queue(Runnable::run).onLaunchFinished(new LaunchFinishedEvent(launch, project));
+
+		verify(mongoOperations).updateFirst(any(Query.class), any(Update.class), eq(LaunchFinishQueue.Task.class));
+		verify(launchFinishedHandler, never()).sendNotifications(any(), any(), any());
+		verify(eventPublisher, never()).publishEvent(any(LaunchAnalyzedEvent.class));
+		verify(mongoOperations, never()).remove(any(Query.class), eq(LaunchFinishQueue.Task.class));
+	}
+
+	@Test
+	public void failedStageIsStoredAfterLastAttempt() {
+		doThrow(new RuntimeException("Analyzer failure")).when(launchFinishedHandler).analyze(launch, project);
+		LaunchFinishQueue.Task task = new LaunchFinishQueue.Task();
+		ReflectionTestUtils.setField(task, "launchId", LAUNCH_ID);
+		ReflectionTestUtils.setField(task, "projectRef", PROJECT);
+		ReflectionTestUtils.setField(task, "stage", LaunchFinishQueue.Stage.ANALYSIS);
+		ReflectionTestUtils.setField(task, "attempts", 2);
+
+		queue(Runnable::run).process(task);
+
+		ArgumentCaptor<LaunchFinishQueue.FailedStage> failed = ArgumentCaptor.forClass(LaunchFinishQueue.FailedStage.class);
+		verify(mongoOperations).save(failed.capture());
+		Assert.assertEquals(LAUNCH_ID, failed.getValue().getLaunchId());
+		Assert.assertEquals(LaunchFinishQueue.Stage.ANALYSIS, failed.getValue().getStage());
+		Assert.assertTrue(failed.getValue().getError().contains("Analyzer failure"));
+		/* The rest of stages are executed */
+		verify(activityHandler).onLaunchFinish(launch);
+		verify(mongoOperations).remove(any(Query.class), eq(LaunchFinishQueue.Task.class));
+	}
+
+	@Test
+	public void leaseIsRenewedWhileStageIsRunning() {
+		LaunchFinishQueue queue = queue(Runnable::run);
+		doAnswer(invocation -> {
+			queue.heartbeat();
+			return null;
+		}).when(launchFinishedHandler).analyze(launch, project);
+
+		queue.onLaunchFinished(new LaunchFinishedEvent(launch, project));
+
+		ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+		ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+		verify(mongoOperations, atLeastOnce()).updateFirst(queries.capture(), updates.capture(), eq(LaunchFinishQueue.Task.class));
+		/* The first update is made by heartbeat during analysis */
+		Assert.assertNotNull(queries.getAllValues().get(0).getQueryObject().get("leaseId"));
+		Assert.assertEquals(1, ((DBObject) updates.getAllValues().get(0).getUpdateObject().get("$set")).keySet().size());
+		Assert.assertTrue(((DBObject) updates.getAllValues().get(0).getUpdateObject().get("$set")).containsField("lockedUntil"));
+
+		/* Nothing is renewed once task is processed */
+		reset(mongoOperations);
+		queue.heartbeat();
+		verifyZeroInteractions(mongoOperations);
+	}
+
+	@Test
+	public void lostLeaseStopsProcessing() {
+		when(mongoOperations.updateFirst(any(Query.class), any(Update.class), eq(LaunchFinishQueue.Task.class))).thenReturn(
+				new WriteResult(0, false, null));
+
+		queue(Runnable::run).onLaunchFinished(new LaunchFinishedEvent(launch, project));
+
+		verify(launchFinishedHandler).analyze(launch, project);
+		verifyZeroInteractions(launchTrendStore, mostFailedTestCasesStore, activityHandler);
+		verify(mongoOperations, never()).remove(any(Query.class), eq(LaunchFinishQueue.Task.class));
+	}
+
+	@Test
+	public void finishRequestIsNotBlocked() {
+		queue(task -> {
+		}).onLaunchFinished(new LaunchFinishedEvent(launch, project));
+
+		verify(mongoOperations).save(any(LaunchFinishQueue.Task.class));
+		verifyZeroInteractions(launchFinishedHandler, launchTrendStore, mostFailedTestCasesStore, activityHandler);
+	}
+
+	private LaunchFinishQueue queue(TaskExecutor executor) {
+		LaunchRepository launchRepository = mock(LaunchRepository.class);
+		when(launchRepository.findOne(LAUNCH_ID)).thenReturn(launch);
+		ProjectRepository projectRepository = mock(ProjectRepository.class);
+		when(projectRepository.findOne(PROJECT)).thenReturn(project);
+		return new LaunchFinishQueue(mongoOperations, launchRepository, projectRepository, launchFinishedHandler, activityHandler,
+				launchTrendStore, mostFailedTestCasesStore, executor, eventPublisher);
+	}
+}
@@ -21,7 +21,6 @@
 package com.epam.ta.reportportal.events.handler;
 
 import com.epam.ta.reportportal.database.dao.FailReferenceResourceRepository;
-import com.epam.ta.reportportal.database.dao.LaunchRepository;
 import com.epam.ta.reportportal.database.dao.TestItemRepository;
 import com.epam.ta.reportportal.database.dao.UserRepository;
 import com.epam.ta.reportportal.database.entity.Launch;
@@ -39,10 +38,7 @@ import com.epam.ta.reportportal.util.email.MailServiceFactory;
 import com.epam.ta.reportportal.ws.controller.impl.TestItemController;
 import org.junit.Before;
 import org.junit.Test;
-import org.springframework.http.HttpMethod;
-import org.springframework.mock.web.MockHttpServletRequest;
 
-import javax.inject.Provider;
 import java.util.Collections;
 import java.util.Optional;
 
@@ -74,11 +70,9 @@ public class LaunchFinishedEventHandlerTest {
 		when(userRepository.findOne("user2")).thenReturn(user2);
 		when(userRepository.findOne("notExists")).thenReturn(null);
 
-		final Provider provider = mock(Provider.class);
-		when(provider.get()).thenReturn(new MockHttpServletRequest(HttpMethod.PUT.name(), "https://localhost:8443"));
 		emailService = mock(EmailService.class);
 		launchFinishedEventHandler = new LaunchFinishedEventHandler(mock(IIssuesAnalyzer.class), userRepository,
-				mock(TestItemRepository.class), provider, mock(LaunchRepository.class), new MailServiceFactory(null, null, null) {
+				mock(TestItemRepository.class), new MailServiceFactory(null, null, null) {
 			@Override
 			public Optional<EmailService> getDefaultEmailService() {
 				return Optional.of(emailService);
@@ -232,7 +226,7 @@ public class LaunchFinishedEventHandlerTest {
 		emailConfig.setEmailCases(singletonList(emailSenderCase));
 		configuration.setEmailConfig(emailConfig);
 		project.setConfiguration(configuration);
-		launchFinishedEventHandler.sendEmailRightNow(launch, project, emailService);
+		launchFinishedEventHandler.sendEmailRightNow(launch, project, emailService, "https://localhost:8443");
 		verify(emailService, times(1)).sendLaunchFinishNotification(anyVararg(), anyString(), any(Launch.class), any());
 	}
 
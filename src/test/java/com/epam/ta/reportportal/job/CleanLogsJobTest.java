@@ -0,0 +1,255 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.epam.ta.reportportal.job;
+
+import com.epam.ta.reportportal.database.entity.Launch;
+import com.epam.ta.reportportal.database.entity.Log;
+import com.epam.ta.reportportal.database.entity.item.TestItem;
+import com.epam.ta.reportportal.util.analyzer.ErrorLogSignatureCache;
+import com.mongodb.DBObject;
+import com.mongodb.WriteResult;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.time.Duration.ofDays;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollection;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+public class CleanLogsJobTest {
+
+	private static final String PROJECT = "project";
+	private static final int ITEMS_PER_LAUNCH = 3;
+
+	private MongoOperations mongoOperations;
+	private ErrorLogSignatureCache signatureCache;
+	private CleanLogsJob job;
+	/* Sizes of item batches logs are removed by */
+	private List<Integer> removedBatches;
+
+	@Before
+	public void before() {
+		mongoOperations = mock(MongoOperations.class);
+		signatureCache = mock(ErrorLogSignatureCache.class);
+		job = new CleanLogsJob();
+		ReflectionTestUtils.setField(job, "mongoOperations", mongoOperations);
+		ReflectionTestUtils.setField(job, "errorLogSignatureCache", signatureCache);
+		ReflectionTestUtils.setField(job, "launchBatchSize", 2);
+		ReflectionTestUtils.setField(job, "itemBatchSize", 2);
+
+		when(mongoOperations.stream(any(Query.class), eq(Launch.class))).thenAnswer(
+				invocation -> iterator(launches("launch1", "launch2", "launch3")));
+		/* Each launch has the same amount of items */
+		when(mongoOperations.stream(any(Query.class), eq(TestItem.class))).thenAnswer(invocation -> {
+			List<?> launchIds = in(((Query) invocation.getArguments()[0]).getQueryObject(), "launchRef");
+			return iterator(launchIds.stream().flatMap(
+					launchId -> IntStream.range(0, ITEMS_PER_LAUNCH).mapToObj(i -> item(launchId + "_item" + i))).collect(Collectors.toList()));
+		});
+		/* Each item has a single outdated log */
+		removedBatches = new ArrayList<>();
+		when(mongoOperations.remove(any(Query.class), eq(Log.class))).thenAnswer(invocation -> {
+			int items = in(((Query) invocation.getArguments()[0]).getQueryObject(), "testItemRef").size();
+			removedBatches.add(items);
+			return new WriteResult(items, false, null);
+		});
+	}
+
+	@Test
+	public void logsRemovedByBatches() {
+		long removed = job.removeOutdatedLogs(PROJECT, ofDays(30));
+
+		Assert.assertEquals(3 * ITEMS_PER_LAUNCH, removed);
+		/* Launches are processed by 2: items of 2 launches and then of the last one */
+		verify(mongoOperations, times(2)).stream(any(Query.class), eq(TestItem.class));
+		/* Items are processed by 2: 6 items of the first launches and 3 items of the last one */
+		Assert.assertEquals(Arrays.asList(2, 2, 2, 2, 1), removedBatches);
+		verify(signatureCache, times(5)).invalidateAll(anyCollection());
+	}
+
+	@Test
+	public void firstRunProcessesAllLaunches() {
+		Instant before = Instant.now();
+		job.removeOutdatedLogs(PROJECT, ofDays(30));
+
+		DBObject launchQuery = launchQuery();
+		Assert.assertFalse(launchQuery.containsField("$or"));
+		Date bound = (Date) ((DBObject) launchQuery.get("startTime")).get("$lt");
+		assertNear(before.minus(ofDays(30)), bound);
+
+		/* Logs are removed up to the same bound */
+		ArgumentCaptor<Query> removals = ArgumentCaptor.forClass(Query.class);
+		verify(mongoOperations, atLeastOnce()).remove(removals.capture(), eq(Log.class));
+		Assert.assertEquals(bound, ((DBObject) removals.getValue().getQueryObject().get("last_modified")).get("$lte"));
+
+		Assert.assertEquals(bound, ReflectionTestUtils.getField(savedCheckpoint(), "bound"));
+	}
+
+	@Test
+	public void launchesModifiedBeforeCheckpointSkipped() {
+		Date previous = Date.from(Instant.now().minus(ofDays(31)));
+		when(mongoOperations.findById(PROJECT, CleanLogsJob.Checkpoint.class)).thenReturn(new CleanLogsJob.Checkpoint(PROJECT, previous));
+
+		job.removeOutdatedLogs(PROJECT, ofDays(30));
+
+		/* Launches modified after previous bound (with margin) or never modified are processed */
+		List<?> conditions = (List<?>) launchQuery().get("$or");
+		Assert.assertEquals(2, conditions.size());
+		Date processed = (Date) ((DBObject) ((DBObject) conditions.get(1)).get("last_modified")).get("$gt");
+		Assert.assertEquals(Date.from(previous.toInstant().minus(ofDays(1))), processed);
+
+		/* Checkpoint moves forward */
+		Date bound = (Date) ReflectionTestUtils.getField(savedCheckpoint(), "bound");
+		Assert.assertTrue(bound.after(previous));
+	}
+
+	@Test
+	public void checkpointKeptOnceRetentionIncreased() {
+		Date previous = Date.from(Instant.now().minus(ofDays(30)));
+		when(mongoOperations.findById(PROJECT, CleanLogsJob.Checkpoint.class)).thenReturn(new CleanLogsJob.Checkpoint(PROJECT, previous));
+
+		/* Keep logs setting changed from 1 month to 3 months */
+		Instant before = Instant.now();
+		job.removeOutdatedLogs(PROJECT, ofDays(90));
+
+		DBObject launchQuery = launchQuery();
+		assertNear(before.minus(ofDays(90)), (Date) ((DBObject) launchQuery.get("startTime")).get("$lt"));
+		Assert.assertTrue(launchQuery.containsField("$or"));
+		/* Bound of previous run is later, so it's still the checkpoint */
+		Assert.assertEquals(previous, ReflectionTestUtils.getField(savedCheckpoint(), "bound"));
+	}
+
+	@Test
+	public void progressSavedPerBatch() {
+		job.removeOutdatedLogs(PROJECT, ofDays(30));
+
+		ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+		ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+		verify(mongoOperations, times(2)).upsert(queries.capture(), updates.capture(), eq(CleanLogsJob.Checkpoint.class));
+		Assert.assertEquals(PROJECT, queries.getValue().getQueryObject().get("_id"));
+
+		Date bound = (Date) ReflectionTestUtils.getField(savedCheckpoint(), "bound");
+		List<String> lastLaunches = new ArrayList<>();
+		for (Update update : updates.getAllValues()) {
+			DBObject set = (DBObject) update.getUpdateObject().get("$set");
+			Assert.assertEquals(bound, set.get("pendingBound"));
+			lastLaunches.add((String) set.get("lastLaunch"));
+		}
+		Assert.assertEquals(Arrays.asList("launch2", "launch3"), lastLaunches);
+	}
+
+	@Test
+	public void interruptedRunResumed() {
+		Date previous = Date.from(Instant.now().minus(ofDays(60)));
+		Date pending = Date.from(Instant.now().minus(ofDays(31)));
+		CleanLogsJob.Checkpoint checkpoint = new CleanLogsJob.Checkpoint(PROJECT, previous);
+		ReflectionTestUtils.setField(checkpoint, "pendingBound", pending);
+		ReflectionTestUtils.setField(checkpoint, "lastLaunch", "launch2");
+		when(mongoOperations.findById(PROJECT, CleanLogsJob.Checkpoint.class)).thenReturn(checkpoint);
+
+		job.removeOutdatedLogs(PROJECT, ofDays(30));
+
+		/* Interrupted run continues after the last processed launch with its own bound, then the new run starts */
+		ArgumentCaptor<Query> launchQueries = ArgumentCaptor.forClass(Query.class);
+		verify(mongoOperations, times(2)).stream(launchQueries.capture(), eq(Launch.class));
+		DBObject resumed = launchQueries.getAllValues().get(0).getQueryObject();
+		Assert.assertEquals("launch2", ((DBObject) resumed.get("_id")).get("$gt"));
+		Assert.assertEquals(pending, ((DBObject) resumed.get("startTime")).get("$lt"));
+		DBObject started = launchQueries.getAllValues().get(1).getQueryObject();
+		Assert.assertFalse(started.containsField("_id"));
+		Date processed = (Date) ((DBObject) ((DBObject) ((List<?>) started.get("$or")).get(1)).get("last_modified")).get("$gt");
+		Assert.assertEquals(Date.from(pending.toInstant().minus(ofDays(1))), processed);
+
+		ArgumentCaptor<CleanLogsJob.Checkpoint> saved = ArgumentCaptor.forClass(CleanLogsJob.Checkpoint.class);
+		verify(mongoOperations, times(2)).save(saved.capture());
+		Assert.assertEquals(pending, ReflectionTestUtils.getField(saved.getAllValues().get(0), "bound"));
+		Assert.assertNull(ReflectionTestUtils.getField(saved.getAllValues().get(1), "pendingBound"));
+	}
+
+	private DBObject launchQuery() {
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		verify(mongoOperations).stream(query.capture(), eq(Launch.class));
+		DBObject queryObject = query.getValue().getQueryObject();
+		Assert.assertEquals(PROJECT, queryObject.get("projectRef"));
+		return queryObject;
+	}
+
+	private CleanLogsJob.Checkpoint savedCheckpoint() {
+		ArgumentCaptor<CleanLogsJob.Checkpoint> checkpoint = ArgumentCaptor.forClass(CleanLogsJob.Checkpoint.class);
+		verify(mongoOperations).save(checkpoint.capture());
+		return checkpoint.getValue();
+	}
+
+	private static void assertNear(Instant expected, Date actual) {
+		Assert.assertTrue(Duration.between(expected, actual.toInstant()).abs().compareTo(Duration.ofMinutes(1)) < 0);
+	}
+
+	private static List<?> in(DBObject query, String field) {
+		return new ArrayList<>((Collection<?>) ((DBObject) query.get(field)).get("$in"));
+	}
+
+	private static List<Launch> launches(String... ids) {
+		return Arrays.stream(ids).map(id -> {
+			Launch launch = new Launch();
+			launch.setId(id);
+			return launch;
+		}).collect(Collectors.toList());
+	}
+
+	private static TestItem item(String id) {
+		TestItem item = new TestItem();
+		item.setId(id);
+		return item;
+	}
+
+	private static <T> CloseableIterator<T> iterator(List<T> elements) {
+		Iterator<T> iterator = elements.iterator();
+		return new CloseableIterator<T>() {
+			@Override
+			public void close() {
+			}
+
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+
+			@Override
+			public T next() {
+				return iterator.next();
+			}
+		};
+	}
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.epam.ta.reportportal.job;
+
+import com.github.fakemongo.Fongo;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoDbFactory;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static java.time.Duration.ofDays;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+public class CleanScreenshotsJobTest {
+
+	private static final String PROJECT = "project";
+	private static final String BUCKET = "attachments";
+
+	private MongoTemplate mongoTemplate;
+	private GridFsTemplate gridFs;
+	private CleanScreenshotsJob job;
+
+	@Before
+	public void before() {
+		SimpleMongoDbFactory factory = new SimpleMongoDbFactory(new Fongo("clean-screenshots-job").getMongo(), "reportportal");
+		mongoTemplate = spy(new MongoTemplate(factory));
+		/* Binary data storage may use any bucket */
+		gridFs = new GridFsTemplate(factory, mongoTemplate.getConverter(), BUCKET);
+		job = new CleanScreenshotsJob();
+		ReflectionTestUtils.setField(job, "mongoOperations", mongoTemplate);
+		ReflectionTestUtils.setField(job, "gridFsOperations", gridFs);
+		ReflectionTestUtils.setField(job, "batchSize", 2);
+	}
+
+	@Test
+	public void outdatedFilesRemovedByBatches() {
+		List<String> outdated = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			outdated.add(store(PROJECT, ofDays(10).toMillis()));
+		}
+		String fresh = store(PROJECT, 0);
+		String otherProject = store("other", ofDays(10).toMillis());
+
+		Assert.assertEquals(5, job.removeOutdatedFiles(PROJECT, ofDays(7).toMillis()));
+
+		/* Two full batches and the rest */
+		verify(mongoTemplate, times(3)).remove(any(Query.class), eq(BUCKET + ".files"));
+		verify(mongoTemplate, times(3)).remove(any(Query.class), eq(BUCKET + ".chunks"));
+
+		Assert.assertEquals(2, mongoTemplate.getCollection(BUCKET + ".files").count());
+		Assert.assertNotNull(gridFs.findOne(query(where("_id").is(new ObjectId(fresh)))));
+		Assert.assertEquals(2, mongoTemplate.getCollection(BUCKET + ".chunks").count());
+		/* Logs of removed files don't refer to them anymore */
+		for (String id : outdated) {
+			Assert.assertFalse(log(id).containsField("binary_content"));
+		}
+		Assert.assertTrue(log(fresh).containsField("binary_content"));
+		Assert.assertTrue(log(otherProject).containsField("binary_content"));
+	}
+
+	@Test
+	public void nothingRemovedWithoutOutdatedFiles() {
+		store(PROJECT, 0);
+
+		Assert.assertEquals(0, job.removeOutdatedFiles(PROJECT, ofDays(7).toMillis()));
+		Assert.assertEquals(1, mongoTemplate.getCollection(BUCKET + ".files").count());
+	}
+
+	/**
+	 * Stores file uploaded provided time ago and log which refers to it
+	 */
+	private String store(String project, long age) {
+		String id = gridFs.store(new ByteArrayInputStream(new byte[] { 1, 2, 3 }), "file", "image/png", new BasicDBObject("project", project))
+				.getId()
+				.toString();
+		mongoTemplate.getCollection(BUCKET + ".files").update(new BasicDBObject("_id", new ObjectId(id)),
+				new BasicDBObject("$set", new BasicDBObject("uploadDate", new Date(System.currentTimeMillis() - age))));
+		mongoTemplate.getCollection("log").insert(new BasicDBObject("_id", "log_" + id).append("binary_content", new BasicDBObject("id", id)));
+		return id;
+	}
+
+	private DBObject log(String fileId) {
+		return mongoTemplate.getCollection("log").findOne(new BasicDBObject("_id", "log_" + fileId));
+	}
+}
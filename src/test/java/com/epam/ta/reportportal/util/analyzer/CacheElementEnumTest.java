@@ -0,0 +1,37 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.ta.reportportal.util.analyzer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CacheElementEnumTest {
+
+	@Test
+	public void statusWithProgress() {
+		String value = CacheElementEnum.STARTED.withProgress(3, 10);
+		Assert.assertEquals("STARTED 3/10", value);
+		Assert.assertTrue(CacheElementEnum.STARTED.is(value));
+		Assert.assertTrue(CacheElementEnum.STARTED.is("started"));
+		Assert.assertFalse(CacheElementEnum.FINISHED.is(value));
+		Assert.assertFalse(CacheElementEnum.STARTED.is(null));
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.ta.reportportal.util.analyzer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+public class ErrorLogIndexTest {
+
+	private static final String TRACE = "java.lang.AssertionError: expected [200] but found [404]\n"
+			+ " at org.testng.Assert.fail(Assert.java:94)\n at org.testng.Assert.failNotEquals(Assert.java:513)\n"
+			+ " at com.example.tests.LoginTest.checkLogin(LoginTest.java:42)\n at sun.reflect.NativeMethodAccessorImpl.invoke0(Native Method)";
+
+	private static final String OTHER_TRACE = "java.lang.NullPointerException\n"
+			+ " at com.example.pages.CartPage.addProduct(CartPage.java:17)\n at com.example.tests.CartTest.addToCart(CartTest.java:30)\n"
+			+ " at org.junit.runners.model.FrameworkMethod$1.runReflectiveCall(FrameworkMethod.java:50)";
+
+	@Test
+	public void findSimilarIgnoresNumbers() {
+		ErrorLogIndex index = new ErrorLogIndex();
+		index.add("1", ErrorLogSignature.of(Collections.singletonList(OTHER_TRACE)));
+		index.add("2", ErrorLogSignature.of(Collections.singletonList(TRACE.replace("42", "45").replace("404", "500"))));
+
+		Optional<String> similar = index.findSimilar("current", ErrorLogSignature.of(Collections.singletonList(TRACE)), 95);
+		Assert.assertEquals(Optional.of("2"), similar);
+	}
+
+	@Test
+	public void findSimilarSkipsItself() {
+		ErrorLogIndex index = new ErrorLogIndex();
+		ErrorLogSignature signature = ErrorLogSignature.of(Collections.singletonList(TRACE));
+		index.add("1", signature);
+
+		Assert.assertFalse(index.findSimilar("1", signature, 95).isPresent());
+	}
+
+	@Test
+	public void differentNumberOfLogsIsNotSimilar() {
+		ErrorLogIndex index = new ErrorLogIndex();
+		index.add("1", ErrorLogSignature.of(Arrays.asList(TRACE, TRACE)));
+
+		Assert.assertTrue(index.candidates("current", ErrorLogSignature.of(Collections.singletonList(TRACE))).isEmpty());
+	}
+
+	@Test
+	public void belowAcceptRateIsNotSimilar() {
+		ErrorLogIndex index = new ErrorLogIndex();
+		index.add("1", ErrorLogSignature.of(Collections.singletonList(OTHER_TRACE)));
+
+		Assert.assertFalse(index.findSimilar("current", ErrorLogSignature.of(Collections.singletonList(TRACE)), 95).isPresent());
+	}
+
+	@Test
+	public void itemsWithoutErrorsAreNotIndexed() {
+		ErrorLogIndex index = new ErrorLogIndex();
+		index.add("1", ErrorLogSignature.of(Collections.emptyList()));
+		Assert.assertEquals(0, index.size());
+	}
+}
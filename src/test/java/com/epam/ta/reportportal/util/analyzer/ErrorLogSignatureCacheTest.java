@@ -0,0 +1,98 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.ta.reportportal.util.analyzer;
+
+import com.epam.ta.reportportal.database.dao.LogRepository;
+import com.epam.ta.reportportal.database.entity.Log;
+import com.github.fakemongo.Fongo;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Collections;
+
+import static org.mockito.Mockito.*;
+
+public class ErrorLogSignatureCacheTest {
+
+	private static final String ITEM_ID = "item";
+
+	private MongoTemplate mongoTemplate;
+
+	@Before
+	public void before() {
+		mongoTemplate = new MongoTemplate(new Fongo("error-log-signature").getMongo(), "reportportal");
+	}
+
+	@Test
+	public void signatureLoadedOnce() {
+		LogRepository logRepository = logRepositoryMock("Error in line 12");
+		ErrorLogSignatureCache cache = new ErrorLogSignatureCache(logRepository, mongoTemplate, 1000);
+
+		ErrorLogSignature signature = cache.get(ITEM_ID);
+		Assert.assertEquals(Collections.singletonList("Error in line "), signature.getMessages());
+		Assert.assertSame(signature, cache.get(ITEM_ID));
+		verify(logRepository, times(1)).findTestItemErrorLogs(ITEM_ID);
+	}
+
+	@Test
+	public void signatureReloadedAfterInvalidation() {
+		LogRepository logRepository = logRepositoryMock("Error");
+		ErrorLogSignatureCache cache = new ErrorLogSignatureCache(logRepository, mongoTemplate, 1000);
+
+		cache.get(ITEM_ID);
+		cache.invalidateAll(Collections.singletonList(ITEM_ID));
+		cache.get(ITEM_ID);
+		verify(logRepository, times(2)).findTestItemErrorLogs(ITEM_ID);
+	}
+
+	@Test
+	public void storedSignatureSurvivesRestart() {
+		LogRepository logRepository = logRepositoryMock("Error in line 12");
+		ErrorLogSignature signature = new ErrorLogSignatureCache(logRepository, mongoTemplate, 1000).get(ITEM_ID);
+
+		ErrorLogSignature restored = new ErrorLogSignatureCache(logRepository, mongoTemplate, 1000).get(ITEM_ID);
+		Assert.assertEquals(signature.getMessages(), restored.getMessages());
+		Assert.assertArrayEquals(signature.getMinHash(), restored.getMinHash());
+		verify(logRepository, times(1)).findTestItemErrorLogs(ITEM_ID);
+	}
+
+	@Test
+	public void storedSignatureRemovedOnInvalidation() {
+		LogRepository logRepository = logRepositoryMock("Error");
+		ErrorLogSignatureCache cache = new ErrorLogSignatureCache(logRepository, mongoTemplate, 1000);
+
+		cache.get(ITEM_ID);
+		cache.invalidate(ITEM_ID);
+		Assert.assertNull(mongoTemplate.findById(ITEM_ID, ErrorLogSignatureCache.StoredSignature.class));
+		new ErrorLogSignatureCache(logRepository, mongoTemplate, 1000).get(ITEM_ID);
+		verify(logRepository, times(2)).findTestItemErrorLogs(ITEM_ID);
+	}
+
+	private static LogRepository logRepositoryMock(String message) {
+		Log log = new Log();
+		log.setLogMsg(message);
+		LogRepository logRepository = mock(LogRepository.class);
+		when(logRepository.findTestItemErrorLogs(ITEM_ID)).thenReturn(Collections.singletonList(log));
+		return logRepository;
+	}
+}
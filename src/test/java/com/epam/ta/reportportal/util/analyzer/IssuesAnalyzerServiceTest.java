@@ -0,0 +1,154 @@
+/*
+ * Copyright 2017 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/service-api
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.epam.ta.reportportal.util.analyzer;
+
+import com.epam.ta.reportportal.core.statistics.DeferredStatisticsUpdater;
+import com.epam.ta.reportportal.core.statistics.StatisticsCounters;
+import com.epam.ta.reportportal.database.dao.LaunchRepository;
+import com.epam.ta.reportportal.database.dao.ProjectRepository;
+import com.epam.ta.reportportal.database.dao.TestItemRepository;
+import com.epam.ta.reportportal.database.entity.Launch;
+import com.epam.ta.reportportal.database.entity.Project;
+import com.epam.ta.reportportal.database.entity.item.TestItem;
+import com.epam.ta.reportportal.database.entity.item.issue.TestItemIssue;
+import com.google.common.collect.ImmutableList;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class IssuesAnalyzerServiceTest {
+
+	private static final String LAUNCH = "launch";
+	private static final String PROJECT = "project";
+
+	private static final ErrorLogSignature SIGNATURE = ErrorLogSignature.of(
+			ImmutableList.of("java.lang.AssertionError: expected [true] but found [false] at com.example.LoginTest.login"));
+
+	private ExecutorService executor;
+
+	private ErrorLogSignatureCache signatureCache;
+
+	private TestItemRepository testItemRepository;
+
+	private DeferredStatisticsUpdater statisticsUpdater;
+
+	private IssuesAnalyzerService analyzer;
+
+	@Before
+	public void setUp() {
+		executor = Executors.newFixedThreadPool(4);
+		signatureCache = mock(ErrorLogSignatureCache.class);
+		testItemRepository = mock(TestItemRepository.class);
+		statisticsUpdater = mock(DeferredStatisticsUpdater.class);
+
+		Launch launch = new Launch();
+		launch.setId(LAUNCH);
+		launch.setProjectRef(PROJECT);
+		LaunchRepository launchRepository = mock(LaunchRepository.class);
+		when(launchRepository.findOne(LAUNCH)).thenReturn(launch);
+
+		Project project = new Project();
+		project.setConfiguration(new Project.Configuration());
+		ProjectRepository projectRepository = mock(ProjectRepository.class);
+		when(projectRepository.findOne(PROJECT)).thenReturn(project);
+
+		analyzer = new IssuesAnalyzerService();
+		ReflectionTestUtils.setField(analyzer, "projectRepository", projectRepository);
+		ReflectionTestUtils.setField(analyzer, "launchRepository", launchRepository);
+		ReflectionTestUtils.setField(analyzer, "testItemRepository", testItemRepository);
+		ReflectionTestUtils.setField(analyzer, "signatureCache", signatureCache);
+		ReflectionTestUtils.setField(analyzer, "statisticsUpdater", statisticsUpdater);
+		ReflectionTestUtils.setField(analyzer, "chunkExecutor", (TaskExecutor) executor::execute);
+		ReflectionTestUtils.setField(analyzer, "acceptRate", 0.95);
+		ReflectionTestUtils.setField(analyzer, "chunkSize", 1);
+	}
+
+	@After
+	public void tearDown() throws InterruptedException {
+		executor.shutdownNow();
+		executor.awaitTermination(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void analyzesChunksInParallel() {
+		when(signatureCache.get(any(String.class))).thenReturn(SIGNATURE);
+		List<TestItem> resources = ImmutableList.of(item("item1", "TI001"), item("item2", "TI001"), item("item3", "TI001"));
+
+		analyzer.analyze(LAUNCH, resources, ImmutableList.of(item("history", "PB001")));
+
+		resources.forEach(item -> Assert.assertEquals("PB001", item.getIssue().getIssueType()));
+		verify(testItemRepository, times(3)).save(anyList());
+		verify(statisticsUpdater, times(3)).record(any(TestItem.class), any(StatisticsCounters.class));
+		verify(statisticsUpdater).flush(LAUNCH);
+		Assert.assertTrue(analyzer.isPossible(LAUNCH));
+		Assert.assertNull(analyzer.getProcessIds().getIfPresent(LAUNCH));
+	}
+
+	@Test
+	public void failedChunkWaitsForOtherChunks() {
+		AtomicBoolean slowChunkFinished = new AtomicBoolean();
+		when(signatureCache.get("history")).thenReturn(SIGNATURE);
+		when(signatureCache.get("item1")).thenThrow(new IllegalStateException("Unable to load logs"));
+		when(signatureCache.get("item2")).thenAnswer(invocation -> {
+			Thread.sleep(300);
+			slowChunkFinished.set(true);
+			return SIGNATURE;
+		});
+
+		try {
+			analyzer.analyze(LAUNCH, ImmutableList.of(item("item1", "TI001"), item("item2", "TI001")),
+					ImmutableList.of(item("history", "PB001")));
+			Assert.fail("Failure of chunk is expected to be rethrown");
+		} catch (CompletionException e) {
+			Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+
+		Assert.assertTrue("Analysis finished before all chunks completed", slowChunkFinished.get());
+		verify(statisticsUpdater).record(any(TestItem.class), any(StatisticsCounters.class));
+		verify(statisticsUpdater).flush(LAUNCH);
+		Assert.assertNull(analyzer.getProcessIds().getIfPresent(LAUNCH));
+	}
+
+	private static TestItem item(String id, String issueType) {
+		TestItem item = new TestItem();
+		item.setId(id);
+		item.setLaunchRef(LAUNCH);
+		TestItemIssue issue = new TestItemIssue();
+		issue.setIssueType(issueType);
+		item.setIssue(issue);
+		return item;
+	}
+}
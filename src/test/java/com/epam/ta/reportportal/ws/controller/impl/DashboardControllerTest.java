@@ -80,6 +80,12 @@ public class DashboardControllerTest extends BaseMvcTest {
 				.andExpect(status().is(200));
 	}
 
+	@Test
+	public void getDashboardWidgetsPositive() throws Exception {
+		this.mvcMock.perform(get(PROJECT_BASE_URL + "/dashboard/520e1f3818127ca383464342/widgets").principal(authentication()))
+				.andExpect(status().is(200));
+	}
+
 	@Test
 	public void updateDashboardPositive() throws Exception {
 		final UpdateDashboardRQ rq = new UpdateDashboardRQ();